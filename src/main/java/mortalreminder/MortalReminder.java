@@ -1,11 +1,16 @@
 package mortalreminder;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.IntConsumer;
+
 import mortalreminder.backend.CommandAlternativesStorage;
 import mortalreminder.backend.Processor;
-import mortalreminder.backend.TaskListStorage;
-import mortalreminder.backend.tasklistmanager.TaskList;
+import mortalreminder.backend.tasklistmanager.TaskSummary;
+import mortalreminder.backend.tasklistmanager.WorkspaceManager;
 import mortalreminder.commands.Command;
 import mortalreminder.commands.CommandAlternatives;
+import mortalreminder.commands.CommandType;
 import mortalreminder.errorhandling.MortalReminderException;
 import mortalreminder.io.FormattedOutput;
 
@@ -16,18 +21,30 @@ public class MortalReminder {
 
     private final Processor processor = new Processor();
 
-    private TaskList taskList = new TaskList();
+    private final WorkspaceManager workspaceManager = new WorkspaceManager();
 
     private CommandAlternatives commandAlternatives;
 
     /**
-     * This method loads all tasks from storage and greets the user.
+     * This method loads the tasks of the active workspace from storage and greets the user.
+     * Other workspaces are only loaded once they are used.
      *
      * @return string of welcome message with initial greeting to the user.
      */
     public String welcome() {
+        return welcome(loadedCount -> {});
+    }
+
+    /**
+     * Loads the tasks of the active workspace from storage while reporting the progress, then greets the user.
+     * This is called off the UI thread so that the window can be shown before the tasks finish loading.
+     *
+     * @param progressListener called with the number of tasks loaded so far.
+     * @return string of welcome message with initial greeting to the user.
+     */
+    public String welcome(IntConsumer progressListener) {
         try {
-            this.taskList = TaskListStorage.loadTaskListFromFile();
+            workspaceManager.loadActiveTaskList(progressListener);
             this.commandAlternatives = CommandAlternativesStorage.loadCommandsFromFile();
         } catch (MortalReminderException e) {
             return e.getMessage();
@@ -43,9 +60,42 @@ public class MortalReminder {
      */
     public String executeCommand(Command command) {
         try {
-            return processor.handleCommand(command, taskList);
+            String response = processor.handleCommand(command, workspaceManager);
+            if (command.commandType() == CommandType.ADD_COMMAND_ALTERNATIVE
+                    || command.commandType() == CommandType.CLEAR_ALTERNATIVES) {
+                this.commandAlternatives = CommandAlternativesStorage.loadCommandsFromFile();
+            }
+            return response;
         } catch (MortalReminderException e) {
             return e.getMessage();
         }
     }
+
+    /**
+     * Returns the summary shown on the badge of the window, after moving the clock of the summary on.
+     *
+     * @return the number of open and overdue tasks of the active workspace, or null if it cannot be loaded.
+     */
+    public String getSummaryBadge() {
+        try {
+            TaskSummary summary = workspaceManager.getActiveTaskList().getSummary();
+            summary.tick(LocalDateTime.now());
+            return FormattedOutput.printSummaryBadge(summary);
+        } catch (MortalReminderException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the command words to suggest for the partially typed command word.
+     *
+     * @param prefix the command word typed so far.
+     * @return list of suggested command words, or an empty list if the commands have not been loaded.
+     */
+    public List<String> getCommandSuggestions(String prefix) {
+        if (commandAlternatives == null) {
+            return List.of();
+        }
+        return commandAlternatives.getSuggestions(prefix);
+    }
 }
@@ -13,10 +13,17 @@ import mortalreminder.io.FormattedOutput;
 
 /**
  * Handles all long term storage for command alternatives.
+ * <p>
+ * The alternatives file is read every time a command word is parsed, so the loaded alternatives are kept and
+ * only read again when the version of the file changes, whether this process or another process changed it.
+ * The file is locked with a {@link StorageLock} while it is read or written.
  */
 public class CommandAlternativesStorage {
     protected static final String STORAGE_ALTERNATIVE_COMMAND_PATH = "src/main/resources/data/alternativeCommands.txt";
 
+    private static CommandAlternatives cachedAlternatives;
+    private static StorageLock.Version cachedVersion;
+
     /**
      * Initialises the alternatives file on first start of the App.
      */
@@ -40,14 +47,14 @@ public class CommandAlternativesStorage {
      */
     public static void appendToAlternativeCommandFile(String commandAlternative, CommandType commandType)
             throws MortalReminderException {
-        try {
-            initialise();
-
+        initialise();
+        try (StorageLock lock = StorageLock.acquire(STORAGE_ALTERNATIVE_COMMAND_PATH, true)) {
             FileWriter fw = new FileWriter(STORAGE_ALTERNATIVE_COMMAND_PATH, true);
             String commandString = commandType.toString().toLowerCase();
             fw.write(commandAlternative + " " + commandString + System.lineSeparator());
 
             fw.close();
+            lock.recordWrite(false);
         } catch (IOException e) {
             throw new MortalReminderException("Corrupted storage file! Please refresh using refresh commands.");
         }
@@ -59,9 +66,14 @@ public class CommandAlternativesStorage {
      * @return Hashmap of all saved commands
      * @throws MortalReminderException if the file is corrupted and cannot be created
      */
-    public static CommandAlternatives loadCommandsFromFile() throws MortalReminderException {
-        try {
-            initialise();
+    public static synchronized CommandAlternatives loadCommandsFromFile() throws MortalReminderException {
+        initialise();
+        try (StorageLock lock = StorageLock.acquire(STORAGE_ALTERNATIVE_COMMAND_PATH, false)) {
+            StorageLock.Version version = lock.readVersion();
+            if (version.equals(cachedVersion)) {
+                return cachedAlternatives;
+            }
+
             File f = new File(STORAGE_ALTERNATIVE_COMMAND_PATH);
             Scanner s = new Scanner(f);
             HashMap<String, CommandType> stringCommandTypeHashMap = new HashMap<>();
@@ -76,7 +88,9 @@ public class CommandAlternativesStorage {
             }
 
             s.close();
-            return new CommandAlternatives(stringCommandTypeHashMap);
+            cachedAlternatives = new CommandAlternatives(stringCommandTypeHashMap);
+            cachedVersion = version;
+            return cachedAlternatives;
         } catch (RuntimeException | IOException e) {
             throw new MortalReminderException(MortalReminderException.getCorruptedAlternativeCommandFileErrorMessage());
         }
@@ -86,11 +100,12 @@ public class CommandAlternativesStorage {
      * Clears the storage file for all alternatives.
      */
     public static String clearAlternativesFile() throws MortalReminderException {
-        try {
-            initialise();
+        initialise();
+        try (StorageLock lock = StorageLock.acquire(STORAGE_ALTERNATIVE_COMMAND_PATH, true)) {
             FileWriter fw = new FileWriter(STORAGE_ALTERNATIVE_COMMAND_PATH);
             fw.write("");
             fw.close();
+            lock.recordWrite(true);
             return FormattedOutput.alternativesCleared();
         } catch (IOException e) {
             throw new MortalReminderException(MortalReminderException.getCorruptedAlternativeCommandFileErrorMessage());
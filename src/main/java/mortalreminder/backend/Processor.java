@@ -2,15 +2,18 @@ package mortalreminder.backend;
 
 import java.util.Arrays;
 
+import mortalreminder.backend.events.TaskEventBus;
+import mortalreminder.backend.tasklistmanager.TaskArchiver;
 import mortalreminder.backend.tasklistmanager.TaskCreator;
 import mortalreminder.backend.tasklistmanager.TaskEditor;
 import mortalreminder.backend.tasklistmanager.TaskList;
 import mortalreminder.backend.tasklistmanager.TaskRetriever;
+import mortalreminder.backend.tasklistmanager.TaskTransfer;
+import mortalreminder.backend.tasklistmanager.WorkspaceManager;
 import mortalreminder.commands.Command;
 import mortalreminder.commands.CommandAlternatives;
 import mortalreminder.commands.CommandType;
 import mortalreminder.errorhandling.MortalReminderException;
-import mortalreminder.io.FormattedOutput;
 
 // javadocs were generated using ChatGPT with minor edits.
 
@@ -24,26 +27,38 @@ import mortalreminder.io.FormattedOutput;
 public class Processor {
 
     /**
-     * Processes the given command and modifies the {@link TaskList} accordingly.
+     * Processes the given command and modifies the {@link TaskList} of the active workspace accordingly.
      * <p>
      * Depending on the command type, this method can print the task list, create a new task,
-     * mark or unmark a task as done, delete a task, clear all tasks, or list upcoming tasks.
+     * mark or unmark a task as done, delete a task, clear all tasks, list upcoming tasks or switch workspaces.
      *
-     * @param command  the {@link Command} to process.
-     * @param taskList the {@link TaskList} to modify based on the command.
+     * @param command          the {@link Command} to process.
+     * @param workspaceManager the {@link WorkspaceManager} holding the workspace to modify based on the command.
      * @return response string which is the output message of the entire command.
      * @throws MortalReminderException based on different input or command errors found in the given command.
      */
-    public String handleCommand(Command command, TaskList taskList) throws MortalReminderException {
+    public String handleCommand(Command command, WorkspaceManager workspaceManager) throws MortalReminderException {
         CommandType commandType = command.commandType();
 
+        // the standby has to be reachable even when the storage file of the active workspace cannot be loaded
+        if (commandType == CommandType.REPLICATION) {
+            return StorageReplication.getStatus();
+        } else if (commandType == CommandType.PROMOTE) {
+            return StorageReplication.promote();
+        }
+
+        // changes already made to the list that are not in its storage file yet must not be built upon
+        TaskEventBus.getInstance().checkFailure();
+
+        TaskList taskList = workspaceManager.getActiveTaskList();
+
         String commandDetails = Arrays.stream(command.commandDetails())
                 .reduce((accumulator, element) -> accumulator + " " + element)
                 .orElse("");
 
         switch (commandType) {
         case LIST:
-            return FormattedOutput.printList(taskList);
+            return TaskRetriever.listTasks(taskList, commandDetails);
 
         case FIND:
             return TaskRetriever.findTasks(taskList, commandDetails);
@@ -61,6 +76,8 @@ public class Processor {
         case DEADLINE:
             // Fallthrough
         case EVENT:
+            // Fallthrough
+        case RECURRING:
             return TaskCreator.createTask(commandDetails, taskList, commandType);
 
         case CLEAR_TASKS:
@@ -75,6 +92,45 @@ public class Processor {
         case CLEAR_ALTERNATIVES:
             return CommandAlternativesStorage.clearAlternativesFile();
 
+        case WORKSPACE:
+            return workspaceManager.switchWorkspace(commandDetails);
+
+        case FIND_ALL:
+            return TaskRetriever.findTasksInAllWorkspaces(workspaceManager, commandDetails);
+
+        case UPCOMING_ALL:
+            return TaskRetriever.getUpcomingTasksInAllWorkspaces(workspaceManager);
+
+        case ARCHIVE:
+            return TaskArchiver.executeArchiveCommand(commandDetails, taskList);
+
+        case EXPORT:
+            return TaskTransfer.executeExport(commandDetails, taskList);
+
+        case IMPORT:
+            return TaskTransfer.executeImport(commandDetails, taskList);
+
+        case FILTER:
+            return TaskRetriever.filterTasks(taskList, commandDetails);
+
+        case PRIORITY:
+            return TaskEditor.executeSetPriority(commandDetails, taskList);
+
+        case NEXT:
+            return TaskRetriever.getNextTasks(taskList, commandDetails);
+
+        case EXPLAIN:
+            return TaskRetriever.explainQuery(taskList, commandDetails);
+
+        case HISTORY:
+            return TaskRetriever.getTaskHistory(taskList, commandDetails);
+
+        case SUMMARY:
+            return TaskRetriever.getSummary(taskList);
+
+        case AGENDA:
+            return TaskRetriever.getAgenda(taskList, commandDetails);
+
         default:
             return feedbackUnrecognisedCommand();
         }
@@ -0,0 +1,292 @@
+package mortalreminder.backend;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * The standby copy of the storage files, kept in a standby directory that is usually on another disk.
+ * <p>
+ * {@link StorageReplication} ships every write of a storage file to the standby directory as a record file in
+ * the record directory of that storage file, named after the generation the write left the file at. A record
+ * either appends lines or replaces the whole file, and is complete as soon as it appears, because it is
+ * written under a temporary name first. Catching up applies the records in order to the copy of the storage
+ * file and then deletes them, so the copy is always a storage file that can be used as it is, and the only
+ * work left when it is promoted is the few records that were not applied yet.
+ * <p>
+ * The standby keeps, for each copy, the generation of the last record it applied. An append is only applied
+ * on top of the generation it was made at, so a write that was never shipped, such as one made while the
+ * standby disk was unavailable, leaves the copy out of sync until a record replacing the whole file arrives.
+ * <p>
+ * Catching up can be left to a separate standby process, started with
+ * {@code java -cp [jar file] mortalreminder.backend.StandbyReplica [standby directory]}, which catches up
+ * every {@code CATCH_UP_INTERVAL_MILLIS}. Without one, the records wait until the standby is promoted.
+ */
+public final class StandbyReplica {
+    static final String RECORD_DIRECTORY_SUFFIX = ".wal";
+    private static final String RECORD_FILE_SUFFIX = ".rec";
+    private static final String STATE_FILE_SUFFIX = ".state";
+    private static final String TEMPORARY_FILE_SUFFIX = ".tmp";
+    private static final String APPEND = "APPEND";
+    private static final String REWRITE = "REWRITE";
+    private static final long CATCH_UP_INTERVAL_MILLIS = 500;
+
+    private StandbyReplica() {
+    }
+
+    /**
+     * A write of a storage file, which took the file from one generation to the next.
+     */
+    record LogRecord(long fromGeneration, long toGeneration, boolean isRewrite, long shippedAtMillis,
+            List<String> lines) {
+    }
+
+    /**
+     * What the standby has applied to the copy of a storage file. The generation is -1 before anything has been
+     * applied.
+     */
+    record ReplicaState(long generation, long shippedAtMillis, boolean isInSync) {
+        private static final ReplicaState EMPTY = new ReplicaState(-1, 0, false);
+    }
+
+    /**
+     * Catches up every copy in the standby directory until the process is stopped.
+     *
+     * @param args the standby directory.
+     * @throws InterruptedException if the process is interrupted while waiting.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length != 1) {
+            System.out.println("Usage: StandbyReplica [standby directory]");
+            return;
+        }
+        Path standbyDirectory = Path.of(args[0]);
+        System.out.println("Keeping the standby in " + standbyDirectory.toAbsolutePath() + " up to date");
+        while (true) {
+            try {
+                for (String name : getReplicaNames(standbyDirectory)) {
+                    int appliedCount = catchUp(standbyDirectory, name);
+                    if (appliedCount > 0) {
+                        ReplicaState state = readState(standbyDirectory, name);
+                        System.out.println("Applied " + appliedCount + " write(s) to " + name + ", now at generation "
+                                + state.generation() + (state.isInSync() ? "" : ", out of sync"));
+                    }
+                }
+            } catch (IOException | UncheckedIOException e) {
+                System.out.println("Could not catch up: " + e.getMessage());
+            }
+            Thread.sleep(CATCH_UP_INTERVAL_MILLIS);
+        }
+    }
+
+    /**
+     * Returns the names of the storage files that have a copy or records in the standby directory, relative to
+     * the standby directory.
+     */
+    static List<String> getReplicaNames(Path standbyDirectory) throws IOException {
+        if (!Files.isDirectory(standbyDirectory)) {
+            return List.of();
+        }
+        try (Stream<Path> paths = Files.walk(standbyDirectory)) {
+            return paths.filter(path -> Files.isDirectory(path)
+                            && path.getFileName().toString().endsWith(RECORD_DIRECTORY_SUFFIX))
+                    .map(path -> {
+                        String name = standbyDirectory.relativize(path).toString().replace('\\', '/');
+                        return name.substring(0, name.length() - RECORD_DIRECTORY_SUFFIX.length());
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    /**
+     * Writes a record to the record directory of a storage file. A record that replaces the whole file makes
+     * every earlier record unnecessary, so those are deleted.
+     */
+    static void ship(Path standbyDirectory, String name, LogRecord record) throws IOException {
+        Path recordDirectory = getRecordDirectory(standbyDirectory, name);
+        Files.createDirectories(recordDirectory);
+        StringBuilder content = new StringBuilder(64 + record.lines().size() * 48)
+                .append(record.fromGeneration()).append(' ')
+                .append(record.toGeneration()).append(' ')
+                .append(record.isRewrite() ? REWRITE : APPEND).append(' ')
+                .append(record.shippedAtMillis()).append('\n');
+        for (String line : record.lines()) {
+            content.append(line).append('\n');
+        }
+
+        Path recordFile = recordDirectory.resolve(String.format("%019d", record.toGeneration()) + RECORD_FILE_SUFFIX);
+        writeDurably(recordFile, content.toString());
+        if (record.isRewrite()) {
+            for (Path olderRecord : listRecordFiles(recordDirectory)) {
+                if (olderRecord.compareTo(recordFile) < 0) {
+                    Files.deleteIfExists(olderRecord);
+                }
+            }
+        }
+    }
+
+    /**
+     * Applies the records of a storage file that are waiting in the standby directory to its copy.
+     *
+     * @return the number of records applied.
+     * @throws IOException if the standby directory cannot be read or written.
+     */
+    @SuppressWarnings("try")
+    static int catchUp(Path standbyDirectory, String name) throws IOException {
+        Path replicaFile = getReplicaFile(standbyDirectory, name);
+        Files.createDirectories(replicaFile.getParent());
+        try (StorageLock lock = StorageLock.acquire(replicaFile.toString(), true)) {
+            ReplicaState state = readState(standbyDirectory, name);
+            int appliedCount = 0;
+            for (Path recordFile : listRecordFiles(getRecordDirectory(standbyDirectory, name))) {
+                LogRecord record;
+                try {
+                    record = readRecord(recordFile);
+                } catch (NoSuchFileException e) {
+                    // deleted by a record replacing the whole file that was shipped in the meantime
+                    continue;
+                }
+                if (record.isRewrite()) {
+                    writeLines(replicaFile, record.lines());
+                    state = new ReplicaState(record.toGeneration(), record.shippedAtMillis(), true);
+                    appliedCount++;
+                } else if (record.fromGeneration() == state.generation()) {
+                    Files.write(replicaFile, record.lines(), Charset.defaultCharset(), StandardOpenOption.CREATE,
+                            StandardOpenOption.APPEND);
+                    state = new ReplicaState(record.toGeneration(), record.shippedAtMillis(), state.isInSync());
+                    appliedCount++;
+                } else {
+                    state = new ReplicaState(state.generation(), state.shippedAtMillis(), false);
+                }
+                Files.deleteIfExists(recordFile);
+            }
+            if (appliedCount > 0 || !Files.exists(getStateFile(standbyDirectory, name))) {
+                writeState(standbyDirectory, name, state);
+            }
+            return appliedCount;
+        }
+    }
+
+    /**
+     * Returns the records of a storage file that are waiting to be applied, oldest first.
+     */
+    static List<LogRecord> readPendingRecords(Path standbyDirectory, String name) throws IOException {
+        ArrayList<LogRecord> records = new ArrayList<>();
+        for (Path recordFile : listRecordFiles(getRecordDirectory(standbyDirectory, name))) {
+            try {
+                records.add(readRecord(recordFile));
+            } catch (NoSuchFileException e) {
+                // applied or replaced while the records were being listed
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Returns the generation a copy will be at once the pending records are applied, or -1 if it will still be
+     * out of sync then.
+     */
+    static long getShippedGeneration(ReplicaState state, List<LogRecord> pendingRecords) {
+        long generation = state.isInSync() ? state.generation() : -1;
+        for (LogRecord record : pendingRecords) {
+            generation = record.isRewrite() || record.fromGeneration() == generation ? record.toGeneration() : -1;
+        }
+        return generation;
+    }
+
+    static ReplicaState readState(Path standbyDirectory, String name) throws IOException {
+        Path stateFile = getStateFile(standbyDirectory, name);
+        if (!Files.exists(stateFile)) {
+            return ReplicaState.EMPTY;
+        }
+        String[] fields = Files.readString(stateFile).trim().split(" ");
+        try {
+            return new ReplicaState(Long.parseLong(fields[0]), Long.parseLong(fields[1]),
+                    Boolean.parseBoolean(fields[2]));
+        } catch (RuntimeException e) {
+            // a copy whose state is unknown can only be trusted again after the whole file has been shipped
+            return ReplicaState.EMPTY;
+        }
+    }
+
+    static List<String> readReplicaLines(Path standbyDirectory, String name) throws IOException {
+        return Files.readAllLines(getReplicaFile(standbyDirectory, name), Charset.defaultCharset());
+    }
+
+    static Path getReplicaFile(Path standbyDirectory, String name) {
+        return standbyDirectory.resolve(name);
+    }
+
+    private static Path getRecordDirectory(Path standbyDirectory, String name) {
+        return standbyDirectory.resolve(name + RECORD_DIRECTORY_SUFFIX);
+    }
+
+    private static Path getStateFile(Path standbyDirectory, String name) {
+        return standbyDirectory.resolve(name + STATE_FILE_SUFFIX);
+    }
+
+    private static List<Path> listRecordFiles(Path recordDirectory) throws IOException {
+        if (!Files.isDirectory(recordDirectory)) {
+            return List.of();
+        }
+        try (Stream<Path> paths = Files.list(recordDirectory)) {
+            // the names are zero padded generations, so sorting them by name sorts them by generation
+            return paths.filter(path -> path.getFileName().toString().endsWith(RECORD_FILE_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static LogRecord readRecord(Path recordFile) throws IOException {
+        List<String> lines = Files.readAllLines(recordFile, Charset.defaultCharset());
+        String[] header = lines.get(0).split(" ");
+        return new LogRecord(Long.parseLong(header[0]), Long.parseLong(header[1]), header[2].equals(REWRITE),
+                Long.parseLong(header[3]), lines.subList(1, lines.size()));
+    }
+
+    private static void writeState(Path standbyDirectory, String name, ReplicaState state) throws IOException {
+        writeDurably(getStateFile(standbyDirectory, name),
+                state.generation() + " " + state.shippedAtMillis() + " " + state.isInSync() + "\n");
+    }
+
+    private static void writeLines(Path file, List<String> lines) throws IOException {
+        StringBuilder content = new StringBuilder(lines.size() * 48);
+        for (String line : lines) {
+            content.append(line).append(System.lineSeparator());
+        }
+        writeDurably(file, content.toString());
+    }
+
+    /**
+     * Writes a file under a temporary name, forces it to the disk and only then gives it its name, so the
+     * file is either missing or complete even if the process or the machine stops halfway.
+     */
+    private static void writeDurably(Path file, String content) throws IOException {
+        Path temporaryFile = file.resolveSibling(file.getFileName() + TEMPORARY_FILE_SUFFIX);
+        try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer bytes = Charset.defaultCharset().encode(content);
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            channel.force(true);
+        }
+        try {
+            Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
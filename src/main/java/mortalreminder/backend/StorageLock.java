@@ -0,0 +1,134 @@
+package mortalreminder.backend;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A lock on a storage file that is shared by every process of the app using that file.
+ * <p>
+ * The lock is taken with {@link FileChannel#lock(long, long, boolean)} on a sidecar file next to the storage
+ * file, so that the storage file itself can still be truncated and rewritten while it is locked. Writers take
+ * the lock exclusively and readers take it shared. A file lock belongs to the whole process rather than to a
+ * thread, so threads of the same process are also kept apart by an in-process lock on the same path.
+ * <p>
+ * The sidecar file holds two counters that every writer bumps while it holds the lock. The generation counts
+ * every write and the rewrite generation counts the writes that changed lines already in the file, so a
+ * reader can tell whether it has to reload the file or only has to read what was appended since.
+ * <p>
+ * A caller that only needs the lock held while the body of a try-with-resources runs never refers to the
+ * resource in the body, so it suppresses the {@code try} lint warning about that.
+ */
+final class StorageLock implements AutoCloseable {
+    private static final String LOCK_FILE_SUFFIX = ".lock";
+    private static final int COUNTERS_SIZE = 2 * Long.BYTES;
+    private static final ConcurrentHashMap<Path, ReentrantLock> PROCESS_LOCKS = new ConcurrentHashMap<>();
+
+    private final Path storageFile;
+    private final ReentrantLock processLock;
+    private final FileChannel channel;
+    private final FileLock fileLock;
+
+    /**
+     * The state of a storage file as seen by a process at some point in time.
+     * The length and modification time also catch edits made by hand, which do not bump the counters.
+     */
+    record Version(long generation, long rewriteGeneration, long length, long lastModified) {
+        /**
+         * Returns whether this version only differs from an earlier version by lines appended to the file,
+         * in which case the new lines start at the length of the earlier version.
+         */
+        boolean isAppendOf(Version earlier) {
+            return generation > earlier.generation && rewriteGeneration == earlier.rewriteGeneration
+                    && length >= earlier.length;
+        }
+    }
+
+    private StorageLock(Path storageFile, ReentrantLock processLock, FileChannel channel, FileLock fileLock) {
+        this.storageFile = storageFile;
+        this.processLock = processLock;
+        this.channel = channel;
+        this.fileLock = fileLock;
+    }
+
+    /**
+     * Blocks until the lock of the storage file is free and takes it.
+     *
+     * @param filePath    the path of the storage file to lock.
+     * @param isExclusive true to lock the file for writing, false to lock it for reading.
+     * @return the lock, which has to be closed to release it.
+     * @throws IOException if the sidecar file cannot be created or locked.
+     */
+    static StorageLock acquire(String filePath, boolean isExclusive) throws IOException {
+        Path storageFile = Path.of(filePath).toAbsolutePath().normalize();
+        ReentrantLock processLock = PROCESS_LOCKS.computeIfAbsent(storageFile, path -> new ReentrantLock());
+        processLock.lock();
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(Path.of(storageFile + LOCK_FILE_SUFFIX),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            FileLock fileLock = channel.lock(0, Long.MAX_VALUE, !isExclusive);
+            return new StorageLock(storageFile, processLock, channel, fileLock);
+        } catch (IOException | RuntimeException e) {
+            if (channel != null) {
+                channel.close();
+            }
+            processLock.unlock();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the current version of the storage file.
+     *
+     * @return the counters of the file together with its length and modification time.
+     * @throws IOException if the sidecar file or the storage file cannot be read.
+     */
+    Version readVersion() throws IOException {
+        ByteBuffer counters = ByteBuffer.allocate(COUNTERS_SIZE);
+        int bytesRead = 0;
+        while (counters.hasRemaining() && bytesRead >= 0) {
+            bytesRead = channel.read(counters, counters.position());
+        }
+        boolean hasCounters = !counters.hasRemaining();
+        long length = Files.exists(storageFile) ? Files.size(storageFile) : 0;
+        long lastModified = Files.exists(storageFile) ? Files.getLastModifiedTime(storageFile).toMillis() : 0;
+        return new Version(hasCounters ? counters.getLong(0) : 0, hasCounters ? counters.getLong(Long.BYTES) : 0,
+                length, lastModified);
+    }
+
+    /**
+     * Bumps the counters after the storage file has been written. The lock must be held exclusively.
+     *
+     * @param isRewrite whether the write changed lines that were already in the file.
+     * @return the version of the storage file after the write.
+     * @throws IOException if the sidecar file cannot be written.
+     */
+    Version recordWrite(boolean isRewrite) throws IOException {
+        Version version = readVersion();
+        ByteBuffer counters = ByteBuffer.allocate(COUNTERS_SIZE)
+                .putLong(version.generation() + 1)
+                .putLong(version.rewriteGeneration() + (isRewrite ? 1 : 0))
+                .flip();
+        while (counters.hasRemaining()) {
+            channel.write(counters, counters.position());
+        }
+        return readVersion();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            fileLock.release();
+            channel.close();
+        } finally {
+            processLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package mortalreminder.backend;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import mortalreminder.backend.events.TaskEventBus;
+import mortalreminder.backend.tasklistmanager.TaskList;
+import mortalreminder.errorhandling.MortalReminderException;
+import mortalreminder.io.FormattedOutput;
+import mortalreminder.tasks.Task;
+
+/**
+ * Ships every write of the storage files to a {@link StandbyReplica} and promotes the standby when the
+ * storage files are lost or corrupted.
+ * <p>
+ * Replication is turned on with {@code -Dmortalreminder.standby=[directory]}, which names the standby
+ * directory, ideally on another disk. Every write is shipped while the lock of its storage file is still held,
+ * so the records reach the standby in the order of the writes. A write that cannot be shipped does not fail,
+ * since the storage file itself was written, but it leaves the standby out of sync until the storage file is
+ * next loaded, at which point a standby that is behind gets a copy of the whole file.
+ * <p>
+ * Each storage file is copied to the standby under its path relative to the data directory, so promoting
+ * the standby writes every copy back to where it came from, without loading or rebuilding anything else.
+ */
+public final class StorageReplication {
+    private static final String STANDBY_PROPERTY = "mortalreminder.standby";
+    private static final Path DATA_DIRECTORY =
+            Path.of(TaskListStorage.STORAGE_LIST_FILE_PATH).toAbsolutePath().normalize().getParent();
+
+    // the reason the last write could not be shipped, shown by the replication status until a write succeeds
+    private static volatile String lastShipError;
+
+    private StorageReplication() {
+    }
+
+    /**
+     * How far the copy of a storage file on the standby is behind the storage file.
+     *
+     * @param name              the path of the storage file relative to the data directory.
+     * @param primaryGeneration the generation of the storage file, -1 if it does not exist any more.
+     * @param appliedGeneration the generation the copy is at, -1 if nothing has been applied yet.
+     * @param pendingWrites     the number of writes shipped but not applied yet.
+     * @param lagMillis         how long ago the oldest write that was not applied yet was shipped.
+     * @param isInSync          false if the copy missed a write and will wait for a copy of the whole file even
+     *                          after the pending writes are applied.
+     */
+    public record ReplicaStatus(String name, long primaryGeneration, long appliedGeneration, int pendingWrites,
+            long lagMillis, boolean isInSync) {
+        /**
+         * Returns whether the standby has writes that the storage file does not have, as happens when the
+         * storage file is lost together with its lock file.
+         */
+        public boolean isAheadOfPrimary() {
+            return appliedGeneration > primaryGeneration && pendingWrites == 0;
+        }
+    }
+
+    /**
+     * A storage file that was restored from the standby.
+     *
+     * @param name      the path of the storage file relative to the data directory.
+     * @param taskCount the number of tasks restored.
+     * @param isInSync  false if the copy had missed writes, so recent changes may be missing.
+     */
+    public record PromotedReplica(String name, int taskCount, boolean isInSync) {
+    }
+
+    public static boolean isEnabled() {
+        return System.getProperty(STANDBY_PROPERTY) != null;
+    }
+
+    private static Path getStandbyDirectory() throws MortalReminderException {
+        if (!isEnabled()) {
+            throw new MortalReminderException(MortalReminderException.getReplicationDisabledErrorMessage());
+        }
+        return Path.of(System.getProperty(STANDBY_PROPERTY));
+    }
+
+    /**
+     * Ships a write of a storage file to the standby. Must be called while the lock of the storage file is held.
+     *
+     * @param filePath  the path of the storage file.
+     * @param before    the version of the storage file before the write.
+     * @param after     the version of the storage file after the write.
+     * @param isRewrite true if the lines replace the whole file, false if they were appended.
+     * @param lines     the lines written.
+     */
+    static void ship(String filePath, StorageLock.Version before, StorageLock.Version after, boolean isRewrite,
+            List<String> lines) {
+        if (!isEnabled()) {
+            return;
+        }
+        try {
+            StandbyReplica.ship(Path.of(System.getProperty(STANDBY_PROPERTY)), getReplicaName(filePath),
+                    new StandbyReplica.LogRecord(before.generation(), after.generation(), isRewrite,
+                            System.currentTimeMillis(), List.copyOf(lines)));
+            lastShipError = null;
+        } catch (IOException | RuntimeException e) {
+            lastShipError = e.toString();
+        }
+    }
+
+    /**
+     * Ships a copy of a freshly loaded storage file if the standby is behind it, which happens when replication
+     * is first turned on or when writes could not be shipped. Must be called while the lock of the storage file
+     * is held. A standby that is ahead of the storage file is left alone, so that it can still be promoted.
+     *
+     * @param taskList the task list loaded from the storage file.
+     * @param version  the version of the storage file the task list was loaded at.
+     */
+    static void shipIfBehind(TaskList taskList, StorageLock.Version version) {
+        if (!isEnabled()) {
+            return;
+        }
+        try {
+            Path standbyDirectory = Path.of(System.getProperty(STANDBY_PROPERTY));
+            String name = getReplicaName(taskList.getStorageFilePath());
+            StandbyReplica.ReplicaState state = StandbyReplica.readState(standbyDirectory, name);
+            long shippedGeneration = StandbyReplica.getShippedGeneration(state,
+                    StandbyReplica.readPendingRecords(standbyDirectory, name));
+            if (shippedGeneration >= version.generation() || state.generation() > version.generation()) {
+                return;
+            }
+
+            ArrayList<String> lines = new ArrayList<>(taskList.getSize());
+            for (Task task : taskList.getTaskList()) {
+                lines.add(task.convertToFileFormat());
+            }
+            StandbyReplica.ship(standbyDirectory, name, new StandbyReplica.LogRecord(version.generation(),
+                    version.generation(), true, System.currentTimeMillis(), lines));
+            lastShipError = null;
+        } catch (IOException | RuntimeException e) {
+            lastShipError = e.toString();
+        }
+    }
+
+    /**
+     * Returns how far the standby is behind each storage file it has a copy of.
+     *
+     * @return the replication status, listing the standby directory and the lag of each copy.
+     * @throws MortalReminderException if replication is off or the standby directory cannot be read.
+     */
+    public static String getStatus() throws MortalReminderException {
+        Path standbyDirectory = getStandbyDirectory();
+        TaskEventBus.getInstance().flush();
+        try {
+            ArrayList<ReplicaStatus> statuses = new ArrayList<>();
+            long now = System.currentTimeMillis();
+            for (String name : StandbyReplica.getReplicaNames(standbyDirectory)) {
+                StandbyReplica.ReplicaState state = StandbyReplica.readState(standbyDirectory, name);
+                List<StandbyReplica.LogRecord> pendingRecords =
+                        StandbyReplica.readPendingRecords(standbyDirectory, name);
+                long lagMillis = pendingRecords.isEmpty() ? 0 : now - pendingRecords.get(0).shippedAtMillis();
+                boolean isInSync = StandbyReplica.getShippedGeneration(state, pendingRecords) >= 0;
+                statuses.add(new ReplicaStatus(name, readPrimaryGeneration(DATA_DIRECTORY.resolve(name)),
+                        state.generation(), pendingRecords.size(), lagMillis, isInSync));
+            }
+            return FormattedOutput.printReplicationStatus(standbyDirectory.toAbsolutePath().toString(), statuses,
+                    lastShipError);
+        } catch (IOException e) {
+            throw new MortalReminderException(MortalReminderException.getStandbyCannotBeAccessedErrorMessage());
+        }
+    }
+
+    /**
+     * Restores every storage file from the standby, after applying the writes the standby has not applied yet.
+     *
+     * @return the confirmation listing the restored files.
+     * @throws MortalReminderException if replication is off, the standby is empty or cannot be read, or a
+     *                                 storage file cannot be written.
+     */
+    public static String promote() throws MortalReminderException {
+        TaskEventBus.getInstance().flush();
+        List<PromotedReplica> promotedReplicas = promote(getStandbyDirectory(), DATA_DIRECTORY);
+        if (promotedReplicas.isEmpty()) {
+            throw new MortalReminderException(MortalReminderException.getNothingToPromoteErrorMessage());
+        }
+        return FormattedOutput.printPromoted(promotedReplicas);
+    }
+
+    static List<PromotedReplica> promote(Path standbyDirectory, Path dataDirectory) throws MortalReminderException {
+        ArrayList<PromotedReplica> promotedReplicas = new ArrayList<>();
+        try {
+            for (String name : StandbyReplica.getReplicaNames(standbyDirectory)) {
+                StandbyReplica.catchUp(standbyDirectory, name);
+                if (!Files.exists(StandbyReplica.getReplicaFile(standbyDirectory, name))) {
+                    continue;
+                }
+                List<String> lines = StandbyReplica.readReplicaLines(standbyDirectory, name);
+                TaskListStorage.restoreLines(dataDirectory.resolve(name).toString(), lines);
+                promotedReplicas.add(new PromotedReplica(name, lines.size(),
+                        StandbyReplica.readState(standbyDirectory, name).isInSync()));
+            }
+        } catch (IOException e) {
+            throw new MortalReminderException(MortalReminderException.getStandbyCannotBeAccessedErrorMessage());
+        }
+        return promotedReplicas;
+    }
+
+    /**
+     * Returns the path of a storage file relative to the data directory, or only its name if it is elsewhere.
+     */
+    private static String getReplicaName(String filePath) {
+        Path path = Path.of(filePath).toAbsolutePath().normalize();
+        Path name = path.startsWith(DATA_DIRECTORY) ? DATA_DIRECTORY.relativize(path) : path.getFileName();
+        return name.toString().replace('\\', '/');
+    }
+
+    private static long readPrimaryGeneration(Path storageFile) throws IOException {
+        if (!Files.exists(storageFile)) {
+            return -1;
+        }
+        try (StorageLock lock = StorageLock.acquire(storageFile.toString(), false)) {
+            return lock.readVersion().generation();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package mortalreminder.backend;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import mortalreminder.errorhandling.MortalReminderException;
+import mortalreminder.io.Parser;
+import mortalreminder.tasks.Task;
+
+/**
+ * Handles the cold storage of archived tasks.
+ * <p>
+ * The archive of a workspace is an append-only file that sits next to its storage file. Every archive
+ * operation appends one block which holds the number of records, the length of the compressed data and
+ * the records themselves in storage file format, compressed together. Blocks are never rewritten, and
+ * searching the archive decompresses one block at a time so only a single block is ever held in memory.
+ * Other processes of the app may archive into the same file, so blocks are appended and read under the
+ * {@link StorageLock} of the archive file, and a search never sees half of a block.
+ */
+public class TaskArchiveStorage {
+    private static final String ARCHIVE_FILE_EXTENSION = ".archive";
+
+    /**
+     * Returns the path of the archive file belonging to the given storage file.
+     *
+     * @param storageFilePath the path of the storage file of the workspace.
+     * @return the path of the archive file of the workspace.
+     */
+    public static String getArchiveFilePath(String storageFilePath) {
+        String basePath = storageFilePath.endsWith(".txt")
+                ? storageFilePath.substring(0, storageFilePath.length() - ".txt".length())
+                : storageFilePath;
+        return basePath + ARCHIVE_FILE_EXTENSION;
+    }
+
+    /**
+     * Compresses the given tasks into a single block and appends it to the archive file.
+     *
+     * @param tasks           the tasks to be archived.
+     * @param archiveFilePath the path of the archive file.
+     * @throws MortalReminderException if the archive file cannot be written to.
+     */
+    @SuppressWarnings("try")
+    public static void appendBlock(List<Task> tasks, String archiveFilePath) throws MortalReminderException {
+        StringBuilder records = new StringBuilder();
+        for (Task task : tasks) {
+            records.append(task.convertToFileFormat()).append("\n");
+        }
+        byte[] compressed = compress(records.toString().getBytes(StandardCharsets.UTF_8));
+
+        File f = new File(archiveFilePath);
+        f.getParentFile().mkdirs();
+        try (StorageLock lock = StorageLock.acquire(archiveFilePath, true);
+                DataOutputStream out = new DataOutputStream(
+                        new BufferedOutputStream(new FileOutputStream(f, true)))) {
+            out.writeInt(tasks.size());
+            out.writeInt(compressed.length);
+            out.write(compressed);
+        } catch (IOException e) {
+            throw new MortalReminderException(MortalReminderException.getFileCannotBeCreatedErrorMessage());
+        }
+    }
+
+    /**
+     * Streams through the archive file block by block and returns the archived tasks matching the filter.
+     *
+     * @param archiveFilePath the path of the archive file.
+     * @param filter          the condition an archived task has to fulfil to be returned.
+     * @return list of matching archived tasks, oldest first.
+     * @throws MortalReminderException if the archive file is corrupted.
+     */
+    @SuppressWarnings("try")
+    public static ArrayList<Task> searchArchive(String archiveFilePath, Predicate<Task> filter)
+            throws MortalReminderException {
+        ArrayList<Task> matchingTasks = new ArrayList<>();
+        File f = new File(archiveFilePath);
+        if (!f.exists()) {
+            return matchingTasks;
+        }
+
+        try (StorageLock lock = StorageLock.acquire(archiveFilePath, false);
+                DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(f)))) {
+            while (true) {
+                int recordCount;
+                try {
+                    recordCount = in.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+                byte[] compressed = new byte[in.readInt()];
+                in.readFully(compressed);
+
+                String[] records = new String(decompress(compressed), StandardCharsets.UTF_8).split("\n");
+                assert records.length == recordCount;
+                for (String record : records) {
+                    Task task = Parser.parseInputFromFile(record);
+                    if (filter.test(task)) {
+                        matchingTasks.add(task);
+                    }
+                }
+            }
+        } catch (IOException | DataFormatException | RuntimeException e) {
+            throw new MortalReminderException(MortalReminderException.getArchiveFileCorruptedErrorMessage());
+        }
+        return matchingTasks;
+    }
+
+    private static byte[] compress(byte[] data) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        deflater.setInput(data);
+        deflater.finish();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 2 + 16);
+        byte[] buffer = new byte[4096];
+        while (!deflater.finished()) {
+            out.write(buffer, 0, deflater.deflate(buffer));
+        }
+        deflater.end();
+        return out.toByteArray();
+    }
+
+    private static byte[] decompress(byte[] data) throws DataFormatException {
+        Inflater inflater = new Inflater();
+        inflater.setInput(data);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 4);
+        byte[] buffer = new byte[4096];
+        while (!inflater.finished()) {
+            int length = inflater.inflate(buffer);
+            if (length == 0 && inflater.needsInput()) {
+                throw new DataFormatException("Truncated archive block");
+            }
+            out.write(buffer, 0, length);
+        }
+        inflater.end();
+        return out.toByteArray();
+    }
+}
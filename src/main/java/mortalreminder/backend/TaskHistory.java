@@ -0,0 +1,565 @@
+package mortalreminder.backend;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import mortalreminder.backend.events.TaskEvent;
+import mortalreminder.backend.events.TaskEventBus;
+import mortalreminder.backend.events.TaskEventSubscriber;
+import mortalreminder.backend.tasklistmanager.TaskList;
+import mortalreminder.errorhandling.MortalReminderException;
+import mortalreminder.tasks.Task;
+import mortalreminder.tasks.TimedTask;
+
+/**
+ * Keeps the history of every change to the tasks of each storage file, so that the list can be shown as it
+ * was at any time since and the versions of a task can be listed.
+ * <p>
+ * The history of a storage file is a log of changes next to it, {@code <storage file>.history}, which is only
+ * ever appended to. Every task gets an id when it first appears, and each change records the id, the line of
+ * the task after the change and the position of the previous change of the same task, so the versions of a
+ * task are found by following its changes back, whatever else happened in between.
+ * <p>
+ * Every {@code MIN_CHECKPOINT_INTERVAL} changes, or every quarter of the size of the list if that is more,
+ * the whole list is written as a checkpoint to {@code <storage file>.checkpoints}, and its time and position
+ * are added to a fixed size index, {@code <storage file>.checkpoints.idx}. Showing the list as it was at some
+ * time finds the last checkpoint before that time with a binary search of the index and replays at most the
+ * changes up to the next checkpoint, so the cost does not grow with the length of the history.
+ * <p>
+ * History starts when a storage file is loaded. When the file does not match the history, because it is new or
+ * was changed by another process or by hand, the tasks that are new to the history are recorded as they are
+ * and a checkpoint is written. The history is kept unless the app is started with
+ * {@code -Dmortalreminder.history=false}.
+ */
+public class TaskHistory implements TaskEventSubscriber {
+    static final int MIN_CHECKPOINT_INTERVAL = 256;
+
+    private static final String ENABLED_PROPERTY = "mortalreminder.history";
+    private static final String HISTORY_FILE_SUFFIX = ".history";
+    private static final String CHECKPOINT_FILE_SUFFIX = ".checkpoints";
+    private static final String CHECKPOINT_INDEX_FILE_SUFFIX = ".checkpoints.idx";
+    // the time of a checkpoint, its position in the checkpoint file and the position in the history it covers
+    private static final int CHECKPOINT_INDEX_ENTRY_SIZE = 3 * Long.BYTES;
+    private static final TaskHistory INSTANCE = new TaskHistory();
+
+    // the current state of the history of every storage file loaded by this process
+    private final HashMap<String, FileHistory> histories = new HashMap<>();
+
+    /**
+     * The kinds of change recorded in the history.
+     */
+    public enum Change {
+        BASELINE('B', "already on the list"),
+        ADDED('A', "added"),
+        UPDATED('U', "changed"),
+        REMOVED('R', "deleted"),
+        CLEARED('C', "cleared");
+
+        private final char code;
+        private final String displayName;
+
+        Change(char code, String displayName) {
+            this.code = code;
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return this.displayName;
+        }
+
+        private static Change fromCode(char code) {
+            for (Change change : values()) {
+                if (change.code == code) {
+                    return change;
+                }
+            }
+            throw new IllegalArgumentException("Unknown change " + code);
+        }
+    }
+
+    /**
+     * A version of a task, as it was after a change.
+     */
+    public record TaskVersion(LocalDateTime time, Change change, String fileLine) {
+    }
+
+    /**
+     * The list as it was at some time, rebuilt from the checkpoint taken at {@code checkpointTime} and the
+     * {@code replayedChanges} changes made after it.
+     */
+    public record PastList(List<String> fileLines, LocalDateTime checkpointTime, int replayedChanges) {
+    }
+
+    /**
+     * A change as written to the history, at a byte position of the history file.
+     */
+    private record Entry(long offset, long time, Change change, long id, int index, long previousOffset,
+            String fileLine) {
+        private String toLine() {
+            return time + "|" + change.code + "|" + id + "|" + index + "|" + previousOffset + "|" + fileLine;
+        }
+
+        private static Entry parse(long offset, String line) {
+            String[] fields = line.split("\\|", 6);
+            return new Entry(offset, Long.parseLong(fields[0]), Change.fromCode(fields[1].charAt(0)),
+                    Long.parseLong(fields[2]), Integer.parseInt(fields[3]), Long.parseLong(fields[4]), fields[5]);
+        }
+    }
+
+    /**
+     * The tasks of a storage file as the history knows them, in list order.
+     */
+    private static class FileHistory {
+        private final ArrayList<Long> ids = new ArrayList<>();
+        private final ArrayList<String> lines = new ArrayList<>();
+        // the position of the latest change of each task on the list
+        private final HashMap<Long, Long> lastEntryOffsets = new HashMap<>();
+        private long nextId;
+        private int changesSinceCheckpoint;
+        private boolean hasCheckpoint;
+
+        private void apply(Entry entry) {
+            switch (entry.change()) {
+            case ADDED:
+                ids.add(entry.id());
+                lines.add(entry.fileLine());
+                break;
+            case UPDATED:
+                lines.set(entry.index(), entry.fileLine());
+                break;
+            case REMOVED:
+                ids.remove(entry.index());
+                lines.remove(entry.index());
+                lastEntryOffsets.remove(entry.id());
+                return;
+            case CLEARED:
+                ids.clear();
+                lines.clear();
+                lastEntryOffsets.clear();
+                return;
+            default:
+                break;
+            }
+            lastEntryOffsets.put(entry.id(), entry.offset());
+            nextId = Math.max(nextId, entry.id() + 1);
+        }
+    }
+
+    public static TaskHistory getInstance() {
+        return INSTANCE;
+    }
+
+    static boolean isEnabled() {
+        return !"false".equals(System.getProperty(ENABLED_PROPERTY));
+    }
+
+    /**
+     * Records the changes of a batch of events in the history of their storage files. A storage file whose
+     * history cannot be written is dropped from memory, so its history starts again with a checkpoint the next
+     * time it is loaded, instead of failing the change itself.
+     */
+    @Override
+    public synchronized void onEvents(List<TaskEvent> events) {
+        if (!isEnabled()) {
+            return;
+        }
+        LinkedHashMap<String, List<TaskEvent>> eventsByFile = new LinkedHashMap<>();
+        for (TaskEvent event : events) {
+            eventsByFile.computeIfAbsent(event.storageFilePath(), filePath -> new ArrayList<>()).add(event);
+        }
+        for (String filePath : eventsByFile.keySet()) {
+            // lists that were never loaded from their storage file have no history to add to
+            FileHistory history = histories.get(filePath);
+            if (history == null) {
+                continue;
+            }
+            try {
+                recordEvents(filePath, history, eventsByFile.get(filePath));
+            } catch (IOException | RuntimeException e) {
+                histories.remove(filePath);
+            }
+        }
+    }
+
+    @SuppressWarnings("try")
+    private static void recordEvents(String filePath, FileHistory history, List<TaskEvent> events)
+            throws IOException {
+        long time = System.currentTimeMillis();
+        try (StorageLock lock = StorageLock.acquire(getHistoryPath(filePath), true)) {
+            ArrayList<Entry> entries = new ArrayList<>(events.size());
+            long offset = getSize(getHistoryPath(filePath));
+            for (TaskEvent event : events) {
+                Entry entry = toEntry(history, event, time, offset);
+                if (entry == null) {
+                    continue;
+                }
+                history.apply(entry);
+                entries.add(entry);
+                offset += (entry.toLine() + "\n").getBytes(Charset.defaultCharset()).length;
+            }
+            appendEntries(filePath, entries);
+            history.changesSinceCheckpoint += entries.size();
+            if (history.changesSinceCheckpoint >= Math.max(MIN_CHECKPOINT_INTERVAL, history.lines.size() / 4)) {
+                writeCheckpoint(filePath, history, time, offset);
+            }
+        }
+    }
+
+    /**
+     * Turns an event into the change it makes to the history, or null if it is about a task the history of the
+     * list does not have, which only happens to lists that were never saved to their file.
+     */
+    private static Entry toEntry(FileHistory history, TaskEvent event, long time, long offset) {
+        if (event instanceof TaskEvent.TaskAdded added) {
+            return new Entry(offset, time, Change.ADDED, history.nextId, history.lines.size(), -1, added.fileLine());
+        } else if (event instanceof TaskEvent.TaskUpdated updated && updated.index() < history.ids.size()) {
+            long id = history.ids.get(updated.index());
+            return new Entry(offset, time, Change.UPDATED, id, updated.index(),
+                    history.lastEntryOffsets.getOrDefault(id, -1L), updated.fileLine());
+        } else if (event instanceof TaskEvent.TaskRemoved removed && removed.index() < history.ids.size()) {
+            long id = history.ids.get(removed.index());
+            return new Entry(offset, time, Change.REMOVED, id, removed.index(),
+                    history.lastEntryOffsets.getOrDefault(id, -1L), history.lines.get(removed.index()));
+        } else if (event instanceof TaskEvent.TasksCleared) {
+            return new Entry(offset, time, Change.CLEARED, -1, -1, -1, "");
+        }
+        return null;
+    }
+
+    /**
+     * Records tasks that another process appended to a storage file as added now, once they have been loaded at
+     * the end of its list without publishing any event, so that the history keeps following the list.
+     *
+     * @param filePath the path of the storage file.
+     * @param tasks    the appended tasks, in list order.
+     */
+    void recordAppended(String filePath, List<Task> tasks) {
+        ArrayList<TaskEvent> events = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            events.add(new TaskEvent.TaskAdded(filePath, task, task.convertToFileFormat()));
+        }
+        onEvents(events);
+    }
+
+    /**
+     * Brings the history of a freshly loaded storage file in line with the loaded list. Tasks that match a task
+     * of the history keep their id, and the others are recorded as they are before a checkpoint is written.
+     *
+     * @param taskList the task list loaded from the storage file.
+     */
+    synchronized void sync(TaskList taskList) {
+        if (!isEnabled()) {
+            return;
+        }
+        String filePath = taskList.getStorageFilePath();
+        try {
+            FileHistory history = histories.get(filePath);
+            if (history == null) {
+                history = restore(filePath);
+            }
+            ArrayList<String> loadedLines = new ArrayList<>(taskList.getSize());
+            for (Task task : taskList.getTaskList()) {
+                loadedLines.add(task.convertToFileFormat());
+            }
+            if (!history.hasCheckpoint || !history.lines.equals(loadedLines)) {
+                reconcile(filePath, history, loadedLines);
+            }
+            histories.put(filePath, history);
+        } catch (IOException | RuntimeException e) {
+            histories.remove(filePath);
+        }
+    }
+
+    @SuppressWarnings("try")
+    private static void reconcile(String filePath, FileHistory history, List<String> loadedLines)
+            throws IOException {
+        HashMap<String, ArrayDeque<Long>> idsByLine = new HashMap<>();
+        for (int i = 0; i < history.lines.size(); i++) {
+            idsByLine.computeIfAbsent(history.lines.get(i), line -> new ArrayDeque<>()).add(history.ids.get(i));
+        }
+
+        long time = System.currentTimeMillis();
+        try (StorageLock lock = StorageLock.acquire(getHistoryPath(filePath), true)) {
+            long offset = getSize(getHistoryPath(filePath));
+            ArrayList<Long> ids = new ArrayList<>(loadedLines.size());
+            HashMap<Long, Long> lastEntryOffsets = new HashMap<>();
+            ArrayList<Entry> baselines = new ArrayList<>();
+            for (int i = 0; i < loadedLines.size(); i++) {
+                ArrayDeque<Long> matchingIds = idsByLine.get(loadedLines.get(i));
+                Long id = matchingIds == null ? null : matchingIds.poll();
+                if (id != null) {
+                    lastEntryOffsets.put(id, history.lastEntryOffsets.getOrDefault(id, -1L));
+                } else {
+                    id = history.nextId++;
+                    Entry baseline = new Entry(offset, time, Change.BASELINE, id, i, -1, loadedLines.get(i));
+                    baselines.add(baseline);
+                    lastEntryOffsets.put(id, offset);
+                    offset += (baseline.toLine() + "\n").getBytes(Charset.defaultCharset()).length;
+                }
+                ids.add(id);
+            }
+            appendEntries(filePath, baselines);
+
+            history.ids.clear();
+            history.ids.addAll(ids);
+            history.lines.clear();
+            history.lines.addAll(loadedLines);
+            history.lastEntryOffsets.clear();
+            history.lastEntryOffsets.putAll(lastEntryOffsets);
+            writeCheckpoint(filePath, history, time, offset);
+        }
+    }
+
+    /**
+     * Rebuilds the current state of the history of a storage file from its last checkpoint and the changes
+     * after it.
+     */
+    private static FileHistory restore(String filePath) throws IOException {
+        FileHistory history = new FileHistory();
+        Path indexPath = Path.of(getCheckpointIndexPath(filePath));
+        long checkpointCount = getSize(indexPath.toString()) / CHECKPOINT_INDEX_ENTRY_SIZE;
+        if (checkpointCount == 0) {
+            return history;
+        }
+        long[] checkpoint = readCheckpointIndexEntry(indexPath, checkpointCount - 1);
+        readCheckpoint(filePath, history, checkpoint[1]);
+        for (Entry entry : readEntries(filePath, checkpoint[2], Long.MAX_VALUE)) {
+            history.apply(entry);
+            history.changesSinceCheckpoint++;
+        }
+        history.hasCheckpoint = true;
+        return history;
+    }
+
+    /**
+     * Returns the list of a storage file as it was at the given time.
+     *
+     * @param filePath the path of the storage file.
+     * @param time     the time to show the list at.
+     * @return the lines of the tasks on the list at that time, in list order.
+     * @throws MortalReminderException if the history is off, cannot be read or does not go back that far.
+     */
+    public PastList getListAsOf(String filePath, LocalDateTime time) throws MortalReminderException {
+        checkEnabled();
+        TaskEventBus.getInstance().flush();
+        long millis = time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        synchronized (this) {
+            try {
+                Path indexPath = Path.of(getCheckpointIndexPath(filePath));
+                long checkpointCount = getSize(indexPath.toString()) / CHECKPOINT_INDEX_ENTRY_SIZE;
+                // binary search for the last checkpoint taken at or before the time
+                long low = 0;
+                long high = checkpointCount - 1;
+                long found = -1;
+                while (low <= high) {
+                    long middle = (low + high) >>> 1;
+                    if (readCheckpointIndexEntry(indexPath, middle)[0] <= millis) {
+                        found = middle;
+                        low = middle + 1;
+                    } else {
+                        high = middle - 1;
+                    }
+                }
+                if (found < 0) {
+                    String start = checkpointCount == 0 ? null
+                            : toDateTime(readCheckpointIndexEntry(indexPath, 0)[0]).format(TimedTask.OUTPUT_FORMATTER);
+                    throw new MortalReminderException(MortalReminderException.getNoHistoryAtTimeErrorMessage(start));
+                }
+
+                long[] checkpoint = readCheckpointIndexEntry(indexPath, found);
+                long end = found + 1 < checkpointCount
+                        ? readCheckpointIndexEntry(indexPath, found + 1)[2] : Long.MAX_VALUE;
+                FileHistory history = new FileHistory();
+                readCheckpoint(filePath, history, checkpoint[1]);
+                int replayedChanges = 0;
+                for (Entry entry : readEntries(filePath, checkpoint[2], end)) {
+                    if (entry.time() > millis) {
+                        break;
+                    }
+                    if (entry.change() != Change.BASELINE) {
+                        history.apply(entry);
+                        replayedChanges++;
+                    }
+                }
+                return new PastList(history.lines, toDateTime(checkpoint[0]), replayedChanges);
+            } catch (IOException | RuntimeException e) {
+                throw new MortalReminderException(MortalReminderException.getHistoryCorruptedErrorMessage());
+            }
+        }
+    }
+
+    /**
+     * Returns the versions of a task, oldest first, by following its changes back from the latest one.
+     *
+     * @param filePath the path of the storage file of the list the task is on.
+     * @param index    the position of the task in the list.
+     * @return the versions of the task.
+     * @throws MortalReminderException if the history is off or cannot be read.
+     */
+    public List<TaskVersion> getTaskHistory(String filePath, int index) throws MortalReminderException {
+        checkEnabled();
+        TaskEventBus.getInstance().flush();
+        synchronized (this) {
+            FileHistory history = histories.get(filePath);
+            if (history == null || index >= history.ids.size()) {
+                throw new MortalReminderException(MortalReminderException.getHistoryCorruptedErrorMessage());
+            }
+            ArrayList<TaskVersion> versions = new ArrayList<>();
+            try (RandomAccessFile file = new RandomAccessFile(getHistoryPath(filePath), "r")) {
+                long offset = history.lastEntryOffsets.getOrDefault(history.ids.get(index), -1L);
+                while (offset >= 0) {
+                    Entry entry = Entry.parse(offset, readLineAt(file, offset));
+                    versions.add(new TaskVersion(toDateTime(entry.time()), entry.change(), entry.fileLine()));
+                    offset = entry.previousOffset();
+                }
+            } catch (IOException | RuntimeException e) {
+                throw new MortalReminderException(MortalReminderException.getHistoryCorruptedErrorMessage());
+            }
+            Collections.reverse(versions);
+            return versions;
+        }
+    }
+
+    private static void checkEnabled() throws MortalReminderException {
+        if (!isEnabled()) {
+            throw new MortalReminderException(MortalReminderException.getHistoryDisabledErrorMessage());
+        }
+    }
+
+    private static void appendEntries(String filePath, List<Entry> entries) throws IOException {
+        if (entries.isEmpty()) {
+            return;
+        }
+        StringBuilder content = new StringBuilder(entries.size() * 64);
+        for (Entry entry : entries) {
+            content.append(entry.toLine()).append('\n');
+        }
+        try (FileOutputStream out = new FileOutputStream(getHistoryPath(filePath), true)) {
+            out.write(content.toString().getBytes(Charset.defaultCharset()));
+        }
+    }
+
+    private static void writeCheckpoint(String filePath, FileHistory history, long time, long historyOffset)
+            throws IOException {
+        StringBuilder content = new StringBuilder(history.lines.size() * 64)
+                .append(time).append('|').append(history.lines.size()).append('|').append(history.nextId)
+                .append('\n');
+        for (int i = 0; i < history.lines.size(); i++) {
+            long id = history.ids.get(i);
+            content.append(id).append('|').append(history.lastEntryOffsets.getOrDefault(id, -1L)).append('|')
+                    .append(history.lines.get(i)).append('\n');
+        }
+        long checkpointOffset = getSize(getCheckpointPath(filePath));
+        try (FileOutputStream out = new FileOutputStream(getCheckpointPath(filePath), true)) {
+            out.write(content.toString().getBytes(Charset.defaultCharset()));
+        }
+        try (FileOutputStream out = new FileOutputStream(getCheckpointIndexPath(filePath), true)) {
+            out.write(ByteBuffer.allocate(CHECKPOINT_INDEX_ENTRY_SIZE)
+                    .putLong(time).putLong(checkpointOffset).putLong(historyOffset).array());
+        }
+        history.changesSinceCheckpoint = 0;
+        history.hasCheckpoint = true;
+    }
+
+    private static void readCheckpoint(String filePath, FileHistory history, long checkpointOffset)
+            throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(getCheckpointPath(filePath), "r")) {
+            file.seek(checkpointOffset);
+            BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(Channels.newInputStream(file.getChannel()), Charset.defaultCharset()));
+            String[] header = reader.readLine().split("\\|");
+            int count = Integer.parseInt(header[1]);
+            history.nextId = Long.parseLong(header[2]);
+            for (int i = 0; i < count; i++) {
+                String line = reader.readLine();
+                if (line == null) {
+                    throw new IOException("Checkpoint at " + checkpointOffset + " is incomplete");
+                }
+                String[] fields = line.split("\\|", 3);
+                long id = Long.parseLong(fields[0]);
+                history.ids.add(id);
+                history.lines.add(fields[2]);
+                history.lastEntryOffsets.put(id, Long.parseLong(fields[1]));
+            }
+        }
+    }
+
+    /**
+     * Reads the changes of the history from one position up to another, or to the end of the history.
+     */
+    private static List<Entry> readEntries(String filePath, long from, long to) throws IOException {
+        ArrayList<Entry> entries = new ArrayList<>();
+        try (RandomAccessFile file = new RandomAccessFile(getHistoryPath(filePath), "r")) {
+            long end = Math.min(to, file.length());
+            byte[] bytes = new byte[Math.toIntExact(Math.max(0, end - from))];
+            file.seek(from);
+            file.readFully(bytes);
+            int lineStart = 0;
+            for (int i = 0; i < bytes.length; i++) {
+                if (bytes[i] == '\n') {
+                    entries.add(Entry.parse(from + lineStart,
+                            new String(bytes, lineStart, i - lineStart, Charset.defaultCharset())));
+                    lineStart = i + 1;
+                }
+            }
+        }
+        return entries;
+    }
+
+    private static long[] readCheckpointIndexEntry(Path indexPath, long position) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(indexPath.toFile(), "r")) {
+            file.seek(position * CHECKPOINT_INDEX_ENTRY_SIZE);
+            return new long[] {file.readLong(), file.readLong(), file.readLong()};
+        }
+    }
+
+    private static String readLineAt(RandomAccessFile file, long offset) throws IOException {
+        file.seek(offset);
+        ByteArrayOutputStream line = new ByteArrayOutputStream(128);
+        int b = file.read();
+        while (b != -1 && b != '\n') {
+            line.write(b);
+            b = file.read();
+        }
+        return line.toString(Charset.defaultCharset());
+    }
+
+    private static LocalDateTime toDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+
+    private static long getSize(String filePath) throws IOException {
+        Path path = Path.of(filePath);
+        return Files.exists(path) ? Files.size(path) : 0;
+    }
+
+    private static String getHistoryPath(String filePath) {
+        return filePath + HISTORY_FILE_SUFFIX;
+    }
+
+    private static String getCheckpointPath(String filePath) {
+        return filePath + CHECKPOINT_FILE_SUFFIX;
+    }
+
+    private static String getCheckpointIndexPath(String filePath) {
+        return filePath + CHECKPOINT_INDEX_FILE_SUFFIX;
+    }
+}
@@ -3,9 +3,22 @@ package mortalreminder.backend;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
 import java.util.Scanner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 
+import mortalreminder.backend.events.TaskEventBus;
 import mortalreminder.backend.tasklistmanager.TaskList;
+import mortalreminder.backend.tasklistmanager.WorkspaceManager;
 import mortalreminder.errorhandling.MortalReminderException;
 import mortalreminder.io.Parser;
 import mortalreminder.tasks.Task;
@@ -18,16 +31,31 @@ import mortalreminder.tasks.Task;
  * The {@code Storage} class provides methods to append tasks to a file, clear the file,
  * delete specific tasks, and load tasks from the file. It interacts with the file system
  * and ensures that tasks are stored and retrieved correctly.
+ * <p>
+ * Changes made through a {@link TaskList} reach the storage files asynchronously through the
+ * {@link TaskEventBus} and the {@link TaskStorageWriter}. The methods of this class access the files directly,
+ * so they first flush the bus to make sure the files are up to date.
+ * <p>
+ * Several processes of the app can share the same storage files. Every access holds the {@link StorageLock}
+ * of the file, so a rewrite never loses lines another process appended in the meantime. This class also
+ * remembers the version of each file that the task lists of this process reflect, which lets
+ * {@link #refreshTaskList(TaskList)} pick up changes made by other processes, reading only the appended
+ * lines when nothing else changed.
  */
 public class TaskListStorage {
-    protected static final String STORAGE_LIST_FILE_PATH = "src/main/resources/data/listStorage.txt";
+    public static final String STORAGE_LIST_FILE_PATH = "src/main/resources/data/listStorage.txt";
+    public static final String WORKSPACE_DIRECTORY_PATH = "src/main/resources/data/workspaces/";
+    private static final int LOAD_PROGRESS_INTERVAL = 5000;
+
+    // the version of each storage file that this process has seen, absent if the file has to be reloaded
+    private static final ConcurrentHashMap<String, StorageLock.Version> knownVersions = new ConcurrentHashMap<>();
 
     /**
-     * Initialises the storage on first start of the App.
+     * Initialises the storage file at the given path on first use.
      */
-    private static void initialise() throws MortalReminderException {
+    private static void initialise(String filePath) throws MortalReminderException {
         try {
-            File f = new File(STORAGE_LIST_FILE_PATH);
+            File f = new File(filePath);
             f.getParentFile().mkdirs();
             f.createNewFile();
             f.exists();
@@ -46,19 +74,153 @@ public class TaskListStorage {
      * @throws MortalReminderException if the file cannot be found.
      */
     public static void appendToListFile(Task task) throws MortalReminderException {
-        try {
-            initialise();
+        appendToListFile(task, STORAGE_LIST_FILE_PATH);
+    }
 
-            FileWriter fw = new FileWriter(STORAGE_LIST_FILE_PATH, true);
-            String textToAdd = task.convertToFileFormat();
-            fw.write(textToAdd + System.lineSeparator());
+    /**
+     * Appends a task to the storage file at the given path.
+     *
+     * @param task     the {@link Task} to append to the file.
+     * @param filePath the path of the storage file of the workspace the task belongs to.
+     * @throws MortalReminderException if the file cannot be found.
+     */
+    public static void appendToListFile(Task task, String filePath) throws MortalReminderException {
+        TaskEventBus.getInstance().flush();
+        appendLines(filePath, List.of(task.convertToFileFormat()));
+    }
+
+    /**
+     * Appends lines to the storage file at the given path, opening it only once.
+     */
+    static void appendLines(String filePath, List<String> lines) throws MortalReminderException {
+        initialise(filePath);
+        try (StorageLock lock = StorageLock.acquire(filePath, true)) {
+            StorageLock.Version before = lock.readVersion();
+
+            FileWriter fw = new FileWriter(filePath, true);
+            for (String line : lines) {
+                fw.write(line + System.lineSeparator());
+            }
             fw.close();
 
+            StorageLock.Version after = lock.recordWrite(false);
+            recordOwnWrite(filePath, before, after);
+            StorageReplication.ship(filePath, before, after, false, lines);
+        } catch (IOException e) {
+            throw new MortalReminderException(MortalReminderException.getStorageFileCorruptedErrorMessage());
+        }
+    }
+
+    /**
+     * Changes the lines of a storage file read by {@link #rewriteLines(String, LineEditor)}.
+     */
+    interface LineEditor {
+        /**
+         * Changes the lines in place.
+         *
+         * @param lines          the lines of the file.
+         * @param knownLineCount the number of first lines of the file that are as the task list of this process
+         *                       has them, which is all of them unless another process appended lines since, or
+         *                       -1 if another process changed lines of the file since.
+         */
+        void edit(List<String> lines, int knownLineCount);
+    }
+
+    /**
+     * Reads all lines of the storage file at the given path, lets the editor change them and writes them back,
+     * holding the lock of the file throughout so that no other process can change the file in between.
+     */
+    static void rewriteLines(String filePath, Consumer<List<String>> editor) throws MortalReminderException {
+        rewriteLines(filePath, (lines, knownLineCount) -> editor.accept(lines));
+    }
+
+    /**
+     * Reads all lines of the storage file at the given path, lets the editor change them and writes them back,
+     * telling the editor which of the lines the task list of this process knows about, so that it can find the
+     * lines of its tasks even when another process changed the file since.
+     */
+    static void rewriteLines(String filePath, LineEditor editor) throws MortalReminderException {
+        initialise(filePath);
+        try (StorageLock lock = StorageLock.acquire(filePath, true)) {
+            StorageLock.Version before = lock.readVersion();
+            byte[] content = Files.readAllBytes(Path.of(filePath));
+            List<String> lines = new ArrayList<>(new String(content, Charset.defaultCharset()).lines().toList());
+            editor.edit(lines, getKnownLineCount(filePath, before, content, lines.size()));
+            overwriteFile(filePath, lines);
+            StorageLock.Version after = lock.recordWrite(true);
+            recordOwnWrite(filePath, before, after);
+            StorageReplication.ship(filePath, before, after, true, lines);
         } catch (IOException e) {
             throw new MortalReminderException(MortalReminderException.getStorageFileCorruptedErrorMessage());
         }
     }
 
+    /**
+     * Returns the number of first lines of a file that are as this process last saw them, or -1 if lines other
+     * than the appended ones were changed by another process, or the file is due to be reloaded anyway.
+     */
+    private static int getKnownLineCount(String filePath, StorageLock.Version version, byte[] content,
+            int lineCount) {
+        StorageLock.Version knownVersion = knownVersions.get(filePath);
+        if (version.equals(knownVersion)) {
+            return lineCount;
+        } else if (knownVersion == null || !version.isAppendOf(knownVersion)) {
+            return -1;
+        }
+        int knownLineCount = 0;
+        for (int i = 0; i < Math.min(knownVersion.length(), content.length); i++) {
+            if (content[i] == '\n') {
+                knownLineCount++;
+            }
+        }
+        return knownLineCount;
+    }
+
+    /**
+     * Replaces the content of the storage file at the given path with the given lines.
+     */
+    static void writeLines(String filePath, List<String> lines) throws MortalReminderException {
+        initialise(filePath);
+        try (StorageLock lock = StorageLock.acquire(filePath, true)) {
+            StorageLock.Version before = lock.readVersion();
+            overwriteFile(filePath, lines);
+            StorageLock.Version after = lock.recordWrite(true);
+            recordOwnWrite(filePath, before, after);
+            StorageReplication.ship(filePath, before, after, true, lines);
+        } catch (IOException e) {
+            throw new MortalReminderException(MortalReminderException.getStorageFileCorruptedErrorMessage());
+        }
+    }
+
+    /**
+     * Replaces the content of the storage file at the given path with lines restored from elsewhere, such as
+     * the standby, so that the task list of the file is loaded again from the restored lines on next access.
+     */
+    static void restoreLines(String filePath, List<String> lines) throws MortalReminderException {
+        writeLines(filePath, lines);
+        knownVersions.remove(filePath);
+    }
+
+    private static void overwriteFile(String filePath, List<String> lines) throws IOException {
+        FileWriter fw = new FileWriter(filePath);
+        for (String line : lines) {
+            fw.write(line + System.lineSeparator());
+        }
+        fw.close();
+    }
+
+    /**
+     * Remembers the version left behind by a write of this process. If the file was changed by another process
+     * since this process last saw it, its task list is missing those changes, so the file is marked for a reload.
+     */
+    private static void recordOwnWrite(String filePath, StorageLock.Version before, StorageLock.Version after) {
+        if (before.equals(knownVersions.get(filePath))) {
+            knownVersions.put(filePath, after);
+        } else {
+            knownVersions.remove(filePath);
+        }
+    }
+
     /**
      * Clears the storage file.
      * <p>
@@ -68,13 +230,28 @@ public class TaskListStorage {
      * @throws MortalReminderException if the file cannot be found from the hardcoded path.
      */
     public static void clearListFile() throws MortalReminderException {
-        try {
-            initialise();
+        clearListFile(STORAGE_LIST_FILE_PATH);
+    }
 
-            FileWriter fw = new FileWriter(STORAGE_LIST_FILE_PATH);
+    /**
+     * Clears the storage file at the given path.
+     *
+     * @param filePath the path of the storage file to clear.
+     * @throws MortalReminderException if the file cannot be found.
+     */
+    public static void clearListFile(String filePath) throws MortalReminderException {
+        TaskEventBus.getInstance().flush();
+        initialise(filePath);
+        try (StorageLock lock = StorageLock.acquire(filePath, true)) {
+            StorageLock.Version before = lock.readVersion();
+
+            FileWriter fw = new FileWriter(filePath);
             fw.write("");
 
             fw.close();
+            StorageLock.Version after = lock.recordWrite(true);
+            recordOwnWrite(filePath, before, after);
+            StorageReplication.ship(filePath, before, after, true, List.of());
         } catch (IOException e) {
             throw new MortalReminderException(MortalReminderException.getFileNotFoundErrorMessage());
         }
@@ -83,21 +260,23 @@ public class TaskListStorage {
     /**
      * Deletes all tasks from the storage file and re-appends tasks from the given {@link TaskList}.
      * <p>
-     * This method refreshes the file after mark, unmark or delete operations by first clearing the file
-     * and adding all the tasks back into the file.
-     * This effectively updates the file to reflect the current state of the task list.
+     * This method rewrites the whole file in one go to reflect the current state of the task list.
+     * Mark, unmark and delete operations no longer need it as they are written through the event bus,
+     * but it can still be used to bring a file back in sync with its list.
      * The method was inspired from the
      * <a href="https://stackoverflow.com/questions/5800603/delete-specific-line-from-java-text-file">
      * following post.</a>
      *
      * @param taskList the {@link TaskList} containing tasks to re-append to the file.
-     * @throws MortalReminderException if there is an error inside the clearListFile() method.
+     * @throws MortalReminderException if the storage file cannot be written.
      */
     public static void refreshStorageFile(TaskList taskList) throws MortalReminderException {
-        clearListFile();
+        TaskEventBus.getInstance().flush();
+        ArrayList<String> lines = new ArrayList<>(taskList.getSize());
         for (int i = 0; i < taskList.getSize(); i++) {
-            appendToListFile(taskList.getTask(i));
+            lines.add(taskList.getTask(i).convertToFileFormat());
         }
+        writeLines(taskList.getStorageFilePath(), lines);
     }
 
     /**
@@ -111,23 +290,241 @@ public class TaskListStorage {
      * @throws MortalReminderException if file is unreadable or cannot be created.
      */
     public static TaskList loadTaskListFromFile() throws MortalReminderException {
-        try {
-            initialise();
+        return loadTaskListFromFile(STORAGE_LIST_FILE_PATH);
+    }
+
+    /**
+     * Loads tasks from the storage file at the given path into a {@link TaskList} bound to that file.
+     *
+     * @param filePath the path of the storage file of the workspace to load.
+     * @return a {@link TaskList} containing tasks loaded from the file.
+     * @throws MortalReminderException if file is unreadable or cannot be created.
+     */
+    public static TaskList loadTaskListFromFile(String filePath) throws MortalReminderException {
+        return loadTaskListFromFile(filePath, loadedCount -> {});
+    }
 
-            File f = new File(STORAGE_LIST_FILE_PATH);
-            Scanner s = new Scanner(f);
-            TaskList taskList = new TaskList();
+    /**
+     * Loads tasks from the storage file at the given path, reporting the number of tasks loaded so far
+     * every {@code LOAD_PROGRESS_INTERVAL} tasks so that the UI can show the progress of long loads.
+     *
+     * @param filePath         the path of the storage file of the workspace to load.
+     * @param progressListener called with the number of tasks loaded so far.
+     * @return a {@link TaskList} containing tasks loaded from the file.
+     * @throws MortalReminderException if file is unreadable or cannot be created.
+     */
+    public static TaskList loadTaskListFromFile(String filePath, IntConsumer progressListener)
+            throws MortalReminderException {
+        TaskEventBus.getInstance().flush();
+        initialise(filePath);
+        boolean isSnapshotEnabled = TaskSnapshot.isEnabled();
+        try (StorageLock lock = StorageLock.acquire(filePath, false)) {
+            StorageLock.Version version = lock.readVersion();
+            TaskList taskList = new TaskList(filePath);
+            TaskSnapshot snapshot = isSnapshotEnabled ? TaskSnapshot.read(filePath) : null;
+            boolean isLoadedFromSnapshot = readTasks(taskList, version, snapshot, progressListener);
 
-            while (s.hasNextLine()) {
-                String input = s.nextLine();
-                Task task = Parser.parseInputFromFile(input);
-                taskList.loadTask(task);
+            knownVersions.put(filePath, version);
+            if (isSnapshotEnabled && (!isLoadedFromSnapshot || !version.equals(snapshot.getVersion()))) {
+                writeSnapshot(taskList, version);
             }
+            StorageReplication.shipIfBehind(taskList, version);
+            TaskHistory.getInstance().sync(taskList);
+            return taskList;
+        } catch (RuntimeException | IOException e) {
+            throw new MortalReminderException(MortalReminderException.getStorageFileCorruptedErrorMessage());
+        }
+    }
+
+    /**
+     * Reads the tasks of a storage file into a list for a query that only looks at them, such as a search across
+     * workspaces, without any of the side effects of {@link #loadTaskListFromFile(String)}. The version of the
+     * file is not remembered, and no snapshot, standby copy or history is written, so several files can be read
+     * in parallel. The list returned must not be changed.
+     *
+     * @param filePath the path of the storage file to read.
+     * @return a {@link TaskList} containing the tasks of the file, which is empty if there is no such file.
+     * @throws MortalReminderException if the file is unreadable or corrupted.
+     */
+    public static TaskList readTaskListFromFile(String filePath) throws MortalReminderException {
+        TaskEventBus.getInstance().flush();
+        TaskList taskList = new TaskList(filePath);
+        if (!Files.exists(Path.of(filePath))) {
+            return taskList;
+        }
+        try (StorageLock lock = StorageLock.acquire(filePath, false)) {
+            TaskSnapshot snapshot = TaskSnapshot.isEnabled() ? TaskSnapshot.read(filePath) : null;
+            readTasks(taskList, lock.readVersion(), snapshot, loadedCount -> {});
+            return taskList;
+        } catch (RuntimeException | IOException e) {
+            throw new MortalReminderException(MortalReminderException.getStorageFileCorruptedErrorMessage());
+        }
+    }
+
+    /**
+     * Reads the tasks of a storage file into an empty list, from the snapshot if it matches the file and from the
+     * file itself otherwise. The lock of the file must be held. Returns whether the snapshot was used.
+     */
+    private static boolean readTasks(TaskList taskList, StorageLock.Version version, TaskSnapshot snapshot,
+            IntConsumer progressListener) throws IOException, MortalReminderException {
+        if (snapshot != null
+                && (version.equals(snapshot.getVersion()) || version.isAppendOf(snapshot.getVersion()))
+                && loadSnapshot(snapshot, version, taskList, progressListener)) {
+            return true;
+        }
+
+        File f = new File(taskList.getStorageFilePath());
+        Scanner s = new Scanner(f);
+
+        while (s.hasNextLine()) {
+            String input = s.nextLine();
+            Task task = Parser.parseInputFromFile(input);
+            taskList.loadTask(task);
+            if (taskList.getSize() % LOAD_PROGRESS_INTERVAL == 0) {
+                progressListener.accept(taskList.getSize());
+            }
+        }
+
+        s.close();
+        return false;
+    }
+
+    /**
+     * Loads the tasks of a snapshot, and the lines appended to the storage file since it was taken, into an
+     * empty task list. Returns false, leaving the list empty, if the snapshot turns out to be corrupted.
+     */
+    private static boolean loadSnapshot(TaskSnapshot snapshot, StorageLock.Version version, TaskList taskList,
+            IntConsumer progressListener) throws IOException, MortalReminderException {
+        List<Task> tasks;
+        try {
+            tasks = snapshot.loadTasks();
+        } catch (MortalReminderException e) {
+            return false;
+        }
+        for (Task task : tasks) {
+            taskList.loadTask(task);
+            if (taskList.getSize() % LOAD_PROGRESS_INTERVAL == 0) {
+                progressListener.accept(taskList.getSize());
+            }
+        }
+        if (!version.equals(snapshot.getVersion())) {
+            for (String line : readTail(taskList.getStorageFilePath(), snapshot.getVersion().length())) {
+                taskList.loadTask(Parser.parseInputFromFile(line));
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writes a snapshot of a freshly loaded task list. The snapshot only makes later loads faster, so a
+     * snapshot that cannot be written is left out rather than failing the load.
+     */
+    private static void writeSnapshot(TaskList taskList, StorageLock.Version version) {
+        ArrayList<String> lines = new ArrayList<>(taskList.getSize());
+        for (Task task : taskList.getTaskList()) {
+            lines.add(task.convertToFileFormat());
+        }
+        try {
+            TaskSnapshot.write(taskList.getStorageFilePath(), lines, version);
+        } catch (IOException | RuntimeException e) {
+            // the next load reads the text file and tries again
+        }
+    }
 
-            s.close();
+    /**
+     * Brings a task list up to date with changes that other processes made to its storage file.
+     * <p>
+     * When the file is unchanged since this process last saw it, the same list is returned straight away.
+     * When other processes only appended tasks to it, the appended lines are read from the end of the file and
+     * loaded into the same list. Any other change, such as a task being marked or deleted elsewhere, makes
+     * the whole file be loaded into a new list.
+     *
+     * @param taskList the task list to refresh.
+     * @return the same task list if it could be brought up to date in place, otherwise a newly loaded list.
+     * @throws MortalReminderException if the storage file is unreadable or corrupted.
+     */
+    public static TaskList refreshTaskList(TaskList taskList) throws MortalReminderException {
+        String filePath = taskList.getStorageFilePath();
+        if (!hasChangedOnDisk(filePath)) {
             return taskList;
+        }
+
+        // writes of this process that are still queued mark the file for a reload if they meet foreign changes
+        TaskEventBus.getInstance().flush();
+        try (StorageLock lock = StorageLock.acquire(filePath, false)) {
+            StorageLock.Version version = lock.readVersion();
+            StorageLock.Version knownVersion = knownVersions.get(filePath);
+            if (version.equals(knownVersion)) {
+                return taskList;
+            }
+            if (knownVersion != null && version.isAppendOf(knownVersion)) {
+                ArrayList<Task> appendedTasks = new ArrayList<>();
+                for (String line : readTail(filePath, knownVersion.length())) {
+                    Task task = Parser.parseInputFromFile(line);
+                    taskList.loadTask(task);
+                    appendedTasks.add(task);
+                }
+                knownVersions.put(filePath, version);
+                TaskHistory.getInstance().recordAppended(filePath, appendedTasks);
+                return taskList;
+            }
         } catch (RuntimeException | IOException e) {
             throw new MortalReminderException(MortalReminderException.getStorageFileCorruptedErrorMessage());
         }
+        return loadTaskListFromFile(filePath);
+    }
+
+    private static boolean hasChangedOnDisk(String filePath) throws MortalReminderException {
+        initialise(filePath);
+        try (StorageLock lock = StorageLock.acquire(filePath, false)) {
+            return !Objects.equals(lock.readVersion(), knownVersions.get(filePath));
+        } catch (IOException e) {
+            throw new MortalReminderException(MortalReminderException.getStorageFileCorruptedErrorMessage());
+        }
+    }
+
+    /**
+     * Reads the lines of a file from the given byte offset to its end.
+     */
+    private static List<String> readTail(String filePath, long offset) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(filePath, "r")) {
+            byte[] tail = new byte[Math.toIntExact(file.length() - offset)];
+            file.seek(offset);
+            file.readFully(tail);
+            return new String(tail, Charset.defaultCharset()).lines().toList();
+        }
+    }
+
+    /**
+     * Returns the path of the shard file that stores the given workspace.
+     * The default workspace keeps using the original storage file so that existing data is still picked up.
+     *
+     * @param workspaceName name of the workspace.
+     * @return path of the storage file of the workspace.
+     */
+    public static String getWorkspaceFilePath(String workspaceName) {
+        if (workspaceName.equals(WorkspaceManager.DEFAULT_WORKSPACE)) {
+            return STORAGE_LIST_FILE_PATH;
+        }
+        return WORKSPACE_DIRECTORY_PATH + workspaceName + ".txt";
+    }
+
+    /**
+     * Returns the names of all workspaces that have a shard file, excluding the default workspace.
+     *
+     * @return sorted list of saved workspace names.
+     */
+    public static ArrayList<String> getSavedWorkspaceNames() {
+        ArrayList<String> names = new ArrayList<>();
+        File[] shards = new File(WORKSPACE_DIRECTORY_PATH).listFiles((dir, name) -> name.endsWith(".txt"));
+        if (shards == null) {
+            return names;
+        }
+        for (File shard : shards) {
+            String fileName = shard.getName();
+            names.add(fileName.substring(0, fileName.length() - ".txt".length()));
+        }
+        Collections.sort(names);
+        return names;
     }
 }
@@ -0,0 +1,398 @@
+package mortalreminder.backend;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import mortalreminder.errorhandling.MortalReminderException;
+import mortalreminder.io.Parser;
+import mortalreminder.tasks.DateParser;
+import mortalreminder.tasks.Priority;
+import mortalreminder.tasks.Task;
+
+/**
+ * A compressed copy of a storage file, kept next to it as {@code <storage file>.snap}, that is faster to load
+ * than the text file when reading files is slow, such as on a networked home directory.
+ * <p>
+ * The records of the snapshot are the lines of the storage file in a compact binary form: the type, done flag
+ * and priority share one byte, and every date is stored as the difference in seconds to the previous date of
+ * the same block. Records are grouped into blocks of {@code BLOCK_SIZE} that are compressed independently and
+ * listed in a block index at the start of the file, so a load reads the file in one go and then decompresses
+ * and parses the blocks in parallel.
+ * <p>
+ * The text file stays the file every change is written to. The header of a snapshot records the
+ * {@link StorageLock.Version} of the text file it was made from, so a snapshot is only used while the text file
+ * is unchanged, or has only had lines appended, which are then read from the end of the text file. Snapshots
+ * are turned on with {@code -Dmortalreminder.snapshots=true}, after which every load that could not use an
+ * up to date snapshot writes a new one.
+ */
+final class TaskSnapshot {
+    static final String SNAPSHOT_FILE_SUFFIX = ".snap";
+    static final int BLOCK_SIZE = 4096;
+
+    private static final String ENABLED_PROPERTY = "mortalreminder.snapshots";
+    private static final int MAGIC = 0x4D52534E; // "MRSN"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 2 * Integer.BYTES + 4 * Long.BYTES + 2 * Integer.BYTES;
+    private static final int INDEX_ENTRY_SIZE = Long.BYTES + 3 * Integer.BYTES;
+
+    // the kinds of record, of which RAW keeps any line that the other kinds cannot reproduce exactly
+    private static final int RAW = 0;
+    private static final int TODO = 1;
+    private static final int DEADLINE = 2;
+    private static final int EVENT = 3;
+    private static final int RECURRING = 4;
+    private static final String[] TYPES = {null, "T", "D", "E", "R"};
+
+    private final StorageLock.Version version;
+    private final byte[] data;
+    private final List<Block> blocks;
+
+    /**
+     * The place of a compressed block in the snapshot file.
+     */
+    private record Block(long offset, int compressedLength, int length, int recordCount) {
+    }
+
+    private TaskSnapshot(StorageLock.Version version, byte[] data, List<Block> blocks) {
+        this.version = version;
+        this.data = data;
+        this.blocks = blocks;
+    }
+
+    static boolean isEnabled() {
+        return Boolean.getBoolean(ENABLED_PROPERTY);
+    }
+
+    StorageLock.Version getVersion() {
+        return this.version;
+    }
+
+    /**
+     * Reads the snapshot of a storage file, if there is one that can be used.
+     *
+     * @param filePath the path of the storage file.
+     * @return the snapshot, or null if there is none or it is not a valid snapshot.
+     */
+    static TaskSnapshot read(String filePath) {
+        try {
+            byte[] data = Files.readAllBytes(getSnapshotPath(filePath));
+            ByteBuffer header = ByteBuffer.wrap(data);
+            if (data.length < HEADER_SIZE || header.getInt() != MAGIC || header.getInt() != FORMAT_VERSION) {
+                return null;
+            }
+            StorageLock.Version version = new StorageLock.Version(header.getLong(), header.getLong(),
+                    header.getLong(), header.getLong());
+            header.getInt(); // the record count, which the blocks add up to
+            int blockCount = header.getInt();
+            if (blockCount < 0 || data.length < HEADER_SIZE + (long) blockCount * INDEX_ENTRY_SIZE) {
+                return null;
+            }
+            ArrayList<Block> blocks = new ArrayList<>(blockCount);
+            for (int i = 0; i < blockCount; i++) {
+                Block block = new Block(header.getLong(), header.getInt(), header.getInt(), header.getInt());
+                if (block.offset() < 0 || block.offset() + block.compressedLength() > data.length) {
+                    return null;
+                }
+                blocks.add(block);
+            }
+            return new TaskSnapshot(version, data, blocks);
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Decompresses and parses the blocks of the snapshot in parallel.
+     *
+     * @return the tasks of the snapshot in the order of the storage file.
+     * @throws MortalReminderException if a block is corrupted.
+     */
+    List<Task> loadTasks() throws MortalReminderException {
+        List<List<Task>> blockTasks;
+        try {
+            blockTasks = IntStream.range(0, blocks.size())
+                    .parallel()
+                    .mapToObj(this::decodeBlock)
+                    .toList();
+        } catch (RuntimeException e) {
+            throw new MortalReminderException(MortalReminderException.getStorageFileCorruptedErrorMessage());
+        }
+        ArrayList<Task> tasks = new ArrayList<>(blockTasks.stream().mapToInt(List::size).sum());
+        for (List<Task> block : blockTasks) {
+            tasks.addAll(block);
+        }
+        return tasks;
+    }
+
+    private List<Task> decodeBlock(int blockIndex) {
+        Block block = blocks.get(blockIndex);
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data, Math.toIntExact(block.offset()), block.compressedLength());
+            byte[] records = new byte[block.length()];
+            int inflated = 0;
+            while (inflated < records.length && !inflater.finished()) {
+                int count = inflater.inflate(records, inflated, records.length - inflated);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                inflated += count;
+            }
+            if (inflated != records.length) {
+                throw new IllegalStateException("Snapshot block " + blockIndex + " is truncated");
+            }
+
+            ByteBuffer buffer = ByteBuffer.wrap(records);
+            ArrayList<Task> tasks = new ArrayList<>(block.recordCount());
+            long[] previousTime = new long[1];
+            for (int i = 0; i < block.recordCount(); i++) {
+                tasks.add(Parser.parseInputFromFile(decodeRecord(buffer, previousTime)));
+            }
+            return tasks;
+        } catch (DataFormatException | MortalReminderException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Writes a snapshot of a storage file, replacing the previous one only once the new one is complete.
+     *
+     * @param filePath the path of the storage file.
+     * @param lines    the lines of the storage file.
+     * @param version  the version of the storage file the lines were read at.
+     * @throws IOException if the snapshot cannot be written.
+     */
+    static void write(String filePath, List<String> lines, StorageLock.Version version) throws IOException {
+        ArrayList<byte[]> compressedBlocks = new ArrayList<>();
+        ArrayList<Block> blocks = new ArrayList<>();
+        int blockCount = (lines.size() + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        long offset = HEADER_SIZE + (long) blockCount * INDEX_ENTRY_SIZE;
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            for (int from = 0; from < lines.size(); from += BLOCK_SIZE) {
+                List<String> blockLines = lines.subList(from, Math.min(from + BLOCK_SIZE, lines.size()));
+                byte[] records = encodeBlock(blockLines);
+                byte[] compressed = compress(deflater, records);
+                compressedBlocks.add(compressed);
+                blocks.add(new Block(offset, compressed.length, records.length, blockLines.size()));
+                offset += compressed.length;
+            }
+        } finally {
+            deflater.end();
+        }
+
+        Path snapshotPath = getSnapshotPath(filePath);
+        Path temporaryPath = Path.of(snapshotPath + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(temporaryPath))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(version.generation());
+            out.writeLong(version.rewriteGeneration());
+            out.writeLong(version.length());
+            out.writeLong(version.lastModified());
+            out.writeInt(lines.size());
+            out.writeInt(blocks.size());
+            for (Block block : blocks) {
+                out.writeLong(block.offset());
+                out.writeInt(block.compressedLength());
+                out.writeInt(block.length());
+                out.writeInt(block.recordCount());
+            }
+            for (byte[] compressed : compressedBlocks) {
+                out.write(compressed);
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(temporaryPath);
+            throw e;
+        }
+        try {
+            Files.move(temporaryPath, snapshotPath, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporaryPath, snapshotPath, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    static Path getSnapshotPath(String filePath) {
+        return Path.of(filePath + SNAPSHOT_FILE_SUFFIX);
+    }
+
+    private static byte[] compress(Deflater deflater, byte[] records) {
+        deflater.reset();
+        deflater.setInput(records);
+        deflater.finish();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(records.length / 4 + 64);
+        byte[] buffer = new byte[8192];
+        while (!deflater.finished()) {
+            compressed.write(buffer, 0, deflater.deflate(buffer));
+        }
+        return compressed.toByteArray();
+    }
+
+    private static byte[] encodeBlock(List<String> lines) {
+        ByteArrayOutputStream records = new ByteArrayOutputStream(lines.size() * 32);
+        long[] previousTime = new long[1];
+        for (String line : lines) {
+            long timeBefore = previousTime[0];
+            byte[] record = encodeRecord(line, previousTime);
+
+            // a line is only stored in the compact form if it comes back exactly the same
+            if (record != null && line.equals(decodeRecord(ByteBuffer.wrap(record), new long[] {timeBefore}))) {
+                records.writeBytes(record);
+            } else {
+                previousTime[0] = timeBefore;
+                records.write(RAW);
+                writeString(records, line);
+            }
+        }
+        return records.toByteArray();
+    }
+
+    /**
+     * Encodes a line of the storage file, or returns null if it is not in the layout of any kind of record.
+     */
+    private static byte[] encodeRecord(String line, long[] previousTime) {
+        String[] parts = line.split("\\|", -1);
+        int kind = parts[0].length() == 1 ? "TDER".indexOf(parts[0].charAt(0)) + 1 : RAW;
+        int fieldCount = kind + 2;
+        if (kind <= RAW || (parts.length != fieldCount && parts.length != fieldCount + 1)
+                || (!parts[1].equals("true") && !parts[1].equals("false"))) {
+            return null;
+        }
+        try {
+            int priority = parts.length > fieldCount ? Priority.valueOf(parts[fieldCount]).ordinal() + 1 : 0;
+            ByteArrayOutputStream record = new ByteArrayOutputStream(parts[2].length() + 16);
+            record.write(kind | (parts[1].equals("true") ? 1 << 3 : 0) | priority << 4);
+            writeString(record, parts[2]);
+            switch (kind) {
+            case DEADLINE:
+                writeTime(record, parts[3], previousTime);
+                break;
+            case EVENT:
+                writeTime(record, parts[3], previousTime);
+                writeTime(record, parts[4], previousTime);
+                break;
+            case RECURRING:
+                record.write(parts[3].equals("-") ? 0 : DayOfWeek.valueOf(parts[3]).getValue());
+                writeVarLong(record, DateParser.parseStorageTime(parts[4]).toSecondOfDay());
+                writeTime(record, parts[5], previousTime);
+                break;
+            default:
+                break;
+            }
+            return record.toByteArray();
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static String decodeRecord(ByteBuffer buffer, long[] previousTime) {
+        int header = buffer.get() & 0xFF;
+        int kind = header & 0x7;
+        if (kind == RAW) {
+            return readString(buffer);
+        }
+        StringBuilder line = new StringBuilder(64)
+                .append(TYPES[kind]).append('|')
+                .append((header & 1 << 3) != 0).append('|')
+                .append(readString(buffer));
+        switch (kind) {
+        case DEADLINE:
+            line.append('|').append(readTime(buffer, previousTime));
+            break;
+        case EVENT:
+            line.append('|').append(readTime(buffer, previousTime));
+            line.append('|').append(readTime(buffer, previousTime));
+            break;
+        case RECURRING:
+            int day = buffer.get();
+            line.append('|').append(day == 0 ? "-" : DayOfWeek.of(day).name());
+            line.append('|').append(LocalTime.ofSecondOfDay(readVarLong(buffer)));
+            line.append('|').append(readTime(buffer, previousTime));
+            break;
+        default:
+            break;
+        }
+        int priority = header >>> 4;
+        if (priority > 0) {
+            line.append('|').append(Priority.values()[priority - 1].name());
+        }
+        return line.toString();
+    }
+
+    /**
+     * Writes a date as the difference in seconds to the previous date of the block, followed by its nanoseconds.
+     */
+    private static void writeTime(OutputStream out, String storedTime, long[] previousTime) {
+        LocalDateTime time = DateParser.parseStorage(storedTime);
+        long seconds = time.toEpochSecond(ZoneOffset.UTC);
+        long delta = seconds - previousTime[0];
+        writeVarLong(out, delta << 1 ^ delta >> 63);
+        writeVarLong(out, time.getNano());
+        previousTime[0] = seconds;
+    }
+
+    private static LocalDateTime readTime(ByteBuffer buffer, long[] previousTime) {
+        long zigZag = readVarLong(buffer);
+        long seconds = previousTime[0] + (zigZag >>> 1 ^ -(zigZag & 1));
+        previousTime[0] = seconds;
+        return LocalDateTime.ofEpochSecond(seconds, (int) readVarLong(buffer), ZoneOffset.UTC);
+    }
+
+    private static void writeString(ByteArrayOutputStream out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length);
+        out.writeBytes(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = Math.toIntExact(readVarLong(buffer));
+        String value = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    private static void writeVarLong(OutputStream out, long value) {
+        try {
+            while ((value & ~0x7FL) != 0) {
+                out.write((int) (value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            out.write((int) value);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static long readVarLong(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("Malformed number in snapshot");
+    }
+}
@@ -0,0 +1,150 @@
+package mortalreminder.backend;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+
+import mortalreminder.backend.events.TaskEvent;
+import mortalreminder.backend.events.TaskEventSubscriber;
+import mortalreminder.errorhandling.MortalReminderException;
+
+/**
+ * Keeps the storage files in sync with the task lists by applying the published {@link TaskEvent}s.
+ * <p>
+ * Each storage file is written at most once per batch. When a batch only adds tasks to a file, the new
+ * lines are appended to it. Otherwise the file is read once, every event of the batch is applied to its
+ * lines in order and the file is rewritten once, so a burst of marks and deletes costs a single rewrite.
+ * The file stays locked from the read to the rewrite, so lines appended by another process are never lost.
+ * <p>
+ * The events say where their task is by its index in the list, which only matches the file while no other
+ * process has changed it. If other processes only appended lines, the indexes are moved past those lines. If
+ * they changed the file in any other way, every task is found by its line instead.
+ * <p>
+ * A batch that fails is handed again by the bus until it is written. The files of that batch that were
+ * already written are remembered and skipped on the retry, so no change is written twice.
+ */
+public class TaskStorageWriter implements TaskEventSubscriber {
+    private List<TaskEvent> lastBatch;
+    private final Set<String> writtenFiles = new HashSet<>();
+
+    @Override
+    public void onEvents(List<TaskEvent> events) throws MortalReminderException {
+        if (events != lastBatch) {
+            lastBatch = events;
+            writtenFiles.clear();
+        }
+        LinkedHashMap<String, List<TaskEvent>> eventsByFile = new LinkedHashMap<>();
+        for (TaskEvent event : events) {
+            eventsByFile.computeIfAbsent(event.storageFilePath(), filePath -> new ArrayList<>()).add(event);
+        }
+        for (String filePath : eventsByFile.keySet()) {
+            if (!writtenFiles.contains(filePath)) {
+                writeEvents(filePath, eventsByFile.get(filePath));
+                writtenFiles.add(filePath);
+            }
+        }
+    }
+
+    private static void writeEvents(String filePath, List<TaskEvent> events) throws MortalReminderException {
+        ArrayList<String> addedLines = new ArrayList<>();
+        for (TaskEvent event : events) {
+            if (!(event instanceof TaskEvent.TaskAdded added)) {
+                rewriteFile(filePath, events);
+                return;
+            }
+            addedLines.add(added.fileLine());
+        }
+        TaskListStorage.appendLines(filePath, addedLines);
+    }
+
+    private static void rewriteFile(String filePath, List<TaskEvent> events) throws MortalReminderException {
+        TaskListStorage.rewriteLines(filePath, (lines, knownLineCount) -> {
+            if (knownLineCount < 0) {
+                applyByContent(lines, events);
+            } else {
+                applyByIndex(lines, knownLineCount, events);
+            }
+        });
+    }
+
+    /**
+     * Applies the events to the lines of a file whose first {@code knownLineCount} lines are the lines of the list
+     * before the events, followed by any lines other processes appended since. The tasks added by the events go
+     * after those lines, so an index of the list past the known lines is moved past the appended ones.
+     */
+    private static void applyByIndex(List<String> lines, int knownLineCount, List<TaskEvent> events) {
+        int appendedLineCount = lines.size() - knownLineCount;
+        int ownLineCount = knownLineCount;
+        for (TaskEvent event : events) {
+            if (event instanceof TaskEvent.TaskAdded added) {
+                lines.add(added.fileLine());
+            } else if (event instanceof TaskEvent.TaskUpdated updated) {
+                int lineIndex = getLineIndex(updated.index(), ownLineCount, appendedLineCount);
+                if (lineIndex < lines.size()) {
+                    lines.set(lineIndex, updated.fileLine());
+                }
+            } else if (event instanceof TaskEvent.TaskRemoved removed) {
+                int lineIndex = getLineIndex(removed.index(), ownLineCount, appendedLineCount);
+                if (lineIndex < lines.size()) {
+                    lines.remove(lineIndex);
+                    ownLineCount -= removed.index() < ownLineCount ? 1 : 0;
+                }
+            } else if (event instanceof TaskEvent.TasksCleared) {
+                // the lines appended by other processes were never in the list, so they are kept
+                lines.subList(ownLineCount + appendedLineCount, lines.size()).clear();
+                lines.subList(0, ownLineCount).clear();
+                ownLineCount = 0;
+            }
+        }
+    }
+
+    /**
+     * Returns the line of the file of the task at the given index of the list, where an index past the end of the
+     * file can only come from a list that was never saved to it.
+     */
+    private static int getLineIndex(int index, int ownLineCount, int appendedLineCount) {
+        return index < ownLineCount ? index : index + appendedLineCount;
+    }
+
+    /**
+     * Applies the events to the lines of a file that another process changed since the list was read from it, so
+     * that the indexes of the list no longer say where its tasks are. Each task is found by the line it had instead,
+     * taking the copy closest to its index if there are several. A task whose line is gone was changed or deleted
+     * by the other process, whose version is kept.
+     */
+    private static void applyByContent(List<String> lines, List<TaskEvent> events) {
+        for (TaskEvent event : events) {
+            if (event instanceof TaskEvent.TaskAdded added) {
+                lines.add(added.fileLine());
+            } else if (event instanceof TaskEvent.TaskUpdated updated) {
+                int lineIndex = findLine(lines, updated.previousFileLine(), updated.index());
+                if (lineIndex >= 0) {
+                    lines.set(lineIndex, updated.fileLine());
+                }
+            } else if (event instanceof TaskEvent.TaskRemoved removed) {
+                int lineIndex = findLine(lines, removed.fileLine(), removed.index());
+                if (lineIndex >= 0) {
+                    lines.remove(lineIndex);
+                }
+            } else if (event instanceof TaskEvent.TasksCleared) {
+                lines.clear();
+            }
+        }
+    }
+
+    /**
+     * Returns the index of the copy of the line closest to the given index, or -1 if the line is not there.
+     */
+    private static int findLine(List<String> lines, String line, int index) {
+        for (int distance = 0; distance <= Math.max(index, lines.size() - index); distance++) {
+            if (index - distance >= 0 && index - distance < lines.size() && lines.get(index - distance).equals(line)) {
+                return index - distance;
+            } else if (index + distance < lines.size() && lines.get(index + distance).equals(line)) {
+                return index + distance;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,619 @@
+package mortalreminder.backend;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import mortalreminder.errorhandling.MortalReminderException;
+import mortalreminder.tasks.DateParser;
+import mortalreminder.tasks.Priority;
+import mortalreminder.tasks.Task;
+
+/**
+ * The file formats tasks can be exported to and imported from.
+ * <p>
+ * Every format converts between its own records and the storage file format of the tasks, so a record is
+ * turned into a {@link Task} by the same parser that loads the storage file. Writing and reading records
+ * is done one record at a time, so files of any size are streamed through a constant amount of memory.
+ * Converting a record that has already been read into the storage format does not share any state,
+ * which allows records to be converted in parallel.
+ */
+public enum TransferFormat {
+    /**
+     * One JSON object per line, holding every field of a task.
+     */
+    JSON_LINES("jsonl") {
+        @Override
+        public boolean writeTask(Writer writer, Task task) throws IOException {
+            String[] fields = task.convertToFileFormat().split("\\|", -1);
+            List<String> fieldNames = FIELD_NAMES.get(fields[0]);
+            StringBuilder json = new StringBuilder("{\"type\":\"").append(fields[0])
+                    .append("\",\"done\":").append(fields[1])
+                    .append(",\"description\":").append(quoteJson(fields[2]));
+            for (int i = 0; i < fieldNames.size(); i++) {
+                json.append(",\"").append(fieldNames.get(i)).append("\":").append(quoteJson(fields[i + 3]));
+            }
+            if (fields.length > fieldNames.size() + 3) {
+                json.append(",\"priority\":").append(quoteJson(fields[fields.length - 1].toLowerCase()));
+            }
+            writer.write(json.append("}\n").toString());
+            return true;
+        }
+
+        @Override
+        public String readRecord(BufferedReader reader) throws IOException {
+            String line = reader.readLine();
+            while (line != null && line.isBlank()) {
+                line = reader.readLine();
+            }
+            return line;
+        }
+
+        @Override
+        public String toStorageLine(String record) throws MortalReminderException {
+            return buildStorageLine(parseJsonObject(record));
+        }
+    },
+
+    /**
+     * Comma separated values with a header row, quoted as described in RFC 4180.
+     */
+    CSV("csv") {
+        @Override
+        public void writeHeader(Writer writer) throws IOException {
+            writer.write(String.join(",", CSV_COLUMNS) + "\n");
+        }
+
+        @Override
+        public boolean writeTask(Writer writer, Task task) throws IOException {
+            String[] fields = task.convertToFileFormat().split("\\|", -1);
+            List<String> fieldNames = FIELD_NAMES.get(fields[0]);
+            String[] row = new String[CSV_COLUMNS.size()];
+            row[0] = fields[0];
+            row[1] = fields[1];
+            row[2] = quoteCsv(fields[2]);
+            for (int i = 0; i < fieldNames.size(); i++) {
+                row[CSV_COLUMNS.indexOf(fieldNames.get(i))] = quoteCsv(fields[i + 3]);
+            }
+            if (fields.length > fieldNames.size() + 3) {
+                row[CSV_COLUMNS.indexOf("priority")] = fields[fields.length - 1].toLowerCase();
+            }
+            StringBuilder line = new StringBuilder();
+            for (int i = 0; i < row.length; i++) {
+                line.append(i == 0 ? "" : ",").append(row[i] == null ? "" : row[i]);
+            }
+            writer.write(line.append("\n").toString());
+            return true;
+        }
+
+        @Override
+        public String readRecord(BufferedReader reader) throws IOException {
+            String line = reader.readLine();
+            while (line != null && (line.isBlank() || line.startsWith(CSV_COLUMNS.get(0) + ","))) {
+                line = reader.readLine();
+            }
+            if (line == null) {
+                return null;
+            }
+            // a quoted value can span several lines, which leaves an odd number of quotes on the line
+            StringBuilder record = new StringBuilder(line);
+            while (line != null && countQuotes(record) % 2 == 1) {
+                line = reader.readLine();
+                record.append("\n").append(line == null ? "" : line);
+            }
+            return record.toString();
+        }
+
+        @Override
+        public String toStorageLine(String record) throws MortalReminderException {
+            List<String> values = parseCsvRow(record);
+            // files exported before tasks had priorities have no priority column
+            if (values.size() != CSV_COLUMNS.size() && values.size() != CSV_COLUMNS.size() - 1) {
+                throw new MortalReminderException(MortalReminderException.getInvalidImportRecordErrorMessage());
+            }
+            HashMap<String, String> fields = new HashMap<>();
+            for (int i = 0; i < values.size(); i++) {
+                if (!values.get(i).isEmpty()) {
+                    fields.put(CSV_COLUMNS.get(i), values.get(i));
+                }
+            }
+            return buildStorageLine(fields);
+        }
+    },
+
+    /**
+     * iCalendar, where deadlines are exported as to-dos with a due date and events as events.
+     * Other tasks have no single date to put in a calendar so they are skipped.
+     * Priorities are written as the PRIORITY property, where 1 is the highest, 5 is medium and 9 is the lowest.
+     */
+    ICALENDAR("ics") {
+        @Override
+        public void writeHeader(Writer writer) throws IOException {
+            writer.write("BEGIN:VCALENDAR\r\nVERSION:2.0\r\nPRODID:-//Mortal Reminder//EN\r\n");
+        }
+
+        @Override
+        public boolean writeTask(Writer writer, Task task) throws IOException {
+            String[] fields = task.convertToFileFormat().split("\\|", -1);
+            StringBuilder component = new StringBuilder();
+            switch (fields[0]) {
+            case "D":
+                component.append("BEGIN:VTODO\r\n")
+                        .append("DUE:").append(formatIcsTime(fields[3])).append("\r\n");
+                if (Boolean.parseBoolean(fields[1])) {
+                    component.append("STATUS:COMPLETED\r\n");
+                }
+                break;
+            case "E":
+                component.append("BEGIN:VEVENT\r\n")
+                        .append("DTSTART:").append(formatIcsTime(fields[3])).append("\r\n")
+                        .append("DTEND:").append(formatIcsTime(fields[4])).append("\r\n");
+                break;
+            default:
+                return false;
+            }
+            if (task.getPriority() != Priority.NONE) {
+                component.append("PRIORITY:").append(ICS_PRIORITIES.get(task.getPriority())).append("\r\n");
+            }
+            String componentName = fields[0].equals("D") ? "VTODO" : "VEVENT";
+            component.append("UID:").append(UUID.randomUUID()).append("@mortalreminder\r\n")
+                    .append("DTSTAMP:").append(LocalDateTime.now(ZoneOffset.UTC).format(ICS_TIME_FORMATTER))
+                    .append("Z\r\n")
+                    .append("SUMMARY:").append(escapeIcsText(fields[2])).append("\r\n")
+                    .append("END:").append(componentName).append("\r\n");
+            writer.write(component.toString());
+            return true;
+        }
+
+        @Override
+        public void writeFooter(Writer writer) throws IOException {
+            writer.write("END:VCALENDAR\r\n");
+        }
+
+        @Override
+        public String readRecord(BufferedReader reader) throws IOException {
+            StringBuilder record = null;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (record == null) {
+                    if (line.equals("BEGIN:VEVENT") || line.equals("BEGIN:VTODO")) {
+                        record = new StringBuilder(line);
+                    }
+                    continue;
+                }
+                if (line.startsWith(" ") || line.startsWith("\t")) {
+                    // a folded line continues the previous one without the leading whitespace
+                    record.append(line, 1, line.length());
+                    continue;
+                }
+                record.append("\n").append(line);
+                if (line.equals("END:VEVENT") || line.equals("END:VTODO")) {
+                    return record.toString();
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public String toStorageLine(String record) throws MortalReminderException {
+            HashMap<String, String> properties = new HashMap<>();
+            HashMap<String, String> timeZones = new HashMap<>();
+            for (String line : record.split("\n")) {
+                int colon = line.indexOf(':');
+                if (colon < 0) {
+                    continue;
+                }
+                String[] nameAndParameters = line.substring(0, colon).split(";");
+                properties.putIfAbsent(nameAndParameters[0].toUpperCase(), line.substring(colon + 1));
+                for (int i = 1; i < nameAndParameters.length; i++) {
+                    if (nameAndParameters[i].toUpperCase().startsWith("TZID=")) {
+                        timeZones.put(nameAndParameters[0].toUpperCase(), nameAndParameters[i].substring(5));
+                    }
+                }
+            }
+
+            HashMap<String, String> fields = new HashMap<>();
+            fields.put("description", unescapeIcsText(properties.getOrDefault("SUMMARY", "")));
+            if (record.startsWith("BEGIN:VTODO")) {
+                fields.put("done", String.valueOf("COMPLETED".equalsIgnoreCase(properties.get("STATUS"))));
+                String due = properties.get("DUE");
+                fields.put("type", due == null ? "T" : "D");
+                if (due != null) {
+                    fields.put("by", parseIcsTime(due, timeZones.get("DUE")));
+                }
+            } else {
+                String start = properties.get("DTSTART");
+                if (start == null) {
+                    throw new MortalReminderException(MortalReminderException.getInvalidImportRecordErrorMessage());
+                }
+                String end = properties.getOrDefault("DTEND", start);
+                fields.put("type", "E");
+                fields.put("done", "false");
+                fields.put("from", parseIcsTime(start, timeZones.get("DTSTART")));
+                fields.put("to", parseIcsTime(end, timeZones.getOrDefault("DTEND", timeZones.get("DTSTART"))));
+            }
+            if (properties.containsKey("PRIORITY")) {
+                fields.put("priority", parseIcsPriority(properties.get("PRIORITY")));
+            }
+            return buildStorageLine(fields);
+        }
+    };
+
+    // names of the fields that follow the description in the storage format of each task type
+    private static final Map<String, List<String>> FIELD_NAMES = Map.of(
+            "T", List.of(),
+            "D", List.of("by"),
+            "E", List.of("from", "to"),
+            "R", List.of("day", "time", "start"));
+    private static final List<String> CSV_COLUMNS = List.of(
+            "type", "done", "description", "by", "from", "to", "day", "time", "start", "priority");
+    private static final Map<Priority, Integer> ICS_PRIORITIES = Map.of(
+            Priority.HIGH, 1,
+            Priority.MEDIUM, 5,
+            Priority.LOW, 9);
+    private static final DateTimeFormatter ICS_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+
+    private final String fileExtension;
+
+    TransferFormat(String fileExtension) {
+        this.fileExtension = fileExtension;
+    }
+
+    /**
+     * Returns the format matching the extension of the given file name.
+     *
+     * @param fileName the name of the file to export to or import from.
+     * @return the format of the file.
+     * @throws MortalReminderException if the extension is not one of the supported formats.
+     */
+    public static TransferFormat fromFileName(String fileName) throws MortalReminderException {
+        for (TransferFormat format : values()) {
+            if (fileName.toLowerCase().endsWith("." + format.fileExtension)) {
+                return format;
+            }
+        }
+        throw new MortalReminderException(MortalReminderException.getInvalidTransferFileErrorMessage());
+    }
+
+    /**
+     * Writes whatever comes before the first task in the file.
+     *
+     * @param writer the writer of the export file.
+     * @throws IOException if the file cannot be written to.
+     */
+    public void writeHeader(Writer writer) throws IOException {
+    }
+
+    /**
+     * Writes a single task as a record of this format.
+     *
+     * @param writer the writer of the export file.
+     * @param task   the task to write.
+     * @return whether the task was written, as some formats cannot hold every type of task.
+     * @throws IOException if the file cannot be written to.
+     */
+    public abstract boolean writeTask(Writer writer, Task task) throws IOException;
+
+    /**
+     * Writes whatever comes after the last task in the file.
+     *
+     * @param writer the writer of the export file.
+     * @throws IOException if the file cannot be written to.
+     */
+    public void writeFooter(Writer writer) throws IOException {
+    }
+
+    /**
+     * Reads the raw text of the next record, skipping anything in between records.
+     *
+     * @param reader the reader of the import file.
+     * @return the text of the next record, or {@code null} at the end of the file.
+     * @throws IOException if the file cannot be read.
+     */
+    public abstract String readRecord(BufferedReader reader) throws IOException;
+
+    /**
+     * Converts the raw text of a record into the storage file format of the task it holds.
+     *
+     * @param record the text returned by {@link #readRecord(BufferedReader)}.
+     * @return the task in storage file format.
+     * @throws MortalReminderException if the record is malformed.
+     */
+    public abstract String toStorageLine(String record) throws MortalReminderException;
+
+    private static String buildStorageLine(Map<String, String> fields) throws MortalReminderException {
+        String type = fields.getOrDefault("type", "").toUpperCase();
+        List<String> fieldNames = FIELD_NAMES.get(type);
+        String description = fields.get("description");
+        if (fieldNames == null || description == null) {
+            throw new MortalReminderException(MortalReminderException.getInvalidImportRecordErrorMessage());
+        }
+
+        StringBuilder storageLine = new StringBuilder(type).append("|")
+                .append(Boolean.parseBoolean(fields.get("done"))).append("|")
+                .append(description);
+        for (String fieldName : fieldNames) {
+            String value = fields.get(fieldName);
+            if (value == null) {
+                throw new MortalReminderException(MortalReminderException.getInvalidImportRecordErrorMessage());
+            }
+            storageLine.append("|").append(value);
+        }
+        int separatorCount = fieldNames.size() + 2;
+        Priority priority = parsePriority(fields.get("priority"));
+        if (priority != Priority.NONE) {
+            storageLine.append("|").append(priority.name());
+            separatorCount++;
+        }
+        // the storage format separates fields with "|" and holds one task per line
+        if (storageLine.chars().filter(c -> c == '|').count() != separatorCount
+                || storageLine.indexOf("\n") >= 0) {
+            throw new MortalReminderException(MortalReminderException.getInvalidImportRecordErrorMessage());
+        }
+        return storageLine.toString();
+    }
+
+    private static Priority parsePriority(String priority) throws MortalReminderException {
+        if (priority == null || priority.isBlank()) {
+            return Priority.NONE;
+        }
+        try {
+            return Priority.valueOf(priority.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new MortalReminderException(MortalReminderException.getInvalidImportRecordErrorMessage());
+        }
+    }
+
+    private static String quoteJson(String value) {
+        StringBuilder quoted = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+            case '"':
+                quoted.append("\\\"");
+                break;
+            case '\\':
+                quoted.append("\\\\");
+                break;
+            case '\n':
+                quoted.append("\\n");
+                break;
+            case '\t':
+                quoted.append("\\t");
+                break;
+            default:
+                if (c < 0x20) {
+                    quoted.append(String.format("\\u%04x", (int) c));
+                } else {
+                    quoted.append(c);
+                }
+            }
+        }
+        return quoted.append("\"").toString();
+    }
+
+    /**
+     * Parses a flat JSON object whose values are strings, booleans, numbers or null.
+     * Values are returned as text, and null values are left out.
+     */
+    private static Map<String, String> parseJsonObject(String json) throws MortalReminderException {
+        HashMap<String, String> fields = new HashMap<>();
+        int[] position = {skipWhitespace(json, 0)};
+        expect(json, position, '{');
+        if (peek(json, position) == '}') {
+            return fields;
+        }
+        while (true) {
+            String key = parseJsonString(json, position);
+            expect(json, position, ':');
+            String value = peek(json, position) == '"'
+                    ? parseJsonString(json, position)
+                    : parseJsonLiteral(json, position);
+            if (value != null) {
+                fields.put(key, value);
+            }
+            char next = peek(json, position);
+            position[0]++;
+            if (next == '}') {
+                return fields;
+            } else if (next != ',') {
+                throw new MortalReminderException(MortalReminderException.getInvalidImportRecordErrorMessage());
+            }
+        }
+    }
+
+    private static String parseJsonString(String json, int[] position) throws MortalReminderException {
+        expect(json, position, '"');
+        StringBuilder value = new StringBuilder();
+        int i = position[0];
+        while (i < json.length() && json.charAt(i) != '"') {
+            char c = json.charAt(i++);
+            if (c != '\\') {
+                value.append(c);
+                continue;
+            }
+            if (i >= json.length()) {
+                break;
+            }
+            char escaped = json.charAt(i++);
+            switch (escaped) {
+            case 'n':
+                value.append('\n');
+                break;
+            case 't':
+                value.append('\t');
+                break;
+            case 'r':
+                value.append('\r');
+                break;
+            case 'b':
+                value.append('\b');
+                break;
+            case 'f':
+                value.append('\f');
+                break;
+            case 'u':
+                if (i + 4 > json.length()) {
+                    throw new MortalReminderException(MortalReminderException.getInvalidImportRecordErrorMessage());
+                }
+                value.append((char) Integer.parseInt(json.substring(i, i + 4), 16));
+                i += 4;
+                break;
+            default:
+                value.append(escaped);
+            }
+        }
+        if (i >= json.length()) {
+            throw new MortalReminderException(MortalReminderException.getInvalidImportRecordErrorMessage());
+        }
+        position[0] = skipWhitespace(json, i + 1);
+        return value.toString();
+    }
+
+    private static String parseJsonLiteral(String json, int[] position) {
+        int start = position[0];
+        int end = start;
+        while (end < json.length() && ",}".indexOf(json.charAt(end)) < 0) {
+            end++;
+        }
+        position[0] = end;
+        String literal = json.substring(start, end).trim();
+        return literal.equals("null") ? null : literal;
+    }
+
+    private static void expect(String json, int[] position, char expected) throws MortalReminderException {
+        if (peek(json, position) != expected) {
+            throw new MortalReminderException(MortalReminderException.getInvalidImportRecordErrorMessage());
+        }
+        position[0] = skipWhitespace(json, position[0] + 1);
+    }
+
+    private static char peek(String json, int[] position) {
+        position[0] = skipWhitespace(json, position[0]);
+        return position[0] < json.length() ? json.charAt(position[0]) : '\0';
+    }
+
+    private static int skipWhitespace(String text, int position) {
+        while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+            position++;
+        }
+        return position;
+    }
+
+    private static String quoteCsv(String value) {
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+
+    private static List<String> parseCsvRow(String row) {
+        ArrayList<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean isQuoted = false;
+        for (int i = 0; i < row.length(); i++) {
+            char c = row.charAt(i);
+            if (isQuoted) {
+                if (c == '"' && i + 1 < row.length() && row.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    isQuoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                isQuoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else if (c != '\r') {
+                value.append(c);
+            }
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    private static int countQuotes(CharSequence text) {
+        int count = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '"') {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static String formatIcsTime(String storedTime) {
+        return DateParser.parseStorage(storedTime).format(ICS_TIME_FORMATTER);
+    }
+
+    /**
+     * Converts an iCalendar date or date-time into the local time of the user.
+     * Times in UTC or in another time zone are shifted, floating times are kept as they are.
+     */
+    private static String parseIcsTime(String value, String timeZone) throws MortalReminderException {
+        try {
+            if (value.length() == 8) {
+                value = value + "T000000";
+            }
+            boolean isUtc = value.endsWith("Z");
+            LocalDateTime time = LocalDateTime.parse(isUtc ? value.substring(0, value.length() - 1) : value,
+                    ICS_TIME_FORMATTER);
+            if (isUtc || timeZone != null) {
+                ZoneId zone = isUtc ? ZoneOffset.UTC : ZoneId.of(timeZone);
+                time = time.atZone(zone).withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+            }
+            return time.toString();
+        } catch (RuntimeException e) {
+            throw new MortalReminderException(MortalReminderException.getInvalidImportRecordErrorMessage());
+        }
+    }
+
+    /**
+     * Converts an iCalendar priority into a priority level, where 0 means undefined,
+     * 1 to 4 are high, 5 is medium and 6 to 9 are low.
+     */
+    private static String parseIcsPriority(String value) throws MortalReminderException {
+        try {
+            int priority = Integer.parseInt(value.trim());
+            if (priority < 0 || priority > 9) {
+                throw new MortalReminderException(MortalReminderException.getInvalidImportRecordErrorMessage());
+            }
+            Priority level = priority == 0 ? Priority.NONE
+                    : priority < 5 ? Priority.HIGH
+                    : priority == 5 ? Priority.MEDIUM
+                    : Priority.LOW;
+            return level.name();
+        } catch (NumberFormatException e) {
+            throw new MortalReminderException(MortalReminderException.getInvalidImportRecordErrorMessage());
+        }
+    }
+
+    private static String escapeIcsText(String text) {
+        return text.replace("\\", "\\\\").replace(";", "\\;").replace(",", "\\,").replace("\n", "\\n");
+    }
+
+    private static String unescapeIcsText(String text) {
+        StringBuilder unescaped = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\\' && i + 1 < text.length()) {
+                char escaped = text.charAt(++i);
+                unescaped.append(escaped == 'n' || escaped == 'N' ? '\n' : escaped);
+            } else {
+                unescaped.append(c);
+            }
+        }
+        return unescaped.toString();
+    }
+}
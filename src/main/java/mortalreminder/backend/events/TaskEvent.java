@@ -0,0 +1,46 @@
+package mortalreminder.backend.events;
+
+import mortalreminder.tasks.Task;
+
+/**
+ * Represents a change to the tasks of a {@link mortalreminder.backend.tasklistmanager.TaskList}
+ * that is published on the {@link TaskEventBus}.
+ * <p>
+ * Every event records the storage file of the list it happened to, and events that change a line of the
+ * file carry that line as it was when the event was published, since the task itself can change again
+ * before a subscriber gets to the event.
+ */
+public sealed interface TaskEvent permits TaskEvent.TaskAdded, TaskEvent.TaskUpdated, TaskEvent.TaskRemoved,
+        TaskEvent.TasksCleared {
+
+    /**
+     * Returns the path of the storage file of the list the event happened to.
+     */
+    String storageFilePath();
+
+    /**
+     * A task was added to the end of the list.
+     */
+    record TaskAdded(String storageFilePath, Task task, String fileLine) implements TaskEvent {
+    }
+
+    /**
+     * The task at the given position of the list was changed, such as being marked as done, from the line
+     * {@code previousFileLine} to {@code fileLine}.
+     */
+    record TaskUpdated(String storageFilePath, int index, Task task, String previousFileLine, String fileLine)
+            implements TaskEvent {
+    }
+
+    /**
+     * The task at the given position of the list, with the given line, was removed.
+     */
+    record TaskRemoved(String storageFilePath, int index, Task task, String fileLine) implements TaskEvent {
+    }
+
+    /**
+     * All tasks were removed from the list.
+     */
+    record TasksCleared(String storageFilePath) implements TaskEvent {
+    }
+}
@@ -0,0 +1,229 @@
+package mortalreminder.backend.events;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import mortalreminder.backend.TaskHistory;
+import mortalreminder.backend.TaskStorageWriter;
+import mortalreminder.errorhandling.MortalReminderException;
+
+/**
+ * An in-process feed of {@link TaskEvent}s backed by a fixed size ring buffer, in the style of the
+ * LMAX Disruptor.
+ * <p>
+ * Publishing an event only stores it in the next slot of the ring and advances the published sequence,
+ * so the command path never waits for slow consumers such as the storage file. Every subscriber runs on
+ * its own thread with its own sequence, and on waking up takes every event between its sequence and the
+ * published one as a single batch. A slot is only reused once every subscriber has moved past it, and a
+ * publisher that gets a full ring ahead of the slowest subscriber waits for it to catch up, unless that
+ * subscriber is failing, in which case the publisher gives up with its error instead of waiting forever.
+ * <p>
+ * A subscriber that fails to handle a batch is handed the same batch again, after a pause that doubles up to
+ * {@code MAX_RETRY_NANOS}, until it succeeds. Its sequence does not move on in the meantime, so no published
+ * event is dropped, and every publish, flush and {@link #checkFailure()} reports the error until the retry succeeds.
+ * <p>
+ * The shared bus always has the {@link TaskStorageWriter} subscribed so that no change is lost, and all
+ * pending events are flushed when the JVM shuts down.
+ */
+public class TaskEventBus {
+    public static final int RING_SIZE = 1024;
+    private static final long WAIT_NANOS = 50_000;
+    private static final long FIRST_RETRY_NANOS = 10_000_000;
+    private static final long MAX_RETRY_NANOS = 5_000_000_000L;
+
+    private static final TaskEventBus INSTANCE = createSharedBus();
+
+    private final TaskEvent[] ring = new TaskEvent[RING_SIZE];
+    private final AtomicLong publishedSequence = new AtomicLong(-1);
+    private final List<Worker> workers = new CopyOnWriteArrayList<>();
+
+    /**
+     * Delivers events to one subscriber on a dedicated daemon thread.
+     */
+    private class Worker implements Runnable {
+        private final TaskEventSubscriber subscriber;
+        private final AtomicLong consumedSequence;
+        private final Thread thread;
+        // the error of the batch being retried, null while the subscriber keeps up
+        private volatile MortalReminderException failure;
+
+        private Worker(TaskEventSubscriber subscriber, long startSequence) {
+            this.subscriber = subscriber;
+            this.consumedSequence = new AtomicLong(startSequence);
+            this.thread = new Thread(this, "task-events-" + subscriber.getClass().getSimpleName());
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                long next = consumedSequence.get() + 1;
+                long available = publishedSequence.get();
+                if (available < next) {
+                    // the publisher unparks this thread after publishing, so no wake up is missed
+                    LockSupport.park(this);
+                    continue;
+                }
+
+                ArrayList<TaskEvent> batch = new ArrayList<>((int) (available - next + 1));
+                for (long sequence = next; sequence <= available; sequence++) {
+                    batch.add(ring[getSlot(sequence)]);
+                }
+                handleUntilSuccessful(batch);
+                consumedSequence.set(available);
+            }
+        }
+
+        /**
+         * Hands the batch to the subscriber until it is handled, pausing longer after every failure.
+         * The same list is handed every time, so a subscriber can tell a retry from a new batch.
+         */
+        private void handleUntilSuccessful(List<TaskEvent> batch) {
+            long retryNanos = FIRST_RETRY_NANOS;
+            while (true) {
+                try {
+                    subscriber.onEvents(batch);
+                    failure = null;
+                    return;
+                } catch (MortalReminderException e) {
+                    failure = e;
+                } catch (RuntimeException e) {
+                    failure = new MortalReminderException(
+                            MortalReminderException.getStorageFileCorruptedErrorMessage());
+                }
+                // publishers unpark this thread too, so the pause is measured against a deadline
+                long retryAt = System.nanoTime() + retryNanos;
+                for (long remaining = retryNanos; remaining > 0; remaining = retryAt - System.nanoTime()) {
+                    LockSupport.parkNanos(this, remaining);
+                }
+                retryNanos = Math.min(retryNanos * 2, MAX_RETRY_NANOS);
+            }
+        }
+    }
+
+    private static TaskEventBus createSharedBus() {
+        TaskEventBus bus = new TaskEventBus();
+        bus.subscribe(new TaskStorageWriter());
+        bus.subscribe(TaskHistory.getInstance());
+        Runtime.getRuntime().addShutdownHook(new Thread(bus::awaitSubscribers));
+        return bus;
+    }
+
+    /**
+     * Returns the bus that all task lists of the app publish to.
+     *
+     * @return the shared event bus.
+     */
+    public static TaskEventBus getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Registers a subscriber, which receives every event published from now on.
+     *
+     * @param subscriber the subscriber to deliver events to.
+     */
+    public synchronized void subscribe(TaskEventSubscriber subscriber) {
+        Worker worker = new Worker(subscriber, publishedSequence.get());
+        workers.add(worker);
+        worker.thread.start();
+    }
+
+    /**
+     * Publishes an event to all subscribers without waiting for them to handle it.
+     *
+     * @param event the change to publish.
+     * @throws MortalReminderException if a subscriber is failing to handle earlier events. The events are
+     *                                 published all the same and handled once the subscriber recovers.
+     */
+    public void publish(TaskEvent event) throws MortalReminderException {
+        publishAll(List.of(event));
+    }
+
+    /**
+     * Publishes a batch of events in order, waking the subscribers once instead of once per event.
+     *
+     * @param events the changes to publish, oldest first.
+     * @throws MortalReminderException if a subscriber is failing to handle earlier events. The events are
+     *                                 published all the same and handled once the subscriber recovers, except
+     *                                 for those that find the ring full, as a failing subscriber may never make
+     *                                 room for them.
+     */
+    public synchronized void publishAll(List<TaskEvent> events) throws MortalReminderException {
+        for (TaskEvent event : events) {
+            long sequence = publishedSequence.get() + 1;
+            while (sequence - RING_SIZE > getSlowestSequence()) {
+                wakeSubscribers();
+                rethrowFailure();
+                LockSupport.parkNanos(WAIT_NANOS);
+            }
+            ring[getSlot(sequence)] = event;
+            publishedSequence.set(sequence);
+        }
+        wakeSubscribers();
+        rethrowFailure();
+    }
+
+    /**
+     * Waits until every subscriber has handled all events published so far.
+     * This is called before the storage files are read or written directly, so that they are up to date.
+     *
+     * @throws MortalReminderException if a subscriber is failing to handle its events, in which case this returns
+     *                                 without waiting for it.
+     */
+    public void flush() throws MortalReminderException {
+        awaitSubscribers();
+        rethrowFailure();
+    }
+
+    /**
+     * Reports a subscriber that is failing to handle its events, without waiting for any of them.
+     * This is called before every command, so that nothing more is changed until the events already published
+     * have been handled.
+     *
+     * @throws MortalReminderException if a subscriber is failing to handle its events.
+     */
+    public void checkFailure() throws MortalReminderException {
+        rethrowFailure();
+    }
+
+    private void awaitSubscribers() {
+        long target = publishedSequence.get();
+        for (Worker worker : workers) {
+            while (worker.consumedSequence.get() < target && worker.failure == null) {
+                LockSupport.unpark(worker.thread);
+                LockSupport.parkNanos(WAIT_NANOS);
+            }
+        }
+    }
+
+    private void wakeSubscribers() {
+        for (Worker worker : workers) {
+            LockSupport.unpark(worker.thread);
+        }
+    }
+
+    private long getSlowestSequence() {
+        long slowest = publishedSequence.get();
+        for (Worker worker : workers) {
+            slowest = Math.min(slowest, worker.consumedSequence.get());
+        }
+        return slowest;
+    }
+
+    private void rethrowFailure() throws MortalReminderException {
+        for (Worker worker : workers) {
+            MortalReminderException error = worker.failure;
+            if (error != null) {
+                throw error;
+            }
+        }
+    }
+
+    private static int getSlot(long sequence) {
+        return (int) (sequence & (RING_SIZE - 1));
+    }
+}
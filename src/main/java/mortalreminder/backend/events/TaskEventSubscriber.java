@@ -0,0 +1,26 @@
+package mortalreminder.backend.events;
+
+import java.util.List;
+
+import mortalreminder.errorhandling.MortalReminderException;
+
+/**
+ * Consumes the events published on a {@link TaskEventBus}.
+ * <p>
+ * Each subscriber runs on its own thread and is handed every event that was published since its last
+ * batch, in publishing order, so that expensive work such as writing to a file is done once per batch
+ * instead of once per change.
+ */
+public interface TaskEventSubscriber {
+
+    /**
+     * Handles a batch of events.
+     *
+     * @param events the events published since the previous batch, oldest first.
+     * @throws MortalReminderException if the events could not be handled. The same list is then handed again,
+     *                                 possibly after part of it was handled, until this returns normally, and
+     *                                 the error is reported to every publisher and caller of
+     *                                 {@link TaskEventBus#flush()} in the meantime.
+     */
+    void onEvents(List<TaskEvent> events) throws MortalReminderException;
+}
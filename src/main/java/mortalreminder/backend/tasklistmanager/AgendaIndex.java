@@ -0,0 +1,301 @@
+package mortalreminder.backend.tasklistmanager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+
+import mortalreminder.tasks.Deadline;
+import mortalreminder.tasks.Event;
+import mortalreminder.tasks.RecurringTask;
+import mortalreminder.tasks.Task;
+import mortalreminder.tasks.TimedTask;
+
+/**
+ * Keeps the deadlines and events of the list in a bucket for the calendar day they fall on, so that the agenda
+ * of a day, a week or a month only looks at the tasks of those days.
+ * <p>
+ * A deadline, or an event within one day, is in the bucket of its day. The buckets are kept in a {@link TreeMap}
+ * by day, so the days of a range are found with one lookup and days without tasks cost nothing. An event that
+ * spans several days is only kept once, so adding it costs the same however long it lasts. These events are kept
+ * in an interval tree, a treap sorted by first day in which every node also knows the latest last day in its
+ * subtree. A subtree whose events all end before a range, or whose events all start after it, is skipped, so
+ * only the events that overlap the range are visited and spread over the days of the range they cover.
+ * Recurring tasks have no end, so they are kept aside and only their occurrences in the range asked for are
+ * worked out.
+ */
+public class AgendaIndex implements TaskIndex {
+    private final TreeMap<LocalDate, ArrayList<Task>> tasksByDay = new TreeMap<>();
+    // the day of every task in the buckets
+    private final IdentityHashMap<Task, LocalDate> dayByTask = new IdentityHashMap<>();
+    private final IdentityHashMap<Task, EventNode> multiDayEvents = new IdentityHashMap<>();
+    private final Set<RecurringTask> recurringTasks = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final SplittableRandom random = new SplittableRandom(0);
+    private EventNode root;
+    private long nextSequence;
+
+    private static final class EventNode {
+        private final Task event;
+        private final LocalDate firstDay;
+        private final LocalDate lastDay;
+        private final long sequence;
+        private final int priority;
+        // the latest last day of the events in the subtree of this node
+        private LocalDate maxLastDay;
+        private EventNode left;
+        private EventNode right;
+
+        private EventNode(Task event, LocalDate firstDay, LocalDate lastDay, long sequence, int priority) {
+            this.event = event;
+            this.firstDay = firstDay;
+            this.lastDay = lastDay;
+            this.sequence = sequence;
+            this.priority = priority;
+            this.maxLastDay = lastDay;
+        }
+
+        private int compareTo(EventNode other) {
+            int byFirstDay = firstDay.compareTo(other.firstDay);
+            return byFirstDay != 0 ? byFirstDay : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    /**
+     * A task on the agenda of a day, at the time it starts or is due that day, which for a recurring task is the
+     * time of its occurrence that day.
+     */
+    public record AgendaItem(Task task, LocalDateTime time) {
+    }
+
+    @Override
+    public void addTask(Task task) {
+        if (task instanceof RecurringTask recurringTask) {
+            recurringTasks.add(recurringTask);
+            return;
+        }
+        LocalDate[] days = getDays(task);
+        if (days == null) {
+            return;
+        }
+        if (days[0].equals(days[1])) {
+            dayByTask.put(task, days[0]);
+            tasksByDay.computeIfAbsent(days[0], key -> new ArrayList<>()).add(task);
+            return;
+        }
+        EventNode node = new EventNode(task, days[0], days[1], nextSequence++, random.nextInt());
+        multiDayEvents.put(task, node);
+        root = insertNode(root, node);
+    }
+
+    @Override
+    public void removeTask(Task task) {
+        if (task instanceof RecurringTask recurringTask) {
+            recurringTasks.remove(recurringTask);
+            return;
+        }
+        EventNode node = multiDayEvents.remove(task);
+        if (node != null) {
+            root = deleteNode(root, node);
+            return;
+        }
+        LocalDate day = dayByTask.remove(task);
+        if (day == null) {
+            return;
+        }
+        ArrayList<Task> tasks = tasksByDay.get(day);
+        tasks.removeIf(dayTask -> dayTask == task);
+        if (tasks.isEmpty()) {
+            tasksByDay.remove(day);
+        }
+    }
+
+    /**
+     * Does nothing, since the dates of a task never change and done tasks stay on the agenda.
+     *
+     * @param task the task that was changed.
+     */
+    @Override
+    public void updateTask(Task task) {
+    }
+
+    @Override
+    public void clear() {
+        tasksByDay.clear();
+        dayByTask.clear();
+        multiDayEvents.clear();
+        root = null;
+        recurringTasks.clear();
+    }
+
+    /**
+     * Returns the tasks on each day from {@code from} to {@code to}, both inclusive. Days without tasks are left
+     * out, and the tasks of a day are in the order they start or are due that day.
+     *
+     * @param from the first day of the agenda.
+     * @param to   the last day of the agenda.
+     * @return the tasks of every day that has any, earliest day first.
+     */
+    public TreeMap<LocalDate, List<AgendaItem>> getAgenda(LocalDate from, LocalDate to) {
+        TreeMap<LocalDate, List<AgendaItem>> items = new TreeMap<>();
+        for (Map.Entry<LocalDate, ArrayList<Task>> bucket : tasksByDay.subMap(from, true, to, true).entrySet()) {
+            LocalDate day = bucket.getKey();
+            ArrayList<AgendaItem> dayItems = new ArrayList<>(bucket.getValue().size());
+            for (Task task : bucket.getValue()) {
+                dayItems.add(new AgendaItem(task, getTimeOn(task, day)));
+            }
+            items.put(day, dayItems);
+        }
+        addMultiDayEvents(root, from, to, items);
+        for (RecurringTask recurringTask : recurringTasks) {
+            Iterator<LocalDateTime> occurrences =
+                    recurringTask.getOccurrences(from.atStartOfDay(), to.plusDays(1).atStartOfDay());
+            while (occurrences.hasNext()) {
+                LocalDateTime occurrence = occurrences.next();
+                items.computeIfAbsent(occurrence.toLocalDate(), day -> new ArrayList<>())
+                        .add(new AgendaItem(recurringTask, occurrence));
+            }
+        }
+
+        for (List<AgendaItem> dayItems : items.values()) {
+            dayItems.sort(Comparator.comparing(AgendaItem::time));
+        }
+        return items;
+    }
+
+    /**
+     * Adds the events of a subtree that overlap the days from {@code from} to {@code to} to each of those days
+     * they cover, in order of their first day.
+     */
+    private static void addMultiDayEvents(EventNode node, LocalDate from, LocalDate to,
+            TreeMap<LocalDate, List<AgendaItem>> items) {
+        if (node == null || node.maxLastDay.isBefore(from)) {
+            return;
+        }
+        addMultiDayEvents(node.left, from, to, items);
+        if (node.firstDay.isAfter(to)) {
+            // the events of the right subtree start even later
+            return;
+        }
+        if (!node.lastDay.isBefore(from)) {
+            LocalDate lastDay = node.lastDay.isAfter(to) ? to : node.lastDay;
+            for (LocalDate day = node.firstDay.isBefore(from) ? from : node.firstDay; !day.isAfter(lastDay);
+                    day = day.plusDays(1)) {
+                items.computeIfAbsent(day, key -> new ArrayList<>())
+                        .add(new AgendaItem(node.event, getTimeOn(node.event, day)));
+            }
+        }
+        addMultiDayEvents(node.right, from, to, items);
+    }
+
+    /**
+     * Returns the first and last day of a deadline or event, or null for any other task. An event that ends at
+     * midnight does not reach into the day that starts then.
+     */
+    private static LocalDate[] getDays(Task task) {
+        if (task instanceof Deadline deadline) {
+            LocalDate day = deadline.getDueDate().toLocalDate();
+            return new LocalDate[] {day, day};
+        } else if (task instanceof Event event) {
+            LocalDate firstDay = event.getDueDate().toLocalDate();
+            LocalDateTime toTime = event.getToTime();
+            LocalDate lastDay = toTime.toLocalTime().equals(LocalTime.MIDNIGHT)
+                    ? toTime.toLocalDate().minusDays(1) : toTime.toLocalDate();
+            return new LocalDate[] {firstDay, lastDay.isBefore(firstDay) ? firstDay : lastDay};
+        }
+        return null;
+    }
+
+    /**
+     * Returns the time a task starts or is due on a day, which for an event continuing from an earlier day is
+     * the start of the day.
+     */
+    private static LocalDateTime getTimeOn(Task task, LocalDate day) {
+        LocalDateTime time = ((TimedTask) task).getDueDate();
+        return time.toLocalDate().isBefore(day) ? day.atStartOfDay() : time;
+    }
+
+    private static LocalDate later(LocalDate day, EventNode node) {
+        return node == null || !node.maxLastDay.isAfter(day) ? day : node.maxLastDay;
+    }
+
+    private static EventNode update(EventNode node) {
+        node.maxLastDay = later(later(node.lastDay, node.left), node.right);
+        return node;
+    }
+
+    private static EventNode insertNode(EventNode subtree, EventNode node) {
+        if (subtree == null) {
+            return node;
+        }
+        if (node.priority > subtree.priority) {
+            EventNode[] parts = split(subtree, node);
+            node.left = parts[0];
+            node.right = parts[1];
+            return update(node);
+        }
+        if (node.compareTo(subtree) < 0) {
+            subtree.left = insertNode(subtree.left, node);
+        } else {
+            subtree.right = insertNode(subtree.right, node);
+        }
+        return update(subtree);
+    }
+
+    private static EventNode deleteNode(EventNode subtree, EventNode node) {
+        if (subtree == null) {
+            return null;
+        }
+        if (subtree == node) {
+            return merge(subtree.left, subtree.right);
+        }
+        if (node.compareTo(subtree) < 0) {
+            subtree.left = deleteNode(subtree.left, node);
+        } else {
+            subtree.right = deleteNode(subtree.right, node);
+        }
+        return update(subtree);
+    }
+
+    /**
+     * Splits a subtree into the nodes that sort before the given node and the nodes that sort after it.
+     */
+    private static EventNode[] split(EventNode subtree, EventNode node) {
+        if (subtree == null) {
+            return new EventNode[] {null, null};
+        }
+        if (subtree.compareTo(node) < 0) {
+            EventNode[] parts = split(subtree.right, node);
+            subtree.right = parts[0];
+            parts[0] = update(subtree);
+            return parts;
+        }
+        EventNode[] parts = split(subtree.left, node);
+        subtree.left = parts[1];
+        parts[1] = update(subtree);
+        return parts;
+    }
+
+    /**
+     * Joins two subtrees where every node of the first sorts before every node of the second.
+     */
+    private static EventNode merge(EventNode first, EventNode second) {
+        if (first == null || second == null) {
+            return first == null ? second : first;
+        }
+        if (first.priority > second.priority) {
+            first.right = merge(first.right, second);
+            return update(first);
+        }
+        second.left = merge(first, second.left);
+        return update(second);
+    }
+}
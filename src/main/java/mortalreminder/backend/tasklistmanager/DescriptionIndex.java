@@ -0,0 +1,316 @@
+package mortalreminder.backend.tasklistmanager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import mortalreminder.tasks.Task;
+
+/**
+ * Indexes the words of task descriptions by their trigrams to allow typo tolerant searches.
+ * <p>
+ * Every distinct word is split into overlapping three letter pieces, padded with {@code $} on both sides,
+ * and each trigram points to the words containing it. A search only considers words sharing enough
+ * trigrams with the query term to possibly be within the allowed edit distance, since a single edit can
+ * destroy at most three trigrams. The remaining candidates are verified with a Levenshtein distance
+ * computation that gives up as soon as the distance exceeds the bound. As many tasks share the same words,
+ * the vocabulary is much smaller than the list, so finding the similar words does not scale with the
+ * number of tasks.
+ */
+public class DescriptionIndex implements TaskIndex {
+    public static final int DEFAULT_MAX_RESULTS = 10;
+    private static final char PADDING = '$';
+
+    // tasks matching more terms first, then closer matches
+    private static final Comparator<Match> MATCH_ORDER = Comparator
+            .<Match>comparingInt(match -> -match.matchedTerms)
+            .thenComparingInt(match -> match.totalDistance)
+            .thenComparing(match -> match.task.getRawDescription());
+
+    private final HashMap<String, Set<Task>> tasksByWord = new HashMap<>();
+    private final HashMap<String, Set<String>> wordsByTrigram = new HashMap<>();
+
+    /**
+     * Stores how well a task matched a fuzzy search.
+     */
+    private static class Match {
+        private final Task task;
+        private int matchedTerms;
+        private int totalDistance;
+
+        private Match(Task task) {
+            this.task = task;
+        }
+    }
+
+    @Override
+    public void addTask(Task task) {
+        for (String word : tokenise(task.getRawDescription())) {
+            Set<Task> tasks = tasksByWord.get(word);
+            if (tasks == null) {
+                tasks = new LinkedHashSet<>();
+                tasksByWord.put(word, tasks);
+                for (String trigram : getTrigrams(word)) {
+                    wordsByTrigram.computeIfAbsent(trigram, key -> new LinkedHashSet<>()).add(word);
+                }
+            }
+            tasks.add(task);
+        }
+    }
+
+    @Override
+    public void removeTask(Task task) {
+        for (String word : tokenise(task.getRawDescription())) {
+            Set<Task> tasks = tasksByWord.get(word);
+            if (tasks == null) {
+                continue;
+            }
+            tasks.remove(task);
+            if (!tasks.isEmpty()) {
+                continue;
+            }
+            tasksByWord.remove(word);
+            for (String trigram : getTrigrams(word)) {
+                Set<String> words = wordsByTrigram.get(trigram);
+                words.remove(word);
+                if (words.isEmpty()) {
+                    wordsByTrigram.remove(trigram);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void updateTask(Task task) {
+        // descriptions never change once a task is created
+    }
+
+    @Override
+    public void clear() {
+        tasksByWord.clear();
+        wordsByTrigram.clear();
+    }
+
+    /**
+     * Returns the tasks whose descriptions contain words close to the words of the query.
+     * <p>
+     * Tasks matching more of the query words are ranked first, followed by tasks with a smaller total
+     * edit distance. Only the best {@code maxResults} tasks are kept while ranking.
+     *
+     * @param query      the search terms typed by the user.
+     * @param maxResults the maximum number of tasks to return.
+     * @return the best matching tasks, best match first.
+     */
+    public List<Task> search(String query, int maxResults) {
+        LinkedHashSet<String> terms = new LinkedHashSet<>(tokenise(query));
+        if (terms.size() == 1) {
+            return searchSingleTerm(terms.iterator().next(), maxResults);
+        }
+
+        HashMap<Task, Match> matches = new HashMap<>();
+        for (String term : terms) {
+            for (Map.Entry<String, Integer> candidate : findSimilarWords(term).entrySet()) {
+                for (Task task : tasksByWord.get(candidate.getKey())) {
+                    Match match = matches.computeIfAbsent(task, Match::new);
+                    match.matchedTerms++;
+                    match.totalDistance += candidate.getValue();
+                }
+            }
+        }
+
+        // keeps the worst of the current best matches at the head so it can be replaced
+        PriorityQueue<Match> bestMatches = new PriorityQueue<>(MATCH_ORDER.reversed());
+        for (Match match : matches.values()) {
+            bestMatches.add(match);
+            if (bestMatches.size() > maxResults) {
+                bestMatches.poll();
+            }
+        }
+
+        ArrayList<Match> rankedMatches = new ArrayList<>(bestMatches);
+        rankedMatches.sort(MATCH_ORDER);
+        ArrayList<Task> tasks = new ArrayList<>();
+        for (Match match : rankedMatches) {
+            tasks.add(match.task);
+        }
+        return tasks;
+    }
+
+    /**
+     * Returns the number of distinct words in the descriptions of the indexed tasks.
+     *
+     * @return the size of the vocabulary.
+     */
+    public int getVocabularySize() {
+        return tasksByWord.size();
+    }
+
+    /**
+     * Returns an upper bound of the number of tasks with a word containing the fragment, without building the
+     * set of tasks. Tasks with several such words are counted once for each of them.
+     *
+     * @param fragment a lower case word or part of a word.
+     * @return the estimated number of tasks.
+     */
+    public long estimateTasksWithWordContaining(String fragment) {
+        long count = 0;
+        for (Map.Entry<String, Set<Task>> word : tasksByWord.entrySet()) {
+            if (word.getKey().contains(fragment)) {
+                count += word.getValue().size();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the tasks with a word containing the fragment. Only the vocabulary is scanned, which is much
+     * smaller than the list, and then the tasks of the matching words are collected.
+     *
+     * @param fragment a lower case word or part of a word.
+     * @return the tasks with a word containing the fragment, in no particular order.
+     */
+    public Set<Task> getTasksWithWordContaining(String fragment) {
+        LinkedHashSet<Task> tasks = new LinkedHashSet<>();
+        for (Map.Entry<String, Set<Task>> word : tasksByWord.entrySet()) {
+            if (word.getKey().contains(fragment)) {
+                tasks.addAll(word.getValue());
+            }
+        }
+        return tasks;
+    }
+
+    /**
+     * Returns the longest word of the text as the index splits descriptions into words, or null if the text has
+     * no words. Any description containing the text has a word containing this word.
+     *
+     * @param text the text to split.
+     * @return the longest word in lower case.
+     */
+    static String getLongestWord(String text) {
+        String longestWord = null;
+        for (String word : tokenise(text)) {
+            if (longestWord == null || word.length() > longestWord.length()) {
+                longestWord = word;
+            }
+        }
+        return longestWord;
+    }
+
+    /**
+     * Returns the tasks containing the words closest to a single search term.
+     * Since every task matches at most one term, the closest words are visited first and the search stops
+     * as soon as enough tasks are found, without touching the tasks of the other similar words.
+     */
+    private List<Task> searchSingleTerm(String term, int maxResults) {
+        ArrayList<Map.Entry<String, Integer>> similarWords = new ArrayList<>(findSimilarWords(term).entrySet());
+        similarWords.sort(Map.Entry.<String, Integer>comparingByValue().thenComparing(Map.Entry.comparingByKey()));
+
+        LinkedHashSet<Task> tasks = new LinkedHashSet<>();
+        for (Map.Entry<String, Integer> similarWord : similarWords) {
+            for (Task task : tasksByWord.get(similarWord.getKey())) {
+                if (tasks.size() == maxResults) {
+                    return new ArrayList<>(tasks);
+                }
+                tasks.add(task);
+            }
+        }
+        return new ArrayList<>(tasks);
+    }
+
+    /**
+     * Finds the indexed words within the allowed edit distance of the term.
+     *
+     * @return the similar words mapped to their edit distance from the term.
+     */
+    private Map<String, Integer> findSimilarWords(String term) {
+        int maxDistance = getMaxDistance(term);
+        List<String> trigrams = getTrigrams(term);
+
+        HashMap<String, Integer> sharedTrigramCounts = new HashMap<>();
+        for (String trigram : trigrams) {
+            Set<String> words = wordsByTrigram.get(trigram);
+            if (words == null) {
+                continue;
+            }
+            for (String word : words) {
+                sharedTrigramCounts.merge(word, 1, Integer::sum);
+            }
+        }
+
+        int minSharedTrigrams = Math.max(1, trigrams.size() - 3 * maxDistance);
+        HashMap<String, Integer> similarWords = new HashMap<>();
+        for (Map.Entry<String, Integer> candidate : sharedTrigramCounts.entrySet()) {
+            String word = candidate.getKey();
+            if (candidate.getValue() < minSharedTrigrams
+                    || Math.abs(word.length() - term.length()) > maxDistance) {
+                continue;
+            }
+            int distance = getBoundedEditDistance(term, word, maxDistance);
+            if (distance <= maxDistance) {
+                similarWords.put(word, distance);
+            }
+        }
+        return similarWords;
+    }
+
+    private static int getMaxDistance(String term) {
+        if (term.length() <= 2) {
+            return 0;
+        }
+        return term.length() <= 5 ? 1 : 2;
+    }
+
+    /**
+     * Computes the Levenshtein distance between two words, stopping early once it exceeds the bound.
+     *
+     * @return the edit distance, or {@code maxDistance + 1} if it is larger than {@code maxDistance}.
+     */
+    static int getBoundedEditDistance(String first, String second, int maxDistance) {
+        int[] previous = new int[second.length() + 1];
+        int[] current = new int[second.length() + 1];
+        for (int j = 0; j <= second.length(); j++) {
+            previous[j] = j;
+        }
+
+        for (int i = 1; i <= first.length(); i++) {
+            current[0] = i;
+            int rowMinimum = current[0];
+            for (int j = 1; j <= second.length(); j++) {
+                int substitutionCost = first.charAt(i - 1) == second.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1], previous[j]) + 1, previous[j - 1] + substitutionCost);
+                rowMinimum = Math.min(rowMinimum, current[j]);
+            }
+            if (rowMinimum > maxDistance) {
+                return maxDistance + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[second.length()], maxDistance + 1);
+    }
+
+    private static List<String> tokenise(String text) {
+        ArrayList<String> words = new ArrayList<>();
+        for (String word : text.toLowerCase().split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    private static List<String> getTrigrams(String word) {
+        String paddedWord = PADDING + word + PADDING;
+        ArrayList<String> trigrams = new ArrayList<>(paddedWord.length() - 2);
+        for (int i = 0; i + 3 <= paddedWord.length(); i++) {
+            trigrams.add(paddedWord.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+}
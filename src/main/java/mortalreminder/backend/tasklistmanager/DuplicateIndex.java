@@ -0,0 +1,298 @@
+package mortalreminder.backend.tasklistmanager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+import mortalreminder.tasks.Task;
+
+/**
+ * Finds the open tasks whose description is nearly the same as a new one, without comparing the new task with
+ * every task in the list.
+ * <p>
+ * A description is turned into the set of its three letter pieces, ignoring case, punctuation and spacing, and
+ * the set is summarised by a MinHash signature of {@code BANDS * ROWS} hashes. Two signatures agree in a
+ * hash with a probability equal to the Jaccard similarity of the two sets, so the fraction of hashes that agree
+ * estimates how similar two descriptions are. The signature is split into {@code BANDS} bands of {@code ROWS}
+ * hashes, and every open task is put in one bucket per band, keyed by the hashes of that band. Tasks sharing a
+ * bucket with a new task in any band are the only ones compared with it, which finds nearly all tasks above
+ * {@code SIMILARITY_THRESHOLD} while only a tiny fraction of unrelated tasks ever become candidates.
+ * <p>
+ * Every task has an id, and the signatures and buckets are kept in flat arrays indexed by id, with each bucket
+ * a doubly linked chain of ids, so a task leaves its buckets in O(1) however many copies of it there are. The
+ * buckets themselves are found in an open addressing table from the key of a bucket to the first id in it, so
+ * an index over a very large list is a few arrays rather than millions of small collections. Done tasks are
+ * taken out of the index and put back when unmarked.
+ */
+public class DuplicateIndex implements TaskIndex {
+    public static final double SIMILARITY_THRESHOLD = 0.5;
+    static final int BANDS = 10;
+    static final int ROWS = 3;
+    private static final int HASHES = BANDS * ROWS;
+    private static final int MAX_DUPLICATES = 3;
+    // bounds the work of one lookup even when a bucket holds many copies of the same task
+    private static final int MAX_CANDIDATES = 1024;
+    private static final int NO_ID = -1;
+    private static final int UNUSED_SLOT = -2;
+
+    private final IdentityHashMap<Task, Integer> idsByTask = new IdentityHashMap<>();
+    private Task[] tasksById = new Task[16];
+    private int[] signatures = new int[16 * HASHES];
+    private int[] nextInBucket = new int[16 * BANDS];
+    private int[] previousInBucket = new int[16 * BANDS];
+    // the lookup that last compared each id, so that an id found in several bands is only compared once
+    private int[] checkedInLookup = new int[16];
+    private int lookupCount;
+    private int[] freeIds = new int[16];
+    private int freeIdCount;
+    private int idCount;
+
+    private long[] bucketKeys;
+    private int[] bucketHeads; // the first id in each bucket, NO_ID once it is empty or UNUSED_SLOT
+    private int usedSlotCount;
+
+    /**
+     * An open task found to be nearly the same as a new one, with the number of hashes their signatures share.
+     */
+    private record Duplicate(Task task, int matchingHashes) {
+    }
+
+    /**
+     * Creates an empty index.
+     */
+    public DuplicateIndex() {
+        clear();
+    }
+
+    @Override
+    public void addTask(Task task) {
+        if (!task.getIsDone()) {
+            insert(task);
+        }
+    }
+
+    @Override
+    public void removeTask(Task task) {
+        Integer id = idsByTask.remove(task);
+        if (id != null) {
+            remove(id);
+        }
+    }
+
+    @Override
+    public void updateTask(Task task) {
+        boolean isIndexed = idsByTask.containsKey(task);
+        if (task.getIsDone() && isIndexed) {
+            removeTask(task);
+        } else if (!task.getIsDone() && !isIndexed) {
+            insert(task);
+        }
+    }
+
+    @Override
+    public void clear() {
+        idsByTask.clear();
+        Arrays.fill(tasksById, null);
+        freeIdCount = 0;
+        idCount = 0;
+        bucketKeys = new long[64];
+        bucketHeads = new int[64];
+        Arrays.fill(bucketHeads, UNUSED_SLOT);
+        usedSlotCount = 0;
+    }
+
+    /**
+     * Returns up to {@code MAX_DUPLICATES} open tasks whose description is at least {@code SIMILARITY_THRESHOLD}
+     * similar to the given one, most similar first. The lookup stops as soon as it has found that many, or after
+     * {@code MAX_CANDIDATES} candidates.
+     *
+     * @param description the description of the new task.
+     * @return the open tasks that are nearly the same.
+     */
+    public List<Task> findDuplicates(String description) {
+        int[] signature = getSignature(description);
+        int lookup = ++lookupCount;
+        int candidateCount = 0;
+        ArrayList<Duplicate> duplicates = new ArrayList<>();
+        for (int band = 0; band < BANDS && duplicates.size() < MAX_DUPLICATES; band++) {
+            int id = bucketHeads[findSlot(getBucketKey(signature, 0, band))];
+            for (; id >= 0 && candidateCount < MAX_CANDIDATES && duplicates.size() < MAX_DUPLICATES;
+                    id = nextInBucket[id * BANDS + band]) {
+                if (checkedInLookup[id] == lookup) {
+                    continue;
+                }
+                checkedInLookup[id] = lookup;
+                candidateCount++;
+                int matchingHashes = 0;
+                for (int i = 0; i < HASHES; i++) {
+                    if (signatures[id * HASHES + i] == signature[i]) {
+                        matchingHashes++;
+                    }
+                }
+                if (matchingHashes >= SIMILARITY_THRESHOLD * HASHES) {
+                    duplicates.add(new Duplicate(tasksById[id], matchingHashes));
+                }
+            }
+        }
+        return duplicates.stream()
+                .sorted(Comparator.comparingInt(duplicate -> -duplicate.matchingHashes()))
+                .limit(MAX_DUPLICATES)
+                .map(Duplicate::task)
+                .toList();
+    }
+
+    private void insert(Task task) {
+        int id = freeIdCount > 0 ? freeIds[--freeIdCount] : idCount++;
+        if (id >= tasksById.length) {
+            tasksById = Arrays.copyOf(tasksById, tasksById.length * 2);
+            signatures = Arrays.copyOf(signatures, tasksById.length * HASHES);
+            nextInBucket = Arrays.copyOf(nextInBucket, tasksById.length * BANDS);
+            previousInBucket = Arrays.copyOf(previousInBucket, tasksById.length * BANDS);
+            checkedInLookup = Arrays.copyOf(checkedInLookup, tasksById.length);
+        }
+        tasksById[id] = task;
+        idsByTask.put(task, id);
+        System.arraycopy(getSignature(task.getRawDescription()), 0, signatures, id * HASHES, HASHES);
+
+        for (int band = 0; band < BANDS; band++) {
+            long key = getBucketKey(signatures, id * HASHES, band);
+            int slot = findSlot(key);
+            if (bucketHeads[slot] == UNUSED_SLOT) {
+                bucketKeys[slot] = key;
+                bucketHeads[slot] = NO_ID;
+                usedSlotCount++;
+            }
+            int next = bucketHeads[slot];
+            nextInBucket[id * BANDS + band] = next;
+            previousInBucket[id * BANDS + band] = NO_ID;
+            if (next != NO_ID) {
+                previousInBucket[next * BANDS + band] = id;
+            }
+            bucketHeads[slot] = id;
+        }
+        if (usedSlotCount * 2 > bucketKeys.length) {
+            resizeBuckets();
+        }
+    }
+
+    private void remove(int id) {
+        for (int band = 0; band < BANDS; band++) {
+            int previous = previousInBucket[id * BANDS + band];
+            int next = nextInBucket[id * BANDS + band];
+            if (previous == NO_ID) {
+                bucketHeads[findSlot(getBucketKey(signatures, id * HASHES, band))] = next;
+            } else {
+                nextInBucket[previous * BANDS + band] = next;
+            }
+            if (next != NO_ID) {
+                previousInBucket[next * BANDS + band] = previous;
+            }
+        }
+        tasksById[id] = null;
+        if (freeIdCount == freeIds.length) {
+            freeIds = Arrays.copyOf(freeIds, freeIds.length * 2);
+        }
+        freeIds[freeIdCount++] = id;
+    }
+
+    /**
+     * Returns the slot of the table holding the bucket with the given key, or the unused slot it would go in.
+     */
+    private int findSlot(long key) {
+        int mask = bucketKeys.length - 1;
+        int slot = (int) key & mask;
+        while (bucketHeads[slot] != UNUSED_SLOT && bucketKeys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Doubles the table if it is getting full, dropping the buckets that have become empty on the way.
+     */
+    private void resizeBuckets() {
+        long[] oldKeys = bucketKeys;
+        int[] oldHeads = bucketHeads;
+        int liveCount = 0;
+        for (int head : oldHeads) {
+            if (head >= 0) {
+                liveCount++;
+            }
+        }
+        int capacity = Integer.highestOneBit(Math.max(64, liveCount * 4 - 1)) << 1;
+        bucketKeys = new long[capacity];
+        bucketHeads = new int[capacity];
+        Arrays.fill(bucketHeads, UNUSED_SLOT);
+        usedSlotCount = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldHeads[i] >= 0) {
+                int slot = findSlot(oldKeys[i]);
+                bucketKeys[slot] = oldKeys[i];
+                bucketHeads[slot] = oldHeads[i];
+                usedSlotCount++;
+            }
+        }
+    }
+
+    /**
+     * Returns the MinHash signature of the three letter pieces of a description.
+     */
+    static int[] getSignature(String description) {
+        int[] signature = new int[HASHES];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        String text = normalise(description);
+        int pieceCount = Math.max(1, text.length() - 2);
+        for (int start = 0; start < pieceCount; start++) {
+            long pieceHash = 0xcbf29ce484222325L;
+            for (int i = start; i < Math.min(start + 3, text.length()); i++) {
+                pieceHash = (pieceHash ^ text.charAt(i)) * 0x100000001b3L;
+            }
+            for (int i = 0; i < HASHES; i++) {
+                int hash = (int) (mix(pieceHash + i * 0x9e3779b97f4a7c15L) >>> 32);
+                if (hash < signature[i]) {
+                    signature[i] = hash;
+                }
+            }
+        }
+        return signature;
+    }
+
+    /**
+     * Lower cases a description and replaces every run of characters other than letters and digits with a
+     * single space, padding it with a space on both sides so that the first and last letters of words count.
+     */
+    private static String normalise(String description) {
+        StringBuilder text = new StringBuilder(description.length() + 2).append(' ');
+        for (int i = 0; i < description.length(); i++) {
+            char c = Character.toLowerCase(description.charAt(i));
+            if (Character.isLetterOrDigit(c)) {
+                text.append(c);
+            } else if (text.charAt(text.length() - 1) != ' ') {
+                text.append(' ');
+            }
+        }
+        if (text.charAt(text.length() - 1) != ' ') {
+            text.append(' ');
+        }
+        return text.toString();
+    }
+
+    private static long getBucketKey(int[] signatures, int offset, int band) {
+        long key = band;
+        for (int i = 0; i < ROWS; i++) {
+            key = key * 0x100000001b3L + signatures[offset + band * ROWS + i];
+        }
+        return mix(key);
+    }
+
+    /**
+     * Scrambles the bits of a hash, as the finaliser of SplitMix64 does.
+     */
+    private static long mix(long hash) {
+        hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+        return hash ^ (hash >>> 31);
+    }
+}
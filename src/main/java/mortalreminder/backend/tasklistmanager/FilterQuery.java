@@ -0,0 +1,123 @@
+package mortalreminder.backend.tasklistmanager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import mortalreminder.errorhandling.MortalReminderException;
+
+/**
+ * Evaluates boolean filter queries such as {@code #work AND NOT done} against a {@link TagIndex}.
+ * <p>
+ * A query combines the following terms with {@code AND}, {@code OR}, {@code NOT} and brackets, where
+ * {@code NOT} binds tightest and {@code OR} loosest, and terms placed next to each other are joined by
+ * {@code AND}:
+ * <ul>
+ *     <li>{@code #tag} matches the tasks with the tag.</li>
+ *     <li>{@code done}, also written as {@code #done}, matches the tasks marked as done.</li>
+ *     <li>{@code type:T} matches the tasks of a type, one of {@code T}, {@code D}, {@code E} or {@code R}.</li>
+ * </ul>
+ * Every term is a bitmap in the index and every operator is a single bitmap operation, so the cost of a query
+ * depends on the number of terms and the size of the bitmaps rather than on the number of tasks scanned.
+ */
+public class FilterQuery {
+    private final List<String> tokens;
+    private final TagIndex tagIndex;
+    private int position;
+
+    private FilterQuery(List<String> tokens, TagIndex tagIndex) {
+        this.tokens = tokens;
+        this.tagIndex = tagIndex;
+    }
+
+    /**
+     * Returns the ids of the tasks matching the query.
+     *
+     * @param query    the filter query typed by the user.
+     * @param tagIndex the index of the list to filter.
+     * @return the ids of the matching tasks.
+     * @throws MortalReminderException if the query is malformed.
+     */
+    public static TaskBitmap evaluate(String query, TagIndex tagIndex) throws MortalReminderException {
+        FilterQuery filterQuery = new FilterQuery(tokenise(query), tagIndex);
+        if (filterQuery.tokens.isEmpty()) {
+            throw new MortalReminderException(MortalReminderException.getInvalidFilterQueryErrorMessage());
+        }
+        TaskBitmap result = filterQuery.parseOr();
+        if (filterQuery.position != filterQuery.tokens.size()) {
+            throw new MortalReminderException(MortalReminderException.getInvalidFilterQueryErrorMessage());
+        }
+        return result;
+    }
+
+    private TaskBitmap parseOr() throws MortalReminderException {
+        TaskBitmap result = parseAnd();
+        while (acceptKeyword("OR")) {
+            result = result.or(parseAnd());
+        }
+        return result;
+    }
+
+    private TaskBitmap parseAnd() throws MortalReminderException {
+        TaskBitmap result = parseNot();
+        while (position < tokens.size() && !isKeyword("OR") && !tokens.get(position).equals(")")) {
+            acceptKeyword("AND");
+            if (acceptKeyword("NOT")) {
+                // "a AND NOT b" is a single difference instead of a complement followed by an intersection
+                result = result.andNot(parseNot());
+            } else {
+                result = result.and(parseNot());
+            }
+        }
+        return result;
+    }
+
+    private TaskBitmap parseNot() throws MortalReminderException {
+        if (acceptKeyword("NOT")) {
+            return tagIndex.getAllTasks().andNot(parseNot());
+        }
+        return parseTerm();
+    }
+
+    private TaskBitmap parseTerm() throws MortalReminderException {
+        if (position == tokens.size()) {
+            throw new MortalReminderException(MortalReminderException.getInvalidFilterQueryErrorMessage());
+        }
+        String token = tokens.get(position++);
+        if (token.equals("(")) {
+            TaskBitmap result = parseOr();
+            if (position == tokens.size() || !tokens.get(position++).equals(")")) {
+                throw new MortalReminderException(MortalReminderException.getInvalidFilterQueryErrorMessage());
+            }
+            return result;
+        } else if (token.equalsIgnoreCase("done") || token.equalsIgnoreCase("#done")) {
+            return tagIndex.getDoneTasks();
+        } else if (token.startsWith("#") && token.length() > 1) {
+            return tagIndex.getTasksWithTag(token.substring(1));
+        } else if (token.toLowerCase().startsWith("type:") && token.length() > "type:".length()) {
+            return tagIndex.getTasksOfType(token.substring("type:".length()));
+        }
+        throw new MortalReminderException(MortalReminderException.getInvalidFilterQueryErrorMessage());
+    }
+
+    private boolean isKeyword(String keyword) {
+        return position < tokens.size() && tokens.get(position).equalsIgnoreCase(keyword);
+    }
+
+    private boolean acceptKeyword(String keyword) {
+        if (!isKeyword(keyword)) {
+            return false;
+        }
+        position++;
+        return true;
+    }
+
+    private static List<String> tokenise(String query) {
+        ArrayList<String> tokens = new ArrayList<>();
+        for (String word : query.replace("(", " ( ").replace(")", " ) ").trim().split("\\s+")) {
+            if (!word.isEmpty()) {
+                tokens.add(word);
+            }
+        }
+        return tokens;
+    }
+}
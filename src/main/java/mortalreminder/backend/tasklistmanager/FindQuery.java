@@ -0,0 +1,232 @@
+package mortalreminder.backend.tasklistmanager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import mortalreminder.errorhandling.MortalReminderException;
+import mortalreminder.tasks.Priority;
+
+/**
+ * Parses structured find queries such as {@code type:D done:false due<2026-12-01 "report"} into a
+ * {@link QueryPredicate} tree.
+ * <p>
+ * A query combines the following terms with {@code AND}, {@code OR}, {@code NOT} and brackets, in the same way
+ * as a {@link FilterQuery}:
+ * <ul>
+ *     <li>{@code type:T} matches the tasks of a type, one of {@code T}, {@code D}, {@code E} or {@code R}.</li>
+ *     <li>{@code done:true} or {@code done:false} matches the tasks that are or are not done.</li>
+ *     <li>{@code due<date}, {@code due<=date}, {@code due>date}, {@code due>=date} and {@code due=date} match
+ *         the tasks due before, by, after, from or on a date, written as {@code 2026-12-01} or
+ *         {@code 01-12-2026}.</li>
+ *     <li>{@code priority:high} matches the tasks with a priority.</li>
+ *     <li>{@code #tag} matches the tasks with a tag.</li>
+ *     <li>Any other word, or any text in double quotes, matches the tasks whose description contains it,
+ *         ignoring case.</li>
+ * </ul>
+ */
+public class FindQuery {
+    private static final Pattern FIELD_PATTERN = Pattern.compile("(?i)(type|done|priority):(\\S+)");
+    private static final Pattern DUE_PATTERN = Pattern.compile("(?i)due(<=|>=|<|>|=)(\\S+)");
+    private static final DateTimeFormatter[] DATE_FORMATTERS = {
+        DateTimeFormatter.ISO_LOCAL_DATE, DateTimeFormatter.ofPattern("dd-MM-yyyy")
+    };
+
+    private final List<Token> tokens;
+    private int position;
+
+    /**
+     * A word or bracket of the query, or a text that was typed in double quotes.
+     */
+    private record Token(String text, boolean isQuoted) {
+        private boolean is(String keyword) {
+            return !isQuoted && text.equalsIgnoreCase(keyword);
+        }
+    }
+
+    private FindQuery(List<Token> tokens) {
+        this.tokens = tokens;
+    }
+
+    /**
+     * Returns whether the search terms use the query language rather than being plain text to look for, which
+     * is the case once they contain a field such as {@code type:D} or {@code due<2026-12-01}, or a quote.
+     *
+     * @param query the search terms typed by the user.
+     * @return true if the search terms should be parsed with {@link #parse(String)}.
+     */
+    public static boolean isStructured(String query) {
+        if (query.indexOf('"') >= 0) {
+            return true;
+        }
+        for (String word : query.trim().split("[\\s()]+")) {
+            if (FIELD_PATTERN.matcher(word).matches() || DUE_PATTERN.matcher(word).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parses a query into its predicate tree.
+     *
+     * @param query the query typed by the user.
+     * @return the root of the predicate tree.
+     * @throws MortalReminderException if the query is malformed.
+     */
+    public static QueryPredicate parse(String query) throws MortalReminderException {
+        FindQuery findQuery = new FindQuery(tokenise(query));
+        if (findQuery.tokens.isEmpty()) {
+            throw new MortalReminderException(MortalReminderException.getInvalidFindQueryErrorMessage());
+        }
+        QueryPredicate predicate = findQuery.parseOr();
+        if (findQuery.position != findQuery.tokens.size()) {
+            throw new MortalReminderException(MortalReminderException.getInvalidFindQueryErrorMessage());
+        }
+        return predicate;
+    }
+
+    private QueryPredicate parseOr() throws MortalReminderException {
+        ArrayList<QueryPredicate> operands = new ArrayList<>(List.of(parseAnd()));
+        while (accept("OR")) {
+            operands.add(parseAnd());
+        }
+        return operands.size() == 1 ? operands.get(0) : new QueryPredicate.Or(operands);
+    }
+
+    private QueryPredicate parseAnd() throws MortalReminderException {
+        ArrayList<QueryPredicate> operands = new ArrayList<>(List.of(parseNot()));
+        while (position < tokens.size() && !tokens.get(position).is("OR") && !tokens.get(position).is(")")) {
+            accept("AND");
+            operands.add(parseNot());
+        }
+        return operands.size() == 1 ? operands.get(0) : new QueryPredicate.And(operands);
+    }
+
+    private QueryPredicate parseNot() throws MortalReminderException {
+        if (accept("NOT")) {
+            return new QueryPredicate.Not(parseNot());
+        }
+        return parseTerm();
+    }
+
+    private QueryPredicate parseTerm() throws MortalReminderException {
+        if (position == tokens.size()) {
+            throw new MortalReminderException(MortalReminderException.getInvalidFindQueryErrorMessage());
+        }
+        Token token = tokens.get(position++);
+        if (token.isQuoted()) {
+            return new QueryPredicate.TextTerm(token.text().toLowerCase());
+        }
+        if (token.is("(")) {
+            QueryPredicate predicate = parseOr();
+            if (!accept(")")) {
+                throw new MortalReminderException(MortalReminderException.getInvalidFindQueryErrorMessage());
+            }
+            return predicate;
+        }
+
+        String text = token.text();
+        Matcher field = FIELD_PATTERN.matcher(text);
+        Matcher due = DUE_PATTERN.matcher(text);
+        if (field.matches()) {
+            return parseField(field.group(1).toLowerCase(), field.group(2));
+        } else if (due.matches()) {
+            return parseDue(due.group(1), due.group(2), text);
+        } else if (text.startsWith("#") && text.length() > 1) {
+            return new QueryPredicate.TagTerm(text.substring(1).toLowerCase());
+        } else if (text.equals(")") || text.equalsIgnoreCase("AND")) {
+            throw new MortalReminderException(MortalReminderException.getInvalidFindQueryErrorMessage());
+        }
+        return new QueryPredicate.TextTerm(text.toLowerCase());
+    }
+
+    private static QueryPredicate parseField(String field, String value) throws MortalReminderException {
+        switch (field) {
+        case "type":
+            if (!value.matches("(?i)[TDER]")) {
+                throw new MortalReminderException(MortalReminderException.getInvalidFindQueryErrorMessage());
+            }
+            return new QueryPredicate.TypeTerm(value.toUpperCase());
+        case "done":
+            if (!value.equalsIgnoreCase("true") && !value.equalsIgnoreCase("false")) {
+                throw new MortalReminderException(MortalReminderException.getInvalidFindQueryErrorMessage());
+            }
+            return new QueryPredicate.DoneTerm(Boolean.parseBoolean(value));
+        default:
+            return new QueryPredicate.PriorityTerm(Priority.parse(value));
+        }
+    }
+
+    private static QueryPredicate parseDue(String comparison, String date, String text)
+            throws MortalReminderException {
+        LocalDateTime startOfDay = parseDate(date).atStartOfDay();
+        LocalDateTime startOfNextDay = startOfDay.plusDays(1);
+        switch (comparison) {
+        case "<":
+            return new QueryPredicate.DueTerm(null, startOfDay, text);
+        case "<=":
+            return new QueryPredicate.DueTerm(null, startOfNextDay, text);
+        case ">":
+            return new QueryPredicate.DueTerm(startOfNextDay, null, text);
+        case ">=":
+            return new QueryPredicate.DueTerm(startOfDay, null, text);
+        default:
+            return new QueryPredicate.DueTerm(startOfDay, startOfNextDay, text);
+        }
+    }
+
+    private static LocalDate parseDate(String date) throws MortalReminderException {
+        for (DateTimeFormatter formatter : DATE_FORMATTERS) {
+            try {
+                return LocalDate.parse(date, formatter);
+            } catch (DateTimeParseException e) {
+                // try the next format
+            }
+        }
+        throw new MortalReminderException(MortalReminderException.getInvalidFindQueryErrorMessage());
+    }
+
+    private boolean accept(String keyword) {
+        if (position == tokens.size() || !tokens.get(position).is(keyword)) {
+            return false;
+        }
+        position++;
+        return true;
+    }
+
+    private static List<Token> tokenise(String query) throws MortalReminderException {
+        ArrayList<Token> tokens = new ArrayList<>();
+        int i = 0;
+        while (i < query.length()) {
+            char c = query.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '(' || c == ')') {
+                tokens.add(new Token(String.valueOf(c), false));
+                i++;
+            } else if (c == '"') {
+                int end = query.indexOf('"', i + 1);
+                if (end < 0 || end == i + 1) {
+                    throw new MortalReminderException(MortalReminderException.getInvalidFindQueryErrorMessage());
+                }
+                tokens.add(new Token(query.substring(i + 1, end), true));
+                i = end + 1;
+            } else {
+                int end = i;
+                while (end < query.length() && !Character.isWhitespace(query.charAt(end))
+                        && "()\"".indexOf(query.charAt(end)) < 0) {
+                    end++;
+                }
+                tokens.add(new Token(query.substring(i, end), false));
+                i = end;
+            }
+        }
+        return tokens;
+    }
+}
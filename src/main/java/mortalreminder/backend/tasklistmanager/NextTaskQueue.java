@@ -0,0 +1,214 @@
+package mortalreminder.backend.tasklistmanager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+
+import mortalreminder.tasks.Priority;
+import mortalreminder.tasks.RecurringTask;
+import mortalreminder.tasks.Task;
+import mortalreminder.tasks.TimedTask;
+
+/**
+ * Keeps the tasks that are not done yet in an indexed binary heap, ordered by what should be done next.
+ * <p>
+ * Tasks are ordered by their {@link Priority} first, then by their due date with tasks without one last,
+ * and finally by the order they entered the list. Every heap entry knows its own position in the heap, so a
+ * task that changes, such as getting a higher priority or being marked as done, is moved up, moved down or
+ * taken out of the heap in O(log n) without searching for it. Finding the next k tasks then only looks at
+ * the top of the heap and costs O(k log n), never a sort of the whole list.
+ */
+public class NextTaskQueue implements TaskIndex {
+    private final IdentityHashMap<Task, Entry> entries = new IdentityHashMap<>();
+    private final ArrayList<Entry> heap = new ArrayList<>();
+    private long nextSequence;
+
+    /**
+     * The sort key of a task as it was when the task was last added or updated.
+     * The key is copied out of the task so that the heap stays consistent even if the task changes before
+     * the index is told about it.
+     */
+    private static final class Entry {
+        private final Task task;
+        private final long sequence;
+        private Priority priority;
+        private LocalDateTime dueDate; // null if the task has no due date
+        private int position = -1; // -1 while the task is done and therefore not in the heap
+
+        private Entry(Task task, long sequence) {
+            this.task = task;
+            this.sequence = sequence;
+        }
+
+        private void refreshKey(LocalDateTime now) {
+            this.priority = task.getPriority();
+            if (task instanceof RecurringTask recurringTask) {
+                this.dueDate = recurringTask.getNextOccurrence(now);
+            } else if (task instanceof TimedTask timedTask) {
+                this.dueDate = timedTask.getDueDate();
+            } else {
+                this.dueDate = null;
+            }
+        }
+
+        private int compareTo(Entry other) {
+            int byPriority = priority.compareTo(other.priority);
+            if (byPriority != 0) {
+                return byPriority;
+            }
+            if (dueDate != null && other.dueDate != null) {
+                int byDueDate = dueDate.compareTo(other.dueDate);
+                if (byDueDate != 0) {
+                    return byDueDate;
+                }
+            } else if (dueDate != null || other.dueDate != null) {
+                return dueDate != null ? -1 : 1;
+            }
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+
+    @Override
+    public void addTask(Task task) {
+        Entry entry = new Entry(task, nextSequence++);
+        entries.put(task, entry);
+        if (!task.getIsDone()) {
+            entry.refreshKey(LocalDateTime.now());
+            insert(entry);
+        }
+    }
+
+    @Override
+    public void removeTask(Task task) {
+        Entry entry = entries.remove(task);
+        if (entry != null && entry.position >= 0) {
+            remove(entry);
+        }
+    }
+
+    /**
+     * Moves the task to its new place in the heap after its priority, due date or done flag changed.
+     * This is the decrease-key (or increase-key) operation of the heap.
+     *
+     * @param task the task that was changed.
+     */
+    @Override
+    public void updateTask(Task task) {
+        Entry entry = entries.get(task);
+        if (entry == null) {
+            return;
+        }
+        if (task.getIsDone()) {
+            if (entry.position >= 0) {
+                remove(entry);
+            }
+            return;
+        }
+        entry.refreshKey(LocalDateTime.now());
+        if (entry.position < 0) {
+            insert(entry);
+        } else {
+            siftUp(entry.position);
+            siftDown(entry.position);
+        }
+    }
+
+    @Override
+    public void clear() {
+        entries.clear();
+        heap.clear();
+    }
+
+    /**
+     * Returns the number of tasks that are not done yet.
+     *
+     * @return the number of tasks in the heap.
+     */
+    public int getSize() {
+        return heap.size();
+    }
+
+    /**
+     * Returns up to k tasks that are not done yet, in the order they should be done in.
+     * <p>
+     * The top k entries are popped off the heap and pushed back afterwards. The next occurrence of a recurring
+     * task moves on as time passes, so a recurring task whose stored occurrence is already over is given its
+     * new occurrence and pushed back before it is considered again.
+     *
+     * @param k   the maximum number of tasks to return.
+     * @param now the current time, used to move recurring tasks on to their next occurrence.
+     * @return the next tasks to do, most important first.
+     */
+    public ArrayList<Task> getNextTasks(int k, LocalDateTime now) {
+        ArrayList<Entry> popped = new ArrayList<>(Math.min(k, heap.size()));
+        while (popped.size() < k && !heap.isEmpty()) {
+            Entry top = heap.get(0);
+            if (top.task instanceof RecurringTask && top.dueDate.isBefore(now)) {
+                top.refreshKey(now);
+                siftDown(0);
+                continue;
+            }
+            remove(top);
+            popped.add(top);
+        }
+
+        ArrayList<Task> nextTasks = new ArrayList<>(popped.size());
+        for (Entry entry : popped) {
+            nextTasks.add(entry.task);
+            insert(entry);
+        }
+        return nextTasks;
+    }
+
+    private void insert(Entry entry) {
+        entry.position = heap.size();
+        heap.add(entry);
+        siftUp(entry.position);
+    }
+
+    private void remove(Entry entry) {
+        int position = entry.position;
+        Entry last = heap.remove(heap.size() - 1);
+        entry.position = -1;
+        if (last != entry) {
+            place(last, position);
+            siftUp(position);
+            siftDown(last.position);
+        }
+    }
+
+    private void siftUp(int position) {
+        Entry entry = heap.get(position);
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            if (heap.get(parent).compareTo(entry) <= 0) {
+                break;
+            }
+            place(heap.get(parent), position);
+            position = parent;
+        }
+        place(entry, position);
+    }
+
+    private void siftDown(int position) {
+        Entry entry = heap.get(position);
+        int size = heap.size();
+        while (2 * position + 1 < size) {
+            int child = 2 * position + 1;
+            if (child + 1 < size && heap.get(child + 1).compareTo(heap.get(child)) < 0) {
+                child++;
+            }
+            if (entry.compareTo(heap.get(child)) <= 0) {
+                break;
+            }
+            place(heap.get(child), position);
+            position = child;
+        }
+        place(entry, position);
+    }
+
+    private void place(Entry entry, int position) {
+        heap.set(position, entry);
+        entry.position = position;
+    }
+}
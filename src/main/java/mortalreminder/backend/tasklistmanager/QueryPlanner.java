@@ -0,0 +1,202 @@
+package mortalreminder.backend.tasklistmanager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+import mortalreminder.tasks.Task;
+
+/**
+ * Picks how a {@link QueryPredicate} is answered and answers it.
+ * <p>
+ * Every term that must hold for a task to match, which is the root of the tree or an operand of an {@code AND}
+ * at the root, is looked at for an index that can find the tasks matching that term alone:
+ * <ul>
+ *     <li>The bitmaps of the {@link TagIndex} for {@code type:}, {@code done:} and {@code #tag} terms.</li>
+ *     <li>The words of the {@link DescriptionIndex} for text terms.</li>
+ *     <li>The {@link SortedTaskView} in due date order for {@code due} terms.</li>
+ * </ul>
+ * The cost of each of these access paths is estimated from the number of tasks it would return, which the
+ * indexes can count without returning them, and compared with a scan of the whole list. The cheapest access
+ * path is used to find the candidate tasks, which are then checked against the whole query.
+ */
+public class QueryPlanner {
+    /**
+     * The ways the candidate tasks of a query can be found.
+     */
+    public enum AccessPathKind {
+        FULL_SCAN("full scan"),
+        BITMAP_INDEX("bitmap index"),
+        DESCRIPTION_INDEX("description index"),
+        TIME_RANGE("due date range");
+
+        private final String displayName;
+
+        AccessPathKind(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return this.displayName;
+        }
+    }
+
+    /**
+     * A way of finding the candidate tasks of a query, with the number of tasks it is estimated to return and
+     * its estimated cost, both counted in tasks. The term is null for a full scan.
+     */
+    public record AccessPath(AccessPathKind kind, QueryPredicate term, long estimatedRows, long cost) {
+    }
+
+    /**
+     * The access paths that were considered for a query, cheapest first, the first of which is used.
+     */
+    public record QueryPlan(QueryPredicate predicate, List<AccessPath> accessPaths, long planningNanos) {
+        public AccessPath getChosenPath() {
+            return accessPaths.get(0);
+        }
+    }
+
+    /**
+     * The tasks matching a query in list order, with the number of candidate tasks that had to be checked.
+     */
+    public record QueryResult(List<Task> tasks, int examinedRows, long executionNanos) {
+    }
+
+    /**
+     * Estimates the cost of every access path that can answer the query and orders them cheapest first.
+     *
+     * @param predicate the parsed query.
+     * @param taskList  the list to query.
+     * @param now       the current time.
+     * @return the plan of the query.
+     */
+    public static QueryPlan plan(QueryPredicate predicate, TaskList taskList, LocalDateTime now) {
+        long start = System.nanoTime();
+        ArrayList<AccessPath> accessPaths = new ArrayList<>();
+        accessPaths.add(new AccessPath(AccessPathKind.FULL_SCAN, null, taskList.getSize(), taskList.getSize()));
+
+        List<QueryPredicate> requiredTerms = predicate instanceof QueryPredicate.And and
+                ? and.operands()
+                : List.of(predicate);
+        for (QueryPredicate term : requiredTerms) {
+            AccessPath accessPath = getAccessPath(term, taskList, now);
+            if (accessPath != null) {
+                accessPaths.add(accessPath);
+            }
+        }
+
+        // the sort is stable, so a full scan wins a tie against an index
+        accessPaths.sort(Comparator.comparingLong(AccessPath::cost));
+        return new QueryPlan(predicate, accessPaths, System.nanoTime() - start);
+    }
+
+    /**
+     * Finds the candidate tasks through the chosen access path of the plan and keeps the ones matching the query.
+     *
+     * @param plan     the plan of the query.
+     * @param taskList the list to query.
+     * @param now      the current time.
+     * @return the matching tasks in list order.
+     */
+    public static QueryResult execute(QueryPlan plan, TaskList taskList, LocalDateTime now) {
+        long start = System.nanoTime();
+        AccessPath accessPath = plan.getChosenPath();
+        Collection<Task> candidates = getCandidates(accessPath, taskList, now);
+
+        TagIndex tagIndex = taskList.getTagIndex();
+        boolean isInListOrder = accessPath.kind() == AccessPathKind.FULL_SCAN
+                || accessPath.kind() == AccessPathKind.BITMAP_INDEX;
+        ArrayList<Task> matches = new ArrayList<>();
+        TaskBitmap matchIds = new TaskBitmap();
+        for (Task task : candidates) {
+            if (!plan.predicate().matches(task, now)) {
+                continue;
+            }
+            if (isInListOrder) {
+                matches.add(task);
+            } else {
+                matchIds.add(tagIndex.getId(task));
+            }
+        }
+        List<Task> tasks = isInListOrder ? matches : tagIndex.getTasks(matchIds);
+        return new QueryResult(tasks, candidates.size(), System.nanoTime() - start);
+    }
+
+    private static AccessPath getAccessPath(QueryPredicate term, TaskList taskList, LocalDateTime now) {
+        TagIndex tagIndex = taskList.getTagIndex();
+        if (term instanceof QueryPredicate.TypeTerm
+                || term instanceof QueryPredicate.DoneTerm
+                || term instanceof QueryPredicate.TagTerm) {
+            int rows = getBitmap(term, tagIndex).getCardinality();
+            return new AccessPath(AccessPathKind.BITMAP_INDEX, term, rows, rows);
+        } else if (term instanceof QueryPredicate.TextTerm textTerm) {
+            String word = DescriptionIndex.getLongestWord(textTerm.text());
+            if (word == null) {
+                return null;
+            }
+            DescriptionIndex descriptionIndex = taskList.getDescriptionIndex();
+            long rows = descriptionIndex.estimateTasksWithWordContaining(word);
+            return new AccessPath(AccessPathKind.DESCRIPTION_INDEX, term, rows,
+                    descriptionIndex.getVocabularySize() + rows);
+        } else if (term instanceof QueryPredicate.DueTerm dueTerm) {
+            long rows;
+            long cost;
+            if (taskList.hasSortedView(SortOrder.DUE)) {
+                rows = taskList.getSortedView(SortOrder.DUE).countInRange(getFromKey(dueTerm), getUntilKey(dueTerm),
+                        now);
+                cost = log2(taskList.getSize()) + rows;
+            } else {
+                // the view would have to be built first, which is a sort of the whole list
+                rows = taskList.getSize();
+                cost = (long) taskList.getSize() * log2(taskList.getSize());
+            }
+            return new AccessPath(AccessPathKind.TIME_RANGE, term, rows, cost);
+        }
+        return null;
+    }
+
+    private static Collection<Task> getCandidates(AccessPath accessPath, TaskList taskList, LocalDateTime now) {
+        switch (accessPath.kind()) {
+        case BITMAP_INDEX:
+            TagIndex tagIndex = taskList.getTagIndex();
+            return tagIndex.getTasks(getBitmap(accessPath.term(), tagIndex));
+        case DESCRIPTION_INDEX:
+            String word = DescriptionIndex.getLongestWord(((QueryPredicate.TextTerm) accessPath.term()).text());
+            return taskList.getDescriptionIndex().getTasksWithWordContaining(word);
+        case TIME_RANGE:
+            QueryPredicate.DueTerm dueTerm = (QueryPredicate.DueTerm) accessPath.term();
+            return taskList.getSortedView(SortOrder.DUE).getTasksInRange(getFromKey(dueTerm), getUntilKey(dueTerm),
+                    now);
+        default:
+            return taskList.getTaskList();
+        }
+    }
+
+    private static TaskBitmap getBitmap(QueryPredicate term, TagIndex tagIndex) {
+        if (term instanceof QueryPredicate.TypeTerm typeTerm) {
+            return tagIndex.getTasksOfType(typeTerm.type());
+        } else if (term instanceof QueryPredicate.TagTerm tagTerm) {
+            return tagIndex.getTasksWithTag(tagTerm.tag());
+        }
+        return ((QueryPredicate.DoneTerm) term).isDone()
+                ? tagIndex.getDoneTasks()
+                : tagIndex.getAllTasks().andNot(tagIndex.getDoneTasks());
+    }
+
+    private static long getFromKey(QueryPredicate.DueTerm dueTerm) {
+        return dueTerm.from() == null ? Long.MIN_VALUE : dueTerm.from().toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static long getUntilKey(QueryPredicate.DueTerm dueTerm) {
+        // tasks without a due date are sorted last with the largest key, so they are never in a range
+        return dueTerm.until() == null ? Long.MAX_VALUE : dueTerm.until().toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static long log2(int size) {
+        return 32 - Integer.numberOfLeadingZeros(Math.max(1, size));
+    }
+}
@@ -0,0 +1,194 @@
+package mortalreminder.backend.tasklistmanager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import mortalreminder.tasks.Priority;
+import mortalreminder.tasks.RecurringTask;
+import mortalreminder.tasks.Task;
+import mortalreminder.tasks.TimedTask;
+
+/**
+ * A node of the predicate tree a {@link FindQuery} is parsed into.
+ * <p>
+ * Every node can check a single task, which is how the tasks found through the access path picked by the
+ * {@link QueryPlanner} are checked against the whole query. The terms that an index can answer are also looked
+ * at by the planner on their own.
+ */
+public sealed interface QueryPredicate permits QueryPredicate.And, QueryPredicate.Or, QueryPredicate.Not,
+        QueryPredicate.TypeTerm, QueryPredicate.DoneTerm, QueryPredicate.TagTerm, QueryPredicate.DueTerm,
+        QueryPredicate.PriorityTerm, QueryPredicate.TextTerm {
+
+    /**
+     * Returns whether the task matches this predicate.
+     *
+     * @param task the task to check.
+     * @param now  the current time, which the next occurrence of a recurring task is worked out from.
+     * @return true if the task matches.
+     */
+    boolean matches(Task task, LocalDateTime now);
+
+    /**
+     * Returns the predicate written out in the query language, with brackets around every operator.
+     */
+    String describe();
+
+    /**
+     * Matches the tasks that match every operand.
+     */
+    record And(List<QueryPredicate> operands) implements QueryPredicate {
+        @Override
+        public boolean matches(Task task, LocalDateTime now) {
+            for (QueryPredicate operand : operands) {
+                if (!operand.matches(task, now)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public String describe() {
+            return operands.stream().map(QueryPredicate::describe).collect(Collectors.joining(" AND ", "(", ")"));
+        }
+    }
+
+    /**
+     * Matches the tasks that match any operand.
+     */
+    record Or(List<QueryPredicate> operands) implements QueryPredicate {
+        @Override
+        public boolean matches(Task task, LocalDateTime now) {
+            for (QueryPredicate operand : operands) {
+                if (operand.matches(task, now)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public String describe() {
+            return operands.stream().map(QueryPredicate::describe).collect(Collectors.joining(" OR ", "(", ")"));
+        }
+    }
+
+    /**
+     * Matches the tasks that do not match the operand.
+     */
+    record Not(QueryPredicate operand) implements QueryPredicate {
+        @Override
+        public boolean matches(Task task, LocalDateTime now) {
+            return !operand.matches(task, now);
+        }
+
+        @Override
+        public String describe() {
+            return "NOT " + operand.describe();
+        }
+    }
+
+    /**
+     * Matches the tasks of a type, one of T, D, E or R.
+     */
+    record TypeTerm(String type) implements QueryPredicate {
+        @Override
+        public boolean matches(Task task, LocalDateTime now) {
+            return task.getType().equals(type);
+        }
+
+        @Override
+        public String describe() {
+            return "type:" + type;
+        }
+    }
+
+    /**
+     * Matches the tasks that are done, or the tasks that are not.
+     */
+    record DoneTerm(boolean isDone) implements QueryPredicate {
+        @Override
+        public boolean matches(Task task, LocalDateTime now) {
+            return task.getIsDone() == isDone;
+        }
+
+        @Override
+        public String describe() {
+            return "done:" + isDone;
+        }
+    }
+
+    /**
+     * Matches the tasks with a tag, given in lower case without the leading {@code #}.
+     */
+    record TagTerm(String tag) implements QueryPredicate {
+        @Override
+        public boolean matches(Task task, LocalDateTime now) {
+            return task.getTags().contains(tag);
+        }
+
+        @Override
+        public String describe() {
+            return "#" + tag;
+        }
+    }
+
+    /**
+     * Matches the timed tasks due from {@code from} (inclusive) until {@code until} (exclusive), where either
+     * bound can be null. The due date of a recurring task is its next occurrence.
+     *
+     * @param text the term as it was typed, such as "due<2026-12-01".
+     */
+    record DueTerm(LocalDateTime from, LocalDateTime until, String text) implements QueryPredicate {
+        @Override
+        public boolean matches(Task task, LocalDateTime now) {
+            LocalDateTime dueDate;
+            if (task instanceof RecurringTask recurringTask) {
+                dueDate = recurringTask.getNextOccurrence(now);
+            } else if (task instanceof TimedTask timedTask) {
+                dueDate = timedTask.getDueDate();
+            } else {
+                return false;
+            }
+            return (from == null || !dueDate.isBefore(from)) && (until == null || dueDate.isBefore(until));
+        }
+
+        @Override
+        public String describe() {
+            return text;
+        }
+    }
+
+    /**
+     * Matches the tasks with a priority.
+     */
+    record PriorityTerm(Priority priority) implements QueryPredicate {
+        @Override
+        public boolean matches(Task task, LocalDateTime now) {
+            return task.getPriority() == priority;
+        }
+
+        @Override
+        public String describe() {
+            return "priority:" + priority.name().toLowerCase();
+        }
+    }
+
+    /**
+     * Matches the tasks whose description contains the text, ignoring case.
+     *
+     * @param text the text in lower case.
+     */
+    record TextTerm(String text) implements QueryPredicate {
+        @Override
+        public boolean matches(Task task, LocalDateTime now) {
+            return task.getRawDescription().toLowerCase().contains(text);
+        }
+
+        @Override
+        public String describe() {
+            return "\"" + text + "\"";
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package mortalreminder.backend.tasklistmanager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import mortalreminder.errorhandling.MortalReminderException;
+import mortalreminder.tasks.DescriptionPool;
+import mortalreminder.tasks.RecurringTask;
+import mortalreminder.tasks.Task;
+import mortalreminder.tasks.TimedTask;
+
+/**
+ * The orders a {@link SortedTaskView} can keep the tasks of a list in.
+ * <p>
+ * Each order turns a task into a sort key made of a number and a text, which are compared in that order.
+ * Tasks with equal keys keep the order they were added to the list in.
+ */
+public enum SortOrder {
+    /**
+     * Earliest due date first, with tasks that have no due date last.
+     */
+    DUE("due", "due date") {
+        @Override
+        long getNumericKey(Task task, LocalDateTime now) {
+            LocalDateTime dueDate = null;
+            if (task instanceof RecurringTask recurringTask) {
+                dueDate = recurringTask.getNextOccurrence(now);
+            } else if (task instanceof TimedTask timedTask) {
+                dueDate = timedTask.getDueDate();
+            }
+            return dueDate == null ? Long.MAX_VALUE : dueDate.toEpochSecond(ZoneOffset.UTC);
+        }
+    },
+
+    /**
+     * Alphabetical order of the descriptions, ignoring case.
+     */
+    DESCRIPTION("desc", "description") {
+        @Override
+        String getTextKey(Task task) {
+            return DescriptionPool.intern(task.getRawDescription().toLowerCase());
+        }
+    },
+
+    /**
+     * Tasks that are not done first, then the tasks that are done.
+     */
+    STATUS("status", "status") {
+        @Override
+        long getNumericKey(Task task, LocalDateTime now) {
+            return task.getIsDone() ? 1 : 0;
+        }
+    };
+
+    private final String name;
+    private final String displayName;
+
+    SortOrder(String name, String displayName) {
+        this.name = name;
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return this.displayName;
+    }
+
+    /**
+     * Returns the sort order with the given name, as typed after "sort:".
+     *
+     * @param name the name of the sort order, such as "due".
+     * @return the matching sort order.
+     * @throws MortalReminderException if no sort order has that name.
+     */
+    public static SortOrder fromName(String name) throws MortalReminderException {
+        for (SortOrder order : values()) {
+            if (order.name.equalsIgnoreCase(name)) {
+                return order;
+            }
+        }
+        throw new MortalReminderException(MortalReminderException.getInvalidListOptionsErrorMessage());
+    }
+
+    long getNumericKey(Task task, LocalDateTime now) {
+        return 0;
+    }
+
+    String getTextKey(Task task) {
+        return "";
+    }
+
+    /**
+     * Returns whether the key of a task can go out of date while the task itself does not change.
+     * This is the case for the next occurrence of a recurring task, which moves on as time passes.
+     */
+    boolean hasExpiringKeys() {
+        return this == DUE;
+    }
+}
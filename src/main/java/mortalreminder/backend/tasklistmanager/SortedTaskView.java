@@ -0,0 +1,296 @@
+package mortalreminder.backend.tasklistmanager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+
+import mortalreminder.tasks.RecurringTask;
+import mortalreminder.tasks.Task;
+
+/**
+ * Keeps the tasks of a list sorted in a {@link SortOrder} as they are added, changed and removed.
+ * <p>
+ * The tasks are held in an order-statistic tree, a treap in which every node also knows the size of its
+ * subtree. A change to a task moves only that task in O(log n), and the tasks at any position of the sorted
+ * order are found by walking down the subtree sizes, so reading a page of the view costs O(log n + page size)
+ * instead of a sort of the whole list.
+ * <p>
+ * The next occurrence of a recurring task moves on as time passes, so for the {@link SortOrder#DUE} order
+ * recurring tasks are also kept in a heap by the occurrence they are sorted by. Before a page is read, the
+ * recurring tasks whose occurrence is over are moved to their next occurrence.
+ */
+public class SortedTaskView implements TaskIndex {
+    private final SortOrder order;
+    private final IdentityHashMap<Task, Node> nodes = new IdentityHashMap<>();
+    private final PriorityQueue<Node> recurringNodes = new PriorityQueue<>(
+            Comparator.comparingLong(node -> node.numericKey));
+    private final SplittableRandom random = new SplittableRandom(0);
+    private Node root;
+    private long nextSequence;
+
+    private static final class Node {
+        private final Task task;
+        private final long numericKey;
+        private final String textKey;
+        private final long sequence;
+        private final int priority;
+        private int size = 1;
+        private Node left;
+        private Node right;
+
+        private Node(Task task, long numericKey, String textKey, long sequence, int priority) {
+            this.task = task;
+            this.numericKey = numericKey;
+            this.textKey = textKey;
+            this.sequence = sequence;
+            this.priority = priority;
+        }
+
+        private int compareTo(Node other) {
+            if (numericKey != other.numericKey) {
+                return Long.compare(numericKey, other.numericKey);
+            }
+            int byText = textKey.compareTo(other.textKey);
+            return byText != 0 ? byText : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    /**
+     * Creates an empty view that keeps tasks in the given order.
+     *
+     * @param order the order to keep the tasks in.
+     */
+    public SortedTaskView(SortOrder order) {
+        this.order = order;
+    }
+
+    public SortOrder getOrder() {
+        return this.order;
+    }
+
+    @Override
+    public void addTask(Task task) {
+        insert(task, nextSequence++, LocalDateTime.now());
+    }
+
+    @Override
+    public void removeTask(Task task) {
+        Node node = nodes.remove(task);
+        if (node != null) {
+            root = deleteNode(root, node);
+        }
+    }
+
+    @Override
+    public void updateTask(Task task) {
+        Node node = nodes.get(task);
+        if (node == null) {
+            return;
+        }
+        root = deleteNode(root, node);
+        insert(task, node.sequence, LocalDateTime.now());
+    }
+
+    @Override
+    public void clear() {
+        nodes.clear();
+        recurringNodes.clear();
+        root = null;
+    }
+
+    /**
+     * Returns the number of tasks in the view.
+     *
+     * @return the number of tasks.
+     */
+    public int getSize() {
+        return size(root);
+    }
+
+    /**
+     * Returns the tasks at the given positions of the sorted order.
+     *
+     * @param from  the position of the first task to return, starting from 0.
+     * @param count the maximum number of tasks to return.
+     * @param now   the current time, used to move recurring tasks on to their next occurrence.
+     * @return the tasks from position {@code from} onwards, in sorted order.
+     */
+    public ArrayList<Task> getTasks(int from, int count, LocalDateTime now) {
+        refreshExpiredKeys(now);
+
+        // the stack holds the tasks that come next in sorted order, each followed by its right subtree
+        ArrayDeque<Node> stack = new ArrayDeque<>();
+        Node node = root;
+        int rank = from;
+        while (node != null) {
+            int leftSize = size(node.left);
+            if (rank < leftSize) {
+                stack.push(node);
+                node = node.left;
+            } else if (rank == leftSize) {
+                stack.push(node);
+                break;
+            } else {
+                rank -= leftSize + 1;
+                node = node.right;
+            }
+        }
+
+        ArrayList<Task> tasks = new ArrayList<>(Math.max(0, Math.min(count, getSize() - from)));
+        while (tasks.size() < count && !stack.isEmpty()) {
+            Node next = stack.pop();
+            tasks.add(next.task);
+            for (Node child = next.right; child != null; child = child.left) {
+                stack.push(child);
+            }
+        }
+        return tasks;
+    }
+
+    /**
+     * Returns the number of tasks whose numeric sort key is at least {@code fromKey} and below {@code untilKey}.
+     * For the {@link SortOrder#DUE} order the key of a task is its due date in epoch seconds, so this counts the
+     * tasks due in a time range, in O(log n) by walking down the subtree sizes twice.
+     *
+     * @param fromKey  the smallest key to count.
+     * @param untilKey the key after the largest key to count.
+     * @param now      the current time, used to move recurring tasks on to their next occurrence.
+     * @return the number of tasks with a key in the range.
+     */
+    public int countInRange(long fromKey, long untilKey, LocalDateTime now) {
+        refreshExpiredKeys(now);
+        return Math.max(0, countBelow(untilKey) - countBelow(fromKey));
+    }
+
+    /**
+     * Returns the tasks whose numeric sort key is at least {@code fromKey} and below {@code untilKey}, in
+     * sorted order.
+     *
+     * @param fromKey  the smallest key to return.
+     * @param untilKey the key after the largest key to return.
+     * @param now      the current time, used to move recurring tasks on to their next occurrence.
+     * @return the tasks with a key in the range.
+     */
+    public ArrayList<Task> getTasksInRange(long fromKey, long untilKey, LocalDateTime now) {
+        refreshExpiredKeys(now);
+        int from = countBelow(fromKey);
+        return getTasks(from, Math.max(0, countBelow(untilKey) - from), now);
+    }
+
+    private int countBelow(long numericKey) {
+        int count = 0;
+        Node node = root;
+        while (node != null) {
+            if (node.numericKey < numericKey) {
+                count += size(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return count;
+    }
+
+    private void insert(Task task, long sequence, LocalDateTime now) {
+        Node node = new Node(task, order.getNumericKey(task, now), order.getTextKey(task), sequence,
+                random.nextInt());
+        nodes.put(task, node);
+        root = insertNode(root, node);
+        if (order.hasExpiringKeys() && task instanceof RecurringTask) {
+            recurringNodes.add(node);
+        }
+    }
+
+    private void refreshExpiredKeys(LocalDateTime now) {
+        long nowKey = now.toEpochSecond(ZoneOffset.UTC);
+        while (!recurringNodes.isEmpty() && recurringNodes.peek().numericKey < nowKey) {
+            Node expired = recurringNodes.poll();
+            // nodes of tasks that were changed or removed since are left in the heap and skipped here
+            if (nodes.get(expired.task) == expired) {
+                root = deleteNode(root, expired);
+                insert(expired.task, expired.sequence, now);
+            }
+        }
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static Node update(Node node) {
+        node.size = 1 + size(node.left) + size(node.right);
+        return node;
+    }
+
+    private static Node insertNode(Node subtree, Node node) {
+        if (subtree == null) {
+            return node;
+        }
+        if (node.priority > subtree.priority) {
+            Node[] parts = split(subtree, node);
+            node.left = parts[0];
+            node.right = parts[1];
+            return update(node);
+        }
+        if (node.compareTo(subtree) < 0) {
+            subtree.left = insertNode(subtree.left, node);
+        } else {
+            subtree.right = insertNode(subtree.right, node);
+        }
+        return update(subtree);
+    }
+
+    private static Node deleteNode(Node subtree, Node node) {
+        if (subtree == null) {
+            return null;
+        }
+        if (subtree == node) {
+            return merge(subtree.left, subtree.right);
+        }
+        if (node.compareTo(subtree) < 0) {
+            subtree.left = deleteNode(subtree.left, node);
+        } else {
+            subtree.right = deleteNode(subtree.right, node);
+        }
+        return update(subtree);
+    }
+
+    /**
+     * Splits a subtree into the nodes that sort before the given node and the nodes that sort after it.
+     */
+    private static Node[] split(Node subtree, Node node) {
+        if (subtree == null) {
+            return new Node[] {null, null};
+        }
+        if (subtree.compareTo(node) < 0) {
+            Node[] parts = split(subtree.right, node);
+            subtree.right = parts[0];
+            parts[0] = update(subtree);
+            return parts;
+        }
+        Node[] parts = split(subtree.left, node);
+        subtree.left = parts[1];
+        parts[1] = update(subtree);
+        return parts;
+    }
+
+    /**
+     * Joins two subtrees where every node of the first sorts before every node of the second.
+     */
+    private static Node merge(Node first, Node second) {
+        if (first == null || second == null) {
+            return first == null ? second : first;
+        }
+        if (first.priority > second.priority) {
+            first.right = merge(first.right, second);
+            return update(first);
+        }
+        second.left = merge(first, second.left);
+        return update(second);
+    }
+}
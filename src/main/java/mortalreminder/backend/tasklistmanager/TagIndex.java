@@ -0,0 +1,177 @@
+package mortalreminder.backend.tasklistmanager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+
+import mortalreminder.tasks.Task;
+
+/**
+ * Indexes the tags, done flag and type of every task as {@link TaskBitmap}s so that filters over them are
+ * answered with set operations instead of scanning the list.
+ * <p>
+ * Every task gets an id when it enters the index. Ids are handed out in increasing order, so ascending id
+ * order is also the order of the tasks in the list, and the ids of removed tasks simply leave gaps that the
+ * compressed bitmaps do not pay for. The table from ids to tasks does pay for them, so once there are more gaps
+ * than tasks the index is rebuilt with the tasks numbered from zero again, in the same order.
+ */
+public class TagIndex implements TaskIndex {
+    private static final int MIN_COMPACTION_SIZE = 1024;
+
+    private final IdentityHashMap<Task, Integer> idsByTask = new IdentityHashMap<>();
+    private final ArrayList<Task> tasksById = new ArrayList<>();
+    private final HashMap<String, TaskBitmap> tasksByTag = new HashMap<>();
+    private final HashMap<String, TaskBitmap> tasksByType = new HashMap<>();
+    private TaskBitmap doneTasks = new TaskBitmap();
+    private TaskBitmap allTasks = new TaskBitmap();
+    private int removedCount;
+
+    @Override
+    public void addTask(Task task) {
+        int id = tasksById.size();
+        tasksById.add(task);
+        idsByTask.put(task, id);
+        allTasks.add(id);
+        tasksByType.computeIfAbsent(task.getType(), type -> new TaskBitmap()).add(id);
+        for (String tag : task.getTags()) {
+            tasksByTag.computeIfAbsent(tag, key -> new TaskBitmap()).add(id);
+        }
+        if (task.getIsDone()) {
+            doneTasks.add(id);
+        }
+    }
+
+    @Override
+    public void removeTask(Task task) {
+        Integer id = idsByTask.remove(task);
+        if (id == null) {
+            return;
+        }
+        tasksById.set(id, null);
+        allTasks.remove(id);
+        doneTasks.remove(id);
+        removeFrom(tasksByType, task.getType(), id);
+        for (String tag : task.getTags()) {
+            removeFrom(tasksByTag, tag, id);
+        }
+
+        removedCount++;
+        if (removedCount > idsByTask.size() && tasksById.size() >= MIN_COMPACTION_SIZE) {
+            compact();
+        }
+    }
+
+    /**
+     * Renumbers the tasks from zero in list order, dropping the gaps left by removed tasks. Every compaction
+     * follows more removals than there are tasks left, so the cost of rebuilding is spread over them.
+     */
+    private void compact() {
+        ArrayList<Task> tasks = new ArrayList<>(idsByTask.size());
+        for (Task task : tasksById) {
+            if (task != null) {
+                tasks.add(task);
+            }
+        }
+        clear();
+        for (Task task : tasks) {
+            addTask(task);
+        }
+        tasksById.trimToSize();
+    }
+
+    @Override
+    public void updateTask(Task task) {
+        Integer id = idsByTask.get(task);
+        if (id == null) {
+            return;
+        }
+        if (task.getIsDone()) {
+            doneTasks.add(id);
+        } else {
+            doneTasks.remove(id);
+        }
+    }
+
+    /**
+     * Returns the index of the task in its list, or -1 if the task is not in the list.
+     * Tasks only ever join the end of a list, so the ids of the index are in list order and the index of a task
+     * is the number of tasks with a smaller id.
+     *
+     * @param task the task to look up.
+     * @return the index of the task in the list.
+     */
+    public int getListIndex(Task task) {
+        Integer id = idsByTask.get(task);
+        return id == null ? -1 : allTasks.rank(id);
+    }
+
+    /**
+     * Returns the id of the task in the index, or -1 if the task is not in the index.
+     */
+    int getId(Task task) {
+        Integer id = idsByTask.get(task);
+        return id == null ? -1 : id;
+    }
+
+    @Override
+    public void clear() {
+        idsByTask.clear();
+        tasksById.clear();
+        tasksByTag.clear();
+        tasksByType.clear();
+        doneTasks = new TaskBitmap();
+        allTasks = new TaskBitmap();
+        removedCount = 0;
+    }
+
+    /**
+     * Returns the tasks having the given tag. The returned bitmap must not be modified.
+     *
+     * @param tag the tag without the leading {@code #}, in any case.
+     * @return the ids of the tasks with the tag.
+     */
+    public TaskBitmap getTasksWithTag(String tag) {
+        return tasksByTag.getOrDefault(tag.toLowerCase(), new TaskBitmap());
+    }
+
+    /**
+     * Returns the tasks of the given type. The returned bitmap must not be modified.
+     *
+     * @param type the one letter type of the task, such as {@code T} or {@code D}.
+     * @return the ids of the tasks of the type.
+     */
+    public TaskBitmap getTasksOfType(String type) {
+        return tasksByType.getOrDefault(type.toUpperCase(), new TaskBitmap());
+    }
+
+    public TaskBitmap getDoneTasks() {
+        return this.doneTasks;
+    }
+
+    public TaskBitmap getAllTasks() {
+        return this.allTasks;
+    }
+
+    /**
+     * Returns the tasks with the ids in the bitmap, in list order.
+     *
+     * @param ids the ids of the tasks.
+     * @return the tasks with the given ids.
+     */
+    public ArrayList<Task> getTasks(TaskBitmap ids) {
+        ArrayList<Task> tasks = new ArrayList<>(ids.getCardinality());
+        ids.forEach(id -> tasks.add(tasksById.get(id)));
+        return tasks;
+    }
+
+    private static void removeFrom(HashMap<String, TaskBitmap> bitmaps, String key, int id) {
+        TaskBitmap bitmap = bitmaps.get(key);
+        if (bitmap == null) {
+            return;
+        }
+        bitmap.remove(id);
+        if (bitmap.getCardinality() == 0) {
+            bitmaps.remove(key);
+        }
+    }
+}
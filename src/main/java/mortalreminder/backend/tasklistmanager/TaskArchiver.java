@@ -0,0 +1,100 @@
+package mortalreminder.backend.tasklistmanager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import mortalreminder.backend.TaskArchiveStorage;
+import mortalreminder.errorhandling.MortalReminderException;
+import mortalreminder.io.FormattedOutput;
+import mortalreminder.tasks.Task;
+import mortalreminder.tasks.TimedTask;
+
+/**
+ * Handles moving completed tasks out of the {@link TaskList} into the archive and searching the archive.
+ * <p>
+ * A task is archived once it is marked as done and, for deadlines and events, its due date is older than
+ * the age threshold. Todos have no date so they are archived as soon as they are done.
+ */
+public class TaskArchiver {
+    private static final int DEFAULT_AGE_THRESHOLD_DAYS = 7;
+
+    /**
+     * Archives completed tasks or searches the archive based on the command details.
+     * <p>
+     * {@code archive [days]} archives all completed tasks that are older than the given number of days,
+     * while {@code archive search [terms]} returns the archived tasks matching any of the terms.
+     *
+     * @param commandDetails the details of the command.
+     * @param taskList       the {@link TaskList} of the active workspace.
+     * @return confirmation of the archived tasks or the archived tasks matching the search.
+     * @throws MortalReminderException if the details are invalid or the archive cannot be accessed.
+     */
+    public static String executeArchiveCommand(String commandDetails, TaskList taskList)
+            throws MortalReminderException {
+        String[] splitDetails = commandDetails.trim().split(" ", 2);
+        if (splitDetails[0].equalsIgnoreCase("search")) {
+            String terms = splitDetails.length == 2 ? splitDetails[1] : "";
+            return searchArchive(taskList, Arrays.stream(terms.split(",")).map(String::trim).toArray(String[]::new));
+        }
+
+        try {
+            int ageThresholdDays = commandDetails.isBlank()
+                    ? DEFAULT_AGE_THRESHOLD_DAYS
+                    : Integer.parseInt(commandDetails.trim());
+            return archiveCompletedTasks(taskList, ageThresholdDays);
+        } catch (NumberFormatException e) {
+            throw new MortalReminderException(MortalReminderException.getInvalidNumberFormatErrorMessage());
+        }
+    }
+
+    /**
+     * Moves all completed tasks older than the threshold into a new block of the archive.
+     * The block is written before the tasks are removed so a failure never loses a task.
+     *
+     * @param taskList         the {@link TaskList} to archive tasks from.
+     * @param ageThresholdDays how many days past its due date a completed task is kept in the list.
+     * @return confirmation message with the number of tasks archived.
+     * @throws MortalReminderException if there is nothing to archive or the archive cannot be written to.
+     */
+    public static String archiveCompletedTasks(TaskList taskList, int ageThresholdDays)
+            throws MortalReminderException {
+        LocalDateTime cutOff = LocalDateTime.now().minusDays(ageThresholdDays);
+        ArrayList<Task> tasksToArchive = new ArrayList<>();
+        for (Task task : taskList.getTaskList()) {
+            if (isArchivable(task, cutOff)) {
+                tasksToArchive.add(task);
+            }
+        }
+
+        if (tasksToArchive.isEmpty()) {
+            throw new MortalReminderException(MortalReminderException.getNothingToArchiveErrorMessage());
+        }
+
+        TaskArchiveStorage.appendBlock(tasksToArchive,
+                TaskArchiveStorage.getArchiveFilePath(taskList.getStorageFilePath()));
+        taskList.removeTasks(tasksToArchive);
+        return FormattedOutput.printArchived(tasksToArchive.size(), taskList);
+    }
+
+    private static String searchArchive(TaskList taskList, String... descriptions) throws MortalReminderException {
+        ArrayList<Task> archivedTasks = TaskArchiveStorage.searchArchive(
+                TaskArchiveStorage.getArchiveFilePath(taskList.getStorageFilePath()),
+                task -> TaskRetriever.filterTask(task, descriptions));
+
+        if (archivedTasks.isEmpty()) {
+            throw new MortalReminderException(MortalReminderException.getNoSimilarTasksFoundMessage());
+        }
+        return FormattedOutput.printArchivedTasks(archivedTasks);
+    }
+
+    private static boolean isArchivable(Task task, LocalDateTime cutOff) {
+        if (!task.getIsDone()) {
+            return false;
+        }
+        if (task instanceof TimedTask timedTask) {
+            return timedTask.getDueDate().isBefore(cutOff);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,415 @@
+package mortalreminder.backend.tasklistmanager;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * A compressed set of task ids, laid out like a roaring bitmap.
+ * <p>
+ * Ids are split into chunks of 65536 by their upper 16 bits, and every chunk that holds at least one id gets
+ * a container for the lower 16 bits. A chunk with few ids keeps them in a sorted array, which costs two bytes
+ * per id, while a crowded chunk uses a plain bitmap of 8 KB. This keeps sparse tags small while dense
+ * dimensions such as the done flag stay a fixed size, and set operations between two bitmaps work chunk
+ * by chunk on whole 64 bit words wherever a chunk is dense.
+ */
+public class TaskBitmap {
+    private static final int ARRAY_CONTAINER_MAX = 4096;
+    private static final int WORDS_PER_CONTAINER = 1024;
+
+    private char[] keys = new char[0];
+    private Container[] containers = new Container[0];
+    private int containerCount;
+
+    /**
+     * Holds the lower 16 bits of the ids of a chunk, either as a sorted array or as a bitmap.
+     */
+    private static final class Container {
+        private char[] values; // sorted ids while the container is small, null once it is a bitmap
+        private long[] words;
+        private int cardinality;
+
+        private static Container ofArray(char[] values, int cardinality) {
+            Container container = new Container();
+            container.values = values;
+            container.cardinality = cardinality;
+            return container.normalise();
+        }
+
+        private static Container ofWords(long[] words) {
+            Container container = new Container();
+            container.words = words;
+            for (long word : words) {
+                container.cardinality += Long.bitCount(word);
+            }
+            return container.normalise();
+        }
+
+        private boolean contains(char value) {
+            if (values != null) {
+                return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+            }
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        private boolean add(char value) {
+            if (values == null) {
+                long mask = 1L << value;
+                if ((words[value >>> 6] & mask) != 0) {
+                    return false;
+                }
+                words[value >>> 6] |= mask;
+                cardinality++;
+                return true;
+            }
+
+            int position = Arrays.binarySearch(values, 0, cardinality, value);
+            if (position >= 0) {
+                return false;
+            }
+            if (cardinality == ARRAY_CONTAINER_MAX) {
+                words = toWords();
+                values = null;
+                return add(value);
+            }
+            position = -position - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_CONTAINER_MAX, Math.max(4, cardinality * 2)));
+            }
+            System.arraycopy(values, position, values, position + 1, cardinality - position);
+            values[position] = value;
+            cardinality++;
+            return true;
+        }
+
+        private boolean remove(char value) {
+            if (values == null) {
+                long mask = 1L << value;
+                if ((words[value >>> 6] & mask) == 0) {
+                    return false;
+                }
+                words[value >>> 6] &= ~mask;
+                cardinality--;
+                // only shrinks well below the limit so that ids going in and out near it do not convert every time
+                if (cardinality < ARRAY_CONTAINER_MAX / 2) {
+                    values = toArray();
+                    words = null;
+                }
+                return true;
+            }
+
+            int position = Arrays.binarySearch(values, 0, cardinality, value);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(values, position + 1, values, position, cardinality - position - 1);
+            cardinality--;
+            return true;
+        }
+
+        private long[] toWords() {
+            if (words != null) {
+                return words.clone();
+            }
+            long[] result = new long[WORDS_PER_CONTAINER];
+            for (int i = 0; i < cardinality; i++) {
+                result[values[i] >>> 6] |= 1L << values[i];
+            }
+            return result;
+        }
+
+        private char[] toArray() {
+            if (values != null) {
+                return Arrays.copyOf(values, cardinality);
+            }
+            char[] result = new char[cardinality];
+            int count = 0;
+            for (int i = 0; i < WORDS_PER_CONTAINER; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    result[count++] = (char) ((i << 6) + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return result;
+        }
+
+        private Container normalise() {
+            if (values == null && cardinality <= ARRAY_CONTAINER_MAX) {
+                values = toArray();
+                words = null;
+            } else if (values != null && cardinality > ARRAY_CONTAINER_MAX) {
+                words = toWords();
+                values = null;
+            }
+            return this;
+        }
+
+        private Container copy() {
+            return values != null ? ofArray(toArray(), cardinality) : ofWords(toWords());
+        }
+
+        private Container and(Container other) {
+            if (values != null || other.values != null) {
+                Container small = values != null ? this : other;
+                Container large = small == this ? other : this;
+                char[] result = new char[small.cardinality];
+                int count = 0;
+                for (int i = 0; i < small.cardinality; i++) {
+                    if (large.contains(small.values[i])) {
+                        result[count++] = small.values[i];
+                    }
+                }
+                return ofArray(result, count);
+            }
+            long[] result = new long[WORDS_PER_CONTAINER];
+            for (int i = 0; i < WORDS_PER_CONTAINER; i++) {
+                result[i] = words[i] & other.words[i];
+            }
+            return ofWords(result);
+        }
+
+        private Container or(Container other) {
+            if (values != null && other.values != null && cardinality + other.cardinality <= ARRAY_CONTAINER_MAX) {
+                char[] result = new char[cardinality + other.cardinality];
+                int count = 0;
+                int i = 0;
+                int j = 0;
+                while (i < cardinality || j < other.cardinality) {
+                    if (j == other.cardinality || (i < cardinality && values[i] < other.values[j])) {
+                        result[count++] = values[i++];
+                    } else if (i == cardinality || other.values[j] < values[i]) {
+                        result[count++] = other.values[j++];
+                    } else {
+                        result[count++] = values[i++];
+                        j++;
+                    }
+                }
+                return ofArray(result, count);
+            }
+            long[] result = toWords();
+            long[] otherWords = other.words != null ? other.words : other.toWords();
+            for (int i = 0; i < WORDS_PER_CONTAINER; i++) {
+                result[i] |= otherWords[i];
+            }
+            return ofWords(result);
+        }
+
+        private Container andNot(Container other) {
+            if (values != null) {
+                char[] result = new char[cardinality];
+                int count = 0;
+                for (int i = 0; i < cardinality; i++) {
+                    if (!other.contains(values[i])) {
+                        result[count++] = values[i];
+                    }
+                }
+                return ofArray(result, count);
+            }
+            long[] result = toWords();
+            long[] otherWords = other.words != null ? other.words : other.toWords();
+            for (int i = 0; i < WORDS_PER_CONTAINER; i++) {
+                result[i] &= ~otherWords[i];
+            }
+            return ofWords(result);
+        }
+    }
+
+    /**
+     * Adds an id to the set.
+     *
+     * @param id the non-negative id to add.
+     */
+    public void add(int id) {
+        char key = (char) (id >>> 16);
+        int position = findContainer(key);
+        if (position < 0) {
+            position = -position - 1;
+            insertContainer(position, key, Container.ofArray(new char[4], 0));
+        }
+        containers[position].add((char) id);
+    }
+
+    /**
+     * Removes an id from the set if it is in it.
+     *
+     * @param id the id to remove.
+     */
+    public void remove(int id) {
+        int position = findContainer((char) (id >>> 16));
+        if (position < 0 || !containers[position].remove((char) id)) {
+            return;
+        }
+        if (containers[position].cardinality == 0) {
+            System.arraycopy(keys, position + 1, keys, position, containerCount - position - 1);
+            System.arraycopy(containers, position + 1, containers, position, containerCount - position - 1);
+            containers[--containerCount] = null;
+        }
+    }
+
+    /**
+     * Returns whether the id is in the set.
+     *
+     * @param id the id to look up.
+     * @return true if the set contains the id.
+     */
+    public boolean contains(int id) {
+        int position = findContainer((char) (id >>> 16));
+        return position >= 0 && containers[position].contains((char) id);
+    }
+
+    /**
+     * Returns the number of ids in the set.
+     *
+     * @return the cardinality of the set.
+     */
+    public int getCardinality() {
+        int cardinality = 0;
+        for (int i = 0; i < containerCount; i++) {
+            cardinality += containers[i].cardinality;
+        }
+        return cardinality;
+    }
+
+    /**
+     * Returns the number of ids in the set that are smaller than the given id.
+     * Only the containers before the one of the id are counted as a whole, so this costs at most one pass over
+     * a single container.
+     *
+     * @param id the id to rank.
+     * @return the number of smaller ids in the set.
+     */
+    public int rank(int id) {
+        char key = (char) (id >>> 16);
+        char value = (char) id;
+        int rank = 0;
+        for (int i = 0; i < containerCount && keys[i] <= key; i++) {
+            Container container = containers[i];
+            if (keys[i] < key) {
+                rank += container.cardinality;
+            } else if (container.values != null) {
+                int position = Arrays.binarySearch(container.values, 0, container.cardinality, value);
+                rank += position >= 0 ? position : -position - 1;
+            } else {
+                for (int j = 0; j < value >>> 6; j++) {
+                    rank += Long.bitCount(container.words[j]);
+                }
+                rank += Long.bitCount(container.words[value >>> 6] & ((1L << value) - 1));
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * Returns the ids that are in both this set and the other set.
+     *
+     * @param other the other set.
+     * @return a new set holding the intersection.
+     */
+    public TaskBitmap and(TaskBitmap other) {
+        TaskBitmap result = new TaskBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < containerCount && j < other.containerCount) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                result.appendContainer(keys[i], containers[i++].and(other.containers[j++]));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the ids that are in this set, the other set or both.
+     *
+     * @param other the other set.
+     * @return a new set holding the union.
+     */
+    public TaskBitmap or(TaskBitmap other) {
+        TaskBitmap result = new TaskBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < containerCount || j < other.containerCount) {
+            if (j == other.containerCount || (i < containerCount && keys[i] < other.keys[j])) {
+                result.appendContainer(keys[i], containers[i++].copy());
+            } else if (i == containerCount || other.keys[j] < keys[i]) {
+                result.appendContainer(other.keys[j], other.containers[j++].copy());
+            } else {
+                result.appendContainer(keys[i], containers[i++].or(other.containers[j++]));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the ids that are in this set but not in the other set.
+     *
+     * @param other the other set.
+     * @return a new set holding the difference.
+     */
+    public TaskBitmap andNot(TaskBitmap other) {
+        TaskBitmap result = new TaskBitmap();
+        int j = 0;
+        for (int i = 0; i < containerCount; i++) {
+            while (j < other.containerCount && other.keys[j] < keys[i]) {
+                j++;
+            }
+            if (j < other.containerCount && other.keys[j] == keys[i]) {
+                result.appendContainer(keys[i], containers[i].andNot(other.containers[j]));
+            } else {
+                result.appendContainer(keys[i], containers[i].copy());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Passes every id of the set to the consumer in ascending order.
+     *
+     * @param consumer the consumer of the ids.
+     */
+    public void forEach(IntConsumer consumer) {
+        for (int i = 0; i < containerCount; i++) {
+            int high = keys[i] << 16;
+            Container container = containers[i];
+            if (container.values != null) {
+                for (int j = 0; j < container.cardinality; j++) {
+                    consumer.accept(high | container.values[j]);
+                }
+                continue;
+            }
+            for (int j = 0; j < WORDS_PER_CONTAINER; j++) {
+                long word = container.words[j];
+                while (word != 0) {
+                    consumer.accept(high | (j << 6) + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+        }
+    }
+
+    private int findContainer(char key) {
+        return Arrays.binarySearch(keys, 0, containerCount, key);
+    }
+
+    private void insertContainer(int position, char key, Container container) {
+        if (containerCount == keys.length) {
+            int capacity = Math.max(4, containerCount * 2);
+            keys = Arrays.copyOf(keys, capacity);
+            containers = Arrays.copyOf(containers, capacity);
+        }
+        System.arraycopy(keys, position, keys, position + 1, containerCount - position);
+        System.arraycopy(containers, position, containers, position + 1, containerCount - position);
+        keys[position] = key;
+        containers[position] = container;
+        containerCount++;
+    }
+
+    private void appendContainer(char key, Container container) {
+        if (container.cardinality > 0) {
+            insertContainer(containerCount, key, container);
+        }
+    }
+}
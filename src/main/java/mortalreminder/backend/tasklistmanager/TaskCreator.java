@@ -1,9 +1,16 @@
 package mortalreminder.backend.tasklistmanager;
 
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 import mortalreminder.commands.CommandType;
 import mortalreminder.errorhandling.MortalReminderException;
+import mortalreminder.io.FormattedOutput;
 import mortalreminder.tasks.Deadline;
 import mortalreminder.tasks.Event;
+import mortalreminder.tasks.Priority;
+import mortalreminder.tasks.RecurringTask;
 import mortalreminder.tasks.Task;
 import mortalreminder.tasks.ToDo;
 
@@ -11,14 +18,19 @@ import mortalreminder.tasks.ToDo;
  * Handles creation of different types of tasks simultaneously.
  */
 public class TaskCreator {
+    private static final Pattern PRIORITY_PATTERN = Pattern.compile("\\s*/priority\\s+(\\S+)");
 
     /**
      * Creates a new task based on the command type and adds it to the task list.
      * <p>
      * This method interprets the command details to create the appropriate type of task
-     * (ToDo, Deadline, or Event) and adds it to the task list. It handles potential errors
+     * (ToDo, Deadline, Event or RecurringTask) and adds it to the task list. It handles potential errors
      * such as an incorrect number of details or an invalid date format. This method is also
      * optimised using ChatGPT.
+     * <p>
+     * Any task can be given a priority with "/priority" followed by its level, such as "/priority high".
+     * A todo, deadline or event that is nearly the same as an open task, as found by the {@link DuplicateIndex}
+     * of the list, is still added, but the confirmation warns about it.
      *
      * @param commandDetails the details of the command, typically the task description.
      * @param taskList       the {@link TaskList} to add the new task to.
@@ -28,6 +40,13 @@ public class TaskCreator {
      */
     public static String createTask(String commandDetails, TaskList taskList, CommandType commandType)
             throws MortalReminderException {
+        Priority priority = Priority.NONE;
+        Matcher priorityMatcher = PRIORITY_PATTERN.matcher(commandDetails);
+        if (priorityMatcher.find()) {
+            priority = Priority.parse(priorityMatcher.group(1));
+            commandDetails = priorityMatcher.replaceFirst("");
+        }
+
         Task newTask;
 
         if (commandType == CommandType.TODO) {
@@ -36,10 +55,20 @@ public class TaskCreator {
             newTask = new Deadline(commandDetails);
         } else if (commandType == CommandType.EVENT) {
             newTask = new Event(commandDetails);
+        } else if (commandType == CommandType.RECURRING) {
+            newTask = new RecurringTask(commandDetails);
         } else {
             throw new MortalReminderException(MortalReminderException.getUnreachableCodeErrorMessage());
         }
 
-        return taskList.addTask(newTask);
+        newTask.setPriority(priority);
+        // looked up before the task is added, so that it does not find itself
+        List<Task> duplicates = commandType == CommandType.RECURRING
+                ? List.of() : taskList.getDuplicateIndex().findDuplicates(newTask.getRawDescription());
+        String response = taskList.addTask(newTask);
+        if (duplicates.isEmpty()) {
+            return response;
+        }
+        return response + FormattedOutput.printPossibleDuplicates(duplicates, taskList);
     }
 }
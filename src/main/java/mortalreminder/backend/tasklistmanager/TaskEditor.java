@@ -1,8 +1,9 @@
 package mortalreminder.backend.tasklistmanager;
 
-import mortalreminder.backend.TaskListStorage;
 import mortalreminder.commands.CommandType;
 import mortalreminder.errorhandling.MortalReminderException;
+import mortalreminder.io.FormattedOutput;
+import mortalreminder.tasks.Priority;
 import mortalreminder.tasks.Task;
 
 /**
@@ -25,7 +26,9 @@ public class TaskEditor {
     public static String executeMarkOrUnmark(String commandDetails, TaskList taskList, CommandType commandType)
             throws MortalReminderException {
         try {
-            Task newTask = retrieveTask(commandDetails, taskList);
+            int index = Integer.parseInt(commandDetails) - 1;
+            Task newTask = taskList.getTask(index);
+            String previousFileLine = newTask.convertToFileFormat();
             String feedback;
 
             if (commandType == CommandType.MARK) {
@@ -36,13 +39,38 @@ public class TaskEditor {
                 throw new MortalReminderException(MortalReminderException.getUnreachableCodeErrorMessage());
             }
 
-            TaskListStorage.refreshStorageFile(taskList);
+            taskList.updateTask(index, previousFileLine);
             return feedback;
         } catch (NumberFormatException e) {
             throw new MortalReminderException(MortalReminderException.getInvalidNumberFormatErrorMessage());
         }
     }
 
+    /**
+     * Sets the priority of a task, such as "2 high" to give the second task a high priority.
+     *
+     * @param commandDetails the index of the task followed by its new priority.
+     * @param taskList       the {@link TaskList} containing the task to change.
+     * @return confirmation message of the new priority of the task.
+     * @throws MortalReminderException if the index or the priority is invalid.
+     */
+    public static String executeSetPriority(String commandDetails, TaskList taskList) throws MortalReminderException {
+        String[] details = commandDetails.trim().split("\\s+");
+        if (details.length != 2) {
+            throw new MortalReminderException(MortalReminderException.getInvalidPriorityCommandErrorMessage());
+        }
+        try {
+            int index = Integer.parseInt(details[0]) - 1;
+            Task task = taskList.getTask(index);
+            String previousFileLine = task.convertToFileFormat();
+            task.setPriority(Priority.parse(details[1]));
+            taskList.updateTask(index, previousFileLine);
+            return FormattedOutput.printPrioritySet(task);
+        } catch (NumberFormatException e) {
+            throw new MortalReminderException(MortalReminderException.getInvalidNumberFormatErrorMessage());
+        }
+    }
+
     /**
      * Deletes a task from the app.
      *
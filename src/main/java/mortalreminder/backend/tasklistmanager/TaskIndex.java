@@ -0,0 +1,38 @@
+package mortalreminder.backend.tasklistmanager;
+
+import mortalreminder.tasks.Task;
+
+/**
+ * Represents an in-memory index over the tasks of a {@link TaskList}.
+ * <p>
+ * The {@link TaskList} keeps all of its indexes up to date as tasks enter and leave the list, so an index
+ * can answer queries without scanning the whole list.
+ */
+public interface TaskIndex {
+
+    /**
+     * Adds a task that has just entered the list to the index.
+     *
+     * @param task the task added to the list.
+     */
+    void addTask(Task task);
+
+    /**
+     * Removes a task that has just left the list from the index.
+     *
+     * @param task the task removed from the list.
+     */
+    void removeTask(Task task);
+
+    /**
+     * Updates the index after a task in the list has changed, such as being marked as done.
+     *
+     * @param task the task that was changed.
+     */
+    void updateTask(Task task);
+
+    /**
+     * Removes all tasks from the index.
+     */
+    void clear();
+}
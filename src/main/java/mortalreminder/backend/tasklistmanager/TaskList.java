@@ -1,9 +1,19 @@
 package mortalreminder.backend.tasklistmanager;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import mortalreminder.backend.TaskListStorage;
+import mortalreminder.backend.events.TaskEvent;
+import mortalreminder.backend.events.TaskEventBus;
 import mortalreminder.errorhandling.MortalReminderException;
 import mortalreminder.io.FormattedOutput;
 import mortalreminder.tasks.Task;
@@ -17,9 +27,46 @@ import mortalreminder.tasks.Task;
  * offers methods to manipulate the list, such as adding new tasks, deleting existing ones,
  * and retrieving tasks by index. It also handles the interaction with storage to add the task to
  * long term storage and formatted printing for printing list to the user.
+ * <p>
+ * Every change is applied in memory and then published once on the {@link TaskEventBus}, whose subscribers
+ * such as the {@link mortalreminder.backend.TaskStorageWriter} catch up on their own threads. The indexes of
+ * the list are still updated immediately so that a query right after a change sees it.
+ * <p>
+ * Each index is only built the first time it is asked for, so lists that are never queried through an index,
+ * such as the lists holding the results of a command or the shards read for a query over every workspace, do
+ * not pay for indexing their tasks.
  */
 public class TaskList {
+    public static final int PARALLEL_SCAN_THRESHOLD = 65536;
+
     protected ArrayList<Task> taskList = new ArrayList<>();
+    protected final String storageFilePath;
+    private DescriptionIndex descriptionIndex;
+    private TagIndex tagIndex;
+    private NextTaskQueue nextTaskQueue;
+    private TaskSummary summary;
+    private AgendaIndex agendaIndex;
+    private DuplicateIndex duplicateIndex;
+    private final EnumMap<SortOrder, SortedTaskView> sortedViews = new EnumMap<>(SortOrder.class);
+    // the indexes built so far, which are kept up to date with every change to the list
+    private final List<TaskIndex> taskIndexes = new ArrayList<>();
+
+    /**
+     * Creates an empty list that is stored in the default storage file.
+     */
+    public TaskList() {
+        this(TaskListStorage.STORAGE_LIST_FILE_PATH);
+    }
+
+    /**
+     * Creates an empty list that is stored in the given storage file.
+     * This is used for lists that belong to a workspace other than the default one.
+     *
+     * @param storageFilePath the path of the file this list is persisted to.
+     */
+    public TaskList(String storageFilePath) {
+        this.storageFilePath = storageFilePath;
+    }
 
     /**
      * Retrieves the task at the specified index from the list.
@@ -46,6 +93,105 @@ public class TaskList {
         return this.taskList;
     }
 
+    /**
+     * Returns an ordered stream over all tasks for scan based queries.
+     * <p>
+     * Lists with at least {@code PARALLEL_SCAN_THRESHOLD} tasks are scanned in parallel on the common
+     * fork-join pool using a {@link TaskListSpliterator}. Smaller lists are scanned sequentially since
+     * splitting them costs more than it saves.
+     *
+     * @return a stream of the tasks in list order.
+     */
+    public Stream<Task> stream() {
+        int size = this.taskList.size();
+        return StreamSupport.stream(new TaskListSpliterator(this.taskList, 0, size),
+                size >= PARALLEL_SCAN_THRESHOLD);
+    }
+
+    public String getStorageFilePath() {
+        return this.storageFilePath;
+    }
+
+    public DescriptionIndex getDescriptionIndex() {
+        if (this.descriptionIndex == null) {
+            this.descriptionIndex = buildIndex(new DescriptionIndex());
+        }
+        return this.descriptionIndex;
+    }
+
+    public TagIndex getTagIndex() {
+        if (this.tagIndex == null) {
+            this.tagIndex = buildIndex(new TagIndex());
+        }
+        return this.tagIndex;
+    }
+
+    public NextTaskQueue getNextTaskQueue() {
+        if (this.nextTaskQueue == null) {
+            this.nextTaskQueue = buildIndex(new NextTaskQueue());
+        }
+        return this.nextTaskQueue;
+    }
+
+    public TaskSummary getSummary() {
+        if (this.summary == null) {
+            this.summary = buildIndex(new TaskSummary());
+        }
+        return this.summary;
+    }
+
+    public AgendaIndex getAgendaIndex() {
+        if (this.agendaIndex == null) {
+            this.agendaIndex = buildIndex(new AgendaIndex());
+        }
+        return this.agendaIndex;
+    }
+
+    public DuplicateIndex getDuplicateIndex() {
+        if (this.duplicateIndex == null) {
+            this.duplicateIndex = buildIndex(new DuplicateIndex());
+        }
+        return this.duplicateIndex;
+    }
+
+    /**
+     * Returns a view of the list that is kept in the given order.
+     * A view is only built the first time it is asked for, after which it is kept up to date with the list
+     * like every other index.
+     *
+     * @param order the order of the view.
+     * @return the view of the list in that order.
+     */
+    public SortedTaskView getSortedView(SortOrder order) {
+        SortedTaskView view = this.sortedViews.get(order);
+        if (view == null) {
+            view = buildIndex(new SortedTaskView(order));
+            this.sortedViews.put(order, view);
+        }
+        return view;
+    }
+
+    /**
+     * Returns whether the view in the given order has already been built, in which case reading it is cheap.
+     *
+     * @param order the order of the view.
+     * @return true if {@link #getSortedView(SortOrder)} returns the view without building it.
+     */
+    public boolean hasSortedView(SortOrder order) {
+        return this.sortedViews.containsKey(order);
+    }
+
+    /**
+     * Adds every task of the list to a new index and keeps the index up to date with the list from then on.
+     */
+    private <T extends TaskIndex> T buildIndex(T index) {
+        for (Task task : this.taskList) {
+            index.addTask(task);
+        }
+        this.taskIndexes.add(index);
+        return index;
+    }
+
     /**
      * Adds a task to the list and updates the storage file.
      * <p>
@@ -59,14 +205,39 @@ public class TaskList {
      */
     public String addTask(Task task) throws MortalReminderException {
         if (!Objects.equals(task.getDescription().trim(), "")) {
-            TaskListStorage.appendToListFile(task);
             this.taskList.add(task);
+            indexTask(task);
+            publish(new TaskEvent.TaskAdded(storageFilePath, task, task.convertToFileFormat()));
             return FormattedOutput.addTask(task, this);
         } else {
             throw new MortalReminderException(MortalReminderException.getInvalidEventDescriptionErrorMessage());
         }
     }
 
+    /**
+     * Adds a batch of tasks to the list as a single transaction and publishes them together.
+     * Either every task of the batch is added or, if any of them has an empty description, none of them are.
+     *
+     * @param tasks the tasks to add, in order.
+     * @throws MortalReminderException if the description of any of the tasks is empty.
+     */
+    public void addTasks(List<Task> tasks) throws MortalReminderException {
+        for (Task task : tasks) {
+            if (task.getRawDescription().isBlank()) {
+                throw new MortalReminderException(MortalReminderException.getInvalidEventDescriptionErrorMessage());
+            }
+        }
+
+        ArrayList<TaskEvent> events = new ArrayList<>(tasks.size());
+        this.taskList.ensureCapacity(this.taskList.size() + tasks.size());
+        for (Task task : tasks) {
+            this.taskList.add(task);
+            indexTask(task);
+            events.add(new TaskEvent.TaskAdded(storageFilePath, task, task.convertToFileFormat()));
+        }
+        TaskEventBus.getInstance().publishAll(events);
+    }
+
     /**
      * Loads a task directly into the list from the storage file. Thus, in this method, the task is not added
      * back into the storage file.
@@ -78,6 +249,7 @@ public class TaskList {
      */
     public void loadTask(Task task) {
         this.taskList.add(task);
+        indexTask(task);
     }
 
     /**
@@ -95,11 +267,56 @@ public class TaskList {
         assert !task.getDescription().trim().isEmpty();
         // We are deleting a task, the task should have gone through this check when it was created.
 
-        this.taskList.remove(task);
-        TaskListStorage.refreshStorageFile(this);
+        int index = this.taskList.indexOf(task);
+        this.taskList.remove(index);
+        unindexTask(task);
+        publish(new TaskEvent.TaskRemoved(storageFilePath, index, task, task.convertToFileFormat()));
         return FormattedOutput.deleteTask(task, this);
     }
 
+    /**
+     * Publishes a change made to the task at the given index, such as it being marked as done,
+     * so that the storage file and other subscribers pick it up. The line the task had before the change lets
+     * the storage file find it even if another process moved it in the meantime.
+     *
+     * @param index            the index of the task that was changed.
+     * @param previousFileLine the task in its file format from before the change.
+     * @throws MortalReminderException if the index is invalid in the list.
+     */
+    public void updateTask(int index, String previousFileLine) throws MortalReminderException {
+        Task task = getTask(index);
+        for (TaskIndex taskIndex : taskIndexes) {
+            taskIndex.updateTask(task);
+        }
+        publish(new TaskEvent.TaskUpdated(storageFilePath, index, task, previousFileLine, task.convertToFileFormat()));
+    }
+
+    /**
+     * Removes all the given tasks from the list in a single pass.
+     * This is used when many tasks leave the list at the same time, such as when they are archived.
+     *
+     * @param tasks the tasks to remove.
+     * @throws MortalReminderException if the storage file cannot be updated.
+     */
+    public void removeTasks(Collection<Task> tasks) throws MortalReminderException {
+        Set<Task> tasksToRemove = Collections.newSetFromMap(new IdentityHashMap<>());
+        tasksToRemove.addAll(tasks);
+
+        // published from the back so that the index of each removal is still valid when it is applied
+        ArrayList<TaskEvent> removals = new ArrayList<>();
+        for (int i = this.taskList.size() - 1; i >= 0; i--) {
+            Task task = this.taskList.get(i);
+            if (tasksToRemove.contains(task)) {
+                removals.add(new TaskEvent.TaskRemoved(storageFilePath, i, task, task.convertToFileFormat()));
+            }
+        }
+        this.taskList.removeIf(tasksToRemove::contains);
+        for (Task task : tasksToRemove) {
+            unindexTask(task);
+        }
+        TaskEventBus.getInstance().publishAll(removals);
+    }
+
     /**
      * Returns the number of tasks in the list.
      *
@@ -117,7 +334,26 @@ public class TaskList {
      */
     public String clearList() throws MortalReminderException {
         this.taskList.clear();
-        TaskListStorage.clearListFile();
+        for (TaskIndex taskIndex : taskIndexes) {
+            taskIndex.clear();
+        }
+        publish(new TaskEvent.TasksCleared(storageFilePath));
         return FormattedOutput.clearList();
     }
+
+    private void publish(TaskEvent event) throws MortalReminderException {
+        TaskEventBus.getInstance().publish(event);
+    }
+
+    private void indexTask(Task task) {
+        for (TaskIndex taskIndex : taskIndexes) {
+            taskIndex.addTask(task);
+        }
+    }
+
+    private void unindexTask(Task task) {
+        for (TaskIndex taskIndex : taskIndexes) {
+            taskIndex.removeTask(task);
+        }
+    }
 }
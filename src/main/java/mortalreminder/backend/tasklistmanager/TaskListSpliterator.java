@@ -0,0 +1,74 @@
+package mortalreminder.backend.tasklistmanager;
+
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+import mortalreminder.tasks.Task;
+
+/**
+ * Splits a range of the task store into halves so that scans can run on the common fork-join pool.
+ * <p>
+ * Splitting stops once a range is smaller than {@code MIN_SPLIT_SIZE}, as smaller chunks cost more to
+ * schedule than to scan. The spliterator reports its encounter order, so parallel streams over it still
+ * collect their results in list order.
+ */
+public class TaskListSpliterator implements Spliterator<Task> {
+    public static final int MIN_SPLIT_SIZE = 8192;
+
+    private final List<Task> tasks;
+    private int origin;
+    private final int fence;
+
+    /**
+     * Creates a spliterator over the tasks from {@code origin} (inclusive) to {@code fence} (exclusive).
+     *
+     * @param tasks  the task store to scan, which should support fast random access.
+     * @param origin index of the first task to scan.
+     * @param fence  index after the last task to scan.
+     */
+    public TaskListSpliterator(List<Task> tasks, int origin, int fence) {
+        this.tasks = tasks;
+        this.origin = origin;
+        this.fence = fence;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Task> action) {
+        if (origin >= fence) {
+            return false;
+        }
+        action.accept(tasks.get(origin++));
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super Task> action) {
+        for (int i = origin; i < fence; i++) {
+            action.accept(tasks.get(i));
+        }
+        origin = fence;
+    }
+
+    @Override
+    public Spliterator<Task> trySplit() {
+        int size = fence - origin;
+        if (size < 2 * MIN_SPLIT_SIZE) {
+            return null;
+        }
+        int middle = origin + size / 2;
+        Spliterator<Task> prefix = new TaskListSpliterator(tasks, origin, middle);
+        origin = middle;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return fence - origin;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | SIZED | SUBSIZED | NONNULL;
+    }
+}
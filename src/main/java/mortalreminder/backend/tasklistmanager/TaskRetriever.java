@@ -1,12 +1,20 @@
 package mortalreminder.backend.tasklistmanager;
 
+import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
-import java.util.Objects;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
+import mortalreminder.backend.TaskHistory;
 import mortalreminder.errorhandling.MortalReminderException;
 import mortalreminder.io.FormattedOutput;
+import mortalreminder.io.Parser;
+import mortalreminder.tasks.DateParser;
 import mortalreminder.tasks.Task;
 import mortalreminder.tasks.TimedTask;
 
@@ -14,6 +22,194 @@ import mortalreminder.tasks.TimedTask;
  * Retrieves a list of tasks based on different criteria.
  */
 public class TaskRetriever {
+    public static final int DEFAULT_NEXT_TASK_COUNT = 5;
+    public static final int LIST_PAGE_SIZE = 20;
+
+    /**
+     * Lists the tasks, either all of them in list order or a page of them in a sorted order.
+     * <p>
+     * The options are "sort:due", "sort:desc" or "sort:status" to pick the order and "page" followed by a number
+     * to pick a page of {@code LIST_PAGE_SIZE} tasks. Without options the whole list is printed as before.
+     * Sorted pages are read from a {@link SortedTaskView} of the list, so the list is never sorted as a whole.
+     * <p>
+     * "as-of" followed by a date, and optionally a time, lists the tasks as they were then, rebuilt from the
+     * {@link TaskHistory} of the list. A date without a time means the end of that day.
+     *
+     * @param taskList       the {@link TaskList} to list.
+     * @param commandDetails the options of the list command.
+     * @return String representation of the tasks.
+     * @throws MortalReminderException if the options are invalid or the page does not exist.
+     */
+    public static String listTasks(TaskList taskList, String commandDetails) throws MortalReminderException {
+        if (commandDetails.isBlank()) {
+            return FormattedOutput.printList(taskList);
+        }
+        String[] options = commandDetails.trim().split("\\s+");
+        if (options[0].equalsIgnoreCase("as-of")) {
+            return listTasksAsOf(taskList, options);
+        }
+
+        SortOrder order = null;
+        int page = 1;
+        for (int i = 0; i < options.length; i++) {
+            if (options[i].toLowerCase().startsWith("sort:") && order == null) {
+                order = SortOrder.fromName(options[i].substring("sort:".length()));
+            } else if (options[i].equalsIgnoreCase("page") && i + 1 < options.length) {
+                page = parsePageNumber(options[++i]);
+            } else {
+                throw new MortalReminderException(MortalReminderException.getInvalidListOptionsErrorMessage());
+            }
+        }
+
+        int pageCount = Math.max(1, (taskList.getSize() + LIST_PAGE_SIZE - 1) / LIST_PAGE_SIZE);
+        if (page > pageCount) {
+            throw new MortalReminderException(MortalReminderException.getPageOutOfRangeErrorMessage(pageCount));
+        }
+        int from = (page - 1) * LIST_PAGE_SIZE;
+        List<Task> tasks = order == null
+                ? taskList.getTaskList().subList(from, Math.min(from + LIST_PAGE_SIZE, taskList.getSize()))
+                : taskList.getSortedView(order).getTasks(from, LIST_PAGE_SIZE, LocalDateTime.now());
+
+        ArrayList<Integer> listNumbers = new ArrayList<>(tasks.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            listNumbers.add(order == null ? from + i + 1 : taskList.getTagIndex().getListIndex(tasks.get(i)) + 1);
+        }
+        String orderName = order == null ? null : order.getDisplayName();
+        return FormattedOutput.printListPage(tasks, listNumbers, orderName, page, pageCount);
+    }
+
+    private static String listTasksAsOf(TaskList taskList, String[] options) throws MortalReminderException {
+        if (options.length < 2) {
+            throw new MortalReminderException(MortalReminderException.getInvalidAsOfDateErrorMessage());
+        }
+        int i = 2;
+        String time = "2359";
+        if (i < options.length && !options[i].equalsIgnoreCase("page")) {
+            time = options[i++];
+        }
+        LocalDateTime asOf;
+        try {
+            asOf = DateParser.parseInput(options[1] + " " + time);
+        } catch (DateTimeParseException e) {
+            throw new MortalReminderException(MortalReminderException.getInvalidAsOfDateErrorMessage());
+        }
+        int page = 1;
+        if (i + 2 == options.length && options[i].equalsIgnoreCase("page")) {
+            page = parsePageNumber(options[i + 1]);
+        } else if (i != options.length) {
+            throw new MortalReminderException(MortalReminderException.getInvalidAsOfDateErrorMessage());
+        }
+
+        TaskHistory.PastList pastList = TaskHistory.getInstance().getListAsOf(taskList.getStorageFilePath(), asOf);
+        int size = pastList.fileLines().size();
+        int pageCount = Math.max(1, (size + LIST_PAGE_SIZE - 1) / LIST_PAGE_SIZE);
+        if (page > pageCount) {
+            throw new MortalReminderException(MortalReminderException.getPageOutOfRangeErrorMessage(pageCount));
+        }
+        int from = (page - 1) * LIST_PAGE_SIZE;
+        ArrayList<Task> tasks = new ArrayList<>(LIST_PAGE_SIZE);
+        for (String fileLine : pastList.fileLines().subList(from, Math.min(from + LIST_PAGE_SIZE, size))) {
+            tasks.add(Parser.parseInputFromFile(fileLine));
+        }
+        return FormattedOutput.printTasksAsOf(tasks, from + 1, asOf, pastList, page, pageCount);
+    }
+
+    /**
+     * Lists the versions of a task kept in the {@link TaskHistory} of the list, oldest first.
+     *
+     * @param taskList       the {@link TaskList} the task is on.
+     * @param commandDetails the list number of the task.
+     * @return String representation of the versions of the task.
+     * @throws MortalReminderException if the task does not exist or its history cannot be read.
+     */
+    public static String getTaskHistory(TaskList taskList, String commandDetails) throws MortalReminderException {
+        int index;
+        try {
+            index = Integer.parseInt(commandDetails.trim()) - 1;
+        } catch (NumberFormatException e) {
+            throw new MortalReminderException(MortalReminderException.getInvalidHistoryCommandErrorMessage());
+        }
+        Task task = taskList.getTask(index);
+        List<TaskHistory.TaskVersion> versions =
+                TaskHistory.getInstance().getTaskHistory(taskList.getStorageFilePath(), index);
+        ArrayList<Task> versionTasks = new ArrayList<>(versions.size());
+        for (TaskHistory.TaskVersion version : versions) {
+            versionTasks.add(Parser.parseInputFromFile(version.fileLine()));
+        }
+        return FormattedOutput.printTaskHistory(task, versions, versionTasks);
+    }
+
+    private static int parsePageNumber(String pageNumber) throws MortalReminderException {
+        try {
+            int page = Integer.parseInt(pageNumber);
+            if (page <= 0) {
+                throw new MortalReminderException(MortalReminderException.getInvalidListOptionsErrorMessage());
+            }
+            return page;
+        } catch (NumberFormatException e) {
+            throw new MortalReminderException(MortalReminderException.getInvalidListOptionsErrorMessage());
+        }
+    }
+
+    /**
+     * Summarises the list by type, done flag and overdue tasks from the counts kept by its {@link TaskSummary},
+     * so the summary costs the same however long the list is.
+     *
+     * @param taskList the {@link TaskList} to summarise.
+     * @return the counts of tasks in the list.
+     */
+    public static String getSummary(TaskList taskList) {
+        LocalDateTime now = LocalDateTime.now();
+        taskList.getSummary().tick(now);
+        return FormattedOutput.printSummary(taskList.getSummary(), now);
+    }
+
+    /**
+     * Lists the deadlines, events and recurring tasks of a day, a week or a month by day, from the buckets of
+     * the {@link AgendaIndex} of the list.
+     * <p>
+     * The options are "day", "week" or "month", for the day, the week from Monday to Sunday or the calendar month
+     * of today, optionally followed by a date to use instead of today. Without options the agenda of today is
+     * listed.
+     *
+     * @param taskList       the {@link TaskList} to list the agenda of.
+     * @param commandDetails the options of the agenda command.
+     * @return String representation of the tasks of each day.
+     * @throws MortalReminderException if the options are invalid.
+     */
+    public static String getAgenda(TaskList taskList, String commandDetails) throws MortalReminderException {
+        String[] options = commandDetails.isBlank() ? new String[] {"day"} : commandDetails.trim().split("\\s+");
+        if (options.length > 2) {
+            throw new MortalReminderException(MortalReminderException.getInvalidAgendaCommandErrorMessage());
+        }
+        LocalDate day;
+        try {
+            day = options.length == 2 ? DateParser.parseInput(options[1] + " 0000").toLocalDate() : LocalDate.now();
+        } catch (DateTimeParseException e) {
+            throw new MortalReminderException(MortalReminderException.getInvalidAgendaCommandErrorMessage());
+        }
+
+        LocalDate from;
+        LocalDate to;
+        switch (options[0].toLowerCase()) {
+        case "day":
+            from = day;
+            to = day;
+            break;
+        case "week":
+            from = day.with(DayOfWeek.MONDAY);
+            to = from.plusDays(6);
+            break;
+        case "month":
+            from = day.withDayOfMonth(1);
+            to = day.withDayOfMonth(day.lengthOfMonth());
+            break;
+        default:
+            throw new MortalReminderException(MortalReminderException.getInvalidAgendaCommandErrorMessage());
+        }
+        TreeMap<LocalDate, List<AgendaIndex.AgendaItem>> agenda = taskList.getAgendaIndex().getAgenda(from, to);
+        return FormattedOutput.printAgenda(agenda, from, to);
+    }
 
     /**
      * Lists all upcoming tasks that have a due date in the future.
@@ -25,27 +221,57 @@ public class TaskRetriever {
      * @return a string message containing list of upcoming tasks that have not been marked yet.
      */
     public static String getUpcomingTasks(TaskList taskList) throws MortalReminderException {
-        ArrayList<Task> tasks = new ArrayList<>();
-        for (int i = 0; i < taskList.getSize(); i++) {
-            Task task = taskList.getTask(i);
+        return FormattedOutput.printUpcomingDeadlinesEvents(filterUpcomingTasks(taskList));
+    }
 
-            /* stops the current iteration if the task is not a TimedTask or already done. */
-            if (Objects.equals(task.getType(), "T") || task.getIsDone()) {
-                continue;
-            }
-            assert task.getType().equals("D") || task.getType().equals("E");
+    /**
+     * Lists the upcoming tasks of every workspace, querying all workspace shards in parallel.
+     *
+     * @param workspaceManager the {@link WorkspaceManager} holding all workspaces.
+     * @return a string message containing the upcoming tasks grouped by workspace.
+     * @throws MortalReminderException if a shard cannot be read or no workspace has upcoming tasks.
+     */
+    public static String getUpcomingTasksInAllWorkspaces(WorkspaceManager workspaceManager)
+            throws MortalReminderException {
+        LinkedHashMap<String, ArrayList<Task>> upcomingTasks =
+                workspaceManager.queryAllWorkspaces(TaskRetriever::filterUpcomingTasks);
+        if (upcomingTasks.isEmpty()) {
+            throw new MortalReminderException("You can be so much more! Alas, there are no upcoming tasks.");
+        }
+        return FormattedOutput.printWorkspaceResults("The following tasks are due soon:\n", upcomingTasks);
+    }
 
-            /* Add the task only if the task deadline or duration falls before the given deadline. */
-            TimedTask timedTask = (TimedTask) task;
-            if (LocalDateTime.now().isBefore(timedTask.getDueDate())) {
-                tasks.add(task);
-            }
+    /**
+     * Returns the tasks in the list that are deadlines, events or recurring tasks due in the future and
+     * not yet done.
+     * Large lists are scanned in parallel, see {@link TaskList#stream()}.
+     *
+     * @param taskList the {@link TaskList} to check for upcoming due dates.
+     * @return list of upcoming tasks in list order.
+     */
+    public static ArrayList<Task> filterUpcomingTasks(TaskList taskList) {
+        LocalDateTime now = LocalDateTime.now();
+        return taskList.stream()
+                .filter(task -> isUpcoming(task, now))
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    private static boolean isUpcoming(Task task, LocalDateTime now) {
+        /* skips the task if it is not a TimedTask or already done. */
+        if (!(task instanceof TimedTask timedTask) || task.getIsDone()) {
+            return false;
         }
-        return FormattedOutput.printUpcomingDeadlinesEvents(tasks);
+
+        /* Keep the task only if the task deadline, duration or next occurrence falls after the current time. */
+        return now.isBefore(timedTask.getDueDate());
     }
 
     /**
      * Finds and returns the task based on descriptions matching the descriptions passed in.
+     * If no description contains any of the search terms exactly, the closest matches allowing for typos
+     * are returned instead using the {@link DescriptionIndex} of the list.
+     * Search terms in the query language, such as {@code type:D done:false "report"}, are parsed by
+     * {@link FindQuery} and answered by the {@link QueryPlanner} instead.
      * This method was created using ChatGPT with major edits.
      *
      * @param descriptions string argument(s) we are looking for in all matching tasks.
@@ -53,20 +279,135 @@ public class TaskRetriever {
      * @throws MortalReminderException if there is no matching tasks to any of the given query terms.
      */
     public static String findTasks(TaskList taskList, String... descriptions) throws MortalReminderException {
-        ArrayList<Task> similarTasks = taskList.getTaskList().stream()
-                .filter(x -> filterTask(x, descriptions))
-                .collect(Collectors.toCollection(ArrayList::new));
+        String query = String.join(" ", descriptions);
+        if (FindQuery.isStructured(query)) {
+            return findTasksByQuery(taskList, query);
+        }
 
         TaskList similarTasksList = new TaskList();
-        similarTasksList.getTaskList().addAll(similarTasks);
+        similarTasksList.getTaskList().addAll(filterSimilarTasks(taskList, descriptions));
 
+        if (!similarTasksList.getTaskList().isEmpty()) {
+            return FormattedOutput.printSimilarTasks(similarTasksList);
+        }
+
+        similarTasksList.getTaskList().addAll(taskList.getDescriptionIndex()
+                .search(String.join(" ", descriptions), DescriptionIndex.DEFAULT_MAX_RESULTS));
         if (similarTasksList.getTaskList().isEmpty()) {
             throw new MortalReminderException(MortalReminderException.getNoSimilarTasksFoundMessage());
         }
-        return FormattedOutput.printSimilarTasks(similarTasksList);
+        return FormattedOutput.printClosestTasks(similarTasksList);
+    }
+
+    private static String findTasksByQuery(TaskList taskList, String query) throws MortalReminderException {
+        LocalDateTime now = LocalDateTime.now();
+        QueryPlanner.QueryPlan plan = QueryPlanner.plan(FindQuery.parse(query), taskList, now);
+        TaskList matchingTasks = new TaskList();
+        matchingTasks.getTaskList().addAll(QueryPlanner.execute(plan, taskList, now).tasks());
+        if (matchingTasks.getTaskList().isEmpty()) {
+            throw new MortalReminderException(MortalReminderException.getNoSimilarTasksFoundMessage());
+        }
+        return FormattedOutput.printSimilarTasks(matchingTasks);
+    }
+
+    /**
+     * Runs a find query and returns how it was planned instead of the matching tasks: the access paths that were
+     * considered with their estimated costs, the one that was chosen, and the time planning and running took.
+     * The query is always read in the query language of {@link FindQuery}.
+     *
+     * @param taskList the {@link TaskList} to query.
+     * @param query    the find query typed by the user.
+     * @return String representation of the plan.
+     * @throws MortalReminderException if the query is malformed.
+     */
+    public static String explainQuery(TaskList taskList, String query) throws MortalReminderException {
+        LocalDateTime now = LocalDateTime.now();
+        QueryPlanner.QueryPlan plan = QueryPlanner.plan(FindQuery.parse(query), taskList, now);
+        return FormattedOutput.printQueryPlan(plan, QueryPlanner.execute(plan, taskList, now));
+    }
+
+    /**
+     * Returns the tasks matching a boolean filter over tags, the done flag and task types,
+     * such as {@code #work AND NOT done}. See {@link FilterQuery} for the syntax.
+     *
+     * @param taskList the {@link TaskList} to filter.
+     * @param query    the filter query typed by the user.
+     * @return String representation of the matching tasks in list order.
+     * @throws MortalReminderException if the query is malformed or no task matches it.
+     */
+    public static String filterTasks(TaskList taskList, String query) throws MortalReminderException {
+        TagIndex tagIndex = taskList.getTagIndex();
+        TaskList filteredTasks = new TaskList();
+        filteredTasks.getTaskList().addAll(tagIndex.getTasks(FilterQuery.evaluate(query, tagIndex)));
+        if (filteredTasks.getTaskList().isEmpty()) {
+            throw new MortalReminderException(MortalReminderException.getNoTasksMatchFilterMessage());
+        }
+        return FormattedOutput.printFilteredTasks(filteredTasks);
+    }
+
+    /**
+     * Returns the tasks that should be done next, ordered by priority and then by due date.
+     * The tasks are read off the {@link NextTaskQueue} of the list, so the list itself is never sorted.
+     *
+     * @param taskList       the {@link TaskList} to pick the tasks from.
+     * @param commandDetails the number of tasks to return, or nothing for {@code DEFAULT_NEXT_TASK_COUNT}.
+     * @return String representation of the next tasks.
+     * @throws MortalReminderException if the number is invalid or every task is done.
+     */
+    public static String getNextTasks(TaskList taskList, String commandDetails) throws MortalReminderException {
+        int count = DEFAULT_NEXT_TASK_COUNT;
+        if (!commandDetails.isBlank()) {
+            try {
+                count = Integer.parseInt(commandDetails.trim());
+            } catch (NumberFormatException e) {
+                throw new MortalReminderException(MortalReminderException.getInvalidNumberFormatErrorMessage());
+            }
+            if (count <= 0) {
+                throw new MortalReminderException(MortalReminderException.getInvalidNumberFormatErrorMessage());
+            }
+        }
+
+        ArrayList<Task> nextTasks = taskList.getNextTaskQueue().getNextTasks(count, LocalDateTime.now());
+        if (nextTasks.isEmpty()) {
+            throw new MortalReminderException(MortalReminderException.getNoActionableTasksMessage());
+        }
+        return FormattedOutput.printNextTasks(nextTasks);
+    }
+
+    /**
+     * Finds the tasks matching the descriptions in every workspace, querying all workspace shards in parallel.
+     *
+     * @param workspaceManager the {@link WorkspaceManager} holding all workspaces.
+     * @param descriptions     string argument(s) we are looking for in all matching tasks.
+     * @return String representation of the matching tasks grouped by workspace.
+     * @throws MortalReminderException if a shard cannot be read or there are no matching tasks.
+     */
+    public static String findTasksInAllWorkspaces(WorkspaceManager workspaceManager, String... descriptions)
+            throws MortalReminderException {
+        LinkedHashMap<String, ArrayList<Task>> similarTasks =
+                workspaceManager.queryAllWorkspaces(taskList -> filterSimilarTasks(taskList, descriptions));
+        if (similarTasks.isEmpty()) {
+            throw new MortalReminderException(MortalReminderException.getNoSimilarTasksFoundMessage());
+        }
+        return FormattedOutput.printWorkspaceResults("Here are the tasks matching your search terms:\n",
+                similarTasks);
+    }
+
+    /**
+     * Returns the tasks in the list whose description contains any of the given descriptions.
+     * Large lists are scanned in parallel, see {@link TaskList#stream()}.
+     *
+     * @param taskList     the {@link TaskList} to search.
+     * @param descriptions string argument(s) we are looking for in all matching tasks.
+     * @return list of matching tasks in list order.
+     */
+    public static ArrayList<Task> filterSimilarTasks(TaskList taskList, String... descriptions) {
+        return taskList.stream()
+                .filter(x -> filterTask(x, descriptions))
+                .collect(Collectors.toCollection(ArrayList::new));
     }
 
-    private static boolean filterTask(Task task, String... descriptions) {
+    static boolean filterTask(Task task, String... descriptions) {
         for (String description : descriptions) {
             if (description.trim().isEmpty()) {
                 continue;
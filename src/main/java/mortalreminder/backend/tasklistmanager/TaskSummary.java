@@ -0,0 +1,184 @@
+package mortalreminder.backend.tasklistmanager;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.PriorityQueue;
+
+import mortalreminder.tasks.RecurringTask;
+import mortalreminder.tasks.Task;
+import mortalreminder.tasks.TimedTask;
+
+/**
+ * Keeps counts of the tasks by type, by done flag and of the tasks that are overdue, so that a summary of the
+ * list is read without looking at a single task.
+ * <p>
+ * Every add, mark, unmark, delete and clear changes the counts in O(1). A deadline or event that is not done
+ * is overdue once its date has passed. Tasks whose date is still ahead are kept in a heap ordered by date, and
+ * every {@link #tick(LocalDateTime)} of the clock only takes the tasks that became overdue since the last tick
+ * off the top of it. Tasks that are deleted or marked as done while waiting in the heap are not searched for
+ * but skipped when they reach the top, and the heap is only swept once most of it is such tasks.
+ * Recurring tasks always have an occurrence ahead of them, so they are never overdue.
+ */
+public class TaskSummary implements TaskIndex {
+    public static final String TYPES = "TDER";
+
+    private final IdentityHashMap<Task, Entry> entries = new IdentityHashMap<>();
+    private final PriorityQueue<Entry> upcoming = new PriorityQueue<>(Comparator.comparing(entry -> entry.dueDate));
+    private final int[] taskCounts = new int[TYPES.length()];
+    private final int[] doneCounts = new int[TYPES.length()];
+    private int overdueCount;
+    private int staleCount; // entries in the heap whose task has left the list
+    private LocalDateTime lastTick = LocalDateTime.now();
+
+    /**
+     * What the counts were last told about a task.
+     */
+    private static final class Entry {
+        private final int type;
+        private final LocalDateTime dueDate; // null if the task can never be overdue
+        private boolean isDone;
+        private boolean isOverdue;
+        private boolean isInHeap;
+        private boolean isRemoved;
+
+        private Entry(Task task) {
+            this.type = TYPES.indexOf(task.getType());
+            this.dueDate = task instanceof TimedTask timedTask && !(task instanceof RecurringTask)
+                    ? timedTask.getDueDate() : null;
+            this.isDone = task.getIsDone();
+        }
+    }
+
+    @Override
+    public void addTask(Task task) {
+        Entry entry = new Entry(task);
+        entries.put(task, entry);
+        taskCounts[entry.type]++;
+        if (entry.isDone) {
+            doneCounts[entry.type]++;
+        } else {
+            schedule(entry);
+        }
+    }
+
+    @Override
+    public void removeTask(Task task) {
+        Entry entry = entries.remove(task);
+        if (entry == null) {
+            return;
+        }
+        taskCounts[entry.type]--;
+        if (entry.isDone) {
+            doneCounts[entry.type]--;
+        }
+        if (entry.isOverdue) {
+            overdueCount--;
+        }
+        entry.isRemoved = true;
+        if (entry.isInHeap && ++staleCount > upcoming.size() / 2) {
+            upcoming.removeIf(staleEntry -> staleEntry.isRemoved);
+            staleCount = 0;
+        }
+    }
+
+    @Override
+    public void updateTask(Task task) {
+        Entry entry = entries.get(task);
+        if (entry == null || entry.isDone == task.getIsDone()) {
+            return;
+        }
+        entry.isDone = task.getIsDone();
+        if (entry.isDone) {
+            doneCounts[entry.type]++;
+            if (entry.isOverdue) {
+                entry.isOverdue = false;
+                overdueCount--;
+            }
+        } else {
+            doneCounts[entry.type]--;
+            schedule(entry);
+        }
+    }
+
+    @Override
+    public void clear() {
+        entries.clear();
+        upcoming.clear();
+        for (int i = 0; i < TYPES.length(); i++) {
+            taskCounts[i] = 0;
+            doneCounts[i] = 0;
+        }
+        overdueCount = 0;
+        staleCount = 0;
+    }
+
+    /**
+     * Moves the clock of the summary on, counting the tasks whose date has passed since the last tick as
+     * overdue.
+     *
+     * @param now the current time.
+     */
+    public void tick(LocalDateTime now) {
+        lastTick = now;
+        while (!upcoming.isEmpty() && upcoming.peek().dueDate.isBefore(now)) {
+            Entry entry = upcoming.poll();
+            entry.isInHeap = false;
+            if (entry.isRemoved) {
+                staleCount--;
+            } else if (!entry.isDone) {
+                entry.isOverdue = true;
+                overdueCount++;
+            }
+        }
+    }
+
+    private void schedule(Entry entry) {
+        if (entry.dueDate == null) {
+            return;
+        }
+        if (entry.dueDate.isBefore(lastTick)) {
+            entry.isOverdue = true;
+            overdueCount++;
+        } else if (!entry.isInHeap) {
+            entry.isInHeap = true;
+            upcoming.add(entry);
+        }
+    }
+
+    public int getTaskCount() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the number of tasks of the given type.
+     *
+     * @param type the type of task, one of {@code TYPES}.
+     * @return the number of tasks of that type, done or not.
+     */
+    public int getTaskCount(char type) {
+        return taskCounts[TYPES.indexOf(type)];
+    }
+
+    /**
+     * Returns the number of tasks of the given type that are done.
+     *
+     * @param type the type of task, one of {@code TYPES}.
+     * @return the number of tasks of that type that are done.
+     */
+    public int getDoneCount(char type) {
+        return doneCounts[TYPES.indexOf(type)];
+    }
+
+    public int getDoneCount() {
+        int doneCount = 0;
+        for (int count : doneCounts) {
+            doneCount += count;
+        }
+        return doneCount;
+    }
+
+    public int getOverdueCount() {
+        return overdueCount;
+    }
+}
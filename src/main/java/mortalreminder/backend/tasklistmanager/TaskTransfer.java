@@ -0,0 +1,167 @@
+package mortalreminder.backend.tasklistmanager;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.LineNumberReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.IntStream;
+
+import mortalreminder.backend.TransferFormat;
+import mortalreminder.errorhandling.MortalReminderException;
+import mortalreminder.io.FormattedOutput;
+import mortalreminder.io.Parser;
+import mortalreminder.tasks.Task;
+
+/**
+ * Handles exporting the {@link TaskList} to a file and importing tasks from a file, in any of the
+ * {@link TransferFormat}s.
+ * <p>
+ * Both directions stream the file. An export writes one task at a time, and an import reads
+ * {@code IMPORT_BATCH_SIZE} records at a time, parses them in parallel and adds each batch to the list as a
+ * single transaction. The next batch is read and parsed while the current one is being added, so at most
+ * two batches of records are ever held in memory.
+ */
+public class TaskTransfer {
+    public static final int IMPORT_BATCH_SIZE = 10000;
+
+    /**
+     * Records read from the import file together with the line each of them ends on.
+     */
+    private record RecordBatch(List<String> records, int[] lineNumbers) {
+    }
+
+    /**
+     * Exports all tasks of the list to the given file, in the format matching its extension.
+     *
+     * @param commandDetails the path of the file to export to.
+     * @param taskList       the {@link TaskList} to export.
+     * @return confirmation message with the number of tasks exported.
+     * @throws MortalReminderException if the file name is invalid or the file cannot be written.
+     */
+    public static String executeExport(String commandDetails, TaskList taskList) throws MortalReminderException {
+        String filePath = commandDetails.trim();
+        TransferFormat format = TransferFormat.fromFileName(filePath);
+
+        File file = new File(filePath);
+        if (file.getAbsoluteFile().getParentFile() != null) {
+            file.getAbsoluteFile().getParentFile().mkdirs();
+        }
+        int exportedCount = 0;
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file, StandardCharsets.UTF_8))) {
+            format.writeHeader(writer);
+            for (Task task : taskList.getTaskList()) {
+                if (format.writeTask(writer, task)) {
+                    exportedCount++;
+                }
+            }
+            format.writeFooter(writer);
+        } catch (IOException e) {
+            throw new MortalReminderException(MortalReminderException.getTransferFileCannotBeAccessedErrorMessage());
+        }
+        return FormattedOutput.printExported(exportedCount, taskList.getSize() - exportedCount, filePath);
+    }
+
+    /**
+     * Imports all tasks from the given file into the list, in the format matching its extension.
+     * <p>
+     * If a record cannot be parsed, the import stops there. The batches before the one holding the record
+     * stay imported, while nothing from that batch is added.
+     *
+     * @param commandDetails the path of the file to import from.
+     * @param taskList       the {@link TaskList} to add the tasks to.
+     * @return confirmation message with the number of tasks imported.
+     * @throws MortalReminderException if the file name is invalid, the file cannot be read or a record is invalid.
+     */
+    public static String executeImport(String commandDetails, TaskList taskList) throws MortalReminderException {
+        String filePath = commandDetails.trim();
+        TransferFormat format = TransferFormat.fromFileName(filePath);
+
+        int importedCount = 0;
+        try (LineNumberReader reader = new LineNumberReader(new FileReader(filePath, StandardCharsets.UTF_8))) {
+            CompletableFuture<List<Task>> parsing = parseBatchAsync(format, readBatch(format, reader), 0);
+            while (parsing != null) {
+                List<Task> tasks = join(parsing);
+                RecordBatch nextBatch = readBatch(format, reader);
+                parsing = nextBatch.records().isEmpty()
+                        ? null
+                        : parseBatchAsync(format, nextBatch, importedCount + tasks.size());
+                taskList.addTasks(tasks);
+                importedCount += tasks.size();
+            }
+        } catch (IOException e) {
+            throw new MortalReminderException(MortalReminderException.getTransferFileCannotBeAccessedErrorMessage());
+        }
+        return FormattedOutput.printImported(importedCount, taskList);
+    }
+
+    private static RecordBatch readBatch(TransferFormat format, LineNumberReader reader) throws IOException {
+        ArrayList<String> records = new ArrayList<>();
+        int[] lineNumbers = new int[IMPORT_BATCH_SIZE];
+        String record;
+        while (records.size() < IMPORT_BATCH_SIZE && (record = format.readRecord(reader)) != null) {
+            lineNumbers[records.size()] = reader.getLineNumber();
+            records.add(record);
+        }
+        return new RecordBatch(records, lineNumbers);
+    }
+
+    private static CompletableFuture<List<Task>> parseBatchAsync(TransferFormat format, RecordBatch batch,
+            int importedCount) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return parseBatch(format, batch, importedCount);
+            } catch (MortalReminderException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    private static List<Task> join(CompletableFuture<List<Task>> parsing) throws MortalReminderException {
+        try {
+            return parsing.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof MortalReminderException) {
+                throw (MortalReminderException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Parses a batch of records in parallel, keeping their order.
+     *
+     * @throws MortalReminderException pointing at the first record of the batch that is invalid.
+     */
+    private static List<Task> parseBatch(TransferFormat format, RecordBatch batch, int importedCount)
+            throws MortalReminderException {
+        List<String> records = batch.records();
+        int[] lineNumbers = batch.lineNumbers();
+        Task[] tasks = new Task[records.size()];
+        String[] errors = new String[records.size()];
+        IntStream.range(0, records.size()).parallel().forEach(i -> {
+            try {
+                tasks[i] = Parser.parseInputFromFile(format.toStorageLine(records.get(i)));
+            } catch (MortalReminderException e) {
+                errors[i] = e.getMessage();
+            } catch (RuntimeException e) {
+                errors[i] = MortalReminderException.getInvalidImportRecordErrorMessage();
+            }
+        });
+
+        for (int i = 0; i < tasks.length; i++) {
+            if (tasks[i] == null) {
+                throw new MortalReminderException(
+                        MortalReminderException.getImportFailedErrorMessage(lineNumbers[i], importedCount, errors[i]));
+            }
+        }
+        return Arrays.asList(tasks);
+    }
+}
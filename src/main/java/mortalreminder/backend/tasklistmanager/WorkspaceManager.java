@@ -0,0 +1,208 @@
+package mortalreminder.backend.tasklistmanager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+
+import mortalreminder.backend.TaskListStorage;
+import mortalreminder.errorhandling.MortalReminderException;
+import mortalreminder.io.FormattedOutput;
+import mortalreminder.tasks.Task;
+
+/**
+ * Manages the named workspaces of the app, each of which is a separate {@link TaskList} stored in its own shard file.
+ * <p>
+ * Workspaces are only loaded from storage the first time they are accessed, and at most
+ * {@code MAX_LOADED_WORKSPACES} of them are kept in memory. The least recently used workspace is evicted
+ * when the limit is exceeded. Since every change is written to storage immediately, evicting a workspace
+ * only drops its in-memory copy. The active workspace is never evicted.
+ * <p>
+ * Another process of the app may be using the same shard files, so a workspace in memory is checked against
+ * its shard file every time it is accessed, see {@link TaskListStorage#refreshTaskList(TaskList)}.
+ */
+public class WorkspaceManager {
+    public static final String DEFAULT_WORKSPACE = "default";
+    private static final int MAX_LOADED_WORKSPACES = 4;
+    private static final String WORKSPACE_NAME_REGEX = "[A-Za-z0-9_-]+";
+
+    private String activeWorkspace = DEFAULT_WORKSPACE;
+
+    // access ordered so that the workspaces are iterated from the least recently used one
+    private final LinkedHashMap<String, TaskList> loadedWorkspaces = new LinkedHashMap<>(16, 0.75f, true);
+
+    public String getActiveWorkspaceName() {
+        return this.activeWorkspace;
+    }
+
+    /**
+     * Returns the {@link TaskList} of the active workspace, loading it from storage if it is not in memory.
+     *
+     * @return the task list of the active workspace.
+     * @throws MortalReminderException if the shard file of the workspace is corrupted.
+     */
+    public TaskList getActiveTaskList() throws MortalReminderException {
+        return getTaskList(activeWorkspace);
+    }
+
+    /**
+     * Loads the active workspace from storage if it is not in memory yet, reporting the progress of the load.
+     *
+     * @param progressListener called with the number of tasks loaded so far.
+     * @return the task list of the active workspace.
+     * @throws MortalReminderException if the shard file of the workspace is corrupted.
+     */
+    public TaskList loadActiveTaskList(IntConsumer progressListener) throws MortalReminderException {
+        TaskList taskList = loadedWorkspaces.get(activeWorkspace);
+        if (taskList == null) {
+            taskList = TaskListStorage.loadTaskListFromFile(
+                    TaskListStorage.getWorkspaceFilePath(activeWorkspace), progressListener);
+            cacheTaskList(activeWorkspace, taskList);
+        }
+        return taskList;
+    }
+
+    /**
+     * Returns the {@link TaskList} of the given workspace, loading it from its shard file on first access.
+     * A workspace that is already in memory is first brought up to date with changes other processes made to
+     * its shard file.
+     *
+     * @param workspaceName name of the workspace.
+     * @return the task list of the workspace.
+     * @throws MortalReminderException if the shard file of the workspace is corrupted.
+     */
+    public TaskList getTaskList(String workspaceName) throws MortalReminderException {
+        TaskList taskList = loadedWorkspaces.get(workspaceName);
+        TaskList refreshedTaskList = taskList == null
+                ? TaskListStorage.loadTaskListFromFile(TaskListStorage.getWorkspaceFilePath(workspaceName))
+                : TaskListStorage.refreshTaskList(taskList);
+        if (refreshedTaskList != taskList) {
+            cacheTaskList(workspaceName, refreshedTaskList);
+        }
+        return refreshedTaskList;
+    }
+
+    /**
+     * Returns whether the task list of the given workspace is in memory.
+     *
+     * @param workspaceName name of the workspace.
+     * @return true if the workspace is loaded.
+     */
+    public boolean isLoaded(String workspaceName) {
+        return loadedWorkspaces.containsKey(workspaceName);
+    }
+
+    /**
+     * Keeps a task list in memory, evicting the least recently used workspaces other than the active one while
+     * there are more than {@code MAX_LOADED_WORKSPACES}.
+     */
+    private void cacheTaskList(String workspaceName, TaskList taskList) {
+        loadedWorkspaces.put(workspaceName, taskList);
+        Iterator<String> leastRecentlyUsed = loadedWorkspaces.keySet().iterator();
+        while (loadedWorkspaces.size() > MAX_LOADED_WORKSPACES && leastRecentlyUsed.hasNext()) {
+            String name = leastRecentlyUsed.next();
+            if (!name.equals(activeWorkspace) && !name.equals(workspaceName)) {
+                leastRecentlyUsed.remove();
+            }
+        }
+    }
+
+    /**
+     * Switches the active workspace, creating it if it does not exist yet.
+     * When no workspace name is given, all existing workspaces are listed instead.
+     *
+     * @param commandDetails the name of the workspace to switch to.
+     * @return confirmation message of the switch or the list of workspaces.
+     * @throws MortalReminderException if the name is invalid or the shard file of the workspace is corrupted.
+     */
+    public String switchWorkspace(String commandDetails) throws MortalReminderException {
+        String workspaceName = commandDetails.trim().toLowerCase();
+        if (workspaceName.isEmpty()) {
+            return FormattedOutput.printWorkspaces(getWorkspaceNames(), activeWorkspace);
+        }
+        if (!workspaceName.matches(WORKSPACE_NAME_REGEX)) {
+            throw new MortalReminderException(MortalReminderException.getInvalidWorkspaceNameErrorMessage());
+        }
+
+        TaskList taskList = getTaskList(workspaceName);
+        this.activeWorkspace = workspaceName;
+        return FormattedOutput.printWorkspaceSwitched(workspaceName, taskList);
+    }
+
+    /**
+     * Returns the names of all workspaces, with the default workspace first.
+     *
+     * @return list of workspace names.
+     */
+    public ArrayList<String> getWorkspaceNames() {
+        ArrayList<String> names = new ArrayList<>();
+        names.add(DEFAULT_WORKSPACE);
+        for (String name : TaskListStorage.getSavedWorkspaceNames()) {
+            if (!name.equals(DEFAULT_WORKSPACE)) {
+                names.add(name);
+            }
+        }
+        for (String name : loadedWorkspaces.keySet()) {
+            if (!names.contains(name)) {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Runs a query against every workspace in parallel and collects the non-empty results.
+     * <p>
+     * Workspaces that are already in memory are queried directly. The others are read from their shard
+     * files without being cached, so a fan out does not evict the workspaces that are in use, and without any
+     * of the writes of a load, see {@link TaskListStorage#readTaskListFromFile(String)}.
+     *
+     * @param query the query to run against the task list of each workspace.
+     * @return the non-empty results of each workspace, keyed by workspace name in workspace order.
+     * @throws MortalReminderException if the shard file of a workspace is corrupted.
+     */
+    public LinkedHashMap<String, ArrayList<Task>> queryAllWorkspaces(Function<TaskList, ArrayList<Task>> query)
+            throws MortalReminderException {
+        // copied so that the worker threads never touch the access ordered map
+        HashMap<String, TaskList> loadedSnapshot = new HashMap<>(loadedWorkspaces);
+        List<String> names = getWorkspaceNames();
+
+        List<CompletableFuture<ArrayList<Task>>> results = names.stream()
+                .map(name -> CompletableFuture.supplyAsync(() -> query.apply(readWorkspace(name, loadedSnapshot))))
+                .toList();
+
+        LinkedHashMap<String, ArrayList<Task>> resultsByWorkspace = new LinkedHashMap<>();
+        try {
+            for (int i = 0; i < names.size(); i++) {
+                ArrayList<Task> result = results.get(i).join();
+                if (!result.isEmpty()) {
+                    resultsByWorkspace.put(names.get(i), result);
+                }
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof MortalReminderException) {
+                throw (MortalReminderException) e.getCause();
+            }
+            throw e;
+        }
+        return resultsByWorkspace;
+    }
+
+    private static TaskList readWorkspace(String workspaceName, Map<String, TaskList> loadedSnapshot) {
+        TaskList taskList = loadedSnapshot.get(workspaceName);
+        if (taskList != null) {
+            return taskList;
+        }
+        try {
+            return TaskListStorage.readTaskListFromFile(TaskListStorage.getWorkspaceFilePath(workspaceName));
+        } catch (MortalReminderException e) {
+            throw new CompletionException(e);
+        }
+    }
+}
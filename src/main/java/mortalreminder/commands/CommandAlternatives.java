@@ -1,6 +1,8 @@
 package mortalreminder.commands;
 
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import mortalreminder.backend.CommandAlternativesStorage;
 import mortalreminder.errorhandling.MortalReminderException;
@@ -9,9 +11,14 @@ import mortalreminder.io.Parser;
 
 /**
  * Helps map user input to commands more easily to ensure more flexibility.
+ * <p>
+ * Besides exact matches, a command word can also be given as any prefix that only matches a single command,
+ * which is resolved through a {@link CommandTrie} over all command words and their alternatives. Commands that
+ * cannot be undone are only matched exactly.
  */
 public class CommandAlternatives {
     private final HashMap<String, CommandType> alternativeCommands;
+    private final CommandTrie commandTrie = new CommandTrie();
 
     /**
      * This method is used when creating the hashmap using long term storage.
@@ -23,6 +30,13 @@ public class CommandAlternatives {
         for (CommandType type : CommandType.values()) {
             this.alternativeCommands.put(type.name().toLowerCase(), type);
         }
+        for (Map.Entry<String, CommandType> entry : this.alternativeCommands.entrySet()) {
+            if (entry.getValue() == CommandType.UNKNOWN) {
+                continue;
+            }
+            boolean isBuiltIn = entry.getKey().equals(entry.getValue().name().toLowerCase());
+            this.commandTrie.insert(entry.getKey(), entry.getValue(), isBuiltIn);
+        }
     }
 
     /**
@@ -45,12 +59,38 @@ public class CommandAlternatives {
         }
 
         this.alternativeCommands.put(commandAlternative.toLowerCase(), commandType);
+        this.commandTrie.insert(commandAlternative.toLowerCase(), commandType, false);
         CommandAlternativesStorage.appendToAlternativeCommandFile(commandAlternative.toLowerCase(), commandType);
 
         return FormattedOutput.printNewAlternativeAdded(commandAlternative.toLowerCase(), commandType);
     }
 
+    /**
+     * Returns the command that the given word maps to.
+     * Exact command words and alternatives are matched first, then prefixes that only match a single command.
+     *
+     * @param commandString the command word typed by the user.
+     * @return the matching {@link CommandType}, or {@code null} if the word matches no command or is ambiguous.
+     */
     public CommandType getCommandType(String commandString) {
-        return this.alternativeCommands.get(commandString.toLowerCase());
+        String lowerCaseCommand = commandString.toLowerCase();
+        CommandType commandType = this.alternativeCommands.get(lowerCaseCommand);
+        if (commandType != null || lowerCaseCommand.isEmpty()) {
+            return commandType;
+        }
+        return this.commandTrie.resolvePrefix(lowerCaseCommand);
+    }
+
+    /**
+     * Returns the best ranked command words and alternatives starting with the given prefix.
+     *
+     * @param prefix the partially typed command word.
+     * @return up to {@link CommandTrie#MAX_SUGGESTIONS} suggestions, built in commands first.
+     */
+    public List<String> getSuggestions(String prefix) {
+        if (prefix.isEmpty()) {
+            return List.of();
+        }
+        return this.commandTrie.getSuggestions(prefix.toLowerCase());
     }
 }
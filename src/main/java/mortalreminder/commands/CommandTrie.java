@@ -0,0 +1,217 @@
+package mortalreminder.commands;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A compact radix trie over command words and their alternatives.
+ * <p>
+ * Every edge holds a whole run of characters, so the trie only has as many nodes as there are branching
+ * points. Each node also keeps a summary of the words below it: whether they all map to the same
+ * {@link CommandType} and the top ranked words to suggest. These summaries are rebuilt along the insertion
+ * path when a word is added, so looking up a prefix only walks at most one node per character of the
+ * prefix and returns the precomputed results without allocating.
+ * <p>
+ * Commands that cannot be undone are never resolved from a prefix, so they only run when their word or one of
+ * their alternatives is typed in full. They are still suggested.
+ */
+public class CommandTrie {
+    public static final int MAX_SUGGESTIONS = 5;
+
+    // built in command words first, then shorter words, then alphabetical order
+    private static final Comparator<Node> SUGGESTION_ORDER = Comparator
+            .<Node, Boolean>comparing(node -> !node.isBuiltIn)
+            .thenComparingInt(node -> node.word.length())
+            .thenComparing(node -> node.word);
+
+    private static final Set<CommandType> EXACT_WORD_ONLY = EnumSet.of(
+            CommandType.PROMOTE, CommandType.CLEAR_TASKS, CommandType.CLEAR_ALTERNATIVES);
+
+    private final Node root = new Node("");
+
+    private static class Node {
+        private String label;
+        private char[] childKeys = new char[0];
+        private Node[] children = new Node[0];
+
+        private String word;
+        private CommandType commandType;
+        private boolean isBuiltIn;
+
+        private CommandType uniqueCommandType;
+        private boolean isAmbiguous;
+        private Node[] rankedWords = new Node[0];
+        private List<String> suggestions = List.of();
+
+        private Node(String label) {
+            this.label = label;
+        }
+
+        private Node getChild(char key) {
+            for (int i = 0; i < childKeys.length; i++) {
+                if (childKeys[i] == key) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        private void putChild(Node child) {
+            char key = child.label.charAt(0);
+            for (int i = 0; i < childKeys.length; i++) {
+                if (childKeys[i] == key) {
+                    children[i] = child;
+                    return;
+                }
+            }
+            childKeys = Arrays.copyOf(childKeys, childKeys.length + 1);
+            children = Arrays.copyOf(children, children.length + 1);
+            childKeys[childKeys.length - 1] = key;
+            children[children.length - 1] = child;
+        }
+    }
+
+    /**
+     * Adds a word to the trie, replacing the command it maps to if the word already exists.
+     *
+     * @param word        the command word or alternative, in lower case.
+     * @param commandType the {@link CommandType} the word maps to.
+     * @param isBuiltIn   whether the word is the name of the command rather than a user alternative.
+     */
+    public void insert(String word, CommandType commandType, boolean isBuiltIn) {
+        ArrayList<Node> path = new ArrayList<>();
+        Node node = root;
+        int position = 0;
+        path.add(node);
+
+        while (position < word.length()) {
+            Node child = node.getChild(word.charAt(position));
+            if (child == null) {
+                child = new Node(word.substring(position));
+                node.putChild(child);
+                node = child;
+                position = word.length();
+                path.add(node);
+                break;
+            }
+
+            int common = commonPrefixLength(child.label, word, position);
+            if (common < child.label.length()) {
+                // split the edge so that the shared part of the label becomes its own node
+                Node split = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                split.putChild(child);
+                node.putChild(split);
+                refreshSummary(split);
+                child = split;
+            }
+            node = child;
+            position += common;
+            path.add(node);
+        }
+
+        if (node.word == null || !node.isBuiltIn || isBuiltIn) {
+            node.word = word;
+            node.commandType = commandType;
+            node.isBuiltIn = isBuiltIn;
+        }
+
+        for (int i = path.size() - 1; i >= 0; i--) {
+            refreshSummary(path.get(i));
+        }
+    }
+
+    /**
+     * Returns the command that the prefix resolves to, if every word starting with the prefix maps to the
+     * same command. For example {@code dea} resolves to {@code deadline} but {@code de} is ambiguous
+     * between {@code deadline} and {@code delete}. Commands that cannot be undone, such as
+     * {@code clear_tasks}, are left out.
+     *
+     * @param prefix the prefix typed by the user, in lower case.
+     * @return the unique command type starting with the prefix, or {@code null} if there is none.
+     */
+    public CommandType resolvePrefix(String prefix) {
+        Node node = findNode(prefix);
+        if (node == null || node.isAmbiguous) {
+            return null;
+        }
+        return node.uniqueCommandType;
+    }
+
+    /**
+     * Returns the best ranked words starting with the prefix.
+     * The returned list is shared and cannot be modified.
+     *
+     * @param prefix the prefix typed by the user, in lower case.
+     * @return up to {@code MAX_SUGGESTIONS} words starting with the prefix.
+     */
+    public List<String> getSuggestions(String prefix) {
+        Node node = findNode(prefix);
+        return node == null ? List.of() : node.suggestions;
+    }
+
+    /**
+     * Finds the highest node whose path from the root starts with the prefix.
+     */
+    private Node findNode(String prefix) {
+        Node node = root;
+        int position = 0;
+        while (position < prefix.length()) {
+            Node child = node.getChild(prefix.charAt(position));
+            if (child == null) {
+                return null;
+            }
+            int common = commonPrefixLength(child.label, prefix, position);
+            if (common < child.label.length() && position + common < prefix.length()) {
+                return null;
+            }
+            node = child;
+            position += common;
+        }
+        return node;
+    }
+
+    private static int commonPrefixLength(String label, String word, int offset) {
+        int length = 0;
+        while (length < label.length() && offset + length < word.length()
+                && label.charAt(length) == word.charAt(offset + length)) {
+            length++;
+        }
+        return length;
+    }
+
+    private static void refreshSummary(Node node) {
+        ArrayList<Node> candidates = new ArrayList<>();
+        node.uniqueCommandType = null;
+        node.isAmbiguous = false;
+
+        if (node.word != null) {
+            candidates.add(node);
+            if (!EXACT_WORD_ONLY.contains(node.commandType)) {
+                node.uniqueCommandType = node.commandType;
+            }
+        }
+        for (Node child : node.children) {
+            candidates.addAll(List.of(child.rankedWords));
+            if (child.isAmbiguous || (node.uniqueCommandType != null && child.uniqueCommandType != null
+                    && node.uniqueCommandType != child.uniqueCommandType)) {
+                node.isAmbiguous = true;
+            } else if (node.uniqueCommandType == null) {
+                node.uniqueCommandType = child.uniqueCommandType;
+            }
+        }
+
+        candidates.sort(SUGGESTION_ORDER);
+        int suggestionCount = Math.min(MAX_SUGGESTIONS, candidates.size());
+        node.rankedWords = candidates.subList(0, suggestionCount).toArray(new Node[0]);
+        String[] words = new String[suggestionCount];
+        for (int i = 0; i < suggestionCount; i++) {
+            words[i] = node.rankedWords[i].word;
+        }
+        node.suggestions = List.of(words);
+    }
+}
@@ -7,6 +7,7 @@ public enum CommandType {
     TODO,
     DEADLINE,
     EVENT,
+    RECURRING,
     LIST,
     FIND,
     MARK,
@@ -17,4 +18,19 @@ public enum CommandType {
     CLEAR_TASKS,
     ADD_COMMAND_ALTERNATIVE,
     CLEAR_ALTERNATIVES,
+    WORKSPACE,
+    FIND_ALL,
+    UPCOMING_ALL,
+    ARCHIVE,
+    EXPORT,
+    IMPORT,
+    FILTER,
+    PRIORITY,
+    NEXT,
+    EXPLAIN,
+    REPLICATION,
+    PROMOTE,
+    HISTORY,
+    SUMMARY,
+    AGENDA,
 }
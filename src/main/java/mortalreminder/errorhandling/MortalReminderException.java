@@ -1,5 +1,7 @@
 package mortalreminder.errorhandling;
 
+import java.time.format.DateTimeParseException;
+
 import mortalreminder.backend.tasklistmanager.TaskList;
 
 /**
@@ -22,6 +24,10 @@ public class MortalReminderException extends Exception {
         return "Please enter a valid date in dd-MM-yyyy HHmm (24hr format)!";
     }
 
+    public static String getInvalidDateFormatErrorMessage(DateTimeParseException e) {
+        return getInvalidDateFormatErrorMessage() + "\n" + e.getMessage() + ".";
+    }
+
     public static String getInvalidDescriptionErrorMessage() {
         return "Description cannot be empty!";
     }
@@ -36,6 +42,11 @@ public class MortalReminderException extends Exception {
                 + "Remember that you need to include /from and /to in the command.";
     }
 
+    public static String getInvalidRecurringDescriptionErrorMessage() {
+        return "Please input the correct details for recurring tasks! Remember that you need to include "
+                + "/every followed by 'day' or a day of the week and a time, such as /every monday 0900.";
+    }
+
     public static String getAlreadyMarkedErrorMessage() {
         return "This task has already been marked as done.";
     }
@@ -84,4 +95,105 @@ public class MortalReminderException extends Exception {
                 + commandWord
                 + ". Please put in a known recognised command as the second word in the command";
     }
+
+    public static String getInvalidWorkspaceNameErrorMessage() {
+        return "Workspace names can only contain letters, numbers, '-' and '_'!";
+    }
+
+    public static String getNothingToArchiveErrorMessage() {
+        return "There are no completed tasks old enough to be archived!";
+    }
+
+    public static String getArchiveFileCorruptedErrorMessage() {
+        return "Archive file might be corrupted!";
+    }
+
+    public static String getInvalidTransferFileErrorMessage() {
+        return "Please give a file name ending in .jsonl, .csv or .ics!";
+    }
+
+    public static String getInvalidImportRecordErrorMessage() {
+        return "The record is not a valid task!";
+    }
+
+    public static String getImportFailedErrorMessage(int lineNumber, int importedCount, String reason) {
+        return "Import stopped at the record ending on line " + lineNumber + ": " + reason + "\n"
+                + importedCount + " task(s) before it were imported.";
+    }
+
+    public static String getTransferFileCannotBeAccessedErrorMessage() {
+        return "The file could not be read or written!";
+    }
+
+    public static String getInvalidFilterQueryErrorMessage() {
+        return "Please filter by #tags, done or type:T/D/E/R combined with AND, OR, NOT and brackets!";
+    }
+
+    public static String getNoTasksMatchFilterMessage() {
+        return "No tasks match your filter!";
+    }
+
+    public static String getInvalidPriorityErrorMessage() {
+        return "Please give a priority of high, medium, low or none (or just h, m, l or n)!";
+    }
+
+    public static String getInvalidPriorityCommandErrorMessage() {
+        return "Please give the task number followed by its priority, such as \"priority 2 high\"!";
+    }
+
+    public static String getNoActionableTasksMessage() {
+        return "There are no tasks left to do!";
+    }
+
+    public static String getInvalidListOptionsErrorMessage() {
+        return "Please list with sort:due, sort:desc or sort:status and/or page followed by a page number!";
+    }
+
+    public static String getPageOutOfRangeErrorMessage(int pageCount) {
+        return "There are only " + pageCount + " page(s) in your list!";
+    }
+
+    public static String getInvalidFindQueryErrorMessage() {
+        return "Please search with type:T/D/E/R, done:true/false, due<, due<=, due>, due>= or due= followed by a "
+                + "date such as 2026-12-01, priority:level, #tags and words or \"quoted text\", combined with AND, "
+                + "OR, NOT and brackets!";
+    }
+
+    public static String getReplicationDisabledErrorMessage() {
+        return "Replication is off! Start the app with -Dmortalreminder.standby=[directory] to keep a standby copy.";
+    }
+
+    public static String getStandbyCannotBeAccessedErrorMessage() {
+        return "The standby directory could not be read or written!";
+    }
+
+    public static String getNothingToPromoteErrorMessage() {
+        return "The standby has no copy of your tasks to restore!";
+    }
+
+    public static String getHistoryDisabledErrorMessage() {
+        return "History is off! Start the app without -Dmortalreminder.history=false to keep it.";
+    }
+
+    public static String getHistoryCorruptedErrorMessage() {
+        return "The history of your tasks could not be read!";
+    }
+
+    public static String getNoHistoryAtTimeErrorMessage(String historyStart) {
+        return historyStart == null ? "There is no history of your tasks yet!"
+                : "The history of your tasks only goes back to " + historyStart + "!";
+    }
+
+    public static String getInvalidHistoryCommandErrorMessage() {
+        return "Please give the number of the task to show the history of, such as \"history 2\"!";
+    }
+
+    public static String getInvalidAgendaCommandErrorMessage() {
+        return "Please ask for the agenda of a day, week or month, optionally followed by a date, such as "
+                + "\"agenda week 2026-12-01\"!";
+    }
+
+    public static String getInvalidAsOfDateErrorMessage() {
+        return "Please list as-of a date, optionally with a time, such as \"list as-of 2026-12-01 1800\"!";
+    }
 }
@@ -39,6 +39,15 @@ public class DialogBox extends HBox {
         displayPicture.setImage(img);
     }
 
+    /**
+     * Replaces the text of the dialog box, used to update a message that is still in progress.
+     *
+     * @param text the new text to display.
+     */
+    public void setText(String text) {
+        dialog.setText(text);
+    }
+
     public static DialogBox getUserDialog(String text, Image img) {
         return new DialogBox(text, img);
     }
@@ -67,6 +76,8 @@ public class DialogBox extends HBox {
         case DEADLINE:
             // Fallthrough
         case EVENT:
+            // Fallthrough
+        case RECURRING:
             dialog.getStyleClass().add("add-label");
             break;
 
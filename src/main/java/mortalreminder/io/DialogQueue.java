@@ -0,0 +1,146 @@
+package mortalreminder.io;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.scene.control.ScrollPane;
+import javafx.scene.layout.VBox;
+
+/**
+ * Adds dialog boxes to the window in batches, once per animation pulse, instead of one at a time.
+ * <p>
+ * Every dialog box added to the container asks for a new layout of the whole conversation, so adding them one by
+ * one while many commands are run makes the window lay itself out twice per command. Here the dialog boxes are
+ * queued, and on the next pulse all of them are created and added with one change to the container, after which
+ * the conversation is scrolled to the bottom once.
+ * <p>
+ * Commands entered together, such as a pasted list of commands, are run on the pulses as well, only as many per
+ * pulse as fit in {@code PULSE_BUDGET_NANOS} and only while fewer than {@code CAPACITY} dialog boxes are waiting,
+ * so the window keeps drawing frames while they run. Other threads post their messages to a queue of the same
+ * capacity and wait when it is full, so a fast producer cannot get ahead of what the window can show.
+ */
+public class DialogQueue {
+    public static final int CAPACITY = 256;
+    private static final long PULSE_BUDGET_NANOS = 8_000_000;
+
+    private final VBox dialogContainer;
+    private final ScrollPane scrollPane;
+    private final Consumer<String> inputHandler;
+    private final Runnable batchListener;
+
+    // only touched on the JavaFX application thread
+    private final ArrayDeque<String> pendingInputs = new ArrayDeque<>();
+    private final ArrayList<Supplier<DialogBox>> readyDialogs = new ArrayList<>();
+    // filled by other threads and drained into the ready dialogs on every pulse
+    private final ArrayBlockingQueue<Supplier<DialogBox>> postedDialogs = new ArrayBlockingQueue<>(CAPACITY);
+    private final AtomicBoolean isScheduled = new AtomicBoolean();
+
+    private final AnimationTimer pulse = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            applyBatch();
+        }
+    };
+
+    /**
+     * Creates a queue adding dialog boxes to the given container.
+     *
+     * @param dialogContainer the container of the conversation.
+     * @param scrollPane      the scroll pane holding the container, which is kept scrolled to the bottom.
+     * @param inputHandler    runs one command entered by the user, adding its dialog boxes with {@link #add}.
+     * @param batchListener   called after every pulse on which commands were run.
+     */
+    public DialogQueue(VBox dialogContainer, ScrollPane scrollPane, Consumer<String> inputHandler,
+            Runnable batchListener) {
+        this.dialogContainer = dialogContainer;
+        this.scrollPane = scrollPane;
+        this.inputHandler = inputHandler;
+        this.batchListener = batchListener;
+    }
+
+    /**
+     * Queues commands entered by the user to be run on the next pulses, in order.
+     * Must be called on the JavaFX application thread.
+     *
+     * @param inputs the commands to run.
+     */
+    public void submitInputs(List<String> inputs) {
+        pendingInputs.addAll(inputs);
+        schedule();
+    }
+
+    /**
+     * Queues a dialog box to be added on the next pulse. Must be called on the JavaFX application thread, where
+     * the number of dialog boxes waiting is already bounded by running fewer commands per pulse.
+     *
+     * @param dialog creates the dialog box when the pulse comes.
+     */
+    public void add(Supplier<DialogBox> dialog) {
+        readyDialogs.add(dialog);
+        schedule();
+    }
+
+    /**
+     * Queues a dialog box from a thread other than the JavaFX application thread, waiting while
+     * {@code CAPACITY} dialog boxes posted this way have not been added yet.
+     *
+     * @param dialog creates the dialog box when the pulse comes.
+     * @throws InterruptedException if the thread is interrupted while waiting.
+     */
+    public void post(Supplier<DialogBox> dialog) throws InterruptedException {
+        postedDialogs.put(dialog);
+        if (isScheduled.compareAndSet(false, true)) {
+            Platform.runLater(pulse::start);
+        }
+    }
+
+    private void schedule() {
+        if (isScheduled.compareAndSet(false, true)) {
+            pulse.start();
+        }
+    }
+
+    /**
+     * Runs the commands that fit in this pulse and adds every dialog box waiting, stopping the pulses once there
+     * is nothing left to do.
+     */
+    private void applyBatch() {
+        long start = System.nanoTime();
+        boolean hasRunInputs = false;
+        while (!pendingInputs.isEmpty() && readyDialogs.size() < CAPACITY
+                && (!hasRunInputs || System.nanoTime() - start < PULSE_BUDGET_NANOS)) {
+            inputHandler.accept(pendingInputs.poll());
+            hasRunInputs = true;
+        }
+        postedDialogs.drainTo(readyDialogs);
+
+        if (!readyDialogs.isEmpty()) {
+            ArrayList<DialogBox> dialogs = new ArrayList<>(readyDialogs.size());
+            for (Supplier<DialogBox> dialog : readyDialogs) {
+                dialogs.add(dialog.get());
+            }
+            readyDialogs.clear();
+            dialogContainer.getChildren().addAll(dialogs);
+            scrollPane.setVvalue(scrollPane.getVmax());
+        }
+        if (hasRunInputs) {
+            batchListener.run();
+        }
+
+        if (pendingInputs.isEmpty()) {
+            pulse.stop();
+            isScheduled.set(false);
+            // a dialog posted after the queue was drained must not wait for the next command
+            if (!postedDialogs.isEmpty() && isScheduled.compareAndSet(false, true)) {
+                pulse.start();
+            }
+        }
+    }
+}
@@ -1,17 +1,34 @@
 package mortalreminder.io;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
+import mortalreminder.backend.StorageReplication;
+import mortalreminder.backend.TaskHistory;
+import mortalreminder.backend.tasklistmanager.AgendaIndex;
+import mortalreminder.backend.tasklistmanager.QueryPlanner;
 import mortalreminder.backend.tasklistmanager.TaskList;
+import mortalreminder.backend.tasklistmanager.TaskSummary;
 import mortalreminder.commands.CommandType;
 import mortalreminder.errorhandling.MortalReminderException;
+import mortalreminder.tasks.Priority;
+import mortalreminder.tasks.RecurringTask;
 import mortalreminder.tasks.Task;
+import mortalreminder.tasks.TimedTask;
 
 /**
  * This class is just the UI controller to format and ensure consistency of all output messages.
  * A lot of the starting quips are from League of Legends.
  */
 public class FormattedOutput {
+    private static final DateTimeFormatter AGENDA_DAY_FORMATTER =
+            DateTimeFormatter.ofPattern("EEE dd MMM yyyy", Locale.forLanguageTag("en-GB"));
 
     /**
      * Prints out the formatted output of the chatbot to the user.
@@ -33,6 +50,18 @@ public class FormattedOutput {
                 + "What can I do for you?");
     }
 
+    /**
+     * Returns the message shown while the tasks are being loaded upon program startup.
+     *
+     * @param loadedCount the number of tasks loaded so far.
+     */
+    public static String printLoadingTasks(int loadedCount) {
+        if (loadedCount == 0) {
+            return getResponse("Waking up... loading your tasks.");
+        }
+        return getResponse("Waking up... loaded " + loadedCount + " tasks so far.");
+    }
+
     /**
      * Returns all current tasks inside the list when the LIST {@link CommandType} is used.
      *
@@ -50,6 +79,35 @@ public class FormattedOutput {
         }
     }
 
+    /**
+     * Returns a page of the tasks in the list, each numbered with its place in the list.
+     *
+     * @param tasks       the tasks on the page, in the order they are shown in.
+     * @param listNumbers the number of each task in the list, which is what other commands refer to it by.
+     * @param orderName   the name of the order the tasks are sorted by, or null if they are in list order.
+     * @param page        the number of the page.
+     * @param pageCount   the number of pages.
+     * @return string of the page of tasks.
+     */
+    public static String printListPage(List<Task> tasks, List<Integer> listNumbers, String orderName, int page,
+            int pageCount) {
+        if (tasks.isEmpty()) {
+            return getResponse("You can be so much more! Alas, you have no tasks in your list.");
+        }
+        StringBuilder output = new StringBuilder("Here are the tasks in your list");
+        if (orderName != null) {
+            output.append(" sorted by ").append(orderName);
+        }
+        output.append(" (page ").append(page).append(" of ").append(pageCount).append("):\n");
+        for (int i = 0; i < tasks.size(); i++) {
+            output.append(listNumbers.get(i)).append(".").append(printTask(tasks.get(i)));
+            if (i < tasks.size() - 1) {
+                output.append("\n");
+            }
+        }
+        return getResponse(output.toString());
+    }
+
     /**
      * Returns all the similar types of tasks queried by the user when the FIND {@link CommandType} is used.
      *
@@ -67,28 +125,93 @@ public class FormattedOutput {
         }
     }
 
-    private static String listPrintingHelperFunction(TaskList taskList, StringBuilder currentList)
-            throws MortalReminderException {
-        for (int i = 1; i < taskList.getSize() + 1; i++) {
-            currentList.append(i).append(".").append(printTask(taskList.getTask(i - 1)));
-            if (i < taskList.getSize()) {
-                currentList.append("\n");
+    /**
+     * Returns the closest matches to the search terms when no task matches them exactly.
+     *
+     * @param taskList the list of closest matching tasks, best match first.
+     * @return a string of the closest matching tasks.
+     * @throws MortalReminderException from an inner method.
+     */
+    public static String printClosestTasks(TaskList taskList) throws MortalReminderException {
+        StringBuilder currentList = new StringBuilder();
+        currentList.append("Nothing matches exactly, but here are the closest tasks:\n");
+        return listPrintingHelperFunction(taskList, currentList);
+    }
+
+    /**
+     * Returns the tasks matching a filter query.
+     *
+     * @param taskList the list of matching tasks in list order.
+     * @return a string of the matching tasks.
+     * @throws MortalReminderException from an inner method.
+     */
+    public static String printFilteredTasks(TaskList taskList) throws MortalReminderException {
+        StringBuilder currentList = new StringBuilder();
+        currentList.append("Here are the tasks matching your filter:\n");
+        return listPrintingHelperFunction(taskList, currentList);
+    }
+
+    /**
+     * Appends the numbered tasks of the list to the header.
+     * The cached line of every task is looked up first to work out the exact length of the output, so the
+     * lines are then copied into a buffer that never has to grow.
+     */
+    private static String listPrintingHelperFunction(TaskList taskList, StringBuilder currentList) {
+        ArrayList<Task> tasks = taskList.getTaskList();
+        int length = currentList.length();
+        for (int i = 0; i < tasks.size(); i++) {
+            // the number, the dot and the line break after every task but the last
+            length += countDigits(i + 1) + 2 + printTask(tasks.get(i)).length();
+        }
+        currentList.ensureCapacity(length);
+
+        for (int i = 1; i < tasks.size() + 1; i++) {
+            currentList.append(i).append('.').append(printTask(tasks.get(i - 1)));
+            if (i < tasks.size()) {
+                currentList.append('\n');
             }
         }
         return getResponse(currentList.toString());
     }
 
+    private static int countDigits(int number) {
+        int digits = 1;
+        while (number >= 10) {
+            number /= 10;
+            digits++;
+        }
+        return digits;
+    }
+
     /**
      * Returns a formatted string representing the task passed into the method call.
      * Takes the task description, type and icon and formats it properly into a string to be printed.
+     * The string is cached in the task, so a task is only formatted again after it changes.
      *
      * @param task The task to be printed.
      * @return the formatted version of the task in string format.
      */
     public static String printTask(Task task) {
+        String line = task.getCachedLine();
+        if (line == null) {
+            line = formatTask(task);
+            task.cacheLine(line);
+        }
+        return line;
+    }
+
+    private static String formatTask(Task task) {
+        return formatTask(task, task.getDescription());
+    }
+
+    private static String formatTask(Task task, String description) {
+        String priority = task.getPriority() == Priority.NONE
+                ? ""
+                : " (priority: " + task.getPriority().name().toLowerCase() + ")";
         return "[" + task.getType() + "]"
                 + "[" + task.getStatusIcon() + "] "
-                + task.getDescription();
+                + description
+                + priority;
     }
 
     /**
@@ -108,6 +231,22 @@ public class FormattedOutput {
         return getResponse(message);
     }
 
+    /**
+     * Returns a warning listing the open tasks that a task that was just added is nearly the same as.
+     *
+     * @param duplicates the open tasks that are nearly the same, most similar first.
+     * @param taskList   the list the tasks are in, used for their list numbers.
+     * @return the warning, to be added to the confirmation of the new task.
+     */
+    public static String printPossibleDuplicates(List<Task> duplicates, TaskList taskList) {
+        StringBuilder output = new StringBuilder("\nDeja vu? This looks a lot like what you already have:");
+        for (Task duplicate : duplicates) {
+            output.append("\n").append(taskList.getTagIndex().getListIndex(duplicate) + 1).append(".")
+                    .append(printTask(duplicate));
+        }
+        return getResponse(output.toString());
+    }
+
     /**
      * Returns a confirmation message when the user deletes a task.
      *
@@ -161,6 +300,59 @@ public class FormattedOutput {
         }
     }
 
+    /**
+     * Returns the tasks that should be done next, most important first.
+     *
+     * @param tasks the next tasks in the order they should be done in.
+     * @return string of the next tasks.
+     */
+    public static String printNextTasks(ArrayList<Task> tasks) {
+        StringBuilder output = new StringBuilder("Here is what you should do next:\n");
+        for (int i = 0; i < tasks.size(); i++) {
+            output.append(i + 1).append(". ").append(printTask(tasks.get(i)));
+            if (i < tasks.size() - 1) {
+                output.append("\n");
+            }
+        }
+        return getResponse(output.toString());
+    }
+
+    /**
+     * Returns the plan of a find query, with the access paths that were considered and how long planning and
+     * running the query took.
+     *
+     * @param plan   the plan of the query.
+     * @param result the result of running the query with the plan.
+     * @return string of the plan and its timings.
+     */
+    public static String printQueryPlan(QueryPlanner.QueryPlan plan, QueryPlanner.QueryResult result) {
+        StringBuilder output = new StringBuilder("Query: ").append(plan.predicate().describe()).append("\n")
+                .append("Access paths, cheapest first:\n");
+        for (QueryPlanner.AccessPath accessPath : plan.accessPaths()) {
+            output.append(accessPath == plan.getChosenPath() ? "* " : "  ")
+                    .append(accessPath.kind().getDisplayName());
+            if (accessPath.term() != null) {
+                output.append(" on ").append(accessPath.term().describe());
+            }
+            output.append(": ~").append(accessPath.estimatedRows()).append(" task(s), cost ")
+                    .append(accessPath.cost()).append("\n");
+        }
+        output.append(String.format("Planned in %.3f ms, ran in %.3f ms: %d task(s) checked, %d matched.",
+                plan.planningNanos() / 1e6, result.executionNanos() / 1e6, result.examinedRows(),
+                result.tasks().size()));
+        return getResponse(output.toString());
+    }
+
+    /**
+     * Returns a confirmation message when the priority of a task has been changed.
+     *
+     * @param task the task whose priority was changed.
+     * @return string of confirmation message.
+     */
+    public static String printPrioritySet(Task task) {
+        return getResponse("Noted, I have changed the priority of this task:\n" + printTask(task));
+    }
+
     /**
      * Prints a feedback message when a new alternative has been added.
      */
@@ -173,4 +365,268 @@ public class FormattedOutput {
     public static String alternativesCleared() {
         return getResponse("The command alternatives have been cleared.");
     }
+
+    /**
+     * Returns a list of all workspaces with the active workspace highlighted.
+     *
+     * @param workspaceNames  names of all workspaces.
+     * @param activeWorkspace name of the workspace that is currently in use.
+     * @return a string of all workspaces.
+     */
+    public static String printWorkspaces(ArrayList<String> workspaceNames, String activeWorkspace) {
+        StringBuilder output = new StringBuilder("Here are your workspaces:\n");
+        for (String name : workspaceNames) {
+            output.append(name.equals(activeWorkspace) ? "* " : "  ").append(name).append("\n");
+        }
+        return getResponse(output.toString());
+    }
+
+    /**
+     * Returns a confirmation message when the user switches to another workspace.
+     *
+     * @param workspaceName name of the workspace switched to.
+     * @param taskList      the list of tasks of the workspace switched to.
+     * @return string of confirmation message.
+     */
+    public static String printWorkspaceSwitched(String workspaceName, TaskList taskList) {
+        return getResponse("Another battlefield awaits. You are now in workspace " + workspaceName
+                + " with " + taskList.getSize() + " task(s) in the list.");
+    }
+
+    /**
+     * Returns the results of a query that ran across all workspaces, grouped by workspace.
+     *
+     * @param header           the first line of the message.
+     * @param tasksByWorkspace the non-empty results of each workspace keyed by workspace name.
+     * @return a string of all the results grouped by workspace.
+     */
+    public static String printWorkspaceResults(String header, LinkedHashMap<String, ArrayList<Task>> tasksByWorkspace) {
+        StringBuilder output = new StringBuilder(header);
+        for (Map.Entry<String, ArrayList<Task>> entry : tasksByWorkspace.entrySet()) {
+            output.append("[").append(entry.getKey()).append("]\n");
+            ArrayList<Task> tasks = entry.getValue();
+            for (int i = 0; i < tasks.size(); i++) {
+                output.append(i + 1).append(".").append(printTask(tasks.get(i))).append("\n");
+            }
+        }
+        return getResponse(output.toString());
+    }
+
+    /**
+     * Returns a confirmation message when completed tasks have been moved to the archive.
+     *
+     * @param archivedCount number of tasks archived.
+     * @param taskList      the list the tasks were archived from.
+     * @return string of confirmation message.
+     */
+    public static String printArchived(int archivedCount, TaskList taskList) {
+        return getResponse("The past is a heavy burden. I've archived " + archivedCount + " completed task(s).\n"
+                + "Now you have " + taskList.getSize() + " task(s) in the list.");
+    }
+
+    /**
+     * Returns the confirmation of an export.
+     *
+     * @param exportedCount the number of tasks written to the file.
+     * @param skippedCount  the number of tasks the format of the file cannot hold.
+     * @param filePath      the path of the file the tasks were exported to.
+     * @return a string confirming the export.
+     */
+    public static String printExported(int exportedCount, int skippedCount, String filePath) {
+        String skipped = skippedCount == 0
+                ? ""
+                : "\n" + skippedCount + " task(s) without a date were left out of the calendar.";
+        return getResponse("Your legacy lives on. I've exported " + exportedCount + " task(s) to " + filePath + "."
+                + skipped);
+    }
+
+    /**
+     * Returns the confirmation of an import.
+     *
+     * @param importedCount the number of tasks added to the list.
+     * @param taskList      the list the tasks were imported into.
+     * @return a string confirming the import.
+     */
+    public static String printImported(int importedCount, TaskList taskList) {
+        return getResponse("More burdens to bear. I've imported " + importedCount + " task(s).\n"
+                + "Now you have " + taskList.getSize() + " task(s) in the list.");
+    }
+
+    /**
+     * Returns all archived tasks matching the search terms of the user.
+     *
+     * @param tasks the archived tasks matching the search.
+     * @return a string of all matching archived tasks.
+     */
+    public static String printArchivedTasks(ArrayList<Task> tasks) {
+        StringBuilder output = new StringBuilder("Here are the archived tasks matching your search terms:\n");
+        for (int i = 0; i < tasks.size(); i++) {
+            output.append(i + 1).append(".").append(printTask(tasks.get(i))).append("\n");
+        }
+        return getResponse(output.toString());
+    }
+
+    /**
+     * Returns how far the standby is behind each storage file.
+     *
+     * @param standbyDirectory the directory of the standby.
+     * @param statuses         the lag of each copy on the standby.
+     * @param lastShipError    the reason the last write could not be shipped, or null if it was.
+     * @return a string listing the lag of each copy.
+     */
+    public static String printReplicationStatus(String standbyDirectory,
+            List<StorageReplication.ReplicaStatus> statuses, String lastShipError) {
+        StringBuilder output = new StringBuilder("Standby in ").append(standbyDirectory).append(":\n");
+        if (statuses.isEmpty()) {
+            output.append("Nothing has been copied yet.\n");
+        }
+        for (StorageReplication.ReplicaStatus status : statuses) {
+            output.append(status.name()).append(": ");
+            if (status.isAheadOfPrimary()) {
+                output.append("has changes your list does not have, use promote to restore them");
+            } else if (!status.isInSync()) {
+                output.append("missed a change, it gets a full copy the next time the list is loaded");
+            } else if (status.pendingWrites() == 0) {
+                output.append("up to date");
+            } else {
+                output.append(String.format("%d change(s) behind, the oldest from %.1f s ago",
+                        status.pendingWrites(), status.lagMillis() / 1000.0));
+            }
+            output.append("\n");
+        }
+        if (lastShipError != null) {
+            output.append("The last change could not be copied: ").append(lastShipError);
+        }
+        return getResponse(output.toString().stripTrailing());
+    }
+
+    /**
+     * Returns the confirmation of the standby being promoted.
+     *
+     * @param promotedReplicas the storage files restored from the standby.
+     * @return a string listing the restored files.
+     */
+    public static String printPromoted(List<StorageReplication.PromotedReplica> promotedReplicas) {
+        StringBuilder output = new StringBuilder("Death is not the end. I've restored your tasks from the standby:");
+        for (StorageReplication.PromotedReplica promotedReplica : promotedReplicas) {
+            output.append("\n").append(promotedReplica.name()).append(": ")
+                    .append(promotedReplica.taskCount()).append(" task(s)");
+            if (!promotedReplica.isInSync()) {
+                output.append(", though the latest changes may be missing");
+            }
+        }
+        return getResponse(output.toString());
+    }
+
+    /**
+     * Returns a page of the tasks as they were at some time, when the LIST {@link CommandType} is used with
+     * "as-of".
+     *
+     * @param tasks           the tasks on the page.
+     * @param firstListNumber the list number the first task had then.
+     * @param asOf            the time the tasks are listed at.
+     * @param pastList        the list rebuilt from the history, saying how it was rebuilt.
+     * @param page            the number of the page.
+     * @param pageCount       the number of pages the list had then.
+     * @return the tasks as they were, with the checkpoint and the number of changes replayed to find them.
+     */
+    public static String printTasksAsOf(List<Task> tasks, int firstListNumber, LocalDateTime asOf,
+            TaskHistory.PastList pastList, int page, int pageCount) {
+        String time = asOf.format(TimedTask.OUTPUT_FORMATTER);
+        if (tasks.isEmpty()) {
+            return getResponse("You had no tasks in your list as of " + time + ".");
+        }
+        StringBuilder output = new StringBuilder("Here are the tasks in your list as of ").append(time)
+                .append(" (page ").append(page).append(" of ").append(pageCount).append("):\n");
+        for (int i = 0; i < tasks.size(); i++) {
+            output.append(firstListNumber + i).append(".").append(printTask(tasks.get(i))).append("\n");
+        }
+        output.append("(from the checkpoint of ").append(pastList.checkpointTime().format(TimedTask.OUTPUT_FORMATTER))
+                .append(" and ").append(pastList.replayedChanges()).append(" change(s) after it)");
+        return getResponse(output.toString());
+    }
+
+    /**
+     * Returns the versions of a task when the HISTORY {@link CommandType} is used.
+     *
+     * @param task         the task as it is now.
+     * @param versions     the versions of the task, oldest first.
+     * @param versionTasks the task as it was after each version.
+     * @return the versions of the task with the time and kind of each change.
+     */
+    public static String printTaskHistory(Task task, List<TaskHistory.TaskVersion> versions,
+            List<Task> versionTasks) {
+        StringBuilder output = new StringBuilder("Here is the history of ").append(printTask(task)).append(":");
+        for (int i = 0; i < versions.size(); i++) {
+            TaskHistory.TaskVersion version = versions.get(i);
+            output.append("\n").append(version.time().format(TimedTask.OUTPUT_FORMATTER)).append(", ")
+                    .append(version.change().getDisplayName()).append(": ").append(printTask(versionTasks.get(i)));
+        }
+        return getResponse(output.toString());
+    }
+
+    /**
+     * Returns the counts of tasks in the list when the SUMMARY {@link CommandType} is used.
+     *
+     * @param summary the counts kept for the list.
+     * @param now     the time the overdue tasks were counted at.
+     * @return the number of tasks open and done of each type and the number of overdue tasks.
+     */
+    public static String printSummary(TaskSummary summary, LocalDateTime now) {
+        if (summary.getTaskCount() == 0) {
+            return getResponse("You can be so much more! Alas, you have no tasks in your list.");
+        }
+        String[] typeNames = {"Todos", "Deadlines", "Events", "Recurring tasks"};
+        StringBuilder output = new StringBuilder("Here is where you stand as of ")
+                .append(now.format(TimedTask.OUTPUT_FORMATTER)).append(":");
+        for (int i = 0; i < typeNames.length; i++) {
+            char type = TaskSummary.TYPES.charAt(i);
+            int doneCount = summary.getDoneCount(type);
+            output.append("\n").append(typeNames[i]).append(": ").append(summary.getTaskCount(type) - doneCount)
+                    .append(" open, ").append(doneCount).append(" done");
+        }
+        output.append("\nOverdue: ").append(summary.getOverdueCount());
+        return getResponse(output.toString());
+    }
+
+    /**
+     * Returns the short summary shown on the badge of the window.
+     *
+     * @param summary the counts kept for the active list.
+     * @return the number of open and overdue tasks.
+     */
+    public static String printSummaryBadge(TaskSummary summary) {
+        return (summary.getTaskCount() - summary.getDoneCount()) + " open | " + summary.getOverdueCount()
+                + " overdue";
+    }
+
+    /**
+     * Returns the tasks of each day from one day to another when the AGENDA {@link CommandType} is used.
+     *
+     * @param agenda the tasks of every day that has any, earliest day first.
+     * @param from   the first day of the agenda.
+     * @param to     the last day of the agenda.
+     * @return the days of the agenda, each followed by its tasks.
+     */
+    public static String printAgenda(Map<LocalDate, List<AgendaIndex.AgendaItem>> agenda, LocalDate from,
+            LocalDate to) {
+        String range = from.equals(to) ? AGENDA_DAY_FORMATTER.format(from)
+                : AGENDA_DAY_FORMATTER.format(from) + " to " + AGENDA_DAY_FORMATTER.format(to);
+        if (agenda.isEmpty()) {
+            return getResponse("Nothing is due " + (from.equals(to) ? "on " : "from ") + range
+                    + ". Enjoy it while it lasts.");
+        }
+        StringBuilder output = new StringBuilder("Here is your agenda for ").append(range).append(":");
+        for (Map.Entry<LocalDate, List<AgendaIndex.AgendaItem>> day : agenda.entrySet()) {
+            output.append("\n").append(AGENDA_DAY_FORMATTER.format(day.getKey()));
+            for (AgendaIndex.AgendaItem item : day.getValue()) {
+                // a recurring task is shown at its occurrence on that day rather than at its next one
+                String line = item.task() instanceof RecurringTask recurringTask
+                        ? formatTask(recurringTask, recurringTask.getOccurrenceDescription(item.time()))
+                        : printTask(item.task());
+                output.append("\n  ").append(line);
+            }
+        }
+        return getResponse(output.toString());
+    }
 }
@@ -31,9 +31,11 @@ public class Main extends Application {
 
             MortalReminderWindow controller = fxmlLoader.<MortalReminderWindow>getController();
             controller.setMortalReminder(mortalReminder);
-            controller.onStartUp();
-            // divided for better readability.
+
+            // the window is shown before the tasks are loaded so that large task lists do not delay it
+            StartupTimer.recordFirstPaint(scene);
             stage.show();
+            controller.onStartUp();
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -1,14 +1,30 @@
 package mortalreminder.io;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
 
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
+import javafx.geometry.Side;
 import javafx.scene.control.Button;
+import javafx.scene.control.ContextMenu;
+import javafx.scene.control.Label;
+import javafx.scene.control.MenuItem;
 import javafx.scene.control.ScrollPane;
 import javafx.scene.control.TextField;
 import javafx.scene.image.Image;
+import javafx.scene.input.Clipboard;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyCodeCombination;
+import javafx.scene.input.KeyCombination;
+import javafx.scene.input.KeyEvent;
 import javafx.scene.layout.AnchorPane;
 import javafx.scene.layout.VBox;
+import javafx.util.Duration;
 import mortalreminder.MortalReminder;
 import mortalreminder.commands.Command;
 import mortalreminder.commands.CommandType;
@@ -18,6 +34,9 @@ import mortalreminder.errorhandling.MortalReminderException;
  * Controller for the main GUI.
  */
 public class MortalReminderWindow extends AnchorPane {
+    private static final int SUMMARY_CLOCK_SECONDS = 30;
+    private static final KeyCombination PASTE = new KeyCodeCombination(KeyCode.V, KeyCombination.SHORTCUT_DOWN);
+
     @FXML
     private ScrollPane scrollPane;
     @FXML
@@ -26,17 +45,30 @@ public class MortalReminderWindow extends AnchorPane {
     private TextField userInput;
     @FXML
     private Button sendButton;
+    @FXML
+    private Label summaryBadge;
 
     private MortalReminder mortalReminder;
 
+    private DialogQueue dialogQueue;
+
+    private final ContextMenu commandSuggestions = new ContextMenu();
+
+    // moves the overdue count on as time passes, even while no commands are entered
+    private final Timeline summaryClock = new Timeline(
+            new KeyFrame(Duration.seconds(SUMMARY_CLOCK_SECONDS), event -> refreshSummaryBadge()));
+
+    // decoded in the background so that they do not delay the first paint of the window
     private final Image userImage = new Image(Objects.requireNonNull(this.getClass()
-            .getResourceAsStream("/images/Darius.png")));
+            .getResource("/images/Darius.png")).toExternalForm(), true);
     private final Image mortalReminderImage = new Image(Objects.requireNonNull(this.getClass()
-            .getResourceAsStream("/images/MortalReminder.png")));
+            .getResource("/images/MortalReminder.png")).toExternalForm(), true);
 
     @FXML
     public void initialize() {
-        scrollPane.vvalueProperty().bind(dialogContainer.heightProperty());
+        dialogQueue = new DialogQueue(dialogContainer, scrollPane, this::runCommand, this::refreshSummaryBadge);
+        userInput.textProperty().addListener((observable, oldText, newText) -> showCommandSuggestions(newText));
+        userInput.addEventFilter(KeyEvent.KEY_PRESSED, this::pasteCommands);
     }
 
     /**
@@ -47,34 +79,123 @@ public class MortalReminderWindow extends AnchorPane {
     }
 
     /**
-     * Creates two dialog boxes, one echoing user input and the other containing Mortal Reminder's reply and then
-     * appends them to the dialog container. Clears the user input after processing.
+     * Queues the user input to be run on the next animation pulse and clears the input field.
      */
     @FXML
     private void handleUserInput() {
         String input = userInput.getText();
-        String response;
-        dialogContainer.getChildren().add(DialogBox.getUserDialog(input, userImage));
+        userInput.clear();
+        commandSuggestions.hide();
+        dialogQueue.submitInputs(List.of(input));
+    }
+
+    /**
+     * Runs every line of the clipboard as a command when more than one line is pasted into the input field, which
+     * would otherwise join the lines into one command.
+     */
+    private void pasteCommands(KeyEvent event) {
+        // the clipboard is only read for the paste shortcut, not on every key typed
+        if (!PASTE.match(event)) {
+            return;
+        }
+        String pasted = Clipboard.getSystemClipboard().getString();
+        if (pasted == null || !pasted.strip().contains("\n")) {
+            return;
+        }
+        event.consume();
+        userInput.clear();
+        commandSuggestions.hide();
+        dialogQueue.submitInputs(Arrays.stream(pasted.split("\\R")).filter(line -> !line.isBlank()).toList());
+    }
+
+    /**
+     * Creates two dialog boxes, one echoing user input and the other containing Mortal Reminder's reply and then
+     * queues them to be added to the dialog container.
+     */
+    private void runCommand(String input) {
+        dialogQueue.add(() -> DialogBox.getUserDialog(input, userImage));
         try {
             Command command = Parser.parseInputFromUser(input);
-            response = mortalReminder.executeCommand(command);
-            dialogContainer.getChildren()
-                    .add(DialogBox.getMortalReminderDialog(response, mortalReminderImage, command.commandType()));
+            String response = mortalReminder.executeCommand(command);
+            dialogQueue.add(() -> DialogBox.getMortalReminderDialog(response, mortalReminderImage,
+                    command.commandType()));
         } catch (MortalReminderException e) {
-            response = e.getMessage();
-            dialogContainer.getChildren()
-                    .add(DialogBox.getMortalReminderDialog(response, mortalReminderImage, CommandType.UNKNOWN));
+            dialogQueue.add(() -> DialogBox.getMortalReminderDialog(e.getMessage(), mortalReminderImage,
+                    CommandType.UNKNOWN));
+        }
+    }
+
+    /**
+     * Shows the number of open and overdue tasks of the active workspace on the badge, which is read from the
+     * counts kept by the list and so takes the same time however long the list is.
+     */
+    private void refreshSummaryBadge() {
+        String badge = mortalReminder.getSummaryBadge();
+        summaryBadge.setVisible(badge != null);
+        if (badge != null) {
+            summaryBadge.setText(badge);
+        }
+    }
+
+    /**
+     * Shows the command words starting with what the user has typed as a drop down above the input field.
+     * Suggestions are only shown while the user is still typing the command word.
+     */
+    private void showCommandSuggestions(String text) {
+        if (mortalReminder == null || text.isBlank() || text.stripLeading().contains(" ")) {
+            commandSuggestions.hide();
+            return;
+        }
+
+        List<String> suggestions = mortalReminder.getCommandSuggestions(text.strip());
+        if (suggestions.isEmpty()) {
+            commandSuggestions.hide();
+            return;
+        }
+
+        commandSuggestions.getItems().clear();
+        for (String suggestion : suggestions) {
+            MenuItem item = new MenuItem(suggestion);
+            item.setOnAction(event -> {
+                userInput.setText(suggestion + " ");
+                userInput.positionCaret(userInput.getText().length());
+            });
+            commandSuggestions.getItems().add(item);
+        }
+        if (!commandSuggestions.isShowing()) {
+            commandSuggestions.show(userInput, Side.TOP, 0, 0);
         }
-        userInput.clear();
     }
 
     /**
-     * Displays the startup message to be used by the chatbot.
+     * Loads the tasks in the background and then displays the startup message to be used by the chatbot.
+     * <p>
+     * The window stays responsive while the tasks are loading and shows how many have been loaded so far,
+     * but the user input is disabled until the loading is done.
      */
     public void onStartUp() {
-        String welcome = mortalReminder.welcome();
-        dialogContainer.getChildren()
-                .add(DialogBox.getMortalReminderDialog(welcome, mortalReminderImage, CommandType.UNKNOWN));
+        userInput.setDisable(true);
+        sendButton.setDisable(true);
+        DialogBox startupDialog = DialogBox.getMortalReminderDialog(FormattedOutput.printLoadingTasks(0),
+                mortalReminderImage, CommandType.UNKNOWN);
+        dialogContainer.getChildren().add(startupDialog);
+
+        Thread loader = new Thread(() -> {
+            String welcome = mortalReminder.welcome(loadedCount -> Platform.runLater(() ->
+                    startupDialog.setText(FormattedOutput.printLoadingTasks(loadedCount))));
+            Platform.runLater(() -> {
+                startupDialog.setText(welcome);
+                userInput.setDisable(false);
+                sendButton.setDisable(false);
+                userInput.requestFocus();
+                StartupTimer.recordInteractive();
+                refreshSummaryBadge();
+                summaryClock.setCycleCount(Animation.INDEFINITE);
+                summaryClock.play();
+            });
+        }, "task-loader");
+        loader.setDaemon(true);
+        loader.start();
     }
 }
 
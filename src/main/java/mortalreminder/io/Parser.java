@@ -9,6 +9,8 @@ import mortalreminder.commands.CommandType;
 import mortalreminder.errorhandling.MortalReminderException;
 import mortalreminder.tasks.Deadline;
 import mortalreminder.tasks.Event;
+import mortalreminder.tasks.Priority;
+import mortalreminder.tasks.RecurringTask;
 import mortalreminder.tasks.Task;
 import mortalreminder.tasks.ToDo;
 
@@ -62,7 +64,7 @@ public class Parser {
      * <p>
      * This method splits the input string by the "|" delimiter, extracts the task type,
      * completion status, and description, and creates a specific {@code Task} object
-     * (e.g., {@link ToDo}, {@link Deadline}, {@link Event}) based on the task type. This code
+     * (e.g., {@link ToDo}, {@link Deadline}, {@link Event}, {@link RecurringTask}) based on the task type. This code
      * was generated using ChatGPT with some edits.
      *
      * @param input the input string read from a file.
@@ -77,19 +79,41 @@ public class Parser {
         String description = parts[2].trim();
 
         // Create task object based on taskType
+        Task task;
+        int fieldCount;
         switch (taskType) {
         case "T":
-            return new ToDo(description, isDone);
+            task = new ToDo(description, isDone);
+            fieldCount = 3;
+            break;
         case "D":
             String deadline = parts[3].trim();
-            return new Deadline(description, deadline, isDone);
+            task = new Deadline(description, deadline, isDone);
+            fieldCount = 4;
+            break;
         case "E":
             String fromTime = parts[3].trim();
             String toTime = parts[4].trim();
-            return new Event(description, fromTime, toTime, isDone);
+            task = new Event(description, fromTime, toTime, isDone);
+            fieldCount = 5;
+            break;
+        case "R":
+            task = new RecurringTask(description, parts[3].trim(), parts[4].trim(), parts[5].trim(), isDone);
+            fieldCount = 6;
+            break;
         default:
             throw new MortalReminderException(MortalReminderException.getStorageFileCorruptedErrorMessage());
         }
+
+        // the priority is an optional last field that is only written for tasks that have one
+        if (parts.length > fieldCount) {
+            try {
+                task.setPriority(Priority.valueOf(parts[fieldCount].trim()));
+            } catch (IllegalArgumentException e) {
+                throw new MortalReminderException(MortalReminderException.getStorageFileCorruptedErrorMessage());
+            }
+        }
+        return task;
     }
 
 }
@@ -0,0 +1,51 @@
+package mortalreminder.io;
+
+import java.lang.management.ManagementFactory;
+
+import javafx.application.Platform;
+import javafx.scene.Scene;
+
+/**
+ * Measures how long the app takes to start up, from the moment the JVM is launched.
+ * <p>
+ * Two points are recorded: the first frame drawn by the window (time to first paint) and the moment the
+ * tasks are loaded and the user can start typing (time to interactive). When the app is launched with
+ * {@code -Dmortalreminder.startupBenchmark=true}, both are printed and the app exits as soon as it becomes
+ * interactive, which is used by the {@code startupBenchmark} and {@code cdsArchive} Gradle tasks.
+ */
+public class StartupTimer {
+    private static final String BENCHMARK_PROPERTY = "mortalreminder.startupBenchmark";
+
+    private static long firstPaintMillis = -1;
+
+    /**
+     * Records the time to first paint once the scene has been laid out for the first time.
+     *
+     * @param scene the scene of the main window, which must be shown right after this call.
+     */
+    public static void recordFirstPaint(Scene scene) {
+        scene.addPostLayoutPulseListener(new Runnable() {
+            @Override
+            public void run() {
+                firstPaintMillis = getMillisSinceLaunch();
+                scene.removePostLayoutPulseListener(this);
+            }
+        });
+    }
+
+    /**
+     * Records the time to interactive. In benchmark mode the timings are printed and the app exits.
+     */
+    public static void recordInteractive() {
+        if (!Boolean.getBoolean(BENCHMARK_PROPERTY)) {
+            return;
+        }
+        System.out.println("Time to first paint: " + firstPaintMillis + " ms");
+        System.out.println("Time to interactive: " + getMillisSinceLaunch() + " ms");
+        Platform.exit();
+    }
+
+    private static long getMillisSinceLaunch() {
+        return System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+    }
+}
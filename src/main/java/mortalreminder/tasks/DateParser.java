@@ -0,0 +1,299 @@
+package mortalreminder.tasks;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Parses the dates and times typed by the user and those of the storage file without a {@link
+ * java.time.format.DateTimeFormatter}.
+ * <p>
+ * Both parsers read the text once from left to right, turning digits into numbers as they go, and only allocate
+ * the {@link LocalDateTime} they return. Which layout a date is written in is decided by the characters read so
+ * far, so no layout is ever tried and then abandoned. When a date cannot be parsed, the
+ * {@link DateTimeParseException} thrown gives the index of the first character that is wrong.
+ * <p>
+ * The user can type a date in any of these layouts, where the day, month and hour can have one or two digits:
+ * <ul>
+ *     <li>{@code dd-MM-yyyy HHmm}, the layout the app asks for, such as {@code 19-09-2024 1800}.</li>
+ *     <li>{@code dd/MM/yyyy} or {@code dd.MM.yyyy} instead of {@code dd-MM-yyyy}.</li>
+ *     <li>{@code yyyy-MM-dd} instead of {@code dd-MM-yyyy}.</li>
+ *     <li>{@code HH:mm} instead of {@code HHmm}.</li>
+ * </ul>
+ */
+public final class DateParser {
+    private DateParser() {
+    }
+
+    /**
+     * Parses a date typed by the user in any of the layouts accepted.
+     *
+     * @param text the date and time, such as "19-09-2024 1800".
+     * @return the parsed date and time.
+     * @throws DateTimeParseException if the text is not a valid date in an accepted layout.
+     */
+    public static LocalDateTime parseInput(CharSequence text) {
+        int length = text.length();
+        int position = 0;
+        int year;
+        int month;
+        int day;
+        int dayPosition;
+        int monthPosition;
+
+        int leadingDigits = countDigits(text, 0);
+        if (leadingDigits == 4) {
+            // yyyy-MM-dd
+            year = toNumber(text, 0, 4);
+            position = expect(text, 4, '-', null);
+            monthPosition = position;
+            position = expectDigits(text, position, 2, "the month");
+            month = toNumber(text, monthPosition, position);
+            position = expect(text, position, '-', null);
+            dayPosition = position;
+            position = expectDigits(text, position, 2, "the day");
+            day = toNumber(text, dayPosition, position);
+        } else if (leadingDigits == 1 || leadingDigits == 2) {
+            // dd-MM-yyyy, where both separators are the same one of '-', '/' and '.'
+            dayPosition = 0;
+            day = toNumber(text, 0, leadingDigits);
+            position = leadingDigits;
+            char separator = position < length ? text.charAt(position) : 0;
+            if (separator != '-' && separator != '/' && separator != '.') {
+                throw error(text, position, "'-', '/' or '.'");
+            }
+            monthPosition = ++position;
+            int monthDigits = countDigits(text, position);
+            if (monthDigits != 1 && monthDigits != 2) {
+                throw error(text, position, "the month");
+            }
+            position += monthDigits;
+            month = toNumber(text, monthPosition, position);
+            position = expect(text, position, separator, null);
+            int yearPosition = position;
+            position = expectDigits(text, position, 4, "a four digit year");
+            year = toNumber(text, yearPosition, position);
+        } else {
+            throw error(text, 0, "the day or the year");
+        }
+
+        // the date and the time are separated by spaces, or by a 'T' as in the storage file
+        if (position < length && text.charAt(position) == 'T') {
+            position++;
+        } else {
+            int spacesStart = position;
+            while (position < length && text.charAt(position) == ' ') {
+                position++;
+            }
+            if (position == spacesStart) {
+                throw error(text, position, "a space");
+            }
+        }
+
+        checkDate(text, year, month, monthPosition, day, dayPosition);
+        int minuteOfDay = parseMinuteOfDay(text, position);
+        return LocalDateTime.of(year, month, day, minuteOfDay / 60, minuteOfDay % 60);
+    }
+
+    /**
+     * Parses a time of day typed by the user, such as the time a recurring task repeats at.
+     *
+     * @param text the time as HHmm or HH:mm, such as "0730" or "7:30".
+     * @return the parsed time.
+     * @throws DateTimeParseException if the text is not a valid time in an accepted layout.
+     */
+    public static LocalTime parseInputTime(CharSequence text) {
+        int minuteOfDay = parseMinuteOfDay(text, 0);
+        return LocalTime.of(minuteOfDay / 60, minuteOfDay % 60);
+    }
+
+    /**
+     * Parses the time from the position to the end of the text, as HHmm or HH:mm, and returns it as the number
+     * of minutes since midnight so that the callers only allocate the object they return.
+     */
+    private static int parseMinuteOfDay(CharSequence text, int position) {
+        int length = text.length();
+        int hourPosition = position;
+        int minutePosition;
+        int timeDigits = countDigits(text, position);
+        if (timeDigits == 4) {
+            minutePosition = position + 2;
+            position += 4;
+        } else if ((timeDigits == 1 || timeDigits == 2) && position + timeDigits < length
+                && text.charAt(position + timeDigits) == ':') {
+            minutePosition = position + timeDigits + 1;
+            position = expectDigits(text, minutePosition, 2, "the minutes");
+        } else {
+            throw error(text, position, "the time as HHmm or HH:mm");
+        }
+        if (position != length) {
+            throw error(text, position, "the end of the date");
+        }
+        int hour = toNumber(text, hourPosition, minutePosition - (timeDigits == 4 ? 0 : 1));
+        int minute = toNumber(text, minutePosition, minutePosition + 2);
+
+        checkRange(text, hour, 23, hourPosition, "an hour up to 23");
+        checkRange(text, minute, 59, minutePosition, "minutes up to 59");
+        return hour * 60 + minute;
+    }
+
+    /**
+     * Parses a date of the storage file, which is in the ISO layout {@link LocalDateTime#toString()} writes,
+     * such as "2024-09-19T18:00" or "2024-09-19T18:00:30.5".
+     *
+     * @param text the stored date and time.
+     * @return the parsed date and time.
+     * @throws DateTimeParseException if the text is not a valid ISO date and time.
+     */
+    public static LocalDateTime parseStorage(CharSequence text) {
+        try {
+            return parseIsoDateTime(text);
+        } catch (DateTimeParseException e) {
+            // years beyond 9999 and other rare forms are left to the JDK, which is only slower
+            try {
+                return LocalDateTime.parse(text);
+            } catch (DateTimeParseException jdkException) {
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Parses a time of day of the storage file, which is in the ISO layout {@link LocalTime#toString()} writes,
+     * such as "07:30".
+     *
+     * @param text the stored time.
+     * @return the parsed time.
+     * @throws DateTimeParseException if the text is not a valid ISO time.
+     */
+    public static LocalTime parseStorageTime(CharSequence text) {
+        if (text.length() != 5 || countDigits(text, 0) != 2 || text.charAt(2) != ':' || countDigits(text, 3) != 2) {
+            // times with seconds are never written by the app, so they are left to the JDK
+            return LocalTime.parse(text);
+        }
+        int hour = toNumber(text, 0, 2);
+        int minute = toNumber(text, 3, 5);
+        checkRange(text, hour, 23, 0, "an hour up to 23");
+        checkRange(text, minute, 59, 3, "minutes up to 59");
+        return LocalTime.of(hour, minute);
+    }
+
+    private static LocalDateTime parseIsoDateTime(CharSequence text) {
+        int position = expectDigits(text, 0, 4, "a four digit year");
+        int year = toNumber(text, 0, 4);
+        position = expect(text, position, '-', null);
+        int monthPosition = position;
+        position = expectDigits(text, position, 2, "the month");
+        int month = toNumber(text, monthPosition, position);
+        position = expect(text, position, '-', null);
+        int dayPosition = position;
+        position = expectDigits(text, position, 2, "the day");
+        int day = toNumber(text, dayPosition, position);
+        position = expect(text, position, 'T', null);
+        int hourPosition = position;
+        position = expectDigits(text, position, 2, "the hour");
+        int hour = toNumber(text, hourPosition, position);
+        position = expect(text, position, ':', null);
+        int minutePosition = position;
+        position = expectDigits(text, position, 2, "the minutes");
+        int minute = toNumber(text, minutePosition, position);
+
+        int second = 0;
+        int nano = 0;
+        int secondPosition = position + 1;
+        if (position < text.length()) {
+            position = expect(text, position, ':', "':' or the end of the date");
+            position = expectDigits(text, position, 2, "the seconds");
+            second = toNumber(text, secondPosition, position);
+            if (position < text.length()) {
+                position = expect(text, position, '.', "'.' or the end of the date");
+                int fractionDigits = countDigits(text, position);
+                if (fractionDigits == 0 || fractionDigits > 9 || position + fractionDigits != text.length()) {
+                    throw error(text, position + Math.min(fractionDigits, 9), "up to nine digits of a second");
+                }
+                nano = toNumber(text, position, text.length());
+                for (int i = fractionDigits; i < 9; i++) {
+                    nano *= 10;
+                }
+            }
+        }
+
+        checkDate(text, year, month, monthPosition, day, dayPosition);
+        checkRange(text, hour, 23, hourPosition, "an hour up to 23");
+        checkRange(text, minute, 59, minutePosition, "minutes up to 59");
+        checkRange(text, second, 59, secondPosition, "seconds up to 59");
+        return LocalDateTime.of(year, month, day, hour, minute, second, nano);
+    }
+
+    private static void checkDate(CharSequence text, int year, int month, int monthPosition, int day,
+            int dayPosition) {
+        if (month < 1 || month > 12) {
+            throw error(text, monthPosition, "a month from 1 to 12");
+        }
+        int daysInMonth;
+        if (month == 2) {
+            boolean isLeapYear = year % 4 == 0 && (year % 100 != 0 || year % 400 == 0);
+            daysInMonth = isLeapYear ? 29 : 28;
+        } else {
+            daysInMonth = month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+        }
+        if (day < 1 || day > daysInMonth) {
+            throw error(text, dayPosition, "a day from 1 to " + daysInMonth);
+        }
+    }
+
+    private static void checkRange(CharSequence text, int value, int max, int position, String expected) {
+        if (value > max) {
+            throw error(text, position, expected);
+        }
+    }
+
+    private static int countDigits(CharSequence text, int from) {
+        int end = from;
+        while (end < text.length() && isDigit(text.charAt(end))) {
+            end++;
+        }
+        return end - from;
+    }
+
+    private static int toNumber(CharSequence text, int from, int to) {
+        int number = 0;
+        for (int i = from; i < to; i++) {
+            number = number * 10 + text.charAt(i) - '0';
+        }
+        return number;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * Checks that the character at the position is the expected one and returns the position after it.
+     * The description of what was expected is only built when it is needed for an error, or left null to use
+     * the expected character itself.
+     */
+    private static int expect(CharSequence text, int position, char expected, String description) {
+        if (position >= text.length() || text.charAt(position) != expected) {
+            throw error(text, position, description == null ? "'" + expected + "'" : description);
+        }
+        return position + 1;
+    }
+
+    /**
+     * Checks that exactly {@code count} digits start at the position and returns the position after them.
+     * Too few digits are reported at the first of them and too many at the first digit that is too many.
+     */
+    private static int expectDigits(CharSequence text, int position, int count, String description) {
+        int digits = countDigits(text, position);
+        if (digits != count) {
+            throw error(text, digits < count ? position : position + count, description);
+        }
+        return position + count;
+    }
+
+    private static DateTimeParseException error(CharSequence text, int position, String expected) {
+        return new DateTimeParseException("Expected " + expected + " at character " + (position + 1)
+                + " of \"" + text + "\"", text, position);
+    }
+}
@@ -1,7 +1,6 @@
 package mortalreminder.tasks;
 
 import java.time.LocalDateTime;
-import java.time.format.DateTimeParseException;
 
 import mortalreminder.errorhandling.MortalReminderException;
 
@@ -28,9 +27,8 @@ public class Deadline extends Task implements TimedTask {
     public Deadline(String description) throws MortalReminderException {
         super(description);
         String[] descriptionString = description.split("/by");
-        checkInitialisationDetails(descriptionString);
-        this.description = descriptionString[0].trim();
-        this.deadline = getTime(descriptionString[1].trim());
+        this.deadline = checkInitialisationDetails(descriptionString);
+        this.description = DescriptionPool.intern(descriptionString[0].trim());
         this.type = "D"; // short for Deadline
     }
 
@@ -50,8 +48,8 @@ public class Deadline extends Task implements TimedTask {
     public Deadline(String description, String deadline, boolean isDone) throws MortalReminderException {
         super(description);
         this.type = "D";
-        this.description = description;
-        this.deadline = LocalDateTime.parse(deadline);
+        this.description = DescriptionPool.intern(description);
+        this.deadline = DateParser.parseStorage(deadline);
         this.isDone = isDone;
     }
 
@@ -78,7 +76,7 @@ public class Deadline extends Task implements TimedTask {
      */
     @Override
     public String convertToFileFormat() {
-        return this.type + "|" + this.isDone + "|" + this.description + "|" + this.deadline;
+        return this.type + "|" + this.isDone + "|" + this.description + "|" + this.deadline + getPriorityFileField();
     }
 
     /**
@@ -86,25 +84,21 @@ public class Deadline extends Task implements TimedTask {
      * If there are less or more than 2 objects (description and deadline) in description string, that means
      * there is too much or too little information provided to create the class.
      * As such the ArrayIndexOutOfBoundsException() is thrown to prevent the creation of the file.
-     * The getTime() methods help check if the parsing of the dates and times are correct. This function was optimised
-     * using chatGPT.
+     * The deadline is parsed here once and returned, so the constructor does not have to parse it again.
+     * This function was optimised using chatGPT.
      *
      * @param descriptionString A list of string values passed in from the constructor which are to be checked
      *                          for data validation purposes. An error will be thrown if one of the values are
      *                          invalid and this will stop the creation of the object inside the app.
-     * @throws DateTimeParseException The string passed in as the date or time is incorrect and unable to be parsed.
+     * @return the parsed deadline.
+     * @throws MortalReminderException if the details are missing or the date is incorrect and unable to be parsed.
      */
-    public void checkInitialisationDetails(String[] descriptionString)
+    public LocalDateTime checkInitialisationDetails(String[] descriptionString)
             throws MortalReminderException {
         if (descriptionString.length != 2) {
             throw new MortalReminderException(MortalReminderException.getInvalidDeadlineDescriptionErrorMessage());
         }
-
-        try {
-            getTime(descriptionString[1].trim());
-        } catch (DateTimeParseException e) {
-            throw new MortalReminderException(MortalReminderException.getInvalidDateFormatErrorMessage());
-        }
+        return parseUserTime(descriptionString[1].trim());
     }
 
     /**
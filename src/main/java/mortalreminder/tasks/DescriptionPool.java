@@ -0,0 +1,108 @@
+package mortalreminder.tasks;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps one canonical copy of every description, so that tasks with the same description, such as the many
+ * "standup" or "pay rent" tasks of a list, share one {@link String} instead of each holding its own copy.
+ * The lines tasks are printed as are pooled the same way, so equal tasks also share their cached line.
+ * <p>
+ * The pool only holds its strings weakly, so a description is dropped from the pool once no task uses it any
+ * more, and it can be used from any thread. It can be turned off with
+ * {@code -Dmortalreminder.descriptionPool=false}, which is used to measure what it saves.
+ */
+public final class DescriptionPool {
+    private static final String ENABLED_PROPERTY = "mortalreminder.descriptionPool";
+    private static final boolean IS_ENABLED = !"false".equals(System.getProperty(ENABLED_PROPERTY));
+
+    private static final ConcurrentHashMap<PooledString, PooledString> POOL = new ConcurrentHashMap<>();
+    private static final ReferenceQueue<String> CLEARED = new ReferenceQueue<>();
+
+    /**
+     * A weak reference to a pooled string that is equal to any other reference to an equal string.
+     * Once its string is collected, a reference is only equal to itself, so it can still be removed.
+     */
+    private static final class PooledString extends WeakReference<String> {
+        private final int hash;
+
+        private PooledString(String value, ReferenceQueue<String> queue) {
+            super(value, queue);
+            this.hash = value.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof PooledString pooledString) || pooledString.hash != this.hash) {
+                return false;
+            }
+            String value = get();
+            return value != null && value.equals(pooledString.get());
+        }
+    }
+
+    private DescriptionPool() {
+    }
+
+    /**
+     * Returns the canonical copy of the given string, which is the string itself if no equal string is pooled.
+     *
+     * @param value the string to look up, such as the description of a new task.
+     * @return a string equal to {@code value} that is shared by every caller passing an equal string.
+     */
+    public static String intern(String value) {
+        if (!IS_ENABLED || value == null) {
+            return value;
+        }
+        removeCollectedStrings();
+
+        // most lookups find a pooled string, so the lookup key is not registered for clean up
+        PooledString existing = POOL.get(new PooledString(value, null));
+        String canonical = existing == null ? null : existing.get();
+        if (canonical != null) {
+            return canonical;
+        }
+
+        PooledString added = new PooledString(value, CLEARED);
+        while (true) {
+            existing = POOL.putIfAbsent(added, added);
+            if (existing == null) {
+                return value;
+            }
+            canonical = existing.get();
+            if (canonical != null) {
+                return canonical;
+            }
+            // the pooled string was collected after the lookup above, so its entry is replaced
+            POOL.remove(existing, existing);
+        }
+    }
+
+    /**
+     * Returns the number of distinct strings in the pool, including strings that are no longer used but have
+     * not been removed yet.
+     *
+     * @return the number of pooled strings.
+     */
+    public static int getSize() {
+        removeCollectedStrings();
+        return POOL.size();
+    }
+
+    private static void removeCollectedStrings() {
+        Reference<? extends String> collected;
+        while ((collected = CLEARED.poll()) != null) {
+            POOL.remove(collected);
+        }
+    }
+}
@@ -1,7 +1,6 @@
 package mortalreminder.tasks;
 
 import java.time.LocalDateTime;
-import java.time.format.DateTimeParseException;
 
 import mortalreminder.errorhandling.MortalReminderException;
 
@@ -30,10 +29,10 @@ public class Event extends Task implements TimedTask {
     public Event(String description) throws MortalReminderException {
         super(description);
         String[] descriptionString = description.split("/from|/to");
-        checkInitialisationDetails(descriptionString);
-        this.description = descriptionString[0].trim();
-        this.fromTime = getTime(descriptionString[1].trim());
-        this.toTime = getTime(descriptionString[2].trim());
+        LocalDateTime[] times = checkInitialisationDetails(descriptionString);
+        this.description = DescriptionPool.intern(descriptionString[0].trim());
+        this.fromTime = times[0];
+        this.toTime = times[1];
         this.type = "E"; // short for Event
     }
 
@@ -54,9 +53,9 @@ public class Event extends Task implements TimedTask {
     public Event(String description, String fromTime, String toTime, boolean isDone) throws MortalReminderException {
         super(description);
         this.type = "E";
-        this.description = description;
-        this.fromTime = LocalDateTime.parse(fromTime);
-        this.toTime = LocalDateTime.parse(toTime);
+        this.description = DescriptionPool.intern(description);
+        this.fromTime = DateParser.parseStorage(fromTime);
+        this.toTime = DateParser.parseStorage(toTime);
         this.isDone = isDone;
     }
 
@@ -85,34 +84,32 @@ public class Event extends Task implements TimedTask {
      */
     @Override
     public String convertToFileFormat() {
-        return this.type + "|" + this.isDone + "|" + this.description + "|" + this.fromTime + "|" + this.toTime;
+        return this.type + "|" + this.isDone + "|" + this.description + "|" + this.fromTime + "|" + this.toTime
+                + getPriorityFileField();
     }
 
     /**
      * Checks for invalid data and parameter numbers passed into the constructor of this class.
      * If there are less or more than 3 objects in description string, that means there is too much
      * or too little information provided to create the class. As such the ArrayIndexOutOfBoundsException()
-     * is thrown to prevent the creation of the file. The getTime() methods help check if the parsing of the
-     * dates and times are correct.
+     * is thrown to prevent the creation of the file. The start and end times are parsed here once and returned,
+     * so the constructor does not have to parse them again.
      *
      * @param descriptionString A list of string values passed in from the constructor which are to be checked
      *                          for data validation purposes. An error will be thrown if one of the values are
      *                          invalid and this will stop the creation of the object inside the app.
-     * @throws DateTimeParseException The string passed in as the date or time is incorrect and unable to be parsed.
+     * @return the parsed start and end times, in that order.
+     * @throws MortalReminderException if the details are missing or a date is incorrect and unable to be parsed.
      */
     // the following function was optimised using chatGPT
-    public void checkInitialisationDetails(String[] descriptionString)
+    public LocalDateTime[] checkInitialisationDetails(String[] descriptionString)
             throws MortalReminderException {
         if (descriptionString.length != 3) {
             throw new MortalReminderException(MortalReminderException.getInvalidEventDescriptionErrorMessage());
         }
-
-        try {
-            getTime(descriptionString[1].trim());
-            getTime(descriptionString[2].trim());
-        } catch (DateTimeParseException e) {
-            throw new MortalReminderException(MortalReminderException.getInvalidDateFormatErrorMessage());
-        }
+        return new LocalDateTime[] {
+            parseUserTime(descriptionString[1].trim()), parseUserTime(descriptionString[2].trim())
+        };
     }
 
     /**
@@ -124,4 +121,8 @@ public class Event extends Task implements TimedTask {
     public LocalDateTime getDueDate() {
         return this.fromTime;
     }
+
+    public LocalDateTime getToTime() {
+        return this.toTime;
+    }
 }
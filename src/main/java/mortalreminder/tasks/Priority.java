@@ -0,0 +1,32 @@
+package mortalreminder.tasks;
+
+import mortalreminder.errorhandling.MortalReminderException;
+
+/**
+ * Represents how important a task is, from the most important to tasks without a priority.
+ * The order of the constants is the order tasks are suggested in by the {@code next} command.
+ */
+public enum Priority {
+    HIGH,
+    MEDIUM,
+    LOW,
+    NONE;
+
+    /**
+     * Parses a priority level typed by the user, either in full or as its first letter.
+     *
+     * @param level the priority level, such as "high" or "h".
+     * @return the matching {@code Priority}.
+     * @throws MortalReminderException if the level does not match any priority.
+     */
+    public static Priority parse(String level) throws MortalReminderException {
+        String lowerCaseLevel = level.trim().toLowerCase();
+        for (Priority priority : values()) {
+            String name = priority.name().toLowerCase();
+            if (name.equals(lowerCaseLevel) || (lowerCaseLevel.length() == 1 && name.startsWith(lowerCaseLevel))) {
+                return priority;
+            }
+        }
+        throw new MortalReminderException(MortalReminderException.getInvalidPriorityErrorMessage());
+    }
+}
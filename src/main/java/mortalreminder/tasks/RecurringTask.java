@@ -0,0 +1,242 @@
+package mortalreminder.tasks;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.TextStyle;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+
+import mortalreminder.errorhandling.MortalReminderException;
+
+/**
+ * Represents a task that repeats every day or every week at a fixed time, such as "every Monday 0900".
+ * <p>
+ * Only the recurrence rule is stored. Occurrences are worked out when they are needed, either the next one
+ * through {@link #getDueDate()} or a range of them through {@link #getOccurrences(LocalDateTime, LocalDateTime)},
+ * so a rule costs the same no matter how many times it repeats.
+ * <p>
+ * The {@code RecurringTask} class extends the {@code Task} class and implements the {@code TimedTask} interface.
+ */
+public class RecurringTask extends Task implements TimedTask {
+    private static final DateTimeFormatter OUTPUT_TIME_FORMATTER = DateTimeFormatter.ofPattern("h:mm a",
+            Locale.forLanguageTag("en-GB"));
+
+    private final DayOfWeek dayOfWeek; // null if the task repeats every day
+    private final LocalTime time;
+    private final LocalDateTime startTime;
+
+    /**
+     * The recurrence rule typed by the user, parsed once.
+     *
+     * @param dayOfWeek the day of the week the task repeats on, or {@code null} if it repeats every day.
+     * @param time      the time of each occurrence.
+     */
+    public record Rule(DayOfWeek dayOfWeek, LocalTime time) {
+    }
+
+    /**
+     * Constructs a new {@code RecurringTask} with the specified description.
+     * <p>
+     * The description should include the task details followed by the recurrence rule, separated by the
+     * "/every" keyword. The rule is either "day" or a day of the week, followed by the time as HHmm or HH:mm.
+     * For example, "standup /every monday 0900" or "gym /every day 0700".
+     *
+     * @param description the description of the task and its recurrence rule.
+     * @throws MortalReminderException if the description is improperly formatted.
+     */
+    public RecurringTask(String description) throws MortalReminderException {
+        super(description);
+        String[] descriptionString = description.split("/every");
+        Rule rule = checkInitialisationDetails(descriptionString);
+        this.description = DescriptionPool.intern(descriptionString[0].trim());
+        this.dayOfWeek = rule.dayOfWeek();
+        this.time = rule.time();
+        this.startTime = LocalDateTime.now().withSecond(0).withNano(0);
+        this.type = "R"; // short for Recurring
+    }
+
+    /**
+     * Constructs a new {@code RecurringTask} from the values saved in the storage file.
+     * This method is only called when loading from a file. This method also assumes the values
+     * are always valid as it has already been checked during the adding to file process.
+     *
+     * @param description the description of the task.
+     * @param dayOfWeek   the day of the week the task repeats on, or "-" if it repeats every day.
+     * @param time        the time of each occurrence in the ISO format, such as "07:30".
+     * @param startTime   the time the task was created, before which there are no occurrences.
+     * @param isDone      whether the task is marked as done.
+     */
+    public RecurringTask(String description, String dayOfWeek, String time, String startTime, boolean isDone)
+            throws MortalReminderException {
+        super(description);
+        this.type = "R";
+        this.description = DescriptionPool.intern(description);
+        this.dayOfWeek = dayOfWeek.equals("-") ? null : DayOfWeek.valueOf(dayOfWeek);
+        this.time = DateParser.parseStorageTime(time);
+        this.startTime = DateParser.parseStorage(startTime);
+        this.isDone = isDone;
+    }
+
+    /**
+     * Method to get the description factor of the task.
+     * The recurrence rule and the next occurrence are shown after the description.
+     *
+     * @return string of the description after processing.
+     */
+    @Override
+    public String getDescription() {
+        return this.description + " (every " + getRuleString() + ", next: "
+                + convertTimeToString(getDueDate()) + ")";
+    }
+
+    /**
+     * Returns the description of one occurrence of the task, such as on a day of the agenda.
+     *
+     * @param occurrence the time of the occurrence.
+     * @return string of the description with the time of that occurrence instead of the next one.
+     */
+    public String getOccurrenceDescription(LocalDateTime occurrence) {
+        return this.description + " (every " + getRuleString() + ", on: " + convertTimeToString(occurrence) + ")";
+    }
+
+    /**
+     * The printed line shows the next occurrence, so it expires once that occurrence is over.
+     *
+     * @return the time of the next occurrence in epoch milliseconds.
+     */
+    @Override
+    protected long getCachedLineExpiry() {
+        return getDueDate().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Converts the class into a string to be added to the storage file.
+     * Only the rule is stored, never the individual occurrences.
+     *
+     * @return string of object summary to be placed into the storage text file.
+     */
+    @Override
+    public String convertToFileFormat() {
+        String day = dayOfWeek == null ? "-" : dayOfWeek.name();
+        return this.type + "|" + this.isDone + "|" + this.description + "|" + day + "|" + this.time
+                + "|" + this.startTime + getPriorityFileField();
+    }
+
+    /**
+     * Retrieves the next occurrence of this task from now.
+     *
+     * @return the next occurrence as a {@link LocalDateTime} object.
+     */
+    @Override
+    public LocalDateTime getDueDate() {
+        return getNextOccurrence(LocalDateTime.now());
+    }
+
+    /**
+     * Returns the first occurrence of this task at or after the given time.
+     *
+     * @param from the earliest time the occurrence can be at.
+     * @return the first occurrence at or after {@code from}.
+     */
+    public LocalDateTime getNextOccurrence(LocalDateTime from) {
+        LocalDateTime earliest = from.isBefore(startTime) ? startTime : from;
+        LocalDateTime occurrence = earliest.toLocalDate().atTime(time);
+        if (dayOfWeek != null) {
+            int daysAhead = (dayOfWeek.getValue() - occurrence.getDayOfWeek().getValue() + 7) % 7;
+            occurrence = occurrence.plusDays(daysAhead);
+        }
+        if (occurrence.isBefore(earliest)) {
+            occurrence = occurrence.plusDays(getIntervalDays());
+        }
+        return occurrence;
+    }
+
+    /**
+     * Returns the occurrences of this task from {@code from} (inclusive) to {@code to} (exclusive).
+     * The occurrences are generated one at a time as the iterator is advanced.
+     *
+     * @param from the start of the range.
+     * @param to   the end of the range.
+     * @return an iterator over the occurrences in the range, earliest first.
+     */
+    public Iterator<LocalDateTime> getOccurrences(LocalDateTime from, LocalDateTime to) {
+        LocalDateTime first = getNextOccurrence(from);
+        return new Iterator<>() {
+            private LocalDateTime next = first;
+
+            @Override
+            public boolean hasNext() {
+                return next.isBefore(to);
+            }
+
+            @Override
+            public LocalDateTime next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                LocalDateTime current = next;
+                next = next.plusDays(getIntervalDays());
+                return current;
+            }
+        };
+    }
+
+    /**
+     * Checks for invalid data passed into the constructor of this class.
+     * There must be exactly one "/every" keyword, and the rule after it must be a day followed by a valid time.
+     * The rule is parsed here once and returned, so the constructor does not have to parse it again.
+     *
+     * @param descriptionString the description split by the "/every" keyword.
+     * @return the parsed day and time of the rule.
+     * @throws MortalReminderException if the rule is missing or invalid.
+     */
+    public Rule checkInitialisationDetails(String[] descriptionString) throws MortalReminderException {
+        if (descriptionString.length != 2) {
+            throw new MortalReminderException(MortalReminderException.getInvalidRecurringDescriptionErrorMessage());
+        }
+        String[] rule = descriptionString[1].trim().split("\\s+");
+        if (rule.length != 2) {
+            throw new MortalReminderException(MortalReminderException.getInvalidRecurringDescriptionErrorMessage());
+        }
+
+        DayOfWeek dayOfWeek = parseDayOfWeek(rule[0]);
+        try {
+            return new Rule(dayOfWeek, DateParser.parseInputTime(rule[1]));
+        } catch (DateTimeParseException e) {
+            throw new MortalReminderException(MortalReminderException.getInvalidDateFormatErrorMessage(e));
+        }
+    }
+
+    private int getIntervalDays() {
+        return dayOfWeek == null ? 1 : 7;
+    }
+
+    private String getRuleString() {
+        String day = dayOfWeek == null ? "day" : dayOfWeek.getDisplayName(TextStyle.FULL, Locale.ENGLISH);
+        return day + " " + time.format(OUTPUT_TIME_FORMATTER);
+    }
+
+    /**
+     * Parses "day" or a day of the week, which can be shortened to its first three letters.
+     *
+     * @return the day of the week, or {@code null} for "day".
+     */
+    private static DayOfWeek parseDayOfWeek(String day) throws MortalReminderException {
+        String lowerCaseDay = day.toLowerCase();
+        if (lowerCaseDay.equals("day")) {
+            return null;
+        }
+        for (DayOfWeek dayOfWeek : DayOfWeek.values()) {
+            String name = dayOfWeek.name().toLowerCase();
+            if (lowerCaseDay.length() >= 3 && name.startsWith(lowerCaseDay)) {
+                return dayOfWeek;
+            }
+        }
+        throw new MortalReminderException(MortalReminderException.getInvalidRecurringDescriptionErrorMessage());
+    }
+}
@@ -1,6 +1,10 @@
 package mortalreminder.tasks;
 
+import java.util.LinkedHashSet;
 import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import mortalreminder.errorhandling.MortalReminderException;
 import mortalreminder.io.FormattedOutput;
@@ -16,9 +20,16 @@ import mortalreminder.io.FormattedOutput;
  * and methods for handling tasks.
  */
 public abstract class Task {
+    private static final Pattern TAG_PATTERN = Pattern.compile("#([\\p{L}\\p{N}_-]+)");
+
     protected String description;
     protected String type;
     protected boolean isDone;
+    protected Priority priority = Priority.NONE;
+
+    // the line the task is printed as, kept until the task changes or the line expires
+    private String cachedLine;
+    private long cachedLineExpiry;
 
     /**
      * Constructs a new {@code Task} with the specified description.
@@ -52,6 +63,91 @@ public abstract class Task {
      */
     public abstract String getDescription();
 
+    /**
+     * Returns the description as it was typed by the user, without any dates of timed tasks.
+     *
+     * @return string of the description before processing.
+     */
+    public String getRawDescription() {
+        return this.description;
+    }
+
+    /**
+     * Returns the tags of the task, which are the words starting with {@code #} in its description,
+     * such as {@code work} in "submit report #work". Tags are case insensitive and returned in lower case.
+     *
+     * @return the distinct tags of the task in the order they appear.
+     */
+    public Set<String> getTags() {
+        LinkedHashSet<String> tags = new LinkedHashSet<>();
+        Matcher matcher = TAG_PATTERN.matcher(this.description);
+        while (matcher.find()) {
+            tags.add(matcher.group(1).toLowerCase());
+        }
+        return tags;
+    }
+
+    public Priority getPriority() {
+        return this.priority;
+    }
+
+    public void setPriority(Priority priority) {
+        this.priority = priority;
+        invalidateCachedLine();
+    }
+
+    /**
+     * Returns the line this task was last printed as, if the task has not changed since and the line has not
+     * expired. Listing many tasks then only copies their cached lines instead of formatting each task again.
+     *
+     * @return the cached line, or {@code null} if the task has to be formatted again.
+     */
+    public String getCachedLine() {
+        if (this.cachedLine != null && System.currentTimeMillis() >= this.cachedLineExpiry) {
+            this.cachedLine = null;
+        }
+        return this.cachedLine;
+    }
+
+    /**
+     * Keeps the line this task is printed as until the task is marked, unmarked or edited.
+     * The lines of tasks without dates are pooled, so equal to-dos share one line. The lines of timed tasks
+     * include their dates and are rarely equal, so pooling them would cost more than it saves.
+     *
+     * @param line the formatted line of the task.
+     */
+    public void cacheLine(String line) {
+        this.cachedLine = this instanceof TimedTask ? line : DescriptionPool.intern(line);
+        this.cachedLineExpiry = getCachedLineExpiry();
+    }
+
+    /**
+     * Returns the time in epoch milliseconds at which the printed line of this task goes out of date even though
+     * the task itself did not change. Most tasks always print the same way, so their lines never expire.
+     *
+     * @return the expiry time of the printed line.
+     */
+    protected long getCachedLineExpiry() {
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * Drops the cached line of this task, which must be done whenever something that is printed changes.
+     */
+    protected void invalidateCachedLine() {
+        this.cachedLine = null;
+    }
+
+    /**
+     * Returns the priority as the optional last field of the storage file format.
+     * Tasks without a priority have no such field, so their format is the same as before priorities existed.
+     *
+     * @return the priority field including its separator, or an empty string if there is no priority.
+     */
+    protected String getPriorityFileField() {
+        return this.priority == Priority.NONE ? "" : "|" + this.priority.name();
+    }
+
     /**
      * Converts the class into a string to be added to the storage file.
      * Converts all the variables from their respective object types to a string format which can be stored
@@ -79,6 +175,7 @@ public abstract class Task {
             throw new MortalReminderException(MortalReminderException.getAlreadyMarkedErrorMessage());
         }
         this.isDone = true;
+        invalidateCachedLine();
         return FormattedOutput.printMarked(this);
     }
 
@@ -98,6 +195,7 @@ public abstract class Task {
             throw new MortalReminderException(MortalReminderException.getAlreadyNotMarkedErrorMessage());
         }
         this.isDone = false;
+        invalidateCachedLine();
         return FormattedOutput.printUnmarked(this);
     }
 
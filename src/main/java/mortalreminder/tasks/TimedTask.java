@@ -2,8 +2,11 @@ package mortalreminder.tasks;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.Locale;
 
+import mortalreminder.errorhandling.MortalReminderException;
+
 // the JavaDocs for this class and its methods were autogenerated by ChatGPT
 
 /**
@@ -14,6 +17,9 @@ import java.util.Locale;
  * to a formatted string.
  */
 public interface TimedTask {
+    // formatters are immutable and thread safe, so they are only created once
+    DateTimeFormatter OUTPUT_FORMATTER = DateTimeFormatter.ofPattern("dd MMM yyyy h:mm a",
+            Locale.forLanguageTag("en-GB"));
 
     /**
      * Retrieves the due date of this task.
@@ -32,13 +38,29 @@ public interface TimedTask {
      *     <li>yyyy: year</li>
      *     <li>HHmm: time in 24-hour format</li>
      * </ul>
+     * A few other common layouts are accepted as well, see {@link DateParser#parseInput(CharSequence)}.
      *
      * @param descriptionString the string containing the date and time information.
      * @return the corresponding {@link LocalDateTime} object.
+     * @throws DateTimeParseException if the string is not a valid date, giving the index of the wrong character.
      */
     default LocalDateTime getTime(String descriptionString) {
-        DateTimeFormatter inputFormatter = DateTimeFormatter.ofPattern("dd-MM-yyyy HHmm");
-        return LocalDateTime.parse(descriptionString, inputFormatter);
+        return DateParser.parseInput(descriptionString);
+    }
+
+    /**
+     * Parses the date typed by the user like {@link #getTime(String)}, reporting a wrong date to the user.
+     *
+     * @param descriptionString the string containing the date and time information.
+     * @return the corresponding {@link LocalDateTime} object.
+     * @throws MortalReminderException if the string is not a valid date, saying where it went wrong.
+     */
+    default LocalDateTime parseUserTime(String descriptionString) throws MortalReminderException {
+        try {
+            return getTime(descriptionString);
+        } catch (DateTimeParseException e) {
+            throw new MortalReminderException(MortalReminderException.getInvalidDateFormatErrorMessage(e));
+        }
     }
 
     /**
@@ -57,9 +79,7 @@ public interface TimedTask {
      * @return the formatted date and time string.
      */
     default String convertTimeToString(LocalDateTime time) {
-        DateTimeFormatter outputFormatter = DateTimeFormatter.ofPattern("dd MMM yyyy h:mm a",
-                Locale.forLanguageTag("en-GB"));
-        return time.format(outputFormatter);
+        return time.format(OUTPUT_FORMATTER);
     }
 
 }
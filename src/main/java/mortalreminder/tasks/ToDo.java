@@ -19,7 +19,7 @@ public class ToDo extends Task {
      */
     public ToDo(String description) throws MortalReminderException {
         super(description);
-        this.description = description;
+        this.description = DescriptionPool.intern(description);
         this.type = "T"; // short for todo
     }
 
@@ -36,7 +36,7 @@ public class ToDo extends Task {
     public ToDo(String description, boolean isDone) throws MortalReminderException {
         super(description);
         this.type = "T";
-        this.description = description.trim();
+        this.description = DescriptionPool.intern(description.trim());
         this.isDone = isDone;
     }
 
@@ -62,7 +62,7 @@ public class ToDo extends Task {
      */
     @Override
     public String convertToFileFormat() {
-        return this.type + "|" + this.isDone + "|" + this.description;
+        return this.type + "|" + this.isDone + "|" + this.description + getPriorityFileField();
     }
 
 }
@@ -0,0 +1,93 @@
+package mortalreminder.backend;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import mortalreminder.errorhandling.MortalReminderException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class StorageReplicationTest {
+    private Path dataDirectory;
+    private Path standbyDirectory;
+    private String filePath;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        dataDirectory = Files.createTempDirectory("primary");
+        standbyDirectory = Files.createTempDirectory("standby");
+        filePath = dataDirectory.resolve("tasks.txt").toString();
+        System.setProperty("mortalreminder.standby", standbyDirectory.toString());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        System.clearProperty("mortalreminder.standby");
+        for (Path directory : List.of(dataDirectory, standbyDirectory)) {
+            try (Stream<Path> paths = Files.walk(directory)) {
+                for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(path);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void catchUp_writesShipped_replicaMatchesPrimary() throws MortalReminderException, IOException {
+        TaskListStorage.writeLines(filePath, List.of("T|false|buy milk", "T|false|call mum"));
+        TaskListStorage.appendLines(filePath, List.of("D|false|essay|2026-11-01T18:00"));
+        TaskListStorage.rewriteLines(filePath, lines -> lines.remove(0));
+        TaskListStorage.appendLines(filePath, List.of("T|true|gym"));
+        // the rewrite made the two records before it unnecessary
+        assertEquals((int) 2, (int) StandbyReplica.readPendingRecords(standbyDirectory, "tasks.txt").size());
+
+        StandbyReplica.catchUp(standbyDirectory, "tasks.txt");
+        assertEquals(Files.readAllLines(Path.of(filePath), Charset.defaultCharset()),
+                StandbyReplica.readReplicaLines(standbyDirectory, "tasks.txt"));
+        assertTrue(StandbyReplica.readState(standbyDirectory, "tasks.txt").isInSync());
+        assertTrue(StandbyReplica.readPendingRecords(standbyDirectory, "tasks.txt").isEmpty());
+    }
+
+    @Test
+    public void shipIfBehind_writeMissed_fullCopyShippedOnLoad() throws MortalReminderException, IOException {
+        TaskListStorage.writeLines(filePath, List.of("T|false|buy milk"));
+        System.clearProperty("mortalreminder.standby");
+        TaskListStorage.appendLines(filePath, List.of("T|false|missed"));
+        System.setProperty("mortalreminder.standby", standbyDirectory.toString());
+        TaskListStorage.appendLines(filePath, List.of("T|false|call mum"));
+
+        StandbyReplica.catchUp(standbyDirectory, "tasks.txt");
+        assertFalse(StandbyReplica.readState(standbyDirectory, "tasks.txt").isInSync());
+
+        TaskListStorage.loadTaskListFromFile(filePath);
+        StandbyReplica.catchUp(standbyDirectory, "tasks.txt");
+        assertTrue(StandbyReplica.readState(standbyDirectory, "tasks.txt").isInSync());
+        assertEquals(List.of("T|false|buy milk", "T|false|missed", "T|false|call mum"),
+                StandbyReplica.readReplicaLines(standbyDirectory, "tasks.txt"));
+    }
+
+    @Test
+    public void promote_corruptedPrimary_restoredFromStandby() throws MortalReminderException, IOException {
+        TaskListStorage.writeLines(filePath, List.of("T|false|buy milk"));
+        TaskListStorage.appendLines(filePath, List.of("D|false|essay|2026-11-01T18:00"));
+        Files.writeString(Path.of(filePath), "garbage");
+        assertThrows(MortalReminderException.class, () -> TaskListStorage.loadTaskListFromFile(filePath));
+
+        List<StorageReplication.PromotedReplica> promoted =
+                StorageReplication.promote(standbyDirectory, dataDirectory);
+        assertEquals(List.of(new StorageReplication.PromotedReplica("tasks.txt", 2, true)), promoted);
+        assertEquals((int) 2, (int) TaskListStorage.loadTaskListFromFile(filePath).getSize());
+    }
+}
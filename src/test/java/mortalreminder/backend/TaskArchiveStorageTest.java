@@ -0,0 +1,103 @@
+package mortalreminder.backend;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import mortalreminder.errorhandling.MortalReminderException;
+import mortalreminder.tasks.Deadline;
+import mortalreminder.tasks.Task;
+import mortalreminder.tasks.ToDo;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TaskArchiveStorageTest {
+    private Path dataDirectory;
+    private String archiveFilePath;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        dataDirectory = Files.createTempDirectory("archive");
+        archiveFilePath = TaskArchiveStorage.getArchiveFilePath(dataDirectory.resolve("tasks.txt").toString());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(dataDirectory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Test
+    public void searchArchive_severalBlocks_matchingTasksReturnedOldestFirst() throws MortalReminderException {
+        assertTrue(TaskArchiveStorage.searchArchive(archiveFilePath, task -> true).isEmpty());
+
+        ArrayList<Task> largeBlock = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            largeBlock.add(new ToDo("read chapter " + i, true));
+        }
+        List<List<Task>> blocks = List.of(
+                List.of(new ToDo("buy milk", true), new Deadline("submit report", "2024-09-20T18:00", true)),
+                largeBlock,
+                List.of(new ToDo("buy bread", true)));
+        for (List<Task> block : blocks) {
+            TaskArchiveStorage.appendBlock(block, archiveFilePath);
+        }
+
+        assertEquals(List.of("T|true|buy milk", "T|true|buy bread"),
+                toFileLines(TaskArchiveStorage.searchArchive(archiveFilePath,
+                        task -> task.getRawDescription().startsWith("buy"))));
+        ArrayList<String> expectedLines = new ArrayList<>();
+        for (List<Task> block : blocks) {
+            expectedLines.addAll(toFileLines(block));
+        }
+        assertEquals(expectedLines, toFileLines(TaskArchiveStorage.searchArchive(archiveFilePath, task -> true)));
+    }
+
+    @Test
+    public void searchArchive_corruptedBlock_exceptionThrown() throws MortalReminderException, IOException {
+        TaskArchiveStorage.appendBlock(List.of(new ToDo("buy milk", true)), archiveFilePath);
+        long secondBlockOffset = Files.size(Path.of(archiveFilePath));
+        TaskArchiveStorage.appendBlock(List.of(new ToDo("call mum", true), new ToDo("gym", true)), archiveFilePath);
+
+        // overwrite the start of the compressed data of the second block
+        try (RandomAccessFile file = new RandomAccessFile(archiveFilePath, "rw")) {
+            file.seek(secondBlockOffset + 2 * Integer.BYTES);
+            file.write(new byte[] {(byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff});
+        }
+
+        MortalReminderException e = assertThrows(MortalReminderException.class, () ->
+                TaskArchiveStorage.searchArchive(archiveFilePath, task -> true));
+        assertEquals(MortalReminderException.getArchiveFileCorruptedErrorMessage(), e.getMessage());
+    }
+
+    @Test
+    public void searchArchive_truncatedBlock_exceptionThrown() throws MortalReminderException, IOException {
+        TaskArchiveStorage.appendBlock(List.of(new ToDo("buy milk", true)), archiveFilePath);
+        TaskArchiveStorage.appendBlock(List.of(new ToDo("call mum", true)), archiveFilePath);
+        try (RandomAccessFile file = new RandomAccessFile(archiveFilePath, "rw")) {
+            file.setLength(file.length() - 3);
+        }
+
+        MortalReminderException e = assertThrows(MortalReminderException.class, () ->
+                TaskArchiveStorage.searchArchive(archiveFilePath, task -> true));
+        assertEquals(MortalReminderException.getArchiveFileCorruptedErrorMessage(), e.getMessage());
+    }
+
+    private static List<String> toFileLines(List<Task> tasks) {
+        return tasks.stream().map(Task::convertToFileFormat).toList();
+    }
+}
@@ -0,0 +1,130 @@
+package mortalreminder.backend;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import mortalreminder.backend.events.TaskEventBus;
+import mortalreminder.backend.tasklistmanager.TaskList;
+import mortalreminder.errorhandling.MortalReminderException;
+import mortalreminder.tasks.ToDo;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TaskHistoryTest {
+    private Path directory;
+    private String filePath;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("history");
+        filePath = directory.resolve("tasks.txt").toString();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (var files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    public void getListAsOf_changedAfterwards_listAsItWas() throws MortalReminderException, InterruptedException {
+        LocalDateTime beforeHistory = LocalDateTime.now().minusSeconds(1);
+        TaskList taskList = TaskListStorage.loadTaskListFromFile(filePath);
+        taskList.addTask(new ToDo("buy milk"));
+        taskList.addTask(new ToDo("call mum"));
+        LocalDateTime asOf = waitForClock();
+        taskList.getTaskList().get(0).markDone();
+        taskList.updateTask(0, "T|false|buy milk");
+        taskList.deleteTask(taskList.getTaskList().get(1));
+
+        TaskHistory history = TaskHistory.getInstance();
+        assertEquals(List.of("T|false|buy milk", "T|false|call mum"), history.getListAsOf(filePath, asOf).fileLines());
+        assertEquals(List.of("T|true|buy milk"), history.getListAsOf(filePath, waitForClock()).fileLines());
+        assertThrows(MortalReminderException.class, () -> history.getListAsOf(filePath, beforeHistory));
+    }
+
+    @Test
+    public void getListAsOf_longHistory_replayBoundedByCheckpoints()
+            throws MortalReminderException, InterruptedException {
+        TaskList taskList = TaskListStorage.loadTaskListFromFile(filePath);
+        for (int i = 0; i < 3 * TaskHistory.MIN_CHECKPOINT_INTERVAL; i++) {
+            taskList.addTask(new ToDo("task " + i));
+        }
+
+        TaskHistory.PastList pastList = TaskHistory.getInstance().getListAsOf(filePath, waitForClock());
+        assertEquals((int) 3 * TaskHistory.MIN_CHECKPOINT_INTERVAL, (int) pastList.fileLines().size());
+        assertTrue(pastList.replayedChanges() < TaskHistory.MIN_CHECKPOINT_INTERVAL);
+    }
+
+    @Test
+    public void getTaskHistory_changedOutsideApp_allVersionsListed() throws MortalReminderException {
+        TaskListStorage.writeLines(filePath, List.of("T|false|buy milk"));
+        TaskList taskList = TaskListStorage.loadTaskListFromFile(filePath);
+        taskList.getTaskList().get(0).markDone();
+        taskList.updateTask(0, "T|false|buy milk");
+        TaskEventBus.getInstance().flush();
+        TaskListStorage.appendLines(filePath, List.of("T|false|call mum"));
+        taskList = TaskListStorage.loadTaskListFromFile(filePath);
+        taskList.getTaskList().get(0).markUndone();
+        taskList.updateTask(0, "T|true|buy milk");
+
+        List<TaskHistory.TaskVersion> versions = TaskHistory.getInstance().getTaskHistory(filePath, 0);
+        assertEquals(List.of(TaskHistory.Change.BASELINE, TaskHistory.Change.UPDATED, TaskHistory.Change.UPDATED),
+                versions.stream().map(TaskHistory.TaskVersion::change).toList());
+        assertEquals("T|false|buy milk", versions.get(2).fileLine());
+        assertEquals(TaskHistory.Change.BASELINE,
+                TaskHistory.getInstance().getTaskHistory(filePath, 1).get(0).change());
+    }
+
+    @Test
+    public void getTaskHistory_appendedElsewhereThenRefreshed_changesCreditedToRightTask()
+            throws MortalReminderException, IOException, InterruptedException {
+        TaskListStorage.writeLines(filePath, List.of("T|false|buy milk"));
+        TaskList taskList = TaskListStorage.loadTaskListFromFile(filePath);
+        try (StorageLock lock = StorageLock.acquire(filePath, true)) {
+            Files.writeString(Path.of(filePath), "T|false|call mum" + System.lineSeparator(),
+                    StandardOpenOption.APPEND);
+            lock.recordWrite(false);
+        }
+        taskList = TaskListStorage.refreshTaskList(taskList);
+        assertEquals(2, taskList.getSize());
+
+        taskList.addTask(new ToDo("walk dog"));
+        taskList.getTask(1).markDone();
+        taskList.updateTask(1, "T|false|call mum");
+        LocalDateTime asOf = waitForClock();
+
+        TaskHistory history = TaskHistory.getInstance();
+        assertEquals(List.of(TaskHistory.Change.ADDED, TaskHistory.Change.UPDATED),
+                history.getTaskHistory(filePath, 1).stream().map(TaskHistory.TaskVersion::change).toList());
+        assertEquals(List.of(TaskHistory.Change.ADDED),
+                history.getTaskHistory(filePath, 2).stream().map(TaskHistory.TaskVersion::change).toList());
+        assertEquals(List.of("T|false|buy milk", "T|true|call mum", "T|false|walk dog"),
+                history.getListAsOf(filePath, asOf).fileLines());
+    }
+
+    /**
+     * Returns the current time once every change made so far has been recorded and the clock has moved past it.
+     */
+    private static LocalDateTime waitForClock() throws MortalReminderException, InterruptedException {
+        TaskEventBus.getInstance().flush();
+        Thread.sleep(20);
+        LocalDateTime now = LocalDateTime.now();
+        Thread.sleep(20);
+        return now;
+    }
+}
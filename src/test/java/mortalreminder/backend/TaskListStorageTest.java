@@ -1,5 +1,12 @@
 package mortalreminder.backend;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import mortalreminder.backend.events.TaskEventBus;
 import mortalreminder.backend.tasklistmanager.TaskList;
 import mortalreminder.errorhandling.MortalReminderException;
 import mortalreminder.tasks.ToDo;
@@ -10,6 +17,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.fail;
 
 public class TaskListStorageTest {
@@ -49,4 +57,63 @@ public class TaskListStorageTest {
         assertEquals(2, taskList.getSize());
     }
 
+    @Test
+    public void refreshTaskList_fileUnchanged_sameListReturned() throws MortalReminderException {
+        TaskListStorage.appendToListFile(new ToDo("Fake task", false));
+        TaskList taskList = TaskListStorage.loadTaskListFromFile();
+        assertSame(taskList, TaskListStorage.refreshTaskList(taskList));
+    }
+
+    @Test
+    public void refreshTaskList_fileEditedElsewhere_reloaded() throws MortalReminderException, IOException {
+        TaskListStorage.appendToListFile(new ToDo("Fake task", false));
+        TaskList taskList = TaskListStorage.loadTaskListFromFile();
+        Files.writeString(Path.of(TaskListStorage.STORAGE_LIST_FILE_PATH),
+                "T|true|Edited task" + System.lineSeparator(), StandardOpenOption.APPEND);
+        assertEquals(2, TaskListStorage.refreshTaskList(taskList).getSize());
+    }
+
+    @Test
+    public void writeEvents_linesDeletedElsewhere_changeAppliedToSameTask() throws Exception {
+        TaskListStorage.writeLines(TaskListStorage.STORAGE_LIST_FILE_PATH,
+                List.of("T|false|first", "T|false|second", "T|false|third"));
+        TaskList taskList = TaskListStorage.loadTaskListFromFile();
+        changeElsewhere(List.of("T|false|second", "T|false|third"), true);
+
+        String previousFileLine = taskList.getTask(1).convertToFileFormat();
+        taskList.getTask(1).markDone();
+        taskList.updateTask(1, previousFileLine);
+        TaskEventBus.getInstance().flush();
+
+        assertEquals(List.of("T|true|second", "T|false|third"),
+                Files.readAllLines(Path.of(TaskListStorage.STORAGE_LIST_FILE_PATH)));
+    }
+
+    @Test
+    public void writeEvents_linesAppendedElsewhere_indexesMovedPastThem() throws Exception {
+        TaskListStorage.writeLines(TaskListStorage.STORAGE_LIST_FILE_PATH, List.of("T|false|first", "T|false|second"));
+        TaskList taskList = TaskListStorage.loadTaskListFromFile();
+        changeElsewhere(List.of("T|false|first", "T|false|second", "T|false|other"), false);
+
+        taskList.addTask(new ToDo("mine"));
+        String previousFileLine = taskList.getTask(2).convertToFileFormat();
+        taskList.getTask(2).markDone();
+        taskList.updateTask(2, previousFileLine);
+        taskList.deleteTask(taskList.getTask(0));
+        TaskEventBus.getInstance().flush();
+
+        assertEquals(List.of("T|false|second", "T|false|other", "T|true|mine"),
+                Files.readAllLines(Path.of(TaskListStorage.STORAGE_LIST_FILE_PATH)));
+    }
+
+    /**
+     * Replaces the content of the storage file as another process of the app would, without this process taking
+     * note of the new version.
+     */
+    private static void changeElsewhere(List<String> lines, boolean isRewrite) throws IOException {
+        try (StorageLock lock = StorageLock.acquire(TaskListStorage.STORAGE_LIST_FILE_PATH, true)) {
+            Files.write(Path.of(TaskListStorage.STORAGE_LIST_FILE_PATH), lines);
+            lock.recordWrite(isRewrite);
+        }
+    }
 }
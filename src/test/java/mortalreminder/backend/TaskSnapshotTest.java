@@ -0,0 +1,107 @@
+package mortalreminder.backend;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import mortalreminder.backend.tasklistmanager.TaskList;
+import mortalreminder.errorhandling.MortalReminderException;
+import mortalreminder.tasks.Task;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TaskSnapshotTest {
+    private static final List<String> LINES = List.of(
+            "T|false|buy milk",
+            "T|true|call mum|HIGH",
+            "D|false|essay|2026-11-01T18:00",
+            "D|true|tax return|2025-04-30T23:59:30.5|LOW",
+            "E|false|conference|2026-11-02T09:00|2026-11-04T17:00|MEDIUM",
+            "R|false|gym|MONDAY|07:30|2026-01-05T07:30",
+            "R|true|water plants|-|20:00|2026-01-01T20:00|NONE");
+
+    private Path directory;
+    private String filePath;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        System.setProperty("mortalreminder.snapshots", "true");
+        directory = Files.createTempDirectory("snapshot");
+        filePath = directory.resolve("tasks.txt").toString();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        System.clearProperty("mortalreminder.snapshots");
+        try (var files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    public void loadTaskListFromFile_snapshotWritten_sameTasksLoaded() throws MortalReminderException {
+        TaskListStorage.writeLines(filePath, LINES);
+        TaskList fromText = TaskListStorage.loadTaskListFromFile(filePath);
+        assertTrue(Files.exists(TaskSnapshot.getSnapshotPath(filePath)));
+
+        TaskList fromSnapshot = TaskListStorage.loadTaskListFromFile(filePath);
+        assertEquals(getLines(fromText), getLines(fromSnapshot));
+    }
+
+    @Test
+    public void loadTaskListFromFile_manyBlocks_orderKept() throws MortalReminderException {
+        ArrayList<String> lines = new ArrayList<>();
+        for (int i = 0; i < 3 * TaskSnapshot.BLOCK_SIZE + 5; i++) {
+            lines.add(i % 2 == 0 ? "T|false|task " + i : "D|false|task " + i + "|2026-11-01T" + (10 + i % 10) + ":00");
+        }
+        TaskListStorage.writeLines(filePath, lines);
+        TaskListStorage.loadTaskListFromFile(filePath);
+        assertEquals(lines, getLines(TaskListStorage.loadTaskListFromFile(filePath)));
+    }
+
+    @Test
+    public void loadTaskListFromFile_linesAppended_tailReadAfterSnapshot() throws MortalReminderException {
+        TaskListStorage.writeLines(filePath, LINES.subList(0, 3));
+        TaskListStorage.loadTaskListFromFile(filePath);
+        TaskListStorage.appendLines(filePath, LINES.subList(3, LINES.size()));
+
+        StorageLock.Version snapshotVersion = TaskSnapshot.read(filePath).getVersion();
+        TaskList taskList = TaskListStorage.loadTaskListFromFile(filePath);
+        assertEquals(getLines(taskList), List.of("T|false|buy milk", "T|true|call mum|HIGH",
+                "D|false|essay|2026-11-01T18:00", "D|true|tax return|2025-04-30T23:59:30.500|LOW",
+                "E|false|conference|2026-11-02T09:00|2026-11-04T17:00|MEDIUM",
+                "R|false|gym|MONDAY|07:30|2026-01-05T07:30", "R|true|water plants|-|20:00|2026-01-01T20:00"));
+        assertTrue(!snapshotVersion.equals(TaskSnapshot.read(filePath).getVersion()));
+    }
+
+    @Test
+    public void loadTaskListFromFile_corruptedSnapshot_textFileLoaded() throws MortalReminderException, IOException {
+        TaskListStorage.writeLines(filePath, LINES);
+        TaskListStorage.loadTaskListFromFile(filePath);
+        byte[] snapshot = Files.readAllBytes(TaskSnapshot.getSnapshotPath(filePath));
+        for (int i = snapshot.length / 2; i < snapshot.length; i++) {
+            snapshot[i] = 0;
+        }
+        Files.write(TaskSnapshot.getSnapshotPath(filePath), snapshot);
+
+        assertEquals((int) LINES.size(), (int) TaskListStorage.loadTaskListFromFile(filePath).getSize());
+    }
+
+    private static List<String> getLines(TaskList taskList) {
+        ArrayList<String> lines = new ArrayList<>();
+        for (Task task : taskList.getTaskList()) {
+            lines.add(task.convertToFileFormat());
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,86 @@
+package mortalreminder.backend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import org.junit.jupiter.api.Test;
+
+import mortalreminder.errorhandling.MortalReminderException;
+import mortalreminder.tasks.Deadline;
+import mortalreminder.tasks.Event;
+import mortalreminder.tasks.Task;
+import mortalreminder.tasks.ToDo;
+
+public class TransferFormatTest {
+
+    private static String roundTrip(TransferFormat format, Task task) throws IOException, MortalReminderException {
+        StringWriter writer = new StringWriter();
+        format.writeHeader(writer);
+        format.writeTask(writer, task);
+        format.writeFooter(writer);
+
+        BufferedReader reader = new BufferedReader(new StringReader(writer.toString()));
+        String storageLine = format.toStorageLine(format.readRecord(reader));
+        assertNull(format.readRecord(reader));
+        return storageLine;
+    }
+
+    @Test
+    public void roundTrip_jsonLines_allFieldsKept() throws IOException, MortalReminderException {
+        Task event = new Event("talk \"AI\", part 2", "2024-09-19T14:00", "2024-09-19T15:00", true);
+        assertEquals(event.convertToFileFormat(), roundTrip(TransferFormat.JSON_LINES, event));
+    }
+
+    @Test
+    public void roundTrip_csv_quotedDescriptionKept() throws IOException, MortalReminderException {
+        Task toDo = new ToDo("read \"book\", then sleep", false);
+        assertEquals(toDo.convertToFileFormat(), roundTrip(TransferFormat.CSV, toDo));
+    }
+
+    @Test
+    public void roundTrip_iCalendar_deadlineKept() throws IOException, MortalReminderException {
+        Task deadline = new Deadline("submit; report", "2024-09-19T18:00", true);
+        assertEquals(deadline.convertToFileFormat(), roundTrip(TransferFormat.ICALENDAR, deadline));
+    }
+
+    @Test
+    public void writeTask_iCalendarToDo_skipped() throws IOException, MortalReminderException {
+        assertFalse(TransferFormat.ICALENDAR.writeTask(new StringWriter(), new ToDo("read book", false)));
+    }
+
+    @Test
+    public void toStorageLine_iCalendarFoldedAllDayEvent_parsed() throws IOException, MortalReminderException {
+        String calendar = "BEGIN:VCALENDAR\r\nBEGIN:VEVENT\r\nDTSTART;VALUE=DATE:20240919\r\n"
+                + "DTEND;VALUE=DATE:20240920\r\nSUMMARY:team\r\n  outing\r\nEND:VEVENT\r\nEND:VCALENDAR\r\n";
+        BufferedReader reader = new BufferedReader(new StringReader(calendar));
+        assertEquals("E|false|team outing|2024-09-19T00:00|2024-09-20T00:00",
+                TransferFormat.ICALENDAR.toStorageLine(TransferFormat.ICALENDAR.readRecord(reader)));
+    }
+
+    @Test
+    public void toStorageLine_missingField_exceptionThrown() {
+        try {
+            TransferFormat.JSON_LINES.toStorageLine("{\"type\":\"D\",\"done\":false,\"description\":\"essay\"}");
+            fail();
+        } catch (MortalReminderException e) {
+            assertEquals(MortalReminderException.getInvalidImportRecordErrorMessage(), e.getMessage());
+        }
+    }
+
+    @Test
+    public void fromFileName_unknownExtension_exceptionThrown() {
+        try {
+            TransferFormat.fromFileName("tasks.txt");
+            fail();
+        } catch (MortalReminderException e) {
+            assertEquals(MortalReminderException.getInvalidTransferFileErrorMessage(), e.getMessage());
+        }
+    }
+}
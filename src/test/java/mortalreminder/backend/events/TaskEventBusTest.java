@@ -0,0 +1,136 @@
+package mortalreminder.backend.events;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+import mortalreminder.errorhandling.MortalReminderException;
+
+public class TaskEventBusTest {
+
+    @Test
+    public void publish_moreEventsThanRingSize_deliveredInOrder() throws MortalReminderException {
+        TaskEventBus bus = new TaskEventBus();
+        ArrayList<Integer> received = new ArrayList<>();
+        bus.subscribe(events -> {
+            for (TaskEvent event : events) {
+                received.add(((TaskEvent.TaskRemoved) event).index());
+            }
+        });
+
+        int eventCount = TaskEventBus.RING_SIZE * 5;
+        for (int i = 0; i < eventCount; i++) {
+            bus.publish(new TaskEvent.TaskRemoved("test", i, null, null));
+        }
+        bus.flush();
+
+        assertEquals(eventCount, received.size());
+        for (int i = 0; i < eventCount; i++) {
+            assertEquals(i, (int) received.get(i));
+        }
+    }
+
+    @Test
+    public void flush_subscriberFailed_errorReported() {
+        TaskEventBus bus = new TaskEventBus();
+        bus.subscribe(events -> {
+            throw new MortalReminderException(MortalReminderException.getStorageFileCorruptedErrorMessage());
+        });
+
+        try {
+            bus.publish(new TaskEvent.TasksCleared("test"));
+            bus.flush();
+            fail();
+        } catch (MortalReminderException e) {
+            assertEquals(MortalReminderException.getStorageFileCorruptedErrorMessage(), e.getMessage());
+        }
+    }
+
+    @Test
+    public void publishAll_moreEventsThanRingToFailingSubscriber_errorThrownInsteadOfWaiting() {
+        TaskEventBus bus = new TaskEventBus();
+        bus.subscribe(events -> {
+            throw new MortalReminderException(MortalReminderException.getStorageFileCorruptedErrorMessage());
+        });
+        ArrayList<TaskEvent> events = new ArrayList<>();
+        for (int i = 0; i < TaskEventBus.RING_SIZE * 3; i++) {
+            events.add(new TaskEvent.TaskRemoved("test", i, null, null));
+        }
+
+        MortalReminderException e = assertTimeoutPreemptively(Duration.ofSeconds(10), () ->
+                assertThrows(MortalReminderException.class, () -> bus.publishAll(events)));
+        assertEquals(MortalReminderException.getStorageFileCorruptedErrorMessage(), e.getMessage());
+    }
+
+    @Test
+    public void flush_subscriberFailsUntilRecovered_batchRetriedAndErrorKeptUntilThen() throws Exception {
+        TaskEventBus bus = new TaskEventBus();
+        AtomicBoolean isFailing = new AtomicBoolean(true);
+        List<TaskEvent> received = new ArrayList<>();
+        bus.subscribe(events -> {
+            if (isFailing.get()) {
+                throw new MortalReminderException(MortalReminderException.getStorageFileCorruptedErrorMessage());
+            }
+            received.addAll(events);
+        });
+        try {
+            bus.publish(new TaskEvent.TasksCleared("test"));
+        } catch (MortalReminderException e) {
+            // the subscriber may already have failed on the event by the time publishing returns
+        }
+
+        // the error is not cleared by reporting it
+        for (int i = 0; i < 3; i++) {
+            try {
+                bus.flush();
+                fail();
+            } catch (MortalReminderException e) {
+                assertEquals(MortalReminderException.getStorageFileCorruptedErrorMessage(), e.getMessage());
+            }
+        }
+        try {
+            bus.checkFailure();
+            fail();
+        } catch (MortalReminderException e) {
+            assertEquals(MortalReminderException.getStorageFileCorruptedErrorMessage(), e.getMessage());
+        }
+
+        isFailing.set(false);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (true) {
+            try {
+                bus.flush();
+                break;
+            } catch (MortalReminderException e) {
+                if (System.nanoTime() > deadline) {
+                    fail();
+                }
+                Thread.sleep(10);
+            }
+        }
+        bus.checkFailure();
+        assertEquals(List.of(new TaskEvent.TasksCleared("test")), received);
+    }
+
+    @Test
+    public void subscribe_lateSubscriber_onlyReceivesNewEvents() throws MortalReminderException {
+        TaskEventBus bus = new TaskEventBus();
+        bus.publish(new TaskEvent.TasksCleared("before"));
+
+        List<TaskEvent> received = new ArrayList<>();
+        bus.subscribe(received::addAll);
+        bus.publish(new TaskEvent.TasksCleared("after"));
+        bus.flush();
+
+        assertEquals(List.of(new TaskEvent.TasksCleared("after")), received);
+    }
+}
@@ -0,0 +1,119 @@
+package mortalreminder.backend.tasklistmanager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import mortalreminder.errorhandling.MortalReminderException;
+import mortalreminder.tasks.Deadline;
+import mortalreminder.tasks.Event;
+import mortalreminder.tasks.RecurringTask;
+import mortalreminder.tasks.Task;
+import mortalreminder.tasks.ToDo;
+
+public class AgendaIndexTest {
+    private static final LocalDate MONDAY = LocalDate.of(2024, 9, 16);
+
+    private AgendaIndex agendaIndex;
+    private Task report;
+    private Task conference;
+    private Task gym;
+
+    @BeforeEach
+    public void setUp() throws MortalReminderException {
+        agendaIndex = new AgendaIndex();
+        report = new Deadline("report", "2024-09-18T18:00", false);
+        conference = new Event("conference", "2024-09-17T09:00", "2024-09-19T00:00", false);
+        gym = new RecurringTask("gym", "WEDNESDAY", "07:30", "2024-01-03T07:30", false);
+        for (Task task : List.of(new ToDo("laundry", false), report, conference, gym,
+                new Deadline("taxes", "2024-10-01T12:00", false))) {
+            agendaIndex.addTask(task);
+        }
+    }
+
+    @Test
+    public void getAgenda_week_tasksGroupedByDayInTimeOrder() {
+        TreeMap<LocalDate, List<AgendaIndex.AgendaItem>> agenda = agendaIndex.getAgenda(MONDAY, MONDAY.plusDays(6));
+
+        // the conference ends at midnight, so it does not reach into Thursday
+        assertEquals(List.of(MONDAY.plusDays(1), MONDAY.plusDays(2)), List.copyOf(agenda.keySet()));
+        assertEquals(List.of(conference), getTasks(agenda, MONDAY.plusDays(1)));
+        assertEquals(List.of(conference, gym, report), getTasks(agenda, MONDAY.plusDays(2)));
+        // the recurring task is on the agenda at its occurrence that day, not at its next one
+        assertEquals(MONDAY.plusDays(2).atTime(7, 30), agenda.get(MONDAY.plusDays(2)).get(1).time());
+    }
+
+    @Test
+    public void getAgenda_tasksRemoved_leaveTheirDays() {
+        agendaIndex.removeTask(conference);
+        agendaIndex.removeTask(gym);
+        TreeMap<LocalDate, List<AgendaIndex.AgendaItem>> agenda = agendaIndex.getAgenda(MONDAY, MONDAY.plusDays(6));
+        assertEquals(List.of(MONDAY.plusDays(2)), List.copyOf(agenda.keySet()));
+        assertEquals(List.of(report), getTasks(agenda, MONDAY.plusDays(2)));
+
+        agendaIndex.clear();
+        assertTrue(agendaIndex.getAgenda(MONDAY, MONDAY.plusMonths(1)).isEmpty());
+    }
+
+    @Test
+    public void getAgenda_eventLastingCenturies_onEveryDayOfRangeOnly() throws MortalReminderException {
+        Task typo = new Event("typo", "2024-09-18T09:00", "9999-01-01T00:00", false);
+        agendaIndex.addTask(typo);
+
+        LocalDate farAway = MONDAY.plusYears(100);
+        TreeMap<LocalDate, List<AgendaIndex.AgendaItem>> agenda = agendaIndex.getAgenda(farAway, farAway);
+        assertEquals(List.of(typo), getTasks(agenda, farAway));
+        agenda = agendaIndex.getAgenda(MONDAY, MONDAY.plusDays(6));
+        assertEquals(List.of(MONDAY.plusDays(1), MONDAY.plusDays(2), MONDAY.plusDays(3), MONDAY.plusDays(4),
+                MONDAY.plusDays(5), MONDAY.plusDays(6)), List.copyOf(agenda.keySet()));
+        assertEquals(List.of(typo), getTasks(agenda, MONDAY.plusDays(6)));
+
+        agendaIndex.removeTask(typo);
+        assertTrue(agendaIndex.getAgenda(farAway, farAway).isEmpty());
+    }
+
+    @Test
+    public void getAgenda_manyMultiDayEvents_onlyOverlappingOnesOnEachDay() throws MortalReminderException {
+        agendaIndex.clear();
+        ArrayList<Event> events = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            LocalDate firstDay = MONDAY.plusDays(i * 7L % 365);
+            LocalDate lastDay = firstDay.plusDays(1 + i % 13);
+            events.add(new Event("event " + i, firstDay.atTime(9, 0).toString(), lastDay.atTime(17, 0).toString(),
+                    false));
+        }
+        for (Event event : events) {
+            agendaIndex.addTask(event);
+        }
+        for (int i = 0; i < events.size(); i += 3) {
+            agendaIndex.removeTask(events.get(i));
+        }
+
+        LocalDate from = MONDAY.plusDays(100);
+        LocalDate to = from.plusDays(6);
+        TreeMap<LocalDate, List<AgendaIndex.AgendaItem>> agenda = agendaIndex.getAgenda(from, to);
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            HashSet<Task> expected = new HashSet<>();
+            for (int i = 0; i < events.size(); i++) {
+                Event event = events.get(i);
+                if (i % 3 != 0 && !event.getDueDate().toLocalDate().isAfter(day)
+                        && !event.getToTime().toLocalDate().isBefore(day)) {
+                    expected.add(event);
+                }
+            }
+            assertEquals(expected, new HashSet<>(getTasks(agenda, day)));
+        }
+    }
+
+    private static List<Task> getTasks(TreeMap<LocalDate, List<AgendaIndex.AgendaItem>> agenda, LocalDate day) {
+        return agenda.get(day).stream().map(AgendaIndex.AgendaItem::task).toList();
+    }
+}
@@ -0,0 +1,65 @@
+package mortalreminder.backend.tasklistmanager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import mortalreminder.errorhandling.MortalReminderException;
+import mortalreminder.tasks.Task;
+import mortalreminder.tasks.ToDo;
+
+public class DescriptionIndexTest {
+    private DescriptionIndex descriptionIndex;
+    private Task readBook;
+    private Task submitReport;
+
+    @BeforeEach
+    public void setUp() throws MortalReminderException {
+        descriptionIndex = new DescriptionIndex();
+        readBook = new ToDo("read book");
+        submitReport = new ToDo("submit report");
+        descriptionIndex.addTask(readBook);
+        descriptionIndex.addTask(submitReport);
+        descriptionIndex.addTask(new ToDo("pay rent"));
+    }
+
+    @Test
+    public void search_typo_closestTaskFound() {
+        assertEquals(List.of(submitReport), descriptionIndex.search("reprot", 10));
+        assertEquals(List.of(readBook), descriptionIndex.search("raed bok", 10));
+    }
+
+    @Test
+    public void search_moreMatchingTermsRankedFirst() throws MortalReminderException {
+        Task readReport = new ToDo("read report");
+        descriptionIndex.addTask(readReport);
+        List<Task> results = descriptionIndex.search("read reprot", 10);
+        assertEquals(readReport, results.get(0));
+        assertEquals(3, results.size());
+        assertEquals(1, descriptionIndex.search("read reprot", 1).size());
+    }
+
+    @Test
+    public void search_removedTask_notFound() {
+        descriptionIndex.removeTask(submitReport);
+        assertTrue(descriptionIndex.search("report", 10).isEmpty());
+    }
+
+    @Test
+    public void search_tooManyEdits_notFound() {
+        assertTrue(descriptionIndex.search("xyzzy", 10).isEmpty());
+        assertTrue(descriptionIndex.search("rnxx", 10).isEmpty());
+    }
+
+    @Test
+    public void getBoundedEditDistance_success() {
+        assertEquals(0, DescriptionIndex.getBoundedEditDistance("book", "book", 2));
+        assertEquals(1, DescriptionIndex.getBoundedEditDistance("bok", "book", 2));
+        assertEquals(2, DescriptionIndex.getBoundedEditDistance("reprot", "report", 2));
+        assertEquals(3, DescriptionIndex.getBoundedEditDistance("abcdef", "uvwxyz", 2));
+    }
+}
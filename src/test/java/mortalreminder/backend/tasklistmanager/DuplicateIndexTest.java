@@ -0,0 +1,67 @@
+package mortalreminder.backend.tasklistmanager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import mortalreminder.errorhandling.MortalReminderException;
+import mortalreminder.tasks.Deadline;
+import mortalreminder.tasks.Task;
+import mortalreminder.tasks.ToDo;
+
+public class DuplicateIndexTest {
+    private DuplicateIndex duplicateIndex;
+    private Task milk;
+    private Task report;
+
+    @BeforeEach
+    public void setUp() throws MortalReminderException {
+        duplicateIndex = new DuplicateIndex();
+        milk = new ToDo("buy milk", false);
+        report = new Deadline("submit report", "2024-09-20T18:00", false);
+        for (Task task : List.of(milk, report, new ToDo("call mum", false))) {
+            duplicateIndex.addTask(task);
+        }
+    }
+
+    @Test
+    public void findDuplicates_sameDescriptionDifferentCase_found() {
+        assertEquals(List.of(milk), duplicateIndex.findDuplicates("Buy  MILK!"));
+        assertEquals(List.of(report), duplicateIndex.findDuplicates("submit report"));
+        assertTrue(duplicateIndex.findDuplicates("water the plants").isEmpty());
+    }
+
+    @Test
+    public void findDuplicates_doneOrDeletedTasks_notFound() throws MortalReminderException {
+        milk.markDone();
+        duplicateIndex.updateTask(milk);
+        duplicateIndex.removeTask(report);
+        assertTrue(duplicateIndex.findDuplicates("buy milk").isEmpty());
+        assertTrue(duplicateIndex.findDuplicates("submit report").isEmpty());
+
+        milk.markUndone();
+        duplicateIndex.updateTask(milk);
+        assertEquals(List.of(milk), duplicateIndex.findDuplicates("buy milk"));
+    }
+
+    @Test
+    public void findDuplicates_manyTasksAddedAndRemoved_onlyOpenCopiesFound() throws MortalReminderException {
+        ArrayList<Task> copies = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            Task task = new ToDo(i % 2 == 0 ? "read chapter " + i : "buy milk", false);
+            copies.add(task);
+            duplicateIndex.addTask(task);
+        }
+        for (Task copy : copies) {
+            if (copy.getRawDescription().equals("buy milk")) {
+                duplicateIndex.removeTask(copy);
+            }
+        }
+        assertEquals(List.of(milk), duplicateIndex.findDuplicates("buy milk"));
+    }
+}
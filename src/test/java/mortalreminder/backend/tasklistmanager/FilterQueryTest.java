@@ -0,0 +1,70 @@
+package mortalreminder.backend.tasklistmanager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import mortalreminder.errorhandling.MortalReminderException;
+import mortalreminder.tasks.Deadline;
+import mortalreminder.tasks.Task;
+import mortalreminder.tasks.ToDo;
+
+public class FilterQueryTest {
+    private TagIndex tagIndex;
+    private Task report;
+    private Task gym;
+    private Task slides;
+
+    @BeforeEach
+    public void setUp() throws MortalReminderException {
+        tagIndex = new TagIndex();
+        report = new ToDo("report #work", true);
+        gym = new ToDo("gym #Health", false);
+        slides = new Deadline("slides #work #urgent", "2024-09-19T18:00", false);
+        tagIndex.addTask(report);
+        tagIndex.addTask(gym);
+        tagIndex.addTask(slides);
+    }
+
+    private List<Task> filter(String query) throws MortalReminderException {
+        return new ArrayList<>(tagIndex.getTasks(FilterQuery.evaluate(query, tagIndex)));
+    }
+
+    @Test
+    public void evaluate_andNot_doneTasksExcluded() throws MortalReminderException {
+        assertEquals(List.of(slides), filter("#work AND NOT #done"));
+    }
+
+    @Test
+    public void evaluate_orWithBrackets_listOrderKept() throws MortalReminderException {
+        assertEquals(List.of(report, gym, slides), filter("(#health OR #urgent) or done"));
+    }
+
+    @Test
+    public void evaluate_typeAndImplicitAnd_matched() throws MortalReminderException {
+        assertEquals(List.of(gym), filter("type:t NOT done"));
+    }
+
+    @Test
+    public void evaluate_taskMarkedAndRemoved_indexUpdated() throws MortalReminderException {
+        slides.markDone();
+        tagIndex.updateTask(slides);
+        tagIndex.removeTask(report);
+        assertEquals(List.of(slides), filter("done"));
+    }
+
+    @Test
+    public void evaluate_danglingOperator_exceptionThrown() {
+        try {
+            FilterQuery.evaluate("#work AND", tagIndex);
+            fail();
+        } catch (MortalReminderException e) {
+            assertEquals(MortalReminderException.getInvalidFilterQueryErrorMessage(), e.getMessage());
+        }
+    }
+}
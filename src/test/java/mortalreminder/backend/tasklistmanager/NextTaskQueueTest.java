@@ -0,0 +1,94 @@
+package mortalreminder.backend.tasklistmanager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import mortalreminder.errorhandling.MortalReminderException;
+import mortalreminder.tasks.Deadline;
+import mortalreminder.tasks.Priority;
+import mortalreminder.tasks.Task;
+import mortalreminder.tasks.ToDo;
+
+public class NextTaskQueueTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 9, 1, 12, 0);
+
+    private NextTaskQueue queue;
+    private Task laundry;
+    private Task report;
+    private Task slides;
+    private Task taxes;
+
+    @BeforeEach
+    public void setUp() throws MortalReminderException {
+        queue = new NextTaskQueue();
+        laundry = new ToDo("laundry", false);
+        report = new Deadline("report", "2024-09-20T18:00", false);
+        slides = new Deadline("slides", "2024-09-19T18:00", false);
+        taxes = new ToDo("taxes", false);
+        taxes.setPriority(Priority.HIGH);
+        for (Task task : List.of(laundry, report, slides, taxes)) {
+            queue.addTask(task);
+        }
+    }
+
+    @Test
+    public void getNextTasks_priorityThenDueDate_ordered() {
+        assertEquals(List.of(taxes, slides, report, laundry), queue.getNextTasks(10, NOW));
+        // popping does not lose any task
+        assertEquals(List.of(taxes, slides), queue.getNextTasks(2, NOW));
+        assertEquals(4, queue.getSize());
+    }
+
+    @Test
+    public void updateTask_priorityRaised_movedUp() {
+        report.setPriority(Priority.HIGH);
+        queue.updateTask(report);
+        assertEquals(List.of(report, taxes), queue.getNextTasks(2, NOW));
+    }
+
+    @Test
+    public void updateTask_markedDoneAndUndone_leavesAndReturns() throws MortalReminderException {
+        taxes.markDone();
+        queue.updateTask(taxes);
+        assertEquals(List.of(slides), queue.getNextTasks(1, NOW));
+
+        taxes.markUndone();
+        queue.updateTask(taxes);
+        assertEquals(List.of(taxes), queue.getNextTasks(1, NOW));
+    }
+
+    @Test
+    public void removeTask_randomChanges_sameAsSorting() throws MortalReminderException {
+        queue.clear();
+        Random random = new Random(42);
+        ArrayList<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            Task task = new ToDo("task " + i, false);
+            task.setPriority(Priority.values()[random.nextInt(Priority.values().length)]);
+            tasks.add(task);
+            queue.addTask(task);
+        }
+        for (int i = 0; i < 200; i++) {
+            Task task = tasks.get(random.nextInt(tasks.size()));
+            if (random.nextBoolean()) {
+                queue.removeTask(task);
+                tasks.remove(task);
+            } else {
+                task.setPriority(Priority.values()[random.nextInt(Priority.values().length)]);
+                queue.updateTask(task);
+            }
+        }
+
+        // a stable sort keeps the tasks of the same priority in the order they were added
+        ArrayList<Task> expected = new ArrayList<>(tasks);
+        expected.sort((first, second) -> first.getPriority().compareTo(second.getPriority()));
+        assertEquals(expected.subList(0, 20), queue.getNextTasks(20, NOW));
+    }
+}
@@ -0,0 +1,91 @@
+package mortalreminder.backend.tasklistmanager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import mortalreminder.errorhandling.MortalReminderException;
+import mortalreminder.tasks.Deadline;
+import mortalreminder.tasks.Event;
+import mortalreminder.tasks.Task;
+import mortalreminder.tasks.ToDo;
+
+public class QueryPlannerTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 10, 1, 12, 0);
+    private static final String[] WORDS = {"report", "rent", "gym", "standup", "review"};
+
+    @Test
+    public void parse_impliedAnd_termsParsed() throws MortalReminderException {
+        QueryPredicate predicate = FindQuery.parse("type:d done:false due<2026-12-01 \"Pay Rent\"");
+        assertEquals("(type:D AND done:false AND due<2026-12-01 AND \"pay rent\")", predicate.describe());
+        assertEquals("(#work OR NOT \"gym\")", FindQuery.parse("#work OR NOT gym").describe());
+    }
+
+    @Test
+    public void parse_malformedQuery_exceptionThrown() {
+        assertThrows(MortalReminderException.class, () -> FindQuery.parse("type:X"));
+        assertThrows(MortalReminderException.class, () -> FindQuery.parse("due<tomorrow"));
+        assertThrows(MortalReminderException.class, () -> FindQuery.parse("(done:true"));
+        assertThrows(MortalReminderException.class, () -> FindQuery.parse("\"report"));
+    }
+
+    @Test
+    public void isStructured_plainWords_false() {
+        assertFalse(FindQuery.isStructured("pay rent"));
+        assertTrue(FindQuery.isStructured("pay done:false"));
+        assertTrue(FindQuery.isStructured("\"pay rent\""));
+    }
+
+    @Test
+    public void plan_selectiveBitmap_bitmapChosen() throws MortalReminderException {
+        TaskList taskList = new TaskList();
+        for (int i = 0; i < 100; i++) {
+            taskList.loadTask(new ToDo("gym " + i, false));
+        }
+        taskList.loadTask(new Deadline("report", "2026-11-01T18:00", false));
+
+        QueryPlanner.QueryPlan plan = QueryPlanner.plan(FindQuery.parse("type:D gym"), taskList, NOW);
+        assertEquals(QueryPlanner.AccessPathKind.BITMAP_INDEX, plan.getChosenPath().kind());
+        assertEquals((int) 1, (int) QueryPlanner.execute(plan, taskList, NOW).examinedRows());
+    }
+
+    @Test
+    public void execute_randomQueries_sameAsScan() throws MortalReminderException {
+        Random random = new Random(3);
+        TaskList taskList = new TaskList();
+        for (int i = 0; i < 500; i++) {
+            String description = WORDS[random.nextInt(WORDS.length)] + (random.nextBoolean() ? " #work" : "");
+            String date = NOW.plusDays(random.nextInt(120)).toString();
+            if (i % 3 == 0) {
+                taskList.loadTask(new ToDo(description, random.nextBoolean()));
+            } else if (i % 3 == 1) {
+                taskList.loadTask(new Deadline(description, date, random.nextBoolean()));
+            } else {
+                taskList.loadTask(new Event(description, date, date, random.nextBoolean()));
+            }
+        }
+        taskList.getSortedView(SortOrder.DUE);
+
+        List<String> queries = List.of("type:D done:false", "\"rent\" due<2026-11-15", "due>=01-12-2026 #work",
+                "review OR gym", "NOT done:true \"repo\"", "due=2026-10-20");
+        for (String query : queries) {
+            QueryPredicate predicate = FindQuery.parse(query);
+            ArrayList<Task> expected = new ArrayList<>();
+            for (Task task : taskList.getTaskList()) {
+                if (predicate.matches(task, NOW)) {
+                    expected.add(task);
+                }
+            }
+            QueryPlanner.QueryPlan plan = QueryPlanner.plan(predicate, taskList, NOW);
+            assertEquals(expected, QueryPlanner.execute(plan, taskList, NOW).tasks());
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package mortalreminder.backend.tasklistmanager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import mortalreminder.errorhandling.MortalReminderException;
+import mortalreminder.tasks.Deadline;
+import mortalreminder.tasks.Task;
+import mortalreminder.tasks.ToDo;
+
+public class SortedTaskViewTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 9, 1, 12, 0);
+
+    @Test
+    public void getTasks_dueOrder_undatedTasksLast() throws MortalReminderException {
+        SortedTaskView view = new SortedTaskView(SortOrder.DUE);
+        Task laundry = new ToDo("laundry", false);
+        Task report = new Deadline("report", "2024-09-20T18:00", false);
+        Task slides = new Deadline("slides", "2024-09-19T18:00", false);
+        for (Task task : List.of(laundry, report, slides)) {
+            view.addTask(task);
+        }
+        assertEquals(List.of(slides, report, laundry), view.getTasks(0, 10, NOW));
+        assertEquals(List.of(report), view.getTasks(1, 1, NOW));
+    }
+
+    @Test
+    public void getTasks_statusChanged_taskMoved() throws MortalReminderException {
+        SortedTaskView view = new SortedTaskView(SortOrder.STATUS);
+        Task first = new ToDo("first", false);
+        Task second = new ToDo("second", false);
+        view.addTask(first);
+        view.addTask(second);
+
+        first.markDone();
+        view.updateTask(first);
+        assertEquals(List.of(second, first), view.getTasks(0, 2, NOW));
+    }
+
+    @Test
+    public void getTasks_randomChanges_sameAsSorting() throws MortalReminderException {
+        SortedTaskView view = new SortedTaskView(SortOrder.DESCRIPTION);
+        Random random = new Random(7);
+        ArrayList<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            Task task = new ToDo("task " + random.nextInt(500), false);
+            tasks.add(task);
+            view.addTask(task);
+        }
+        for (int i = 0; i < 500; i++) {
+            Task task = tasks.remove(random.nextInt(tasks.size()));
+            view.removeTask(task);
+        }
+
+        // a stable sort keeps tasks with the same description in the order they were added
+        ArrayList<Task> expected = new ArrayList<>(tasks);
+        expected.sort(Comparator.comparing(Task::getRawDescription));
+        assertEquals(expected, view.getTasks(0, expected.size(), NOW));
+        assertEquals(expected.subList(1000, 1020), view.getTasks(1000, 20, NOW));
+        assertEquals(List.of(), view.getTasks(expected.size(), 20, NOW));
+    }
+}
@@ -0,0 +1,47 @@
+package mortalreminder.backend.tasklistmanager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import mortalreminder.errorhandling.MortalReminderException;
+import mortalreminder.tasks.Task;
+import mortalreminder.tasks.ToDo;
+
+public class TagIndexTest {
+
+    @Test
+    public void removeTask_mostTasksRemoved_idsCompactedInListOrder() throws MortalReminderException {
+        TagIndex tagIndex = new TagIndex();
+        ArrayList<Task> kept = new ArrayList<>();
+        ArrayList<Task> removed = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            Task task = new ToDo("task " + i + (i % 2 == 0 ? " #even" : " #odd"), i % 3 == 0);
+            tagIndex.addTask(task);
+            (i % 10 == 9 ? kept : removed).add(task);
+        }
+        for (Task task : removed) {
+            tagIndex.removeTask(task);
+        }
+
+        // the ids of the tasks left no longer span the whole list they were added to
+        for (Task task : kept) {
+            assertTrue(tagIndex.getId(task) < 2 * kept.size());
+        }
+        assertEquals(kept, tagIndex.getTasks(tagIndex.getAllTasks()));
+        assertEquals(kept, tagIndex.getTasks(tagIndex.getTasksWithTag("odd")));
+        assertEquals(kept.stream().filter(Task::getIsDone).toList(), tagIndex.getTasks(tagIndex.getDoneTasks()));
+        for (int i = 0; i < kept.size(); i++) {
+            assertEquals(i, tagIndex.getListIndex(kept.get(i)));
+        }
+
+        Task added = new ToDo("task added #even", false);
+        tagIndex.addTask(added);
+        assertEquals(List.of(added), tagIndex.getTasks(tagIndex.getTasksWithTag("even")));
+        assertEquals(kept.size(), tagIndex.getListIndex(added));
+    }
+}
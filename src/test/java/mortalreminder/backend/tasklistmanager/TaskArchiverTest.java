@@ -0,0 +1,70 @@
+package mortalreminder.backend.tasklistmanager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import mortalreminder.backend.TaskArchiveStorage;
+import mortalreminder.backend.events.TaskEventBus;
+import mortalreminder.errorhandling.MortalReminderException;
+import mortalreminder.tasks.Deadline;
+import mortalreminder.tasks.Task;
+import mortalreminder.tasks.ToDo;
+
+public class TaskArchiverTest {
+    private Path dataDirectory;
+    private TaskList taskList;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        dataDirectory = Files.createTempDirectory("archiver");
+        taskList = new TaskList(dataDirectory.resolve("tasks.txt").toString());
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException, MortalReminderException {
+        TaskEventBus.getInstance().flush();
+        try (Stream<Path> paths = Files.walk(dataDirectory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Test
+    public void archiveCompletedTasks_doneAndOldTasks_movedToArchive() throws MortalReminderException {
+        String lastMonth = LocalDateTime.now().minusMonths(1).withNano(0).toString();
+        String tomorrow = LocalDateTime.now().plusDays(1).withNano(0).toString();
+        Task milk = new ToDo("buy milk", true);
+        Task oldReport = new Deadline("submit old report", lastMonth, true);
+        Task newReport = new Deadline("submit new report", tomorrow, true);
+        Task mum = new ToDo("call mum", false);
+        for (Task task : List.of(milk, oldReport, newReport, mum)) {
+            taskList.addTask(task);
+        }
+
+        TaskArchiver.archiveCompletedTasks(taskList, 7);
+        assertEquals(List.of(newReport, mum), taskList.getTaskList());
+
+        String archiveFilePath = TaskArchiveStorage.getArchiveFilePath(taskList.getStorageFilePath());
+        assertEquals(List.of(milk.convertToFileFormat(), oldReport.convertToFileFormat()),
+                TaskArchiveStorage.searchArchive(archiveFilePath, task -> true).stream()
+                        .map(Task::convertToFileFormat).toList());
+        TaskArchiver.executeArchiveCommand("search report", taskList);
+
+        MortalReminderException e = assertThrows(MortalReminderException.class, () ->
+                TaskArchiver.archiveCompletedTasks(taskList, 7));
+        assertEquals(MortalReminderException.getNothingToArchiveErrorMessage(), e.getMessage());
+    }
+}
@@ -0,0 +1,82 @@
+package mortalreminder.backend.tasklistmanager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+public class TaskBitmapTest {
+
+    private static List<Integer> toList(TaskBitmap bitmap) {
+        ArrayList<Integer> ids = new ArrayList<>();
+        bitmap.forEach(ids::add);
+        return ids;
+    }
+
+    /**
+     * Fills a bitmap and a reference set with the same ids, mixing sparse and dense chunks.
+     */
+    private static TaskBitmap fill(Random random, TreeSet<Integer> reference) {
+        TaskBitmap bitmap = new TaskBitmap();
+        for (int i = 0; i < 20000; i++) {
+            int id = random.nextBoolean() ? random.nextInt(10000) : random.nextInt(300000);
+            bitmap.add(id);
+            reference.add(id);
+        }
+        return bitmap;
+    }
+
+    @Test
+    public void addAndRemove_sameAsReferenceSet() {
+        Random random = new Random(1);
+        TreeSet<Integer> reference = new TreeSet<>();
+        TaskBitmap bitmap = fill(random, reference);
+        for (int i = 0; i < 15000; i++) {
+            int id = random.nextInt(10000);
+            bitmap.remove(id);
+            reference.remove(id);
+        }
+
+        assertEquals(new ArrayList<>(reference), toList(bitmap));
+        assertEquals(reference.size(), bitmap.getCardinality());
+        assertTrue(bitmap.contains(reference.first()));
+        assertFalse(bitmap.contains(-1 >>> 1));
+    }
+
+    @Test
+    public void setOperations_sameAsReferenceSet() {
+        Random random = new Random(2);
+        TreeSet<Integer> first = new TreeSet<>();
+        TreeSet<Integer> second = new TreeSet<>();
+        TaskBitmap firstBitmap = fill(random, first);
+        TaskBitmap secondBitmap = fill(random, second);
+
+        TreeSet<Integer> intersection = new TreeSet<>(first);
+        intersection.retainAll(second);
+        TreeSet<Integer> union = new TreeSet<>(first);
+        union.addAll(second);
+        TreeSet<Integer> difference = new TreeSet<>(first);
+        difference.removeAll(second);
+
+        assertEquals(new ArrayList<>(intersection), toList(firstBitmap.and(secondBitmap)));
+        assertEquals(new ArrayList<>(union), toList(firstBitmap.or(secondBitmap)));
+        assertEquals(new ArrayList<>(difference), toList(firstBitmap.andNot(secondBitmap)));
+    }
+
+    @Test
+    public void rank_sameAsReferenceSet() {
+        Random random = new Random(4);
+        TreeSet<Integer> reference = new TreeSet<>();
+        TaskBitmap bitmap = fill(random, reference);
+        for (int i = 0; i < 1000; i++) {
+            int id = random.nextInt(320000);
+            assertEquals(reference.headSet(id).size(), bitmap.rank(id));
+        }
+    }
+}
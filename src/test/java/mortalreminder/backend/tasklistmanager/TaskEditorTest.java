@@ -12,6 +12,7 @@ import org.junit.jupiter.api.Test;
 import mortalreminder.backend.TaskListStorage;
 import mortalreminder.commands.CommandType;
 import mortalreminder.errorhandling.MortalReminderException;
+import mortalreminder.io.FormattedOutput;
 import mortalreminder.tasks.ToDoStub;
 
 public class TaskEditorTest {
@@ -107,4 +108,14 @@ public class TaskEditorTest {
             assertEquals(e.getMessage(), MortalReminderException.getInvalidNumberFormatErrorMessage());
         }
     }
+
+    @Test
+    public void executeMarkOrUnmark_cachedLineReplaced() throws MortalReminderException {
+        String unmarkedLine = FormattedOutput.printTask(toDoStub);
+        TaskEditor.executeMarkOrUnmark(testIndexString, taskListStub, CommandType.MARK);
+        assertEquals(unmarkedLine.replace("[ ]", "[X]"), FormattedOutput.printTask(toDoStub));
+
+        TaskEditor.executeSetPriority("1 high", taskListStub);
+        assertTrue(FormattedOutput.printTask(toDoStub).endsWith("(priority: high)"));
+    }
 }
@@ -0,0 +1,87 @@
+package mortalreminder.backend.tasklistmanager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Spliterator;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import mortalreminder.errorhandling.MortalReminderException;
+import mortalreminder.tasks.Task;
+import mortalreminder.tasks.ToDo;
+
+public class TaskListSpliteratorTest {
+
+    @Test
+    public void trySplit_belowTwiceMinimum_notSplit() throws MortalReminderException {
+        ArrayList<Task> tasks = createTasks(2 * TaskListSpliterator.MIN_SPLIT_SIZE);
+        Spliterator<Task> spliterator = new TaskListSpliterator(tasks, 1, tasks.size());
+        assertNull(spliterator.trySplit());
+        assertEquals(tasks.size() - 1, spliterator.estimateSize());
+    }
+
+    @Test
+    public void trySplit_largeRange_halvesCoverRangeExactly() throws MortalReminderException {
+        int origin = 3;
+        int fence = origin + 2 * TaskListSpliterator.MIN_SPLIT_SIZE + 1;
+        ArrayList<Task> tasks = createTasks(fence + 5);
+        Spliterator<Task> suffix = new TaskListSpliterator(tasks, origin, fence);
+        Spliterator<Task> prefix = suffix.trySplit();
+
+        assertEquals(TaskListSpliterator.MIN_SPLIT_SIZE, prefix.estimateSize());
+        assertEquals(TaskListSpliterator.MIN_SPLIT_SIZE + 1, suffix.estimateSize());
+        assertTrue(prefix.hasCharacteristics(Spliterator.ORDERED | Spliterator.SUBSIZED));
+        // neither half is large enough to split again
+        assertNull(prefix.trySplit());
+        assertNull(suffix.trySplit());
+
+        ArrayList<Task> scanned = new ArrayList<>();
+        prefix.forEachRemaining(scanned::add);
+        suffix.forEachRemaining(scanned::add);
+        assertEquals(tasks.subList(origin, fence), scanned);
+    }
+
+    @Test
+    public void estimateSize_afterTryAdvance_remainingCount() throws MortalReminderException {
+        ArrayList<Task> tasks = createTasks(3);
+        Spliterator<Task> spliterator = new TaskListSpliterator(tasks, 0, tasks.size());
+        ArrayList<Task> scanned = new ArrayList<>();
+
+        assertTrue(spliterator.tryAdvance(scanned::add));
+        assertEquals(2, spliterator.estimateSize());
+        assertTrue(spliterator.tryAdvance(scanned::add));
+        assertTrue(spliterator.tryAdvance(scanned::add));
+        assertEquals(0, spliterator.estimateSize());
+        assertFalse(spliterator.tryAdvance(scanned::add));
+        assertEquals(tasks, scanned);
+    }
+
+    @Test
+    public void stream_aboveParallelThreshold_parallelInListOrder() throws MortalReminderException {
+        TaskList taskList = new TaskList();
+        ArrayList<Task> tasks = createTasks(TaskList.PARALLEL_SCAN_THRESHOLD + 1000);
+        for (Task task : tasks) {
+            taskList.loadTask(task);
+        }
+
+        Stream<Task> stream = taskList.stream();
+        assertTrue(stream.isParallel());
+        assertEquals(tasks, stream.toList());
+        assertEquals(tasks.stream().filter(task -> task.getRawDescription().endsWith("7")).toList(),
+                taskList.stream().filter(task -> task.getRawDescription().endsWith("7")).toList());
+        assertFalse(new TaskList().stream().isParallel());
+    }
+
+    private static ArrayList<Task> createTasks(int count) throws MortalReminderException {
+        ArrayList<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            tasks.add(new ToDo("task " + i, false));
+        }
+        return tasks;
+    }
+}
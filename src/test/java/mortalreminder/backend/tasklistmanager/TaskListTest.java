@@ -1,13 +1,18 @@
 package mortalreminder.backend.tasklistmanager;
 
+import java.util.List;
+import java.util.Set;
+
 import mortalreminder.errorhandling.MortalReminderException;
 import mortalreminder.tasks.Task;
+import mortalreminder.tasks.ToDo;
 import mortalreminder.tasks.ToDoStub;
 
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.fail;
 
 public class TaskListTest {
@@ -50,4 +55,23 @@ public class TaskListTest {
             fail();
         }
     }
+
+    @Test
+    public void getTagIndex_builtAfterLoading_coversEarlierAndLaterTasks() throws MortalReminderException {
+        TaskList taskList = new TaskList();
+        Task milk = new ToDo("buy milk #shopping", false);
+        Task mum = new ToDo("call mum", false);
+        taskList.loadTask(milk);
+        taskList.loadTask(mum);
+
+        TagIndex tagIndex = taskList.getTagIndex();
+        assertSame(tagIndex, taskList.getTagIndex());
+        assertEquals(List.of(milk), tagIndex.getTasks(tagIndex.getTasksWithTag("shopping")));
+        assertEquals(1, tagIndex.getListIndex(mum));
+
+        Task bread = new ToDo("buy bread #shopping", false);
+        taskList.loadTask(bread);
+        assertEquals(List.of(milk, bread), tagIndex.getTasks(tagIndex.getTasksWithTag("shopping")));
+        assertEquals(Set.of(milk, bread), taskList.getDescriptionIndex().getTasksWithWordContaining("bu"));
+    }
 }
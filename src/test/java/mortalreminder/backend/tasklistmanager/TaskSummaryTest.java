@@ -0,0 +1,82 @@
+package mortalreminder.backend.tasklistmanager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import mortalreminder.errorhandling.MortalReminderException;
+import mortalreminder.tasks.Deadline;
+import mortalreminder.tasks.Event;
+import mortalreminder.tasks.RecurringTask;
+import mortalreminder.tasks.Task;
+import mortalreminder.tasks.ToDo;
+
+public class TaskSummaryTest {
+    private static final LocalDateTime TOMORROW = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.MINUTES);
+
+    private TaskSummary summary;
+    private Task overdueReport;
+    private Task dueTomorrow;
+
+    @BeforeEach
+    public void setUp() throws MortalReminderException {
+        summary = new TaskSummary();
+        overdueReport = new Deadline("report", "2020-01-01T18:00", false);
+        dueTomorrow = new Deadline("slides", TOMORROW.toString(), false);
+        summary.addTask(new ToDo("laundry", false));
+        summary.addTask(new ToDo("taxes", true));
+        summary.addTask(overdueReport);
+        summary.addTask(dueTomorrow);
+        summary.addTask(new Event("conference", "2020-02-01T09:00", "2020-02-01T17:00", true));
+        summary.addTask(new RecurringTask("gym", "MONDAY", "07:30", "2020-01-06T07:30", false));
+    }
+
+    @Test
+    public void getTaskCount_tasksMarkedAndDeleted_countsFollowChanges() throws MortalReminderException {
+        assertEquals((int) 6, (int) summary.getTaskCount());
+        assertEquals((int) 2, (int) summary.getTaskCount('D'));
+        assertEquals((int) 1, (int) summary.getDoneCount('T'));
+        assertEquals((int) 2, (int) summary.getDoneCount());
+
+        overdueReport.markDone();
+        summary.updateTask(overdueReport);
+        summary.removeTask(dueTomorrow);
+        assertEquals((int) 5, (int) summary.getTaskCount());
+        assertEquals((int) 1, (int) summary.getDoneCount('D'));
+        assertEquals((int) 1, (int) summary.getTaskCount('D'));
+
+        summary.clear();
+        assertEquals((int) 0, (int) summary.getTaskCount());
+        assertEquals((int) 0, (int) summary.getDoneCount());
+    }
+
+    @Test
+    public void tick_deadlinePassed_countedAsOverdueUntilDone() throws MortalReminderException {
+        // the recurring task and the event that is done are never overdue
+        assertEquals((int) 1, (int) summary.getOverdueCount());
+
+        summary.tick(TOMORROW.plusMinutes(1));
+        assertEquals((int) 2, (int) summary.getOverdueCount());
+
+        overdueReport.markDone();
+        summary.updateTask(overdueReport);
+        assertEquals((int) 1, (int) summary.getOverdueCount());
+        overdueReport.markUndone();
+        summary.updateTask(overdueReport);
+        assertEquals((int) 2, (int) summary.getOverdueCount());
+
+        summary.removeTask(dueTomorrow);
+        assertEquals((int) 1, (int) summary.getOverdueCount());
+    }
+
+    @Test
+    public void tick_taskDeletedBeforeDue_neverCountedAsOverdue() throws MortalReminderException {
+        summary.removeTask(dueTomorrow);
+        summary.tick(TOMORROW.plusMinutes(1));
+        assertEquals((int) 1, (int) summary.getOverdueCount());
+    }
+}
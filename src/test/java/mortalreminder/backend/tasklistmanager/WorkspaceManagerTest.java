@@ -0,0 +1,118 @@
+package mortalreminder.backend.tasklistmanager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import mortalreminder.backend.TaskListStorage;
+import mortalreminder.errorhandling.MortalReminderException;
+import mortalreminder.tasks.Task;
+import mortalreminder.tasks.ToDo;
+
+public class WorkspaceManagerTest {
+    private static final String PREFIX = "workspacemanagertest-";
+
+    private WorkspaceManager workspaceManager;
+
+    @BeforeEach
+    public void setUp() throws MortalReminderException {
+        // the default workspace is part of every fan out
+        TaskListStorage.clearListFile();
+        deleteTestFiles();
+        workspaceManager = new WorkspaceManager();
+    }
+
+    @AfterEach
+    public void tearDown() throws MortalReminderException {
+        System.clearProperty("mortalreminder.snapshots");
+        TaskListStorage.clearListFile();
+        deleteTestFiles();
+    }
+
+    @Test
+    public void getTaskList_firstAccess_loadedFromOwnShard() throws MortalReminderException {
+        String name = PREFIX + "lazy";
+        assertFalse(workspaceManager.isLoaded(name));
+        assertFalse(Files.exists(Path.of(TaskListStorage.getWorkspaceFilePath(name))));
+
+        workspaceManager.getTaskList(name).addTask(new ToDo("water the plants", false));
+        assertTrue(workspaceManager.isLoaded(name));
+        assertTrue(workspaceManager.getWorkspaceNames().contains(name));
+
+        WorkspaceManager otherManager = new WorkspaceManager();
+        assertEquals(1, otherManager.getTaskList(name).getSize());
+        assertEquals(0, otherManager.getTaskList(PREFIX + "other").getSize());
+    }
+
+    @Test
+    public void getTaskList_manyWorkspaces_leastRecentlyUsedInactiveOneEvicted() throws MortalReminderException {
+        String active = PREFIX + "active";
+        workspaceManager.switchWorkspace(active);
+        for (int i = 0; i < 6; i++) {
+            workspaceManager.getTaskList(PREFIX + i);
+        }
+
+        // the active workspace is the eldest entry, but it must stay loaded without letting the cache grow
+        assertTrue(workspaceManager.isLoaded(active));
+        assertFalse(workspaceManager.isLoaded(PREFIX + 0));
+        assertFalse(workspaceManager.isLoaded(PREFIX + 1));
+        assertFalse(workspaceManager.isLoaded(PREFIX + 2));
+        assertTrue(workspaceManager.isLoaded(PREFIX + 3));
+        assertTrue(workspaceManager.isLoaded(PREFIX + 4));
+        assertTrue(workspaceManager.isLoaded(PREFIX + 5));
+
+        workspaceManager.getTaskList(PREFIX + 3);
+        workspaceManager.getTaskList(PREFIX + 0);
+        assertTrue(workspaceManager.isLoaded(PREFIX + 3));
+        assertFalse(workspaceManager.isLoaded(PREFIX + 4));
+    }
+
+    @Test
+    public void queryAllWorkspaces_unloadedShards_resultsInWorkspaceOrderWithoutWrites() throws Exception {
+        System.setProperty("mortalreminder.snapshots", "true");
+        List<String> names = List.of(PREFIX + "a", PREFIX + "b", PREFIX + "c");
+        for (String name : names) {
+            TaskListStorage.appendToListFile(new ToDo("buy milk in " + name, false),
+                    TaskListStorage.getWorkspaceFilePath(name));
+            TaskListStorage.appendToListFile(new ToDo("call mum", false), TaskListStorage.getWorkspaceFilePath(name));
+        }
+        List<File> filesBefore = listTestFiles();
+
+        LinkedHashMap<String, ArrayList<Task>> results = workspaceManager.queryAllWorkspaces(taskList ->
+                taskList.stream().filter(task -> task.getRawDescription().contains("milk"))
+                        .collect(Collectors.toCollection(ArrayList::new)));
+
+        ArrayList<String> resultNames = new ArrayList<>(results.keySet());
+        resultNames.retainAll(names);
+        assertEquals(names, resultNames);
+        for (String name : names) {
+            assertEquals(1, results.get(name).size());
+            assertFalse(workspaceManager.isLoaded(name));
+        }
+        assertEquals(filesBefore, listTestFiles());
+    }
+
+    private static List<File> listTestFiles() {
+        File[] files = new File(TaskListStorage.WORKSPACE_DIRECTORY_PATH)
+                .listFiles((dir, name) -> name.startsWith(PREFIX));
+        return files == null ? List.of() : List.of(files).stream().sorted().toList();
+    }
+
+    private static void deleteTestFiles() {
+        for (File file : listTestFiles()) {
+            file.delete();
+        }
+    }
+}
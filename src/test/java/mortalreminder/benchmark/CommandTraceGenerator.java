@@ -0,0 +1,157 @@
+package mortalreminder.benchmark;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import mortalreminder.errorhandling.MortalReminderException;
+import mortalreminder.tasks.Deadline;
+import mortalreminder.tasks.Event;
+import mortalreminder.tasks.Task;
+import mortalreminder.tasks.ToDo;
+
+/**
+ * Synthesises traces of user commands with a configurable mix of adds, marks, deletes, finds and upcoming
+ * queries, as they would be typed into the app.
+ * <p>
+ * The generator keeps track of how many tasks the list would hold after each command, so marks and deletes
+ * refer to tasks that exist. Task descriptions are drawn from a small vocabulary so that finds hit a realistic
+ * share of the list, and dates are spread over the year ahead so that upcoming queries have work to do.
+ */
+public class CommandTraceGenerator {
+    private static final String[] WORDS = {
+        "read", "book", "pay", "rent", "gym", "standup", "meeting", "report", "submit", "project",
+        "review", "groceries", "call", "mum", "dentist", "laundry", "assignment", "lecture", "tutorial", "quiz",
+        "email", "prof", "budget", "taxes", "flight", "hotel", "passport", "birthday", "present", "party"
+    };
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd-MM-yyyy HHmm");
+
+    private final Map<String, Integer> weights;
+    private final int totalWeight;
+    private final Random random;
+    private final LocalDateTime now = LocalDateTime.now();
+    private int taskCount;
+
+    /**
+     * Creates a generator with the given command mix.
+     *
+     * @param mix  the weight of each kind of command, such as "add=40,mark=20,delete=10,find=20,upcoming=10".
+     * @param seed the seed of the random choices, so that the same trace can be generated again.
+     */
+    public CommandTraceGenerator(String mix, long seed) {
+        this.weights = parseMix(mix);
+        this.totalWeight = weights.values().stream().mapToInt(Integer::intValue).sum();
+        this.random = new Random(seed);
+        if (totalWeight <= 0) {
+            throw new IllegalArgumentException("The command mix needs at least one positive weight: " + mix);
+        }
+    }
+
+    /**
+     * Returns the commands that fill an empty list with the given number of tasks.
+     *
+     * @param count the number of tasks to add.
+     * @return the add commands.
+     */
+    public List<String> generateSetup(int count) {
+        ArrayList<String> commands = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            commands.add(nextAdd());
+        }
+        return commands;
+    }
+
+    /**
+     * Returns a trace of commands drawn from the command mix.
+     *
+     * @param count the number of commands in the trace.
+     * @return the commands in the order they are to be replayed.
+     */
+    public List<String> generate(int count) {
+        ArrayList<String> commands = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            commands.add(nextCommand());
+        }
+        return commands;
+    }
+
+    /**
+     * Creates the task that an add command of the generator adds, without going through the app.
+     *
+     * @param command an add command returned by {@link #generateSetup(int)}.
+     * @return the task the command adds.
+     * @throws MortalReminderException if the command is not a valid add command.
+     */
+    public static Task createTask(String command) throws MortalReminderException {
+        String[] commandAndDetails = command.split(" ", 2);
+        if (commandAndDetails[0].equals("todo")) {
+            return new ToDo(commandAndDetails[1]);
+        } else if (commandAndDetails[0].equals("deadline")) {
+            return new Deadline(commandAndDetails[1]);
+        }
+        return new Event(commandAndDetails[1]);
+    }
+
+    private String nextCommand() {
+        int choice = random.nextInt(totalWeight);
+        String kind = null;
+        for (Map.Entry<String, Integer> weight : weights.entrySet()) {
+            choice -= weight.getValue();
+            if (choice < 0) {
+                kind = weight.getKey();
+                break;
+            }
+        }
+
+        // marks and deletes on an empty list would only measure the error message
+        if (taskCount == 0 && ("mark".equals(kind) || "delete".equals(kind))) {
+            kind = "add";
+        }
+        switch (kind) {
+        case "add":
+            return nextAdd();
+        case "mark":
+            return (random.nextBoolean() ? "mark " : "unmark ") + (random.nextInt(taskCount) + 1);
+        case "delete":
+            return "delete " + (random.nextInt(taskCount--) + 1);
+        case "find":
+            return "find " + WORDS[random.nextInt(WORDS.length)];
+        case "upcoming":
+            return "upcoming_tasks";
+        default:
+            throw new IllegalStateException("Unknown command kind " + kind);
+        }
+    }
+
+    private String nextAdd() {
+        taskCount++;
+        String description = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)];
+        LocalDateTime date = now.plusMinutes(random.nextInt(365 * 24 * 60));
+        switch (random.nextInt(3)) {
+        case 0:
+            return "todo " + description;
+        case 1:
+            return "deadline " + description + " /by " + date.format(DATE_FORMATTER);
+        default:
+            return "event " + description + " /from " + date.format(DATE_FORMATTER)
+                    + " /to " + date.plusHours(2).format(DATE_FORMATTER);
+        }
+    }
+
+    private static Map<String, Integer> parseMix(String mix) {
+        LinkedHashMap<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] kindAndWeight = entry.trim().split("=");
+            if (kindAndWeight.length != 2 || !List.of("add", "mark", "delete", "find", "upcoming")
+                    .contains(kindAndWeight[0])) {
+                throw new IllegalArgumentException("Invalid command mix entry: " + entry);
+            }
+            weights.put(kindAndWeight[0], Integer.parseInt(kindAndWeight[1]));
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,62 @@
+package mortalreminder.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+import java.util.function.Function;
+
+import mortalreminder.tasks.DateParser;
+
+/**
+ * Compares the {@link DateParser} with {@link DateTimeFormatter} on a million dates, both for the dates typed by
+ * the user and for the ISO dates of the storage file, reporting the time and the memory allocated per date.
+ * Run with {@code gradlew benchmark -Pbenchmark=DateParserBenchmark}.
+ */
+public class DateParserBenchmark {
+    private static final int SIZE = 1_000_000;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        DateTimeFormatter inputFormatter = DateTimeFormatter.ofPattern("dd-MM-yyyy HHmm");
+        Random random = new Random(11);
+        LocalDateTime start = LocalDateTime.of(2020, 1, 1, 0, 0);
+        String[] inputDates = new String[SIZE];
+        String[] storageDates = new String[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            LocalDateTime dateTime = start.plusMinutes(random.nextInt(60 * 24 * 365 * 10));
+            inputDates[i] = dateTime.format(inputFormatter);
+            storageDates[i] = dateTime.toString();
+        }
+
+        measure("input, DateTimeFormatter", inputDates, text -> LocalDateTime.parse(text, inputFormatter));
+        measure("input, DateParser", inputDates, DateParser::parseInput);
+        measure("storage, LocalDateTime.parse", storageDates, LocalDateTime::parse);
+        measure("storage, DateParser", storageDates, DateParser::parseStorage);
+    }
+
+    private static void measure(String name, String[] dates, Function<String, LocalDateTime> parser) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        // the first round warms up the parser and is not counted
+        long checksum = 0;
+        long elapsed = 0;
+        long allocated = 0;
+        for (int round = 0; round <= ROUNDS; round++) {
+            long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+            long roundStart = System.nanoTime();
+            for (String date : dates) {
+                checksum += parser.apply(date).getMinute();
+            }
+            if (round > 0) {
+                elapsed += System.nanoTime() - roundStart;
+                allocated += threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+            }
+        }
+        System.out.printf("%-30s %7.1f ms per %,d dates, %5.0f ns and %4d bytes per date (checksum %d)%n", name,
+                elapsed / 1e6 / ROUNDS, dates.length, (double) elapsed / ROUNDS / dates.length,
+                allocated / ROUNDS / dates.length, checksum);
+    }
+}
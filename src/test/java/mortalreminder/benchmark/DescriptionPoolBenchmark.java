@@ -0,0 +1,83 @@
+package mortalreminder.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import mortalreminder.errorhandling.MortalReminderException;
+import mortalreminder.io.FormattedOutput;
+import mortalreminder.io.Parser;
+import mortalreminder.tasks.Deadline;
+import mortalreminder.tasks.DescriptionPool;
+import mortalreminder.tasks.Event;
+import mortalreminder.tasks.Task;
+import mortalreminder.tasks.ToDo;
+
+/**
+ * Reports how much heap a loaded list takes with and without the {@link DescriptionPool}.
+ * <p>
+ * The corpus is made of the tasks a {@link CommandTraceGenerator} adds, whose descriptions repeat like those
+ * of a real list. The tasks are written in the storage file format and loaded back through the
+ * {@link Parser}, and every task is printed once so that its line is cached. Each measurement runs in its own
+ * JVM, because the pool is switched on or off when the JVM starts.
+ * Run with {@code gradlew benchmark -Pbenchmark=DescriptionPoolBenchmark}.
+ */
+public class DescriptionPoolBenchmark {
+    private static final int SIZE = 200_000;
+    private static final String MEASURE_ARGUMENT = "measure";
+
+    public static void main(String[] args) throws IOException, InterruptedException, MortalReminderException {
+        if (args.length > 0 && args[0].equals(MEASURE_ARGUMENT)) {
+            measure();
+            return;
+        }
+        for (boolean isPoolEnabled : new boolean[] {false, true}) {
+            Process process = new ProcessBuilder(Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                    "-Xmx1g", "-Dmortalreminder.descriptionPool=" + isPoolEnabled,
+                    "-cp", System.getProperty("java.class.path"),
+                    DescriptionPoolBenchmark.class.getName(), MEASURE_ARGUMENT)
+                    .inheritIO()
+                    .start();
+            process.waitFor();
+        }
+    }
+
+    private static void measure() throws MortalReminderException {
+        List<String> lines = new ArrayList<>(SIZE);
+        for (String command : new CommandTraceGenerator("add=1", 7).generateSetup(SIZE)) {
+            lines.add(createTask(command).convertToFileFormat());
+        }
+
+        long before = getUsedHeap();
+        ArrayList<Task> tasks = new ArrayList<>(SIZE);
+        for (String line : lines) {
+            Task task = Parser.parseInputFromFile(line);
+            FormattedOutput.printTask(task);
+            tasks.add(task);
+        }
+        long used = getUsedHeap() - before;
+
+        System.out.printf("Pool %s: %,d tasks take %,d bytes (%,d bytes per task), %,d pooled strings%n",
+                Boolean.getBoolean("mortalreminder.descriptionPool") ? "on" : "off", tasks.size(), used,
+                used / tasks.size(), DescriptionPool.getSize());
+    }
+
+    private static Task createTask(String command) throws MortalReminderException {
+        String[] commandAndDetails = command.split(" ", 2);
+        if (commandAndDetails[0].equals("todo")) {
+            return new ToDo(commandAndDetails[1]);
+        } else if (commandAndDetails[0].equals("deadline")) {
+            return new Deadline(commandAndDetails[1]);
+        }
+        return new Event(commandAndDetails[1]);
+    }
+
+    private static long getUsedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
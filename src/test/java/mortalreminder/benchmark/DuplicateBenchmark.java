@@ -0,0 +1,57 @@
+package mortalreminder.benchmark;
+
+import java.util.List;
+
+import mortalreminder.backend.tasklistmanager.DuplicateIndex;
+import mortalreminder.errorhandling.MortalReminderException;
+import mortalreminder.tasks.Deadline;
+import mortalreminder.tasks.Event;
+import mortalreminder.tasks.Task;
+import mortalreminder.tasks.ToDo;
+
+/**
+ * Measures the cost of checking a new task for near-duplicates and adding it to the {@link DuplicateIndex}, for
+ * lists of growing size, to show that it stays the same however long the list is.
+ * <p>
+ * The tasks are the ones a {@link CommandTraceGenerator} adds, so many of them share words, and the new tasks
+ * are drawn from the same generator. Run with {@code gradlew benchmark -Pbenchmark=DuplicateBenchmark}.
+ */
+public class DuplicateBenchmark {
+    private static final int[] SIZES = {50_000, 500_000};
+    private static final int NEW_TASKS = 20_000;
+
+    public static void main(String[] args) throws MortalReminderException {
+        for (int size : SIZES) {
+            List<String> commands = new CommandTraceGenerator("add=1", 17).generateSetup(size + NEW_TASKS);
+            DuplicateIndex duplicateIndex = new DuplicateIndex();
+            long loadStart = System.nanoTime();
+            for (String command : commands.subList(0, size)) {
+                duplicateIndex.addTask(createTask(command));
+            }
+            long loadNanos = System.nanoTime() - loadStart;
+
+            int warnings = 0;
+            long start = System.nanoTime();
+            for (String command : commands.subList(size, size + NEW_TASKS)) {
+                Task task = createTask(command);
+                if (!duplicateIndex.findDuplicates(task.getRawDescription()).isEmpty()) {
+                    warnings++;
+                }
+                duplicateIndex.addTask(task);
+            }
+            long elapsed = System.nanoTime() - start;
+            System.out.printf("%,9d tasks: indexed in %,6.0f ms, %5.2f us per checked add, %,d of %,d warned%n",
+                    size, loadNanos / 1e6, elapsed / 1e3 / NEW_TASKS, warnings, NEW_TASKS);
+        }
+    }
+
+    private static Task createTask(String command) throws MortalReminderException {
+        String[] commandAndDetails = command.split(" ", 2);
+        if (commandAndDetails[0].equals("todo")) {
+            return new ToDo(commandAndDetails[1]);
+        } else if (commandAndDetails[0].equals("deadline")) {
+            return new Deadline(commandAndDetails[1]);
+        }
+        return new Event(commandAndDetails[1]);
+    }
+}
@@ -0,0 +1,75 @@
+package mortalreminder.benchmark;
+
+import java.util.Random;
+
+import mortalreminder.backend.tasklistmanager.FilterQuery;
+import mortalreminder.backend.tasklistmanager.TagIndex;
+import mortalreminder.backend.tasklistmanager.TaskList;
+import mortalreminder.errorhandling.MortalReminderException;
+import mortalreminder.tasks.Deadline;
+import mortalreminder.tasks.Task;
+import mortalreminder.tasks.ToDo;
+
+/**
+ * Measures how long boolean filter queries take on the bitmaps of the {@link TagIndex}, compared to checking
+ * the same conditions on every task of the list.
+ * Run with {@code gradlew benchmark -Pbenchmark=FilterBenchmark}.
+ */
+public class FilterBenchmark {
+    private static final String[] TAGS = {"#work", "#home", "#urgent", "#health", "#family", "#study", "#money"};
+    private static final String QUERY = "#work AND NOT done AND (#urgent OR type:D)";
+    private static final int ROUNDS = 200;
+
+    public static void main(String[] args) throws MortalReminderException {
+        int[] sizes = {100_000, 1_000_000};
+        for (int size : sizes) {
+            run(size);
+        }
+    }
+
+    private static void run(int size) throws MortalReminderException {
+        Random random = new Random(42);
+        TaskList taskList = new TaskList();
+        for (int i = 0; i < size; i++) {
+            String description = "task " + i + " " + TAGS[random.nextInt(TAGS.length)]
+                    + (random.nextInt(10) == 0 ? " #urgent" : "");
+            Task task = random.nextBoolean()
+                    ? new ToDo(description, random.nextInt(3) == 0)
+                    : new Deadline(description, "2024-09-19T18:00", random.nextInt(3) == 0);
+            taskList.loadTask(task);
+        }
+
+        // warm up both paths before measuring
+        int matches = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            matches = FilterQuery.evaluate(QUERY, taskList.getTagIndex()).getCardinality();
+            scan(taskList);
+        }
+
+        long scanNanos = 0;
+        long bitmapNanos = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            scan(taskList);
+            scanNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            FilterQuery.evaluate(QUERY, taskList.getTagIndex()).getCardinality();
+            bitmapNanos += System.nanoTime() - start;
+        }
+
+        System.out.printf("%,d tasks, %,d matches: scan %.1f us, bitmaps %.1f us per query%n",
+                size, matches, scanNanos / 1000.0 / ROUNDS, bitmapNanos / 1000.0 / ROUNDS);
+    }
+
+    private static int scan(TaskList taskList) {
+        int matches = 0;
+        for (Task task : taskList.getTaskList()) {
+            if (task.getTags().contains("work") && !task.getIsDone()
+                    && (task.getTags().contains("urgent") || task.getType().equals("D"))) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+}
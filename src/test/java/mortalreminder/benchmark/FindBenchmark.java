@@ -0,0 +1,64 @@
+package mortalreminder.benchmark;
+
+import java.util.Random;
+
+import mortalreminder.backend.tasklistmanager.DescriptionIndex;
+import mortalreminder.backend.tasklistmanager.TaskList;
+import mortalreminder.backend.tasklistmanager.TaskRetriever;
+import mortalreminder.errorhandling.MortalReminderException;
+import mortalreminder.tasks.ToDo;
+
+/**
+ * Compares the linear substring scan of {@code find} with the fuzzy search of the {@link DescriptionIndex}.
+ * Run with {@code gradlew benchmark -Pbenchmark=FindBenchmark}.
+ */
+public class FindBenchmark {
+    private static final String[] WORDS = {
+        "read", "book", "pay", "rent", "gym", "standup", "meeting", "report", "submit", "project",
+        "review", "groceries", "call", "mum", "dentist", "laundry", "assignment", "lecture", "tutorial", "quiz",
+        "email", "prof", "budget", "taxes", "flight", "hotel", "passport", "birthday", "present", "party"
+    };
+    private static final String[] QUERIES = {"reprot", "standpu", "dentsit", "assigment", "budgte"};
+    private static final int ROUNDS = 20;
+
+    public static void main(String[] args) throws MortalReminderException {
+        int[] sizes = {100_000, 1_000_000};
+        for (int size : sizes) {
+            run(size);
+        }
+    }
+
+    private static void run(int size) throws MortalReminderException {
+        Random random = new Random(42);
+        TaskList taskList = new TaskList();
+        for (int i = 0; i < size; i++) {
+            String description = WORDS[random.nextInt(WORDS.length)] + " "
+                    + WORDS[random.nextInt(WORDS.length)] + " " + (i % 1000);
+            taskList.loadTask(new ToDo(description));
+        }
+
+        // warm up both paths before measuring
+        for (String query : QUERIES) {
+            TaskRetriever.filterSimilarTasks(taskList, query);
+            taskList.getDescriptionIndex().search(query, DescriptionIndex.DEFAULT_MAX_RESULTS);
+        }
+
+        long linearNanos = 0;
+        long indexNanos = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            for (String query : QUERIES) {
+                long start = System.nanoTime();
+                TaskRetriever.filterSimilarTasks(taskList, query);
+                linearNanos += System.nanoTime() - start;
+
+                start = System.nanoTime();
+                taskList.getDescriptionIndex().search(query, DescriptionIndex.DEFAULT_MAX_RESULTS);
+                indexNanos += System.nanoTime() - start;
+            }
+        }
+
+        int queries = ROUNDS * QUERIES.length;
+        System.out.printf("%,d tasks: linear filterTask %.3f ms/query, trigram fuzzy search %.3f ms/query%n",
+                size, linearNanos / 1e6 / queries, indexNanos / 1e6 / queries);
+    }
+}
@@ -0,0 +1,55 @@
+package mortalreminder.benchmark;
+
+import java.lang.management.ManagementFactory;
+
+import mortalreminder.backend.tasklistmanager.TaskList;
+import mortalreminder.errorhandling.MortalReminderException;
+import mortalreminder.io.FormattedOutput;
+import mortalreminder.tasks.Deadline;
+import mortalreminder.tasks.Event;
+import mortalreminder.tasks.Task;
+import mortalreminder.tasks.ToDo;
+
+/**
+ * Measures how long printing the whole list takes and how much memory it allocates, once when every task has
+ * to be formatted and then repeatedly when the lines cached in the tasks are reused.
+ * Run with {@code gradlew benchmark -Pbenchmark=ListBenchmark}.
+ */
+public class ListBenchmark {
+    private static final int SIZE = 100_000;
+    private static final int ROUNDS = 50;
+
+    public static void main(String[] args) throws MortalReminderException {
+        TaskList taskList = new TaskList();
+        for (int i = 0; i < SIZE; i++) {
+            Task task;
+            if (i % 3 == 0) {
+                task = new ToDo("read chapter " + i, i % 4 == 0);
+            } else if (i % 3 == 1) {
+                task = new Deadline("submit report " + i, "2024-09-19T18:00", false);
+            } else {
+                task = new Event("meeting " + i, "2024-09-19T14:00", "2024-09-19T16:00", false);
+            }
+            taskList.loadTask(task);
+        }
+
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        long allocated = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        int outputLength = FormattedOutput.printList(taskList).length();
+        System.out.printf("%,d tasks, first list: %.1f ms, %,d bytes allocated%n", SIZE,
+                (System.nanoTime() - start) / 1e6, threads.getThreadAllocatedBytes(threadId) - allocated);
+
+        allocated = threads.getThreadAllocatedBytes(threadId);
+        start = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+            FormattedOutput.printList(taskList);
+        }
+        System.out.printf("%,d tasks, cached list: %.1f ms, %,d bytes allocated per list for %,d characters%n",
+                SIZE, (System.nanoTime() - start) / 1e6 / ROUNDS,
+                (threads.getThreadAllocatedBytes(threadId) - allocated) / ROUNDS, outputLength);
+    }
+}
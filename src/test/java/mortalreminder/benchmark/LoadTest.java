@@ -0,0 +1,159 @@
+package mortalreminder.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import mortalreminder.backend.Processor;
+import mortalreminder.backend.events.TaskEventBus;
+import mortalreminder.backend.tasklistmanager.WorkspaceManager;
+import mortalreminder.errorhandling.MortalReminderException;
+import mortalreminder.io.Parser;
+
+/**
+ * Replays a trace of user commands through the {@link Parser} and the {@link Processor}, like the app does for
+ * every line typed, and reports the latency percentiles and throughput of the commands.
+ * <p>
+ * The trace is either read from a file with one command per line or synthesised by a
+ * {@link CommandTraceGenerator}. Commands are replayed at full speed or at a fixed rate. At a fixed rate the
+ * latency of a command is measured from the time it was due to be sent, so a slow command also counts against
+ * the commands that had to wait behind it, as they would for a user.
+ * <p>
+ * The test exits with a non-zero status when a latency or throughput threshold is missed, which fails the task.
+ * It works on the storage files in the working directory, so it must be run in a scratch directory.
+ * Run with {@code gradlew loadTest}, which takes its options as project properties, for example
+ * {@code gradlew loadTest -PloadTest.commands=100000 -PloadTest.rate=2000}.
+ * <p>
+ * Options, given as system properties:
+ * <ul>
+ *     <li>{@code loadTest.trace}: file of commands to replay instead of a synthesised trace.</li>
+ *     <li>{@code loadTest.saveTrace}: file to save the synthesised trace to, so it can be replayed later.</li>
+ *     <li>{@code loadTest.setupTasks}: number of tasks added before the measured trace starts.</li>
+ *     <li>{@code loadTest.commands}: number of commands in the synthesised trace.</li>
+ *     <li>{@code loadTest.mix}: weights of the commands in the synthesised trace.</li>
+ *     <li>{@code loadTest.seed}: seed of the synthesised trace.</li>
+ *     <li>{@code loadTest.rate}: commands per second, or 0 to replay at full speed.</li>
+ *     <li>{@code loadTest.maxP50Millis}, {@code loadTest.maxP99Millis}, {@code loadTest.maxP999Millis}:
+ *         latency thresholds.</li>
+ *     <li>{@code loadTest.minThroughput}: throughput threshold in commands per second.</li>
+ * </ul>
+ */
+public class LoadTest {
+    private static final String DEFAULT_MIX = "add=40,mark=20,delete=10,find=20,upcoming=10";
+
+    private final Processor processor = new Processor();
+    private final WorkspaceManager workspaceManager = new WorkspaceManager();
+    private int rejectedCount;
+
+    public static void main(String[] args) throws IOException, MortalReminderException {
+        long seed = Long.getLong("loadTest.seed", 42);
+        CommandTraceGenerator generator =
+                new CommandTraceGenerator(System.getProperty("loadTest.mix", DEFAULT_MIX), seed);
+        List<String> setup = generator.generateSetup(Integer.getInteger("loadTest.setupTasks", 10_000));
+        List<String> trace = readOrGenerateTrace(generator);
+        int rate = Integer.getInteger("loadTest.rate", 0);
+
+        LoadTest loadTest = new LoadTest();
+        long setupStart = System.nanoTime();
+        loadTest.replay(setup, 0);
+        System.out.printf("Set up %,d tasks in %.1f s%n", setup.size(), (System.nanoTime() - setupStart) / 1e9);
+
+        loadTest.rejectedCount = 0;
+        long start = System.nanoTime();
+        long[] latencies = loadTest.replay(trace, rate);
+        long elapsedNanos = System.nanoTime() - start;
+        long flushStart = System.nanoTime();
+        TaskEventBus.getInstance().flush();
+        long flushNanos = System.nanoTime() - flushStart;
+
+        double throughput = trace.size() / (elapsedNanos / 1e9);
+        Arrays.sort(latencies);
+        double p50 = percentileMillis(latencies, 0.5);
+        double p99 = percentileMillis(latencies, 0.99);
+        double p999 = percentileMillis(latencies, 0.999);
+        System.out.printf("Replayed %,d commands (%,d rejected) %s in %.2f s: %.0f commands/s%n",
+                trace.size(), loadTest.rejectedCount, rate > 0 ? "at " + rate + " commands/s" : "at full speed",
+                elapsedNanos / 1e9, throughput);
+        System.out.printf("Latency p50 %.3f ms, p99 %.3f ms, p999 %.3f ms, max %.3f ms%n",
+                p50, p99, p999, latencies[latencies.length - 1] / 1e6);
+        System.out.printf("Storage caught up %.1f ms after the last command%n", flushNanos / 1e6);
+
+        ArrayList<String> failures = new ArrayList<>();
+        checkAtMost(failures, "p50", p50, "loadTest.maxP50Millis");
+        checkAtMost(failures, "p99", p99, "loadTest.maxP99Millis");
+        checkAtMost(failures, "p999", p999, "loadTest.maxP999Millis");
+        String minThroughput = System.getProperty("loadTest.minThroughput");
+        if (minThroughput != null && throughput < Double.parseDouble(minThroughput)) {
+            failures.add(String.format("throughput %.0f commands/s is below %s", throughput, minThroughput));
+        }
+
+        if (!failures.isEmpty()) {
+            System.out.println("Load test FAILED: " + String.join(", ", failures));
+            System.exit(1);
+        }
+        System.out.println("Load test passed");
+        System.exit(0);
+    }
+
+    private static List<String> readOrGenerateTrace(CommandTraceGenerator generator) throws IOException {
+        String traceFile = System.getProperty("loadTest.trace");
+        if (traceFile != null) {
+            return Files.readAllLines(Path.of(traceFile)).stream().filter(line -> !line.isBlank()).toList();
+        }
+        List<String> trace = generator.generate(Integer.getInteger("loadTest.commands", 20_000));
+        String saveTrace = System.getProperty("loadTest.saveTrace");
+        if (saveTrace != null) {
+            Files.write(Path.of(saveTrace), trace);
+        }
+        return trace;
+    }
+
+    /**
+     * Replays the commands and returns the latency of each in nanoseconds.
+     */
+    private long[] replay(List<String> commands, int rate) {
+        long[] latencies = new long[commands.size()];
+        long intervalNanos = rate > 0 ? TimeUnit.SECONDS.toNanos(1) / rate : 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < commands.size(); i++) {
+            long sendTime = System.nanoTime();
+            if (rate > 0) {
+                long dueTime = start + i * intervalNanos;
+                while (sendTime < dueTime) {
+                    LockSupport.parkNanos(dueTime - sendTime);
+                    sendTime = System.nanoTime();
+                }
+                sendTime = dueTime;
+            }
+            execute(commands.get(i));
+            latencies[i] = System.nanoTime() - sendTime;
+        }
+        return latencies;
+    }
+
+    private void execute(String line) {
+        try {
+            processor.handleCommand(Parser.parseInputFromUser(line), workspaceManager);
+        } catch (MortalReminderException e) {
+            // commands such as marking a task that is already done are answered with an error message
+            rejectedCount++;
+        }
+    }
+
+    private static double percentileMillis(long[] sortedLatencies, double percentile) {
+        int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.max(0, index)] / 1e6;
+    }
+
+    private static void checkAtMost(List<String> failures, String name, double valueMillis, String property) {
+        String limit = System.getProperty(property);
+        if (limit != null && valueMillis > Double.parseDouble(limit)) {
+            failures.add(String.format("%s latency %.3f ms is above %s ms", name, valueMillis, limit));
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package mortalreminder.benchmark;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import mortalreminder.backend.tasklistmanager.TaskList;
+import mortalreminder.errorhandling.MortalReminderException;
+import mortalreminder.tasks.Deadline;
+import mortalreminder.tasks.Task;
+import mortalreminder.tasks.ToDo;
+
+/**
+ * Compares a sequential scan with the parallel scan of {@link TaskList#stream()} on a find style query.
+ * Run with {@code gradlew benchmark -Pbenchmark=ScanBenchmark}.
+ */
+public class ScanBenchmark {
+    private static final int WARM_UP_ROUNDS = 3;
+    private static final int ROUNDS = 10;
+
+    public static void main(String[] args) throws MortalReminderException {
+        int[] sizes = {1_000_000, 4_000_000};
+        System.out.println("Available processors: " + Runtime.getRuntime().availableProcessors());
+        for (int size : sizes) {
+            run(size);
+        }
+    }
+
+    private static void run(int size) throws MortalReminderException {
+        Random random = new Random(7);
+        TaskList taskList = new TaskList();
+        for (int i = 0; i < size; i++) {
+            if (random.nextBoolean()) {
+                taskList.loadTask(new ToDo("todo number " + i, false));
+            } else {
+                int year = 2000 + random.nextInt(60);
+                taskList.loadTask(new Deadline("deadline number " + i, year + "-01-01T10:00", false));
+            }
+        }
+
+        Predicate<Task> query = task -> task.getDescription().contains("number 99");
+        long sequentialNanos = 0;
+        long parallelNanos = 0;
+        for (int round = 0; round < WARM_UP_ROUNDS + ROUNDS; round++) {
+            long sequentialTime = timeScan(taskList.getTaskList().stream(), query);
+            long parallelTime = timeScan(taskList.stream(), query);
+            if (round >= WARM_UP_ROUNDS) {
+                sequentialNanos += sequentialTime;
+                parallelNanos += parallelTime;
+            }
+        }
+
+        System.out.printf("%,d tasks: sequential %.1f ms, TaskList.stream() %.1f ms per scan (%.2fx)%n",
+                size, sequentialNanos / 1e6 / ROUNDS, parallelNanos / 1e6 / ROUNDS,
+                (double) sequentialNanos / parallelNanos);
+    }
+
+    private static long timeScan(Stream<Task> tasks, Predicate<Task> query) {
+        long start = System.nanoTime();
+        ArrayList<Task> results = tasks.filter(query).collect(Collectors.toCollection(ArrayList::new));
+        long time = System.nanoTime() - start;
+        assert !results.isEmpty();
+        return time;
+    }
+}
@@ -0,0 +1,80 @@
+package mortalreminder.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import mortalreminder.backend.TaskListStorage;
+import mortalreminder.backend.tasklistmanager.TaskList;
+import mortalreminder.errorhandling.MortalReminderException;
+import mortalreminder.tasks.Priority;
+import mortalreminder.tasks.Task;
+
+/**
+ * Compares loading a large storage file from its text with loading it from its compressed snapshot, and
+ * reports how much smaller the snapshot is than the text file.
+ * <p>
+ * The tasks are the ones a {@link CommandTraceGenerator} adds, a few of them marked or given a priority. Both
+ * files are read from the page cache after the first round, so the load times compare the work of parsing
+ * them; on a slow disk the snapshot also saves the time of reading the bytes it leaves out.
+ * Run with {@code gradlew benchmark -Pbenchmark=SnapshotBenchmark}.
+ */
+public class SnapshotBenchmark {
+    private static final int SIZE = 200_000;
+    private static final int ROUNDS = 5;
+    private static final String SNAPSHOTS_PROPERTY = "mortalreminder.snapshots";
+
+    public static void main(String[] args) throws IOException, MortalReminderException {
+        Path directory = Files.createTempDirectory("snapshot-benchmark");
+        String filePath = directory.resolve("tasks.txt").toString();
+        Random random = new Random(13);
+        TaskList taskList = new TaskList(filePath);
+        for (String command : new CommandTraceGenerator("add=1", 13).generateSetup(SIZE)) {
+            Task task = CommandTraceGenerator.createTask(command);
+            if (random.nextInt(4) == 0) {
+                task.markDone();
+            }
+            task.setPriority(Priority.values()[random.nextInt(Priority.values().length)]);
+            taskList.loadTask(task);
+        }
+        TaskListStorage.refreshStorageFile(taskList);
+
+        System.setProperty(SNAPSHOTS_PROPERTY, "true");
+        long writeStart = System.nanoTime();
+        TaskListStorage.loadTaskListFromFile(filePath);
+        long writeNanos = System.nanoTime() - writeStart;
+
+        long textSize = Files.size(Path.of(filePath));
+        long snapshotSize = Files.size(Path.of(filePath + ".snap"));
+        System.out.printf("%,d tasks: text file %,d bytes, snapshot %,d bytes (%.1fx smaller)%n", SIZE, textSize,
+                snapshotSize, (double) textSize / snapshotSize);
+        System.out.printf("%-22s %7.1f ms%n", "text load and snapshot", writeNanos / 1e6);
+
+        System.setProperty(SNAPSHOTS_PROPERTY, "false");
+        measure("text load", filePath);
+        System.setProperty(SNAPSHOTS_PROPERTY, "true");
+        measure("snapshot load", filePath);
+
+        try (var files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    private static void measure(String name, String filePath) throws MortalReminderException {
+        // the first round warms up the load and is not counted
+        long elapsed = 0;
+        int checksum = 0;
+        for (int round = 0; round <= ROUNDS; round++) {
+            long start = System.nanoTime();
+            checksum += TaskListStorage.loadTaskListFromFile(filePath).getSize();
+            if (round > 0) {
+                elapsed += System.nanoTime() - start;
+            }
+        }
+        System.out.printf("%-22s %7.1f ms (checksum %d)%n", name, elapsed / 1e6 / ROUNDS, checksum);
+    }
+}
@@ -0,0 +1,29 @@
+package mortalreminder.benchmark;
+
+import mortalreminder.backend.TaskListStorage;
+import mortalreminder.backend.tasklistmanager.TaskList;
+import mortalreminder.errorhandling.MortalReminderException;
+
+/**
+ * Writes the storage file that the startup runs of the {@code cdsArchive} and {@code startupBenchmark} Gradle
+ * tasks load, so that they measure a list of the same size on every machine instead of whatever list is in the
+ * project directory.
+ * <p>
+ * The tasks are the ones a {@link CommandTraceGenerator} adds with a fixed seed. The file is written to the
+ * default storage path relative to the working directory, so this must be run in a scratch directory.
+ * The number of tasks is read from the {@code startupFixture.tasks} system property.
+ */
+public class StartupFixture {
+    private static final long SEED = 7;
+
+    public static void main(String[] args) throws MortalReminderException {
+        TaskList taskList = new TaskList(TaskListStorage.STORAGE_LIST_FILE_PATH);
+        int size = Integer.getInteger("startupFixture.tasks", 1000);
+        for (String command : new CommandTraceGenerator("add=1", SEED).generateSetup(size)) {
+            taskList.loadTask(CommandTraceGenerator.createTask(command));
+        }
+        TaskListStorage.refreshStorageFile(taskList);
+        System.out.printf("Wrote %,d tasks to %s%n", size, TaskListStorage.STORAGE_LIST_FILE_PATH);
+        System.exit(0);
+    }
+}
@@ -0,0 +1,82 @@
+package mortalreminder.commands;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class CommandTrieTest {
+    private CommandTrie commandTrie;
+
+    @BeforeEach
+    public void setUp() {
+        commandTrie = new CommandTrie();
+        commandTrie.insert("deadline", CommandType.DEADLINE, true);
+        commandTrie.insert("delete", CommandType.DELETE, true);
+        commandTrie.insert("todo", CommandType.TODO, true);
+        commandTrie.insert("t", CommandType.TODO, false);
+    }
+
+    @Test
+    public void resolvePrefix_uniquePrefix_success() {
+        assertEquals(CommandType.DEADLINE, commandTrie.resolvePrefix("dea"));
+        assertEquals(CommandType.DELETE, commandTrie.resolvePrefix("del"));
+        assertEquals(CommandType.DEADLINE, commandTrie.resolvePrefix("deadline"));
+    }
+
+    @Test
+    public void resolvePrefix_prefixOfAliasAndCommandForSameType_success() {
+        assertEquals(CommandType.TODO, commandTrie.resolvePrefix("t"));
+        assertEquals(CommandType.TODO, commandTrie.resolvePrefix("to"));
+    }
+
+    @Test
+    public void resolvePrefix_ambiguousPrefix_nullReturned() {
+        assertNull(commandTrie.resolvePrefix("d"));
+        assertNull(commandTrie.resolvePrefix("de"));
+    }
+
+    @Test
+    public void resolvePrefix_unknownPrefix_nullReturned() {
+        assertNull(commandTrie.resolvePrefix("x"));
+        assertNull(commandTrie.resolvePrefix("dex"));
+        assertNull(commandTrie.resolvePrefix("deadlines"));
+    }
+
+    @Test
+    public void resolvePrefix_commandThatCannotBeUndone_notResolved() {
+        commandTrie.insert("priority", CommandType.PRIORITY, true);
+        commandTrie.insert("promote", CommandType.PROMOTE, true);
+        commandTrie.insert("clear_tasks", CommandType.CLEAR_TASKS, true);
+        commandTrie.insert("wipe", CommandType.CLEAR_TASKS, false);
+        assertNull(commandTrie.resolvePrefix("pro"));
+        assertNull(commandTrie.resolvePrefix("promot"));
+        assertNull(commandTrie.resolvePrefix("clear"));
+        assertNull(commandTrie.resolvePrefix("wip"));
+        assertEquals(CommandType.PRIORITY, commandTrie.resolvePrefix("pr"));
+        assertEquals(List.of("promote"), commandTrie.getSuggestions("pro"));
+    }
+
+    @Test
+    public void getSuggestions_builtInCommandsRankedFirst() {
+        commandTrie.insert("tdl", CommandType.TODO, false);
+        List<String> suggestions = commandTrie.getSuggestions("t");
+        assertEquals(List.of("todo", "t", "tdl"), suggestions);
+    }
+
+    @Test
+    public void getSuggestions_limitedToMaximum() {
+        for (int i = 0; i < 20; i++) {
+            commandTrie.insert("dalias" + i, CommandType.DELETE, false);
+        }
+        List<String> suggestions = commandTrie.getSuggestions("d");
+        assertEquals(CommandTrie.MAX_SUGGESTIONS, suggestions.size());
+        assertEquals("delete", suggestions.get(0));
+        assertEquals("deadline", suggestions.get(1));
+        assertTrue(commandTrie.getSuggestions("z").isEmpty());
+    }
+}
@@ -0,0 +1,79 @@
+package mortalreminder.tasks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class DateParserTest {
+    private static final LocalDateTime EXPECTED = LocalDateTime.of(2024, 9, 5, 18, 0);
+
+    @Test
+    public void parseInput_acceptedLayouts_sameDate() {
+        for (String text : new String[] {"05-09-2024 1800", "5/9/2024 1800", "05.09.2024 18:00", "2024-09-05 1800",
+            "5-9-2024   18:00", "2024-09-05T18:00"}) {
+            assertEquals(EXPECTED, DateParser.parseInput(text));
+        }
+    }
+
+    @Test
+    public void parseInput_randomDates_sameAsFormatter() {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd-MM-yyyy HHmm");
+        Random random = new Random(5);
+        LocalDateTime start = LocalDateTime.of(1990, 1, 1, 0, 0);
+        for (int i = 0; i < 10_000; i++) {
+            LocalDateTime dateTime = start.plusMinutes(random.nextInt(60 * 24 * 365 * 60));
+            assertEquals(dateTime, DateParser.parseInput(dateTime.format(formatter)));
+            assertEquals(dateTime, DateParser.parseStorage(dateTime.toString()));
+        }
+    }
+
+    @Test
+    public void parseInput_invalidDate_errorPositionGiven() {
+        assertEquals((int) 6, (int) getErrorIndex("19-09-24 1800"));
+        assertEquals((int) 11, (int) getErrorIndex("19-09-2024 18"));
+        assertEquals((int) 0, (int) getErrorIndex("31-02-2024 1800"));
+        assertEquals((int) 3, (int) getErrorIndex("19-13-2024 1800"));
+        assertEquals((int) 11, (int) getErrorIndex("19-09-2024 2400"));
+        assertEquals((int) 5, (int) getErrorIndex("19-09/2024 1800"));
+        assertEquals((int) 15, (int) getErrorIndex("19-09-2024 1800pm"));
+    }
+
+    @Test
+    public void parseStorage_secondsAndFractions_parsed() {
+        assertEquals(LocalDateTime.of(2024, 9, 5, 18, 0, 30, 500_000_000),
+                DateParser.parseStorage("2024-09-05T18:00:30.5"));
+        assertEquals(LocalDateTime.of(2024, 9, 5, 18, 0, 30, 123_456_789),
+                DateParser.parseStorage("2024-09-05T18:00:30.123456789"));
+        assertThrows(DateTimeParseException.class, () -> DateParser.parseStorage("2024-09-05 18:00"));
+    }
+
+    @Test
+    public void parseInputTime_bothLayouts_sameTime() {
+        assertEquals(LocalTime.of(7, 30), DateParser.parseInputTime("0730"));
+        assertEquals(LocalTime.of(7, 30), DateParser.parseInputTime("7:30"));
+        assertEquals(LocalTime.of(23, 59), DateParser.parseInputTime("23:59"));
+        assertEquals((int) 0, (int) assertThrows(DateTimeParseException.class, () ->
+                DateParser.parseInputTime("2400")).getErrorIndex());
+        assertEquals((int) 4, (int) assertThrows(DateTimeParseException.class, () ->
+                DateParser.parseInputTime("0730pm")).getErrorIndex());
+    }
+
+    @Test
+    public void parseStorageTime_isoTimes_sameAsLocalTime() {
+        for (String text : new String[] {"00:00", "07:30", "23:59", "07:30:15"}) {
+            assertEquals(LocalTime.parse(text), DateParser.parseStorageTime(text));
+        }
+        assertThrows(DateTimeParseException.class, () -> DateParser.parseStorageTime("24:00"));
+    }
+
+    private static int getErrorIndex(String text) {
+        return assertThrows(DateTimeParseException.class, () -> DateParser.parseInput(text)).getErrorIndex();
+    }
+}
@@ -0,0 +1,28 @@
+package mortalreminder.tasks;
+
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+
+import mortalreminder.errorhandling.MortalReminderException;
+import mortalreminder.io.Parser;
+
+public class DescriptionPoolTest {
+    @Test
+    public void intern_equalStrings_sameInstance() {
+        String first = new String("pay rent");
+        String second = new String("pay rent");
+        assertNotSame(first, second);
+        assertSame(DescriptionPool.intern(first), DescriptionPool.intern(second));
+    }
+
+    @Test
+    public void parseInputFromFile_repeatedDescription_shared() throws MortalReminderException {
+        Task todo = Parser.parseInputFromFile("T|false|standup");
+        Task deadline = Parser.parseInputFromFile("D|false|standup|2024-09-19T18:00");
+        Task typed = new Event("standup /from 19-09-2024 1000 /to 19-09-2024 1100");
+        assertSame(todo.getRawDescription(), deadline.getRawDescription());
+        assertSame(todo.getRawDescription(), typed.getRawDescription());
+    }
+}
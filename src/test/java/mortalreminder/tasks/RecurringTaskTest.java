@@ -0,0 +1,77 @@
+package mortalreminder.tasks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+
+import org.junit.jupiter.api.Test;
+
+import mortalreminder.errorhandling.MortalReminderException;
+
+public class RecurringTaskTest {
+    // 14-10-2024 is a Monday
+    private static final String START_TIME = "2024-10-14T12:00";
+
+    @Test
+    public void getNextOccurrence_weekly_success() throws MortalReminderException {
+        RecurringTask standup = new RecurringTask("standup", "MONDAY", "09:00", START_TIME, false);
+        assertEquals(LocalDateTime.parse("2024-10-21T09:00"), standup.getNextOccurrence(
+                LocalDateTime.parse("2024-10-14T12:00")));
+        assertEquals(LocalDateTime.parse("2024-10-21T09:00"), standup.getNextOccurrence(
+                LocalDateTime.parse("2024-10-21T09:00")));
+        assertEquals(LocalDateTime.parse("2024-10-28T09:00"), standup.getNextOccurrence(
+                LocalDateTime.parse("2024-10-21T09:01")));
+    }
+
+    @Test
+    public void getNextOccurrence_beforeStartTime_startsAfterCreation() throws MortalReminderException {
+        RecurringTask gym = new RecurringTask("gym", "-", "18:00", START_TIME, false);
+        assertEquals(LocalDateTime.parse("2024-10-14T18:00"), gym.getNextOccurrence(
+                LocalDateTime.parse("2020-01-01T00:00")));
+    }
+
+    @Test
+    public void getOccurrences_daily_generatedWithinRange() throws MortalReminderException {
+        RecurringTask gym = new RecurringTask("gym", "-", "18:00", START_TIME, false);
+        Iterator<LocalDateTime> occurrences = gym.getOccurrences(LocalDateTime.parse("2024-10-20T00:00"),
+                LocalDateTime.parse("2024-10-23T00:00"));
+        assertEquals(LocalDateTime.parse("2024-10-20T18:00"), occurrences.next());
+        assertEquals(LocalDateTime.parse("2024-10-21T18:00"), occurrences.next());
+        assertEquals(LocalDateTime.parse("2024-10-22T18:00"), occurrences.next());
+        assertFalse(occurrences.hasNext());
+    }
+
+    @Test
+    public void convertToFileFormat_storesRuleOnly() throws MortalReminderException {
+        RecurringTask standup = new RecurringTask("standup", "MONDAY", "09:00", START_TIME, false);
+        assertEquals("R|false|standup|MONDAY|09:00|2024-10-14T12:00", standup.convertToFileFormat());
+    }
+
+    @Test
+    public void constructor_invalidRule_exceptionThrown() {
+        try {
+            new RecurringTask("standup /every someday 0900");
+            fail();
+        } catch (MortalReminderException e) {
+            assertEquals(MortalReminderException.getInvalidRecurringDescriptionErrorMessage(), e.getMessage());
+        }
+    }
+
+    @Test
+    public void constructor_timeInEitherLayout_sameRule() throws MortalReminderException {
+        RecurringTask standup = new RecurringTask("standup /every mon 0930");
+        RecurringTask otherStandup = new RecurringTask("standup /every monday 9:30");
+        assertEquals("R|false|standup|MONDAY|09:30", standup.convertToFileFormat().substring(0, 28));
+        assertEquals(standup.convertToFileFormat(), otherStandup.convertToFileFormat());
+        try {
+            new RecurringTask("standup /every monday 2500");
+            fail();
+        } catch (MortalReminderException e) {
+            assertTrue(e.getMessage().startsWith(MortalReminderException.getInvalidDateFormatErrorMessage()));
+        }
+    }
+}